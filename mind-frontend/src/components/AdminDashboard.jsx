@@ -1,7 +1,7 @@
 "use client"
 
 import { useState, useEffect } from "react"
-import axios from "axios"
+import { fetchPage, pageCount } from "../pagination"
 
 const AdminDashboard = () => {
   const [stats, setStats] = useState({
@@ -22,23 +22,23 @@ const AdminDashboard = () => {
       const token = localStorage.getItem("token")
       const headers = { Authorization: `Bearer ${token}` }
 
-      // Fetch all data
-      const [usersRes, therapistsRes, sessionsRes, journalsRes] = await Promise.all([
-        axios.get("http://localhost:8080/api/users", { headers }),
-        axios.get("http://localhost:8080/api/therapists", { headers }),
-        axios.get("http://localhost:8080/api/sessions", { headers }),
-        axios.get("http://localhost:8080/api/journals", { headers }),
+      // Fetch the first page of each list
+      const [users, therapists, sessions, journals] = await Promise.all([
+        fetchPage("http://localhost:8080/api/users", { headers }),
+        fetchPage("http://localhost:8080/api/therapists", { headers }),
+        fetchPage("http://localhost:8080/api/sessions", { headers }),
+        fetchPage("http://localhost:8080/api/journals", { headers }),
       ])
 
       setStats({
-        totalUsers: usersRes.data.length,
-        totalTherapists: therapistsRes.data.length,
-        totalSessions: sessionsRes.data.length,
-        totalJournals: journalsRes.data.length,
+        totalUsers: pageCount(users),
+        totalTherapists: pageCount(therapists),
+        totalSessions: pageCount(sessions),
+        totalJournals: pageCount(journals),
       })
 
-      setRecentUsers(usersRes.data.slice(-5).reverse())
-      setRecentSessions(sessionsRes.data.slice(-5).reverse())
+      setRecentUsers(users.items.slice(-5).reverse())
+      setRecentSessions(sessions.items.slice(-5).reverse())
     } catch (error) {
       console.error("Error fetching dashboard data:", error)
     }
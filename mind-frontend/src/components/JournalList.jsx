@@ -3,11 +3,15 @@
 import { useState, useEffect } from "react"
 import { Link } from "react-router-dom"
 import axios from "axios"
+import { fetchPage } from "../pagination"
+import LoadMoreButton from "./LoadMoreButton"
 
 const JournalList = ({ user }) => {
   const [journals, setJournals] = useState([])
   const [loading, setLoading] = useState(true)
   const [filter, setFilter] = useState("all")
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
 
   useEffect(() => {
     if (user && user.id) {
@@ -24,10 +28,11 @@ const JournalList = ({ user }) => {
         console.error("No token found")
         return
       }
-      const response = await axios.get(`http://localhost:8080/api/journals/user/${user.id}`, {
+      const page = await fetchPage(`http://localhost:8080/api/journals/user/${user.id}`, {
         headers: { Authorization: `Bearer ${token}` },
       })
-      setJournals(response.data)
+      setJournals(page.items)
+      setNextCursor(page.nextCursor)
     } catch (error) {
       console.error("Error fetching journals:", error)
     } finally {
@@ -35,6 +40,24 @@ const JournalList = ({ user }) => {
     }
   }
 
+  const loadMoreJournals = async () => {
+    setLoadingMore(true)
+    try {
+      const token = localStorage.getItem("token")
+      const page = await fetchPage(
+        `http://localhost:8080/api/journals/user/${user.id}`,
+        { headers: { Authorization: `Bearer ${token}` } },
+        nextCursor,
+      )
+      setJournals((previous) => [...previous, ...page.items])
+      setNextCursor(page.nextCursor)
+    } catch (error) {
+      console.error("Error fetching journals:", error)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const deleteJournal = async (id) => {
     if (window.confirm("Are you sure you want to delete this journal entry?")) {
       try {
@@ -134,7 +157,8 @@ const JournalList = ({ user }) => {
               <div className="p-5">
                 <h3 className="text-xl font-semibold text-gray-800 mb-3">{journal.title}</h3>
                 <p className="text-gray-600 leading-relaxed mb-4">
-                  {journal.content.substring(0, 150)}...
+                  {(journal.preview || "").substring(0, 150)}
+                  {journal.contentLength > 150 && "..."}
                 </p>
                 {journal.tags && (
                   <div className="flex flex-wrap gap-2">
@@ -177,6 +201,8 @@ const JournalList = ({ user }) => {
           </div>
         )}
       </div>
+
+      {nextCursor && <LoadMoreButton onClick={loadMoreJournals} loading={loadingMore} />}
     </div>
   )
 }
@@ -0,0 +1,14 @@
+const LoadMoreButton = ({ onClick, loading }) => (
+  <div className="flex justify-center mt-8">
+    <button
+      type="button"
+      onClick={onClick}
+      disabled={loading}
+      className="px-6 py-3 border-2 border-indigo-600 text-indigo-600 rounded-lg hover:bg-indigo-50 transition-colors duration-200 font-medium disabled:opacity-50"
+    >
+      {loading ? "Loading..." : "Load more"}
+    </button>
+  </div>
+)
+
+export default LoadMoreButton
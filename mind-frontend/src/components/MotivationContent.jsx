@@ -1,7 +1,8 @@
 "use client"
 
 import { useState, useEffect } from "react"
-import axios from "axios"
+import { fetchPage } from "../pagination"
+import LoadMoreButton from "./LoadMoreButton"
 
 const MotivationContent = () => {
   const [motivations, setMotivations] = useState([])
@@ -9,6 +10,8 @@ const MotivationContent = () => {
   const [loading, setLoading] = useState(true)
   const [filter, setFilter] = useState("all")
   const [searchTerm, setSearchTerm] = useState("")
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
 
   useEffect(() => {
     fetchMotivations()
@@ -20,8 +23,9 @@ const MotivationContent = () => {
 
   const fetchMotivations = async () => {
     try {
-      const response = await axios.get("http://localhost:8080/api/motivations/active")
-      setMotivations(response.data)
+      const page = await fetchPage("http://localhost:8080/api/motivations/active")
+      setMotivations(page.items)
+      setNextCursor(page.nextCursor)
     } catch (error) {
       console.error("Error fetching motivations:", error)
     } finally {
@@ -29,6 +33,19 @@ const MotivationContent = () => {
     }
   }
 
+  const loadMoreMotivations = async () => {
+    setLoadingMore(true)
+    try {
+      const page = await fetchPage("http://localhost:8080/api/motivations/active", {}, nextCursor)
+      setMotivations((previous) => [...previous, ...page.items])
+      setNextCursor(page.nextCursor)
+    } catch (error) {
+      console.error("Error fetching motivations:", error)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const filterMotivations = () => {
     let filtered = motivations
 
@@ -196,6 +213,8 @@ const MotivationContent = () => {
         )}
       </div>
 
+      {nextCursor && <LoadMoreButton onClick={loadMoreMotivations} loading={loadingMore} />}
+
       <div className="mt-10">
         <div className="bg-gradient-to-br from-indigo-500 to-purple-600 text-white rounded-xl p-10 text-center">
           <h2 className="text-2xl font-semibold mb-5">💪 Daily Motivation</h2>
@@ -3,9 +3,13 @@
 import { useState, useEffect } from "react"
 import { useNavigate } from "react-router-dom"
 import axios from "axios"
+import { fetchPage } from "../pagination"
+import LoadMoreButton from "./LoadMoreButton"
 
 const SessionBooking = ({ user }) => {
   const [therapists, setTherapists] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [selectedTherapist, setSelectedTherapist] = useState(null)
   const [formData, setFormData] = useState({
     sessionDate: "",
@@ -24,13 +28,27 @@ const SessionBooking = ({ user }) => {
 
   const fetchTherapists = async () => {
     try {
-      const response = await axios.get("http://localhost:8080/api/therapists/available")
-      setTherapists(response.data)
+      const page = await fetchPage("http://localhost:8080/api/therapists/available")
+      setTherapists(page.items)
+      setNextCursor(page.nextCursor)
     } catch (error) {
       console.error("Error fetching therapists:", error)
     }
   }
 
+  const loadMoreTherapists = async () => {
+    setLoadingMore(true)
+    try {
+      const page = await fetchPage("http://localhost:8080/api/therapists/available", {}, nextCursor)
+      setTherapists((previous) => [...previous, ...page.items])
+      setNextCursor(page.nextCursor)
+    } catch (error) {
+      console.error("Error fetching therapists:", error)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleChange = (e) => {
     setFormData({
       ...formData,
@@ -122,6 +140,7 @@ const SessionBooking = ({ user }) => {
               </div>
             ))}
           </div>
+          {nextCursor && <LoadMoreButton onClick={loadMoreTherapists} loading={loadingMore} />}
         </div>
 
         {selectedTherapist && (
@@ -3,12 +3,16 @@
 import { useState, useEffect } from "react";
 import { Link } from "react-router-dom";
 import axios from "axios";
+import { fetchPage } from "../pagination";
+import LoadMoreButton from "./LoadMoreButton";
 
 const SessionList = ({ user, userType }) => {
   const [sessions, setSessions] = useState([]);
   const [loading, setLoading] = useState(true);
   const [filter, setFilter] = useState("all");
   const [error, setError] = useState("");
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     if (user && user.id) {
@@ -27,24 +31,22 @@ const SessionList = ({ user, userType }) => {
         return;
       }
 
-      const endpoint =
-        userType === "therapist"
-          ? `http://localhost:8080/api/sessions/therapist/${user.id}`
-          : `http://localhost:8080/api/sessions/user/${user.id}`;
+      const endpoint = sessionsEndpoint();
 
       console.log("Fetching sessions from:", endpoint);
       console.log("User ID:", user.id);
       console.log("User Type:", userType);
 
       // Since session endpoints are now public, we don't need to send Authorization header
-      const response = await axios.get(endpoint, {
+      const page = await fetchPage(endpoint, {
         headers: {
           "Content-Type": "application/json",
         },
       });
 
-      console.log("Sessions response:", response.data);
-      setSessions(response.data);
+      console.log("Sessions response:", page.items);
+      setSessions(page.items);
+      setNextCursor(page.nextCursor);
       setError("");
     } catch (error) {
       console.error("Error fetching sessions:", error);
@@ -54,6 +56,29 @@ const SessionList = ({ user, userType }) => {
     }
   };
 
+  const sessionsEndpoint = () =>
+    userType === "therapist"
+      ? `http://localhost:8080/api/sessions/therapist/${user.id}`
+      : `http://localhost:8080/api/sessions/user/${user.id}`;
+
+  const loadMoreSessions = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await fetchPage(
+        sessionsEndpoint(),
+        { headers: { "Content-Type": "application/json" } },
+        nextCursor
+      );
+      setSessions((previous) => [...previous, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Error fetching sessions:", error);
+      setError(error.response?.data || "Failed to fetch sessions");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const updateSessionStatus = async (sessionId, status) => {
     try {
       await axios.put(
@@ -274,6 +299,8 @@ const SessionList = ({ user, userType }) => {
           </div>
         )}
       </div>
+
+      {nextCursor && <LoadMoreButton onClick={loadMoreSessions} loading={loadingMore} />}
     </div>
   );
 };
@@ -2,6 +2,7 @@
 
 import { useState, useEffect } from "react"
 import axios from "axios"
+import { fetchPage } from "../pagination"
 
 const TherapistDashboard = ({ user }) => {
   const [stats, setStats] = useState({
@@ -22,25 +23,26 @@ const TherapistDashboard = ({ user }) => {
       const token = localStorage.getItem("token")
       const headers = { Authorization: `Bearer ${token}` }
 
-      const response = await axios.get(`http://localhost:8080/api/sessions/therapist/${user.id}`, { headers })
-
-      const sessions = response.data
+      // Counts come from the stats row; the lists only need the sessions nearest to now
+      const [dashboard, upcoming, history] = await Promise.all([
+        axios.get(`http://localhost:8080/api/therapists/${user.id}/dashboard`, { headers }),
+        fetchPage(`http://localhost:8080/api/sessions/therapist/${user.id}/upcoming`, { headers }),
+        fetchPage(`http://localhost:8080/api/sessions/therapist/${user.id}/history`, { headers }),
+      ])
       const today = new Date().toDateString()
 
-      const todaySessionsList = sessions.filter((s) => new Date(s.sessionDate).toDateString() === today)
-
-      const upcoming = sessions.filter((s) => s.status === "SCHEDULED" && new Date(s.sessionDate) > new Date())
-
-      const completed = sessions.filter((s) => s.status === "COMPLETED")
+      const todaySessionsList = [...history.items.slice().reverse(), ...upcoming.items].filter(
+        (s) => new Date(s.sessionDate).toDateString() === today,
+      )
 
       setTodaySessions(todaySessionsList)
-      setUpcomingSessions(upcoming.slice(0, 5))
+      setUpcomingSessions(upcoming.items.slice(0, 5))
 
       setStats({
-        totalSessions: sessions.length,
+        totalSessions: dashboard.data.totalSessions,
         todaySessions: todaySessionsList.length,
-        upcomingSessions: upcoming.length,
-        completedSessions: completed.length,
+        upcomingSessions: dashboard.data.upcomingSessions,
+        completedSessions: dashboard.data.completedSessions,
       })
     } catch (error) {
       console.error("Error fetching dashboard data:", error)
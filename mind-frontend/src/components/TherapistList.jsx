@@ -2,12 +2,15 @@
 
 import { useState, useEffect } from "react"
 import { Link } from "react-router-dom"
-import axios from "axios"
+import { fetchPage } from "../pagination"
+import LoadMoreButton from "./LoadMoreButton"
 
 const TherapistList = () => {
   const [therapists, setTherapists] = useState([])
   const [filteredTherapists, setFilteredTherapists] = useState([])
   const [loading, setLoading] = useState(true)
+  const [nextCursor, setNextCursor] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [searchTerm, setSearchTerm] = useState("")
   const [specializationFilter, setSpecializationFilter] = useState("all")
 
@@ -21,8 +24,9 @@ const TherapistList = () => {
 
   const fetchTherapists = async () => {
     try {
-      const response = await axios.get("http://localhost:8080/api/therapists/available")
-      setTherapists(response.data)
+      const page = await fetchPage("http://localhost:8080/api/therapists/available")
+      setTherapists(page.items)
+      setNextCursor(page.nextCursor)
     } catch (error) {
       console.error("Error fetching therapists:", error)
     } finally {
@@ -30,6 +34,19 @@ const TherapistList = () => {
     }
   }
 
+  const loadMoreTherapists = async () => {
+    setLoadingMore(true)
+    try {
+      const page = await fetchPage("http://localhost:8080/api/therapists/available", {}, nextCursor)
+      setTherapists((previous) => [...previous, ...page.items])
+      setNextCursor(page.nextCursor)
+    } catch (error) {
+      console.error("Error fetching therapists:", error)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const filterTherapists = () => {
     let filtered = therapists
 
@@ -175,6 +192,8 @@ const TherapistList = () => {
         )}
       </div>
 
+      {nextCursor && <LoadMoreButton onClick={loadMoreTherapists} loading={loadingMore} />}
+
       <div className="mt-10">
         <div className="bg-white rounded-xl p-8 shadow-sm">
           <h2 className="text-2xl font-semibold text-gray-800 mb-4">Need Help Choosing?</h2>
@@ -3,6 +3,7 @@
 import { useState, useEffect } from "react"
 import { Link } from "react-router-dom"
 import axios from "axios"
+import { fetchPage, pageCount } from "../pagination"
 
 const UserDashboard = ({ user }) => {
   const [stats, setStats] = useState({
@@ -24,29 +25,25 @@ const UserDashboard = ({ user }) => {
       const headers = { Authorization: `Bearer ${token}` }
 
       // Fetch journals
-      const journalsResponse = await axios.get(`http://localhost:8080/api/journals/user/${user.id}`, { headers })
-      setRecentJournals(journalsResponse.data.slice(0, 3))
-      setStats((prev) => ({ ...prev, totalJournals: journalsResponse.data.length }))
+      const journals = await fetchPage(`http://localhost:8080/api/journals/user/${user.id}`, { headers })
+      setRecentJournals(journals.items.slice(0, 3))
+      setStats((prev) => ({ ...prev, totalJournals: pageCount(journals) }))
 
-      // Fetch sessions
-      const sessionsResponse = await axios.get(`http://localhost:8080/api/sessions/user/${user.id}`, { headers })
-      const sessions = sessionsResponse.data
-      const upcoming = sessions.filter((s) => s.status === "SCHEDULED")
-      const completed = sessions.filter((s) => s.status === "COMPLETED")
+      // Fetch sessions: the first page of upcoming ones and of past ones
+      const upcoming = await fetchPage(`http://localhost:8080/api/sessions/user/${user.id}/upcoming`, { headers })
+      const history = await fetchPage(`http://localhost:8080/api/sessions/user/${user.id}/history`, { headers })
+      const completed = history.items.filter((s) => s.status === "COMPLETED")
 
-      setUpcomingSessions(upcoming.slice(0, 3))
+      setUpcomingSessions(upcoming.items.slice(0, 3))
       setStats((prev) => ({
         ...prev,
-        upcomingSessions: upcoming.length,
-        completedSessions: completed.length,
+        upcomingSessions: pageCount(upcoming),
+        completedSessions: pageCount({ items: completed, nextCursor: history.nextCursor }),
       }))
 
       // Fetch motivation
-      const motivationResponse = await axios.get("http://localhost:8080/api/motivations/active")
-      if (motivationResponse.data.length > 0) {
-        const randomIndex = Math.floor(Math.random() * motivationResponse.data.length)
-        setMotivation(motivationResponse.data[randomIndex])
-      }
+      const motivation = await axios.get("http://localhost:8080/api/motivations/random")
+      setMotivation(motivation.data)
     } catch (error) {
       console.error("Error fetching dashboard data:", error)
     }
@@ -122,7 +119,7 @@ const UserDashboard = ({ user }) => {
                   </div>
                   <div className="flex-1">
                     <h4 className="text-base font-semibold text-gray-800 mb-1">{journal.title}</h4>
-                    <p className="text-sm text-gray-600 mb-2">{journal.content.substring(0, 100)}...</p>
+                    <p className="text-sm text-gray-600 mb-2">{(journal.preview || "").substring(0, 100)}{journal.contentLength > 100 && "..."}</p>
                     <span className="text-xs text-gray-400">{new Date(journal.createdAt).toLocaleDateString()}</span>
                   </div>
                 </div>
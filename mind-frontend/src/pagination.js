@@ -0,0 +1,17 @@
+import axios from "axios"
+
+export const PAGE_SIZE = 20
+
+// List endpoints return { items, nextCursor, hasNext }. Lists show the first page and fetch
+// the next one only when asked to; nextCursor is null on the last page.
+export const fetchPage = async (url, config = {}, cursor = null, size = PAGE_SIZE) => {
+  const response = await axios.get(url, {
+    ...config,
+    params: { ...config.params, size, ...(cursor ? { cursor } : {}) },
+  })
+  const { items, hasNext, nextCursor } = response.data
+  return { items, nextCursor: hasNext ? nextCursor : null }
+}
+
+// Count shown for a list of which only the first page was read, e.g. "20+"
+export const pageCount = ({ items, nextCursor }) => `${items.length}${nextCursor ? "+" : ""}`
@@ -0,0 +1,306 @@
+package mind_backend.example.mind_connect.analysis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import mind_backend.example.mind_connect.entity.JournalAlert;
+import mind_backend.example.mind_connect.repository.JournalAnalysisView;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scores saved journals with the {@link JournalAnalyzer} on {@code journals.analysis.threads}
+ * worker threads, off the request path. Saves hand over journal ids through a queue of
+ * {@code journals.analysis.queue-capacity}; when it is full the id is not queued and the
+ * save returns anyway. Those journals, and any whose analysis failed, still have a null
+ * analyzed_at and are picked up by the sweep that runs at startup and every
+ * {@code journals.analysis.sweep-interval-ms}. The sweep blocks on the full queue, so it
+ * never runs further ahead of the workers than the queue allows.
+ *
+ * <p>Workers take up to {@code journals.analysis.batch-size} ids at a time, read the
+ * journals with one query, analyze them and store the results with one JDBC batch. A
+ * result is only stored if the journal has not been edited since it was read; the edit
+ * queues it again. Journals with risk terms or a sentiment at or below
+ * {@code journals.analysis.alert-threshold} get a {@link JournalAlert}; the sweep runs on
+ * every node, so the alert is inserted with {@code on conflict do nothing} and the journal
+ * keeps the first one committed.
+ */
+@Component
+public class JournalAnalysisPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalAnalysisPipeline.class);
+
+    private static final String UPDATE = "update journals set sentiment = ?, keywords = ?, analyzed_at = ? " +
+        "where id = ? and updated_at is not distinct from ?";
+
+    // Every node analyzes; whichever commits an alert for a journal first keeps it
+    private static final String INSERT_ALERT = "insert into journal_alerts (id, journal_id, user_id, sentiment, " +
+        "terms, created_at) values (?, ?, ?, ?, ?, ?) on conflict do nothing";
+
+    // Must match the allocationSize of journal_alerts_seq
+    private static final int ALERT_ID_BLOCK = 50;
+
+    private static final int KEYWORDS_LENGTH = 255;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${journals.analysis.threads:2}")
+    private int threads;
+
+    @Value("${journals.analysis.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${journals.analysis.batch-size:100}")
+    private int batchSize;
+
+    @Value("${journals.analysis.keywords:5}")
+    private int maxKeywords;
+
+    @Value("${journals.analysis.alert-threshold:-0.6}")
+    private float alertThreshold;
+
+    @Value("${journals.analysis.sweep-interval-ms:60000}")
+    private long sweepIntervalMs;
+
+    private final JournalAnalyzer analyzer = JournalAnalyzer.fromClasspath();
+
+    private BlockingQueue<Long> queue;
+    // Ids in the queue, so a journal saved twice in quick succession is analyzed once
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+    private ScheduledExecutorService sweeper;
+    private TransactionTemplate transactionTemplate;
+
+    // Guarded by this
+    private long nextAlertId;
+    private long lastAlertId = -1;
+
+    private Timer analysisTimer;
+    private Counter deferred;
+    private Counter raised;
+
+    @PostConstruct
+    void init() {
+        if (threads <= 0 || queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalStateException(
+                "journals.analysis.threads, queue-capacity and batch-size must be positive");
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        analysisTimer = Timer.builder("journals.analysis")
+            .description("Time spent analyzing one journal")
+            .register(meterRegistry);
+        deferred = Counter.builder("journals.analysis.deferred")
+            .description("Journals left to the sweep because the analysis queue was full")
+            .register(meterRegistry);
+        raised = Counter.builder("journals.analysis.alerts")
+            .description("Alerts raised for journals")
+            .register(meterRegistry);
+        Gauge.builder("journals.analysis.queue.depth", queue, BlockingQueue::size)
+            .description("Journals waiting for analysis")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 1; i <= threads; i++) {
+            Thread worker = new Thread(this::work, "journal-analysis-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-analysis-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("Journal analysis sweep failed: {}", e.getMessage());
+            }
+        }, 0, Math.max(1, sweepIntervalMs), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    /** Queues a saved journal for analysis without waiting for room in the queue. */
+    public void submit(Long journalId) {
+        if (queued.add(journalId) && !queue.offer(journalId)) {
+            queued.remove(journalId);
+            deferred.increment();
+        }
+    }
+
+    public void submit(Collection<Long> journalIds) {
+        journalIds.forEach(this::submit);
+    }
+
+    /** Queues every journal still waiting for analysis and returns how many were found. */
+    public int sweep() throws InterruptedException {
+        int found = 0;
+        long after = 0;
+        List<Long> ids;
+        do {
+            ids = journalRepository.findUnanalyzedIds(after, Limit.of(batchSize));
+            for (Long id : ids) {
+                if (queued.add(id)) {
+                    queue.put(id);
+                }
+                after = id;
+            }
+            found += ids.size();
+        } while (ids.size() == batchSize && running);
+        if (found > 0) {
+            logger.info("Queued {} journals waiting for analysis", found);
+        }
+        return found;
+    }
+
+    private void work() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.clear();
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                // Out of the set before the read, so an edit from now on queues the journal again
+                batch.forEach(queued::remove);
+                analyze(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Still unanalyzed; the next sweep retries them
+                logger.warn("Analysis of {} journals failed: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void analyze(List<Long> ids) {
+        List<JournalAnalysisView> journals = journalRepository.findAnalysisInputs(ids);
+        if (journals.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(journals.size());
+        List<JournalAlert> alerts = new ArrayList<>();
+        for (JournalAnalysisView journal : journals) {
+            long started = System.nanoTime();
+            JournalAnalyzer.Analysis analysis = analyzer.analyze(journal.getTitle(), journal.getContent(), maxKeywords);
+            analysisTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            rows.add(new Object[] {analysis.sentiment(), keywords(analysis.keywords()), now, journal.getId(),
+                journal.getUpdatedAt()});
+            if (!analysis.riskTerms().isEmpty() || analysis.sentiment() <= alertThreshold) {
+                alerts.add(new JournalAlert(journal.getId(), journal.getUserId(), analysis.sentiment(),
+                    keywords(analysis.riskTerms()), now));
+            }
+        }
+
+        int alerted = transactionTemplate.execute(status -> {
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE, rows);
+            Set<Long> stored = new HashSet<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] != 0) {
+                    stored.add((Long) rows.get(i)[3]);
+                }
+            }
+            List<Object[]> alertRows = new ArrayList<>();
+            for (JournalAlert alert : alerts) {
+                if (stored.contains(alert.getJournalId())) {
+                    alertRows.add(new Object[] {nextAlertId(), alert.getJournalId(), alert.getUserId(),
+                        alert.getSentiment(), alert.getTerms(), alert.getCreatedAt()});
+                }
+            }
+            if (alertRows.isEmpty()) {
+                return 0;
+            }
+            int inserted = 0;
+            for (int count : jdbcTemplate.batchUpdate(INSERT_ALERT, alertRows)) {
+                if (count > 0) {
+                    inserted++;
+                }
+            }
+            return inserted;
+        });
+        if (alerted > 0) {
+            raised.increment(alerted);
+            logger.info("Raised {} journal alerts", alerted);
+        }
+    }
+
+    private synchronized long nextAlertId() {
+        if (nextAlertId > lastAlertId) {
+            // The pooled optimizer's reading of a sequence value n: ids n - 49 to n are ours
+            lastAlertId = jdbcTemplate.queryForObject("select nextval('journal_alerts_seq')", Long.class);
+            nextAlertId = Math.max(1, lastAlertId - ALERT_ID_BLOCK + 1);
+        }
+        return nextAlertId++;
+    }
+
+    // Comma-separated, dropping whole words from the end to fit the column
+    private static String keywords(List<String> words) {
+        StringBuilder joined = new StringBuilder();
+        for (String word : words) {
+            if (joined.length() + word.length() + 1 > KEYWORDS_LENGTH) {
+                break;
+            }
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(word);
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package mind_backend.example.mind_connect.analysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lexicon-based sentiment and keyword model for journal text; everything it needs is read
+ * from the classpath once, and {@link #analyze} is thread-safe.
+ *
+ * <p>Sentiment sums the valence of every lexicon word, flipping and damping a word that
+ * follows a negation within three words and strengthening one that follows an intensifier,
+ * then squashes the sum into [-1, 1] as {@code sum / sqrt(sum^2 + 15)}. Keywords are the
+ * most frequent words that are not stopwords. Risk terms are matched as whole-word
+ * phrases, negated or not: a false alarm costs a therapist a minute, a missed one much more.
+ */
+public class JournalAnalyzer {
+
+    private static final double ALPHA = 15;
+    private static final double NEGATION = -0.74;
+    private static final double BOOST = 0.293;
+    private static final int NEGATION_SCOPE = 3;
+    private static final int MIN_KEYWORD_LENGTH = 3;
+
+    private static final Set<String> NEGATIONS = Set.of("not", "no", "never", "nothing", "nobody", "none", "neither",
+        "nor", "cannot", "can't", "don't", "didn't", "doesn't", "isn't", "wasn't", "aren't", "weren't", "won't",
+        "wouldn't", "shouldn't", "couldn't", "hardly", "without");
+
+    private static final Set<String> INTENSIFIERS = Set.of("very", "really", "so", "extremely", "incredibly",
+        "totally", "completely", "deeply", "utterly", "too", "absolutely", "super");
+
+    public record Analysis(float sentiment, List<String> keywords, List<String> riskTerms) {}
+
+    private final Map<String, Integer> valences;
+    private final Set<String> stopwords;
+    // Risk phrases by their first word
+    private final Map<String, List<String[]>> riskTerms;
+
+    public JournalAnalyzer(Map<String, Integer> valences, Set<String> stopwords, List<String> riskTerms) {
+        this.valences = Map.copyOf(valences);
+        this.stopwords = Set.copyOf(stopwords);
+        this.riskTerms = new HashMap<>();
+        for (String term : riskTerms) {
+            String[] words = tokenize(term).toArray(String[]::new);
+            if (words.length > 0) {
+                this.riskTerms.computeIfAbsent(words[0], word -> new ArrayList<>()).add(words);
+            }
+        }
+    }
+
+    /** The analyzer over the lexicon, stopwords and risk terms shipped under /analysis. */
+    public static JournalAnalyzer fromClasspath() {
+        Map<String, Integer> valences = new HashMap<>();
+        for (String line : lines("analysis/sentiment-lexicon.txt")) {
+            int tab = line.indexOf('\t');
+            valences.put(line.substring(0, tab), Integer.parseInt(line.substring(tab + 1).trim()));
+        }
+        return new JournalAnalyzer(valences, new HashSet<>(lines("analysis/stopwords.txt")),
+            lines("analysis/risk-terms.txt"));
+    }
+
+    public Analysis analyze(String title, String content, int maxKeywords) {
+        List<String> words = tokenize(title);
+        words.addAll(tokenize(content));
+
+        double sum = 0;
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Set<String> risks = new LinkedHashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            Integer valence = valences.get(word);
+            if (valence != null) {
+                double score = valence;
+                if (i > 0 && INTENSIFIERS.contains(words.get(i - 1))) {
+                    score += Math.signum(score) * BOOST;
+                }
+                for (int back = 1; back <= NEGATION_SCOPE && i - back >= 0; back++) {
+                    if (NEGATIONS.contains(words.get(i - back))) {
+                        score *= NEGATION;
+                        break;
+                    }
+                }
+                sum += score;
+            }
+            if (word.length() >= MIN_KEYWORD_LENGTH && !stopwords.contains(word) && !Character.isDigit(word.charAt(0))) {
+                counts.merge(word, 1, Integer::sum);
+            }
+            List<String[]> candidates = riskTerms.get(word);
+            if (candidates != null) {
+                for (String[] term : candidates) {
+                    if (matches(words, i, term)) {
+                        risks.add(String.join(" ", term));
+                    }
+                }
+            }
+        }
+
+        // Ties keep the order of first use
+        List<String> keywords = counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(maxKeywords)
+            .map(Map.Entry::getKey)
+            .toList();
+        return new Analysis((float) (sum / Math.sqrt(sum * sum + ALPHA)), keywords, List.copyOf(risks));
+    }
+
+    private static boolean matches(List<String> words, int start, String[] term) {
+        if (start + term.length > words.size()) {
+            return false;
+        }
+        for (int i = 1; i < term.length; i++) {
+            if (!words.get(start + i).equals(term[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lower-case runs of letters and apostrophes; typographic apostrophes count as plain ones
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean part = Character.isLetterOrDigit(c) || (c == '\'' || c == '\u2019') && start >= 0;
+            if (part && start < 0) {
+                start = i;
+            } else if (!part && start >= 0) {
+                String word = text.substring(start, i).replace('\u2019', '\'').toLowerCase();
+                // Drop a trailing apostrophe, as in "friends'"
+                words.add(word.endsWith("'") ? word.substring(0, word.length() - 1) : word);
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static List<String> lines(String resource) {
+        InputStream in = JournalAnalyzer.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Missing analysis resource " + resource);
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    lines.add(line.strip());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+}
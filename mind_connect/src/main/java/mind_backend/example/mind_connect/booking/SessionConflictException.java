@@ -0,0 +1,12 @@
+package mind_backend.example.mind_connect.booking;
+
+/**
+ * Thrown when a scheduled session would overlap another scheduled session of the same
+ * therapist.
+ */
+public class SessionConflictException extends RuntimeException {
+
+    public SessionConflictException(String message) {
+        super(message);
+    }
+}
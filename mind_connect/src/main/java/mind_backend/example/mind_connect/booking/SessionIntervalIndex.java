@@ -0,0 +1,438 @@
+package mind_backend.example.mind_connect.booking;
+
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.repository.SessionChangeView;
+import mind_backend.example.mind_connect.repository.SessionIntervalView;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-therapist index of scheduled sessions as non-overlapping [start, end) intervals
+ * keyed by start time, so an overlap check is one floor and one higher-key lookup.
+ * Each therapist's schedule has its own monitor; bookings for different therapists
+ * never contend.
+ *
+ * <p>A booking first reserves its interval here, then saves the session, then confirms
+ * the reservation with the new id (or cancels it if the save fails). The index is only a
+ * fast path: the database exclusion constraint described in {@link SessionOverlapGuard}
+ * is what makes bookings from other nodes safe. A schedule is loaded from the database
+ * on first use and reloaded when it is invalidated after the database rejected a booking.
+ * A conflict with a saved session is checked against that session's row once per load,
+ * and only a row that was moved or cancelled on another node reloads the schedule.
+ *
+ * <p>Sessions written on this node update the index as they are saved. A background
+ * thread applies the sessions written anywhere since its last pass every
+ * {@code refreshMs}, and reloads every schedule every {@code resyncMs} to drop sessions
+ * deleted on other nodes; searches never wait for either.
+ *
+ * <p>Alongside the intervals each schedule keeps a per-day occupancy bitmap with one bit
+ * per {@code slotMinutes} slot, rebuilt for the affected days on every change, which the
+ * free-slot search scans instead of the sessions table.
+ */
+@Component
+public class SessionIntervalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionIntervalIndex.class);
+
+    private static final int DEFAULT_DURATION = 60;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Value("${booking.slot-minutes:30}")
+    private int slotMinutes;
+
+    @Value("${booking.index.refresh-ms:60000}")
+    private long refreshMs;
+
+    @Value("${booking.index.resync-ms:1800000}")
+    private long resyncMs;
+
+    private final Map<Long, Schedule> schedules = new ConcurrentHashMap<>();
+    private final Map<Long, Long> therapistBySession = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+    // Only touched by the refresh thread once it is started
+    private LocalDateTime changesSince;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void checkSlotSize() {
+        int minutesPerDay = 24 * 60;
+        if (slotMinutes <= 0 || minutesPerDay % slotMinutes != 0 || minutesPerDay / slotMinutes > Long.SIZE) {
+            throw new IllegalStateException("booking.slot-minutes must divide a day into at most 64 slots");
+        }
+        if (refreshMs <= 0 || resyncMs <= 0) {
+            throw new IllegalStateException("booking.index.refresh-ms and booking.index.resync-ms must be positive");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        loadAll();
+        logger.info("Session interval index loaded for {} therapists", schedules.size());
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::applyChanges, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        refresher.scheduleWithFixedDelay(this::resync, resyncMs, resyncMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public int slotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Occupied slots of the therapist on the given day, bit {@code i} covering the
+     * {@code i}-th {@code slotMinutes} slot after midnight.
+     */
+    public long occupancy(Long therapistId, LocalDate day) {
+        Schedule schedule = schedules.get(therapistId);
+        return schedule != null ? schedule.occupancy.getOrDefault(day, 0L) : 0L;
+    }
+
+    /**
+     * Reserves [start, start + duration) for the therapist. {@code sessionId} is the
+     * session being rescheduled, whose current interval is ignored, or null for a new one.
+     *
+     * @throws SessionConflictException if the interval overlaps another scheduled session
+     */
+    public Reservation reserve(Long therapistId, Long sessionId, LocalDateTime start, Integer duration) {
+        LocalDateTime end = start.plusMinutes(duration != null ? duration : DEFAULT_DURATION);
+        Schedule schedule = loadedSchedule(therapistId);
+        synchronized (schedule) {
+            Interval previous = sessionId != null ? schedule.remove(sessionId) : null;
+            Interval conflict = schedule.findConflict(start, end);
+            if (conflict != null && conflict.sessionId != null && schedule.checked.add(conflict.sessionId)
+                    && !matchesRow(conflict)) {
+                // The conflicting session was moved or cancelled on another node
+                load(therapistId, schedule);
+                previous = sessionId != null ? schedule.remove(sessionId) : null;
+                conflict = schedule.findConflict(start, end);
+            }
+            if (conflict != null) {
+                if (previous != null) {
+                    schedule.add(previous);
+                }
+                throw new SessionConflictException("Therapist already has a session between "
+                    + conflict.start + " and " + conflict.end);
+            }
+            Interval pending = new Interval(start, end, null);
+            schedule.add(pending);
+            return new Reservation(therapistId, pending, previous);
+        }
+    }
+
+    public void confirm(Reservation reservation, Long sessionId) {
+        Schedule schedule = schedules.get(reservation.therapistId);
+        synchronized (schedule) {
+            schedule.discard(reservation.interval);
+            schedule.remove(sessionId);
+            schedule.add(new Interval(reservation.interval.start, reservation.interval.end, sessionId));
+            schedule.writtenAt = writes.incrementAndGet();
+            therapistBySession.put(sessionId, reservation.therapistId);
+        }
+    }
+
+    public void cancel(Reservation reservation) {
+        Schedule schedule = schedules.get(reservation.therapistId);
+        synchronized (schedule) {
+            schedule.discard(reservation.interval);
+            if (reservation.previous != null && schedule.findConflict(reservation.previous.start,
+                    reservation.previous.end) == null) {
+                schedule.add(reservation.previous);
+            }
+        }
+    }
+
+    /**
+     * Drops a session from the index once it is no longer scheduled or was deleted.
+     */
+    public void release(Long sessionId) {
+        Long therapistId = therapistBySession.remove(sessionId);
+        if (therapistId == null) {
+            return;
+        }
+        Schedule schedule = schedules.get(therapistId);
+        synchronized (schedule) {
+            schedule.remove(sessionId);
+            schedule.writtenAt = writes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Forces the therapist's schedule to be reloaded on next use.
+     */
+    public void invalidate(Long therapistId) {
+        Schedule schedule = schedules.get(therapistId);
+        if (schedule != null) {
+            synchronized (schedule) {
+                schedule.loaded = false;
+            }
+        }
+    }
+
+    private Schedule loadedSchedule(Long therapistId) {
+        Schedule schedule = schedules.computeIfAbsent(therapistId, id -> new Schedule(slotMinutes));
+        if (!schedule.loaded) {
+            synchronized (schedule) {
+                if (!schedule.loaded) {
+                    load(therapistId, schedule);
+                }
+            }
+        }
+        return schedule;
+    }
+
+    /**
+     * Applies the sessions written on any node since the last pass. Runs on the refresh thread.
+     */
+    public void applyChanges() {
+        try {
+            long seenWrites = writes.get();
+            LocalDateTime queriedAt = LocalDateTime.now();
+            boolean complete = true;
+            for (SessionChangeView change : sessionRepository.findChangedSince(changesSince)) {
+                complete &= apply(change, seenWrites);
+            }
+            // Overlap the next pass by refreshMs so writes stamped by a node whose clock lags are not missed
+            if (complete) {
+                changesSince = queriedAt.minus(refreshMs, ChronoUnit.MILLIS);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not apply session changes to the interval index", e);
+        }
+    }
+
+    private void resync() {
+        try {
+            loadAll();
+        } catch (RuntimeException e) {
+            logger.warn("Could not reload the session interval index", e);
+        }
+    }
+
+    // False if a schedule was written since the query started; its rows are read again on the next pass
+    private boolean apply(SessionChangeView change, long seenWrites) {
+        Long sessionId = change.getId();
+        Long indexedUnder = therapistBySession.get(sessionId);
+        if (indexedUnder != null && !indexedUnder.equals(change.getTherapistId())) {
+            Schedule previous = schedules.get(indexedUnder);
+            synchronized (previous) {
+                if (previous.writtenAt > seenWrites) {
+                    return false;
+                }
+                previous.remove(sessionId);
+                therapistBySession.remove(sessionId, indexedUnder);
+            }
+        }
+        // A schedule created here is loaded in full the first time it is booked
+        Schedule schedule = schedules.computeIfAbsent(change.getTherapistId(), id -> new Schedule(slotMinutes));
+        synchronized (schedule) {
+            if (schedule.writtenAt > seenWrites) {
+                return false;
+            }
+            schedule.remove(sessionId);
+            schedule.checked.remove(sessionId);
+            if (change.getStatus() == SessionStatus.SCHEDULED) {
+                int duration = change.getDuration() != null ? change.getDuration() : DEFAULT_DURATION;
+                schedule.add(new Interval(change.getSessionDate(), change.getSessionDate().plusMinutes(duration),
+                    sessionId));
+                therapistBySession.put(sessionId, change.getTherapistId());
+            } else {
+                therapistBySession.remove(sessionId);
+            }
+        }
+        return true;
+    }
+
+    private void loadAll() {
+        long seenWrites = writes.get();
+        LocalDateTime queriedAt = LocalDateTime.now();
+        Map<Long, List<SessionIntervalView>> byTherapist = sessionRepository.findAllScheduledIntervals().stream()
+            .collect(Collectors.groupingBy(SessionIntervalView::getTherapistId));
+        byTherapist.keySet().forEach(therapistId ->
+            schedules.computeIfAbsent(therapistId, id -> new Schedule(slotMinutes)));
+        schedules.forEach((therapistId, schedule) -> {
+            synchronized (schedule) {
+                // Skip schedules written since the query started; the rows may predate the write
+                if (schedule.writtenAt <= seenWrites) {
+                    populate(therapistId, schedule, byTherapist.getOrDefault(therapistId, List.of()));
+                }
+            }
+        });
+        changesSince = queriedAt.minus(refreshMs, ChronoUnit.MILLIS);
+    }
+
+    private boolean matchesRow(Interval interval) {
+        return sessionRepository.findScheduledInterval(interval.sessionId)
+            .map(view -> view.getSessionDate().equals(interval.start) && view.getSessionDate()
+                .plusMinutes(view.getDuration() != null ? view.getDuration() : DEFAULT_DURATION).equals(interval.end))
+            .orElse(false);
+    }
+
+    // Caller holds the schedule's monitor
+    private void load(Long therapistId, Schedule schedule) {
+        populate(therapistId, schedule, sessionRepository.findScheduledIntervals(therapistId));
+    }
+
+    // Caller holds the schedule's monitor; pending reservations survive the reload
+    private void populate(Long therapistId, Schedule schedule, List<SessionIntervalView> views) {
+        Map<LocalDateTime, Interval> pending = new HashMap<>();
+        schedule.byStart.values().stream()
+            .filter(interval -> interval.sessionId == null)
+            .forEach(interval -> pending.put(interval.start, interval));
+        schedule.bySession.values().forEach(interval -> therapistBySession.remove(interval.sessionId));
+        schedule.clear();
+        schedule.checked.clear();
+
+        for (SessionIntervalView view : views) {
+            int duration = view.getDuration() != null ? view.getDuration() : DEFAULT_DURATION;
+            schedule.add(new Interval(view.getSessionDate(), view.getSessionDate().plusMinutes(duration), view.getId()));
+            therapistBySession.put(view.getId(), therapistId);
+        }
+        pending.values().forEach(schedule::add);
+        schedule.loaded = true;
+    }
+
+    /**
+     * A held interval. Must be passed to exactly one of {@link #confirm} or {@link #cancel}.
+     */
+    public static final class Reservation {
+        private final Long therapistId;
+        private final Interval interval;
+        private final Interval previous;
+
+        private Reservation(Long therapistId, Interval interval, Interval previous) {
+            this.therapistId = therapistId;
+            this.interval = interval;
+            this.previous = previous;
+        }
+    }
+
+    // A null sessionId marks a reservation whose session is not saved yet
+    private record Interval(LocalDateTime start, LocalDateTime end, Long sessionId) {}
+
+    private static final class Schedule {
+        private final int slotMinutes;
+        private final TreeMap<LocalDateTime, Interval> byStart = new TreeMap<>();
+        private final Map<Long, Interval> bySession = new HashMap<>();
+        // Sessions whose row was compared after a conflict since the last load
+        private final Set<Long> checked = new HashSet<>();
+        // Read without the monitor by free-slot searches
+        private final Map<LocalDate, Long> occupancy = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+        private long writtenAt;
+
+        Schedule(int slotMinutes) {
+            this.slotMinutes = slotMinutes;
+        }
+
+        Interval findConflict(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Interval> before = byStart.floorEntry(start);
+            if (before != null && before.getValue().end.isAfter(start)) {
+                return before.getValue();
+            }
+            Map.Entry<LocalDateTime, Interval> after = byStart.higherEntry(start);
+            if (after != null && after.getKey().isBefore(end)) {
+                return after.getValue();
+            }
+            return null;
+        }
+
+        void add(Interval interval) {
+            Interval existing = byStart.get(interval.start);
+            // Rows that already overlap in the database keep the longest interval per start
+            if (existing == null || existing.end.isBefore(interval.end)) {
+                byStart.put(interval.start, interval);
+                refresh(interval);
+            }
+            if (interval.sessionId != null) {
+                bySession.put(interval.sessionId, interval);
+            }
+        }
+
+        void discard(Interval interval) {
+            if (byStart.remove(interval.start, interval)) {
+                refresh(interval);
+            }
+        }
+
+        Interval remove(Long sessionId) {
+            Interval interval = bySession.remove(sessionId);
+            if (interval != null) {
+                discard(interval);
+            }
+            return interval;
+        }
+
+        void clear() {
+            byStart.clear();
+            bySession.clear();
+            occupancy.clear();
+        }
+
+        // Rebuilds the bitmap of every day the interval touches from the intervals on that day
+        private void refresh(Interval interval) {
+            LocalDate last = interval.end.minusNanos(1).toLocalDate();
+            for (LocalDate day = interval.start.toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+                LocalDateTime dayStart = day.atStartOfDay();
+                LocalDateTime nextDay = dayStart.plusDays(1);
+                long bits = 0;
+                Map.Entry<LocalDateTime, Interval> before = byStart.lowerEntry(dayStart);
+                if (before != null && before.getValue().end.isAfter(dayStart)) {
+                    bits |= mask(before.getValue(), dayStart, nextDay);
+                }
+                for (Interval onDay : byStart.subMap(dayStart, nextDay).values()) {
+                    bits |= mask(onDay, dayStart, nextDay);
+                }
+                if (bits == 0) {
+                    occupancy.remove(day);
+                } else {
+                    occupancy.put(day, bits);
+                }
+            }
+        }
+
+        private long mask(Interval interval, LocalDateTime dayStart, LocalDateTime nextDay) {
+            LocalDateTime from = interval.start.isAfter(dayStart) ? interval.start : dayStart;
+            LocalDateTime to = interval.end.isBefore(nextDay) ? interval.end : nextDay;
+            int first = (int) (Duration.between(dayStart, from).toMinutes() / slotMinutes);
+            int last = (int) ((Duration.between(dayStart, to).toMinutes() + slotMinutes - 1) / slotMinutes);
+            long upTo = last >= Long.SIZE ? -1L : (1L << last) - 1;
+            return upTo & -(1L << first);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package mind_backend.example.mind_connect.booking;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.hibernate.exception.ConstraintViolationException;
+
+/**
+ * The database-side guard against double booking: the PostgreSQL exclusion constraint
+ * added by migration V3 rejects two scheduled sessions of the same therapist whose
+ * [session_date, session_date + duration) ranges overlap. Other databases only get the
+ * in-memory check in {@link SessionIntervalIndex}.
+ */
+public final class SessionOverlapGuard {
+
+    public static final String CONSTRAINT_NAME = "sessions_no_overlap";
+
+    private SessionOverlapGuard() {
+    }
+
+    public static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && CONSTRAINT_NAME.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains(CONSTRAINT_NAME)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -11,11 +11,13 @@ import mind_backend.example.mind_connect.repository.MotivationRepository;
 import mind_backend.example.mind_connect.repository.TherapistRepository;
 import mind_backend.example.mind_connect.repository.UserRepository;
 import mind_backend.example.mind_connect.repository.SessionRepository;
+import mind_backend.example.mind_connect.service.TherapistStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -35,6 +37,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private SessionRepository sessionRepository;
 
+    @Autowired
+    private TherapistStatsService therapistStatsService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -42,9 +47,10 @@ public class DataInitializer implements CommandLineRunner {
     public void run(String... args) throws Exception {
         // Initialize roles
         if (roleRepository.count() == 0) {
-            roleRepository.save(new Role("ADMIN", "Administrator"));
-            roleRepository.save(new Role("USER", "Regular User"));
-            roleRepository.save(new Role("THERAPIST", "Therapist"));
+            roleRepository.saveAll(List.of(
+                new Role("ADMIN", "Administrator"),
+                new Role("USER", "Regular User"),
+                new Role("THERAPIST", "Therapist")));
         }
 
         // Initialize sample therapists
@@ -60,7 +66,6 @@ public class DataInitializer implements CommandLineRunner {
             therapist1.setPhone("+1-555-0101");
             therapist1.setBio("Specialized in cognitive behavioral therapy with 8 years of experience helping individuals overcome anxiety and depression.");
             therapist1.setRating(4.8);
-            therapistRepository.save(therapist1);
 
             Therapist therapist2 = new Therapist();
             therapist2.setFirstName("Dr. Michael");
@@ -73,7 +78,6 @@ public class DataInitializer implements CommandLineRunner {
             therapist2.setPhone("+1-555-0102");
             therapist2.setBio("Board-certified psychiatrist specializing in trauma recovery and PTSD treatment using evidence-based approaches.");
             therapist2.setRating(4.9);
-            therapistRepository.save(therapist2);
 
             Therapist therapist3 = new Therapist();
             therapist3.setFirstName("Dr. Emily");
@@ -86,7 +90,8 @@ public class DataInitializer implements CommandLineRunner {
             therapist3.setPhone("+1-555-0103");
             therapist3.setBio("Licensed therapist focusing on family dynamics, couples counseling, and relationship building.");
             therapist3.setRating(4.7);
-            therapistRepository.save(therapist3);
+
+            therapistRepository.saveAll(List.of(therapist1, therapist2, therapist3));
         }
 
         // Initialize motivational content
@@ -97,7 +102,6 @@ public class DataInitializer implements CommandLineRunner {
             quote1.setType(Motivation.ContentType.QUOTE);
             quote1.setAuthor("William James");
             quote1.setCategory("Inspiration");
-            motivationRepository.save(quote1);
 
             Motivation tip1 = new Motivation();
             tip1.setTitle("Breathing Exercise");
@@ -105,7 +109,6 @@ public class DataInitializer implements CommandLineRunner {
             tip1.setType(Motivation.ContentType.TIP);
             tip1.setAuthor("MindConnect Team");
             tip1.setCategory("Anxiety Relief");
-            motivationRepository.save(tip1);
 
             Motivation article1 = new Motivation();
             article1.setTitle("Understanding Mental Health");
@@ -113,7 +116,6 @@ public class DataInitializer implements CommandLineRunner {
             article1.setType(Motivation.ContentType.ARTICLE);
             article1.setAuthor("Mental Health Foundation");
             article1.setCategory("Education");
-            motivationRepository.save(article1);
 
             Motivation exercise1 = new Motivation();
             exercise1.setTitle("Gratitude Practice");
@@ -121,7 +123,6 @@ public class DataInitializer implements CommandLineRunner {
             exercise1.setType(Motivation.ContentType.EXERCISE);
             exercise1.setAuthor("MindConnect Team");
             exercise1.setCategory("Gratitude");
-            motivationRepository.save(exercise1);
 
             Motivation quote2 = new Motivation();
             quote2.setTitle("Strength in Vulnerability");
@@ -129,7 +130,8 @@ public class DataInitializer implements CommandLineRunner {
             quote2.setType(Motivation.ContentType.QUOTE);
             quote2.setAuthor("Brené Brown");
             quote2.setCategory("Courage");
-            motivationRepository.save(quote2);
+
+            motivationRepository.saveAll(List.of(quote1, tip1, article1, exercise1, quote2));
         }
 
         // Initialize sample sessions
@@ -148,7 +150,6 @@ public class DataInitializer implements CommandLineRunner {
                 session1.setSessionType("Individual Therapy");
                 session1.setDuration(60);
                 session1.setNotes("Initial consultation session");
-                sessionRepository.save(session1);
 
                 Session session2 = new Session();
                 session2.setUser(sampleUser);
@@ -158,7 +159,6 @@ public class DataInitializer implements CommandLineRunner {
                 session2.setSessionType("Individual Therapy");
                 session2.setDuration(60);
                 session2.setNotes("Follow-up session - good progress");
-                sessionRepository.save(session2);
 
                 Session session3 = new Session();
                 session3.setUser(sampleUser);
@@ -168,7 +168,8 @@ public class DataInitializer implements CommandLineRunner {
                 session3.setSessionType("Individual Therapy");
                 session3.setDuration(90);
                 session3.setNotes("Extended session for deep work");
-                sessionRepository.save(session3);
+
+                therapistStatsService.sessionsAdded(sessionRepository.saveAll(List.of(session1, session2, session3)));
             }
         }
     }
@@ -0,0 +1,19 @@
+package mind_backend.example.mind_connect.config;
+
+import mind_backend.example.mind_connect.reminder.LogReminderNotifier;
+import mind_backend.example.mind_connect.reminder.ReminderNotifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.nio.file.Path;
+
+@Configuration
+public class ReminderConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ReminderNotifier.class)
+    public ReminderNotifier reminderNotifier(@Value("${reminders.sink-file:}") String sinkFile) {
+        return new LogReminderNotifier(sinkFile.isBlank() ? null : Path.of(sinkFile));
+    }
+}
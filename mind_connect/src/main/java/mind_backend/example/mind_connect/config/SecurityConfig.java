@@ -1,8 +1,11 @@
 package mind_backend.example.mind_connect.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import mind_backend.example.mind_connect.security.BoundedPasswordEncoder;
 import mind_backend.example.mind_connect.security.JwtAuthenticationFilter;
 import mind_backend.example.mind_connect.security.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -11,26 +14,59 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.Arrays;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Autowired
     @Lazy
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${auth.password.cost:0}")
+    private int passwordCost;
+
+    // Auto-tuning never goes below it, and only hashes below it are re-hashed at login
+    @Value("${auth.password.min-cost:10}")
+    private int passwordMinCost;
+
+    @Value("${auth.password.target-ms:250}")
+    private long passwordTargetMs;
+
+    @Value("${auth.password.max-cost:14}")
+    private int passwordMaxCost;
+
+    @Value("${auth.password.threads:0}")
+    private int passwordThreads;
+
+    @Value("${auth.password.queue-capacity:64}")
+    private int passwordQueueCapacity;
+
+    @Value("${auth.password.timeout-ms:2000}")
+    private long passwordTimeoutMs;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int cost = passwordCost > 0
+            ? passwordCost
+            : BoundedPasswordEncoder.tuneCost(passwordTargetMs, passwordMinCost, passwordMaxCost);
+        int threads = passwordThreads > 0
+            ? passwordThreads
+            : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        logger.info("Password hashing: BCrypt cost {}, {} threads, queue capacity {}",
+            cost, threads, passwordQueueCapacity);
+        return new BoundedPasswordEncoder(cost, passwordMinCost, threads, passwordQueueCapacity, passwordTimeoutMs,
+            meterRegistry);
     }
 
     @Bean
@@ -48,9 +84,15 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/motivations/active").permitAll()
                 .requestMatchers("/api/therapists/available").permitAll()
+                .requestMatchers("/api/therapists/search", "/api/therapists/search/suggest").permitAll()
                 .requestMatchers("/api/sessions/**").permitAll()
+                .requestMatchers("/api/journals/search", "/api/journals/trends", "/api/journals/tags",
+                    "/api/journals/tagged").authenticated()
                 .requestMatchers("/api/journals/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // Metrics are for operators; scrapers authenticate with an admin token
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,24 @@
+package mind_backend.example.mind_connect.controller;
+
+import mind_backend.example.mind_connect.security.PasswordHashingBusyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Responses shared by every controller. Handlers that turn other failures into a 400
+ * rethrow {@link PasswordHashingBusyException} so that it ends up here instead.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // The hashing executor is saturated; the client should retry rather than wait in line
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> passwordHashingBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(e.getMessage());
+    }
+}
@@ -4,12 +4,17 @@ import mind_backend.example.mind_connect.entity.User;
 import mind_backend.example.mind_connect.entity.Therapist;
 import mind_backend.example.mind_connect.service.UserService;
 import mind_backend.example.mind_connect.service.TherapistService;
+import mind_backend.example.mind_connect.security.Credential;
+import mind_backend.example.mind_connect.security.CredentialLookup;
+import mind_backend.example.mind_connect.security.JwtPrincipal;
 import mind_backend.example.mind_connect.security.JwtUtil;
+import mind_backend.example.mind_connect.security.PasswordHashingBusyException;
+import mind_backend.example.mind_connect.security.PrincipalKind;
+import mind_backend.example.mind_connect.security.TokenVersionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,7 +29,10 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private CredentialLookup credentialLookup;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
 
     @Autowired
     private UserService userService;
@@ -35,6 +43,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest) {
         try {
@@ -48,40 +59,44 @@ public class AuthController {
                 return ResponseEntity.badRequest().body("Email and password are required");
             }
 
-            // Check if user exists first
-            if ("therapist".equals(userType)) {
-                if (!therapistService.getTherapistByEmail(email).isPresent()) {
-                    return ResponseEntity.badRequest().body("Therapist not found");
-                }
-            } else {
-                if (!userService.getUserByEmail(email).isPresent()) {
-                    return ResponseEntity.badRequest().body("User not found");
-                }
+            PrincipalKind kind = "therapist".equals(userType) ? PrincipalKind.THERAPIST : PrincipalKind.USER;
+            Credential credential = credentialLookup.find(kind, email).orElse(null);
+            if (credential == null) {
+                return ResponseEntity.badRequest()
+                    .body(kind == PrincipalKind.THERAPIST ? "Therapist not found" : "User not found");
             }
 
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password)
-            );
+            if (!passwordEncoder.matches(password, credential.passwordHash())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
 
             logger.info("Authentication successful for user: {}", email);
 
-            String token = jwtUtil.generateToken(email);
-            
+            if (passwordEncoder.upgradeEncoding(credential.passwordHash())) {
+                try {
+                    if (kind == PrincipalKind.THERAPIST) {
+                        therapistService.rehashPassword(credential.id(), password);
+                    } else {
+                        userService.rehashPassword(credential.id(), password);
+                    }
+                } catch (PasswordHashingBusyException e) {
+                    logger.debug("Skipping password rehash for {}: {}", email, e.getMessage());
+                }
+            }
+
             Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
             response.put("userType", userType);
+            response.put("user", credential.profile());
 
-            if ("therapist".equals(userType)) {
-                Therapist therapist = therapistService.getTherapistByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Therapist not found"));
-                response.put("user", therapist);
-            } else {
-                User user = userService.getUserByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-                response.put("user", user);
-            }
+            // Signed with the version this node checks tokens against; the registry is only
+            // written when a version actually changes
+            int tokenVersion = tokenVersionRegistry.currentVersion(kind, credential.id());
+            response.put("token", jwtUtil.generateToken(new JwtPrincipal(
+                credential.id(), credential.email(), kind, credential.role(), tokenVersion)));
 
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Login failed for email: {}, error: {}", loginRequest.get("email"), e.getMessage(), e);
             return ResponseEntity.badRequest().body("Invalid credentials: " + e.getMessage());
@@ -93,6 +108,8 @@ public class AuthController {
         try {
             User createdUser = userService.createUser(user);
             return ResponseEntity.ok(createdUser);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -103,6 +120,8 @@ public class AuthController {
         try {
             Therapist createdTherapist = therapistService.createTherapist(therapist);
             return ResponseEntity.ok(createdTherapist);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -0,0 +1,49 @@
+package mind_backend.example.mind_connect.controller;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong ETags built from an entity's {@code @Version}, and the matching If-Match parsing.
+ * Only a single tag is supported; {@code *} or a missing header means "any version".
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * Version the client expects, or null when it sent no precondition.
+     *
+     * @throws OptimisticLockingFailureException if the tag cannot be one of ours, which
+     *         means no current version can match it
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new OptimisticLockingFailureException("If-Match does not name a current version");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new OptimisticLockingFailureException("If-Match does not name a current version");
+        }
+    }
+
+    /**
+     * Response for a single-statement update. The new version is only known without
+     * reading the row back when the client sent the one it expected.
+     */
+    static ResponseEntity<?> updated(Long expectedVersion) {
+        return expectedVersion != null
+            ? ResponseEntity.noContent().eTag(of(expectedVersion + 1)).build()
+            : ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,107 @@
+package mind_backend.example.mind_connect.controller;
+
+import mind_backend.example.mind_connect.security.JwtPrincipal;
+import mind_backend.example.mind_connect.security.PrincipalKind;
+import mind_backend.example.mind_connect.service.ExportService;
+import mind_backend.example.mind_connect.service.ExportService.Format;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Data exports of one user's records. The body is written while the rows are read, on the
+ * async request thread, so nothing is held in memory beyond the current chunk. Only these
+ * requests get the long {@code exports.timeout-ms}; every other async request keeps the
+ * container default. A user may export their own records; admins may export anyone's.
+ */
+@RestController
+@RequestMapping("/api/users/{userId}/export")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Value("${exports.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportAll(@PathVariable Long userId,
+            @RequestParam(defaultValue = "NDJSON") Format format, HttpServletRequest request,
+            Authentication authentication) {
+        if (!mayExport(authentication, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!exportService.userExists(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        extendTimeout(request);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, attachment("export-" + userId + ".zip"))
+            .body(out -> exportService.exportAll(userId, format, out));
+    }
+
+    @GetMapping("/journals")
+    public ResponseEntity<StreamingResponseBody> exportJournals(@PathVariable Long userId,
+            @RequestParam(defaultValue = "NDJSON") Format format, HttpServletRequest request,
+            Authentication authentication) {
+        if (!mayExport(authentication, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!exportService.userExists(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        extendTimeout(request);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.contentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, attachment("journals-" + userId + "." + format.extension()))
+            .body(out -> exportService.exportJournals(userId, format, out));
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<StreamingResponseBody> exportSessions(@PathVariable Long userId,
+            @RequestParam(defaultValue = "NDJSON") Format format, HttpServletRequest request,
+            Authentication authentication) {
+        if (!mayExport(authentication, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!exportService.userExists(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        extendTimeout(request);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.contentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, attachment("sessions-" + userId + "." + format.extension()))
+            .body(out -> exportService.exportSessions(userId, format, out));
+    }
+
+    // Applied when the streaming body starts async processing; the handler sets no timeout of its own
+    private void extendTimeout(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(timeoutMs);
+    }
+
+    private static boolean mayExport(Authentication authentication, Long userId) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication.getAuthorities().stream().anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()))) {
+            return true;
+        }
+        return authentication.getPrincipal() instanceof JwtPrincipal principal
+            && principal.kind() == PrincipalKind.USER && principal.id().equals(userId);
+    }
+
+    private static String attachment(String filename) {
+        return ContentDisposition.attachment().filename(filename).build().toString();
+    }
+}
@@ -1,11 +1,26 @@
 package mind_backend.example.mind_connect.controller;
 
+import mind_backend.example.mind_connect.dto.BulkResult;
+import mind_backend.example.mind_connect.dto.JournalSearchHit;
+import mind_backend.example.mind_connect.dto.JournalSummary;
+import mind_backend.example.mind_connect.dto.MoodTrends;
+import mind_backend.example.mind_connect.dto.TagCount;
 import mind_backend.example.mind_connect.entity.Journal;
 import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.MoodRollup.Period;
 import mind_backend.example.mind_connect.service.JournalService;
+import mind_backend.example.mind_connect.service.MoodRollupService;
+import mind_backend.example.mind_connect.service.TagService;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.security.JwtPrincipal;
+import mind_backend.example.mind_connect.security.PrincipalKind;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,9 +31,80 @@ public class JournalController {
     @Autowired
     private JournalService journalService;
 
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
     @GetMapping
-    public List<Journal> getAllJournals() {
-        return journalService.getAllJournals();
+    public CursorPage<JournalSummary> getAllJournals(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return journalService.getAllJournals(cursor, size);
+    }
+
+    // Search, trends and tags cover the journals of the signed-in user
+    @GetMapping("/search")
+    public ResponseEntity<?> searchJournals(Authentication authentication,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) MoodLevel mood,
+            @RequestParam(required = false) String tags,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long userId = signedInUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        CursorPage<JournalSearchHit> page = journalService.searchJournals(userId, q, mood, tags, from, to, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/trends")
+    public ResponseEntity<?> getMoodTrends(Authentication authentication,
+            @RequestParam(defaultValue = "DAY") Period period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = signedInUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            MoodTrends trends = moodRollupService.getTrends(userId, period, from, to);
+            return ResponseEntity.ok(trends);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/tags")
+    public ResponseEntity<?> getTagCounts(Authentication authentication) {
+        Long userId = signedInUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        List<TagCount> counts = tagService.tagCounts(userId);
+        return ResponseEntity.ok(counts);
+    }
+
+    @GetMapping("/tagged")
+    public ResponseEntity<?> getTaggedJournals(Authentication authentication,
+            @RequestParam(required = false) String all,
+            @RequestParam(required = false) String any,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long userId = signedInUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            CursorPage<JournalSummary> page = tagService.findTagged(userId, all, any, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -29,13 +115,17 @@ public class JournalController {
     }
 
     @GetMapping("/user/{userId}")
-    public List<Journal> getJournalsByUserId(@PathVariable Long userId) {
-        return journalService.getJournalsByUserId(userId);
+    public CursorPage<JournalSummary> getJournalsByUserId(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return journalService.getJournalsByUserId(userId, cursor, size);
     }
 
     @GetMapping("/mood/{mood}")
-    public List<Journal> getJournalsByMood(@PathVariable MoodLevel mood) {
-        return journalService.getJournalsByMood(mood);
+    public CursorPage<JournalSummary> getJournalsByMood(@PathVariable MoodLevel mood,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return journalService.getJournalsByMood(mood, cursor, size);
     }
 
     @PostMapping
@@ -48,6 +138,16 @@ public class JournalController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createJournals(@RequestBody List<Journal> journals) {
+        try {
+            BulkResult result = journalService.createJournals(journals);
+            return result.isRejected() ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateJournal(@PathVariable Long id, @RequestBody Journal journal) {
         try {
@@ -67,4 +167,9 @@ public class JournalController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    private static Long signedInUserId(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+            && principal.kind() == PrincipalKind.USER ? principal.id() : null;
+    }
 }
@@ -1,12 +1,21 @@
 package mind_backend.example.mind_connect.controller;
 
+import mind_backend.example.mind_connect.dto.MotivationRecommendations;
+import mind_backend.example.mind_connect.dto.MotivationSummary;
 import mind_backend.example.mind_connect.entity.Motivation;
 import mind_backend.example.mind_connect.entity.Motivation.ContentType;
+import mind_backend.example.mind_connect.service.ActiveMotivations;
 import mind_backend.example.mind_connect.service.MotivationService;
+import mind_backend.example.mind_connect.pagination.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/motivations")
@@ -17,30 +26,59 @@ public class MotivationController {
     private MotivationService motivationService;
 
     @GetMapping
-    public List<Motivation> getAllMotivations() {
-        return motivationService.getAllMotivations();
+    public CursorPage<MotivationSummary> getAllMotivations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return motivationService.getAllMotivations(cursor, size);
     }
 
     @GetMapping("/active")
-    public List<Motivation> getActiveMotivations() {
-        return motivationService.getActiveMotivations();
+    public ResponseEntity<byte[]> getActiveMotivations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return rendered(motivationService.getActiveMotivations(cursor, size), request);
+    }
+
+    @GetMapping("/daily/user/{userId}")
+    public ResponseEntity<MotivationSummary> getDailyMotivation(@PathVariable Long userId,
+            @RequestParam(required = false) ContentType type) {
+        return motivationService.getDailyMotivation(userId, type)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/random")
+    public ResponseEntity<MotivationSummary> getRandomMotivation(@RequestParam(required = false) ContentType type) {
+        return motivationService.getRandomMotivation(type)
+            .map(motivation -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(motivation))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/recommended/user/{userId}")
+    public MotivationRecommendations getRecommendedMotivations(@PathVariable Long userId,
+            @RequestParam(required = false) Integer size) {
+        return motivationService.getRecommendedMotivations(userId, size);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Motivation> getMotivationById(@PathVariable Long id) {
         return motivationService.getMotivationById(id)
-            .map(ResponseEntity::ok)
+            .map(motivation -> ResponseEntity.ok().eTag(ETags.of(motivation.getVersion())).body(motivation))
             .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/type/{type}")
-    public List<Motivation> getMotivationsByType(@PathVariable ContentType type) {
-        return motivationService.getMotivationsByType(type);
+    public ResponseEntity<byte[]> getMotivationsByType(@PathVariable ContentType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return rendered(motivationService.getMotivationsByType(type, cursor, size), request);
     }
 
     @GetMapping("/category/{category}")
-    public List<Motivation> getMotivationsByCategory(@PathVariable String category) {
-        return motivationService.getMotivationsByCategory(category);
+    public ResponseEntity<byte[]> getMotivationsByCategory(@PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        return rendered(motivationService.getMotivationsByCategory(category, cursor, size), request);
     }
 
     @PostMapping
@@ -54,20 +92,28 @@ public class MotivationController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateMotivation(@PathVariable Long id, @RequestBody Motivation motivation) {
+    public ResponseEntity<?> updateMotivation(@PathVariable Long id, @RequestBody Motivation motivation,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Motivation updatedMotivation = motivationService.updateMotivation(id, motivation);
-            return ResponseEntity.ok(updatedMotivation);
+            Motivation updatedMotivation = motivationService.updateMotivation(id, motivation,
+                ETags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedMotivation.getVersion())).body(updatedMotivation);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PutMapping("/{id}/toggle")
-    public ResponseEntity<?> toggleActive(@PathVariable Long id) {
+    public ResponseEntity<?> toggleActive(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Motivation updatedMotivation = motivationService.toggleActive(id);
-            return ResponseEntity.ok(updatedMotivation);
+            Long expectedVersion = ETags.expectedVersion(ifMatch);
+            motivationService.toggleActive(id, expectedVersion);
+            return ETags.updated(expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -82,4 +128,19 @@ public class MotivationController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    // Pre-serialized snapshot pages; clients revalidate every time and get a 304 while unchanged
+    private static ResponseEntity<byte[]> rendered(ActiveMotivations.Rendered page, WebRequest request) {
+        if (request.checkNotModified(page.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(page.eTag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(page.eTag())
+            .cacheControl(CacheControl.noCache())
+            .body(page.body());
+    }
 }
@@ -1,11 +1,22 @@
 package mind_backend.example.mind_connect.controller;
 
+import mind_backend.example.mind_connect.booking.SessionConflictException;
+import mind_backend.example.mind_connect.dto.BulkResult;
+import mind_backend.example.mind_connect.dto.FreeSlot;
+import mind_backend.example.mind_connect.dto.SessionSummary;
 import mind_backend.example.mind_connect.entity.Session;
 import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.service.FreeSlotService;
 import mind_backend.example.mind_connect.service.SessionService;
+import mind_backend.example.mind_connect.pagination.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,31 +27,73 @@ public class SessionController {
     @Autowired
     private SessionService sessionService;
 
+    @Autowired
+    private FreeSlotService freeSlotService;
+
     @GetMapping
-    public List<Session> getAllSessions() {
-        return sessionService.getAllSessions();
+    public CursorPage<SessionSummary> getAllSessions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return sessionService.getAllSessions(cursor, size);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Session> getSessionById(@PathVariable Long id) {
         return sessionService.getSessionById(id)
-            .map(ResponseEntity::ok)
+            .map(session -> ResponseEntity.ok().eTag(ETags.of(session.getVersion())).body(session))
             .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/user/{userId}")
-    public List<Session> getSessionsByUserId(@PathVariable Long userId) {
-        return sessionService.getSessionsByUserId(userId);
+    public CursorPage<SessionSummary> getSessionsByUserId(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return sessionService.getSessionsByUserId(userId, cursor, size);
     }
 
     @GetMapping("/therapist/{therapistId}")
-    public List<Session> getSessionsByTherapistId(@PathVariable Long therapistId) {
-        return sessionService.getSessionsByTherapistId(therapistId);
+    public CursorPage<SessionSummary> getSessionsByTherapistId(@PathVariable Long therapistId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return sessionService.getSessionsByTherapistId(therapistId, cursor, size);
     }
 
     @GetMapping("/user/{userId}/upcoming")
-    public List<Session> getUpcomingSessions(@PathVariable Long userId) {
-        return sessionService.getUpcomingSessions(userId);
+    public CursorPage<SessionSummary> getUpcomingSessions(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return sessionService.getUpcomingSessions(userId, cursor, size);
+    }
+
+    @GetMapping("/user/{userId}/history")
+    public CursorPage<SessionSummary> getSessionHistory(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return sessionService.getSessionHistory(userId, cursor, size);
+    }
+
+    @GetMapping("/therapist/{therapistId}/upcoming")
+    public CursorPage<SessionSummary> getUpcomingSessionsForTherapist(@PathVariable Long therapistId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return sessionService.getUpcomingSessionsForTherapist(therapistId, cursor, size);
+    }
+
+    @GetMapping("/therapist/{therapistId}/history")
+    public CursorPage<SessionSummary> getSessionHistoryForTherapist(@PathVariable Long therapistId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return sessionService.getSessionHistoryForTherapist(therapistId, cursor, size);
+    }
+
+    @GetMapping("/free-slots")
+    public List<FreeSlot> getFreeSlots(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer duration,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) Integer count) {
+        return freeSlotService.findFreeSlots(from, to, duration, specialization, count);
     }
 
     @PostMapping
@@ -48,26 +101,51 @@ public class SessionController {
         try {
             Session createdSession = sessionService.createSession(session);
             return ResponseEntity.ok(createdSession);
+        } catch (SessionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createSessions(@RequestBody List<Session> sessions) {
+        try {
+            BulkResult result = sessionService.createSessions(sessions);
+            return result.isRejected() ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+        } catch (SessionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateSession(@PathVariable Long id, @RequestBody Session session) {
+    public ResponseEntity<?> updateSession(@PathVariable Long id, @RequestBody Session session,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Session updatedSession = sessionService.updateSession(id, session);
-            return ResponseEntity.ok(updatedSession);
+            Session updatedSession = sessionService.updateSession(id, session, ETags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedSession.getVersion())).body(updatedSession);
+        } catch (SessionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<?> updateSessionStatus(@PathVariable Long id, @RequestBody SessionStatus status) {
+    public ResponseEntity<?> updateSessionStatus(@PathVariable Long id, @RequestBody SessionStatus status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Session updatedSession = sessionService.updateSessionStatus(id, status);
-            return ResponseEntity.ok(updatedSession);
+            Long expectedVersion = ETags.expectedVersion(ifMatch);
+            sessionService.updateSessionStatus(id, status, expectedVersion);
+            return ETags.updated(expectedVersion);
+        } catch (SessionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
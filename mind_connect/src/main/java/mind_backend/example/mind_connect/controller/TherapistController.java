@@ -1,9 +1,20 @@
 package mind_backend.example.mind_connect.controller;
 
+import mind_backend.example.mind_connect.dto.TherapistDashboard;
+import mind_backend.example.mind_connect.dto.TherapistSummary;
 import mind_backend.example.mind_connect.entity.Therapist;
 import mind_backend.example.mind_connect.service.TherapistService;
+import mind_backend.example.mind_connect.service.TherapistStatsService;
+import mind_backend.example.mind_connect.security.JwtPrincipal;
+import mind_backend.example.mind_connect.security.PasswordHashingBusyException;
+import mind_backend.example.mind_connect.security.PrincipalKind;
+import mind_backend.example.mind_connect.pagination.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -15,26 +26,78 @@ public class TherapistController {
     @Autowired
     private TherapistService therapistService;
 
+    @Autowired
+    private TherapistStatsService therapistStatsService;
+
     @GetMapping
-    public List<Therapist> getAllTherapists() {
-        return therapistService.getAllTherapists();
+    public CursorPage<TherapistSummary> getAllTherapists(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return therapistService.getAllTherapists(cursor, size);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Therapist> getTherapistById(@PathVariable Long id) {
         return therapistService.getTherapistById(id)
-            .map(ResponseEntity::ok)
+            .map(therapist -> ResponseEntity.ok().eTag(ETags.of(therapist.getVersion())).body(therapist))
             .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<?> getDashboard(@PathVariable Long id) {
+        try {
+            TherapistDashboard dashboard = therapistStatsService.getDashboard(id);
+            return ResponseEntity.ok(dashboard);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/alerts")
+    public ResponseEntity<?> getAlerts(@PathVariable Long id,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer size,
+                                       Authentication authentication) {
+        if (!mayReadAlerts(authentication, id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(therapistService.getAlerts(id, cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/available")
-    public List<Therapist> getAvailableTherapists() {
-        return therapistService.getAvailableTherapists();
+    public CursorPage<TherapistSummary> getAvailableTherapists(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return therapistService.getAvailableTherapists(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public CursorPage<TherapistSummary> searchTherapists(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Integer minExperience,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return therapistService.searchTherapists(q, specialization, minRating, minExperience, available, cursor, size);
+    }
+
+    @GetMapping("/search/suggest")
+    public List<String> suggestTerms(@RequestParam String prefix,
+                                     @RequestParam(required = false) Integer size) {
+        return therapistService.suggestTerms(prefix, size);
     }
 
     @GetMapping("/specialization/{specialization}")
-    public List<Therapist> getTherapistsBySpecialization(@PathVariable String specialization) {
-        return therapistService.getTherapistsBySpecialization(specialization);
+    public CursorPage<TherapistSummary> getTherapistsBySpecialization(@PathVariable String specialization,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return therapistService.getTherapistsBySpecialization(specialization, cursor, size);
     }
 
     @PostMapping
@@ -42,26 +105,38 @@ public class TherapistController {
         try {
             Therapist createdTherapist = therapistService.createTherapist(therapist);
             return ResponseEntity.ok(createdTherapist);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateTherapist(@PathVariable Long id, @RequestBody Therapist therapist) {
+    public ResponseEntity<?> updateTherapist(@PathVariable Long id, @RequestBody Therapist therapist,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Therapist updatedTherapist = therapistService.updateTherapist(id, therapist);
-            return ResponseEntity.ok(updatedTherapist);
+            Therapist updatedTherapist = therapistService.updateTherapist(id, therapist,
+                ETags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedTherapist.getVersion())).body(updatedTherapist);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PutMapping("/{id}/availability")
-    public ResponseEntity<?> updateAvailability(@PathVariable Long id, @RequestBody Boolean available) {
+    public ResponseEntity<?> updateAvailability(@PathVariable Long id, @RequestBody Boolean available,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Therapist updatedTherapist = therapistService.updateAvailability(id, available);
-            return ResponseEntity.ok(updatedTherapist);
+            Long expectedVersion = ETags.expectedVersion(ifMatch);
+            therapistService.updateAvailability(id, available, expectedVersion);
+            return ETags.updated(expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -76,4 +151,16 @@ public class TherapistController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    // Alerts quote clients' journals: only the therapist they belong to or an admin may list them
+    private static boolean mayReadAlerts(Authentication authentication, Long therapistId) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication.getAuthorities().stream().anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()))) {
+            return true;
+        }
+        return authentication.getPrincipal() instanceof JwtPrincipal principal
+            && principal.kind() == PrincipalKind.THERAPIST && principal.id().equals(therapistId);
+    }
 }
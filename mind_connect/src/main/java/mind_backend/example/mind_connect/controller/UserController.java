@@ -1,11 +1,13 @@
 package mind_backend.example.mind_connect.controller;
 
+import mind_backend.example.mind_connect.dto.UserSummary;
 import mind_backend.example.mind_connect.entity.User;
 import mind_backend.example.mind_connect.service.UserService;
+import mind_backend.example.mind_connect.security.PasswordHashingBusyException;
+import mind_backend.example.mind_connect.pagination.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,8 +22,10 @@ public class UserController {
     private UserService userService;
 
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public CursorPage<UserSummary> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return userService.getAllUsers(cursor, size);
     }
 
     @GetMapping("/{id}")
@@ -48,6 +52,8 @@ public class UserController {
             
             User createdUser = userService.createUser(user);
             return ResponseEntity.ok(createdUser);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error creating user: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -59,6 +65,8 @@ public class UserController {
         try {
             User updatedUser = userService.updateUser(id, user);
             return ResponseEntity.ok(updatedUser);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -75,7 +83,9 @@ public class UserController {
     }
 
     @GetMapping("/role/{roleName}")
-    public List<User> getUsersByRole(@PathVariable String roleName) {
-        return userService.getUsersByRole(roleName);
+    public CursorPage<UserSummary> getUsersByRole(@PathVariable String roleName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return userService.getUsersByRole(roleName, cursor, size);
     }
 }
@@ -0,0 +1,25 @@
+package mind_backend.example.mind_connect.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk create. A bulk request is all or nothing: either every item was saved
+ * and {@code ids} lists their ids in request order, or nothing was saved and
+ * {@code errors} says what is wrong with each rejected item.
+ */
+public record BulkResult(int created, List<Long> ids, List<ItemError> errors) {
+
+    public record ItemError(int index, String message) {}
+
+    public static BulkResult created(List<Long> ids) {
+        return new BulkResult(ids.size(), ids, List.of());
+    }
+
+    public static BulkResult rejected(List<ItemError> errors) {
+        return new BulkResult(0, List.of(), errors);
+    }
+
+    public boolean isRejected() {
+        return !errors.isEmpty();
+    }
+}
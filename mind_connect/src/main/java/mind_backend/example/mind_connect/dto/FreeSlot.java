@@ -0,0 +1,6 @@
+package mind_backend.example.mind_connect.dto;
+
+import java.time.LocalDateTime;
+
+public record FreeSlot(Long therapistId, String firstName, String lastName, String specialization,
+                       LocalDateTime start, LocalDateTime end) {}
@@ -0,0 +1,12 @@
+package mind_backend.example.mind_connect.dto;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One ranked search result. {@code title} and {@code highlights} are HTML-escaped with the
+ * matched words wrapped in {@code <mark>}; the full content is not included.
+ */
+public record JournalSearchHit(Long id, String title, MoodLevel mood, String tags, LocalDateTime createdAt,
+                               float score, List<String> highlights) {}
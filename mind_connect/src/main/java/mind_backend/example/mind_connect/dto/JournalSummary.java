@@ -0,0 +1,11 @@
+package mind_backend.example.mind_connect.dto;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import java.time.LocalDateTime;
+
+/**
+ * A journal as listings show it: the start of the content in {@code preview} and its
+ * full length in characters. The content itself is only returned by {@code GET /api/journals/{id}}.
+ */
+public record JournalSummary(Long id, Long userId, String title, String preview, Integer contentLength,
+                             MoodLevel mood, String tags, LocalDateTime createdAt) {}
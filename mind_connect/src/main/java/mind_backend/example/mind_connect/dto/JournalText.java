@@ -0,0 +1,8 @@
+package mind_backend.example.mind_connect.dto;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import java.time.LocalDateTime;
+
+/** A journal with its full content, for the search index and highlighting. */
+public record JournalText(Long id, Long userId, String title, String content, MoodLevel mood, String tags,
+                          LocalDateTime createdAt) {}
@@ -0,0 +1,15 @@
+package mind_backend.example.mind_connect.dto;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.MoodRollup.Period;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A user's mood histograms for consecutive periods. Every bucket's {@code counts} is
+ * indexed like {@code moods} (the {@link MoodLevel} ordinals); empty periods are included.
+ */
+public record MoodTrends(Long userId, Period period, List<MoodLevel> moods, List<Bucket> buckets) {
+
+    public record Bucket(LocalDate start, long[] counts, long total) {}
+}
@@ -0,0 +1,7 @@
+package mind_backend.example.mind_connect.dto;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import java.util.List;
+
+/** Motivations picked for the mood of the user's latest journal, null when there is none. */
+public record MotivationRecommendations(Long userId, MoodLevel mood, List<MotivationSummary> items) {}
@@ -0,0 +1,6 @@
+package mind_backend.example.mind_connect.dto;
+
+import mind_backend.example.mind_connect.entity.Motivation.ContentType;
+
+public record MotivationSummary(Long id, String title, String content, ContentType type, String author,
+                                String category) {}
@@ -0,0 +1,27 @@
+package mind_backend.example.mind_connect.dto;
+
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import java.time.LocalDateTime;
+
+/**
+ * A session as it appears in listings: the schedule fields plus just enough of the user
+ * and therapist to label the row.
+ */
+public record SessionSummary(Long id, LocalDateTime sessionDate, SessionStatus status, String sessionType,
+                             Integer duration, String notes, UserRef user, TherapistRef therapist) {
+
+    public record UserRef(Long id, String firstName, String lastName) {}
+
+    public record TherapistRef(Long id, String firstName, String lastName, String specialization) {}
+
+    // Flat form used by the JPQL constructor expressions in SessionRepository
+    public SessionSummary(Long id, LocalDateTime sessionDate, SessionStatus status, String sessionType,
+                          Integer duration, String notes,
+                          Long userId, String userFirstName, String userLastName,
+                          Long therapistId, String therapistFirstName, String therapistLastName,
+                          String therapistSpecialization) {
+        this(id, sessionDate, status, sessionType, duration, notes,
+            new UserRef(userId, userFirstName, userLastName),
+            new TherapistRef(therapistId, therapistFirstName, therapistLastName, therapistSpecialization));
+    }
+}
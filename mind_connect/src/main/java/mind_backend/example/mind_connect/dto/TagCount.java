@@ -0,0 +1,3 @@
+package mind_backend.example.mind_connect.dto;
+
+public record TagCount(String tag, int count) {}
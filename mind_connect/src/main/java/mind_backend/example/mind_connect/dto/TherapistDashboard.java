@@ -0,0 +1,13 @@
+package mind_backend.example.mind_connect.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Caseload figures for the therapist dashboard, all from the therapist_stats row.
+ * {@code upcomingSessions} is the part of the scheduled count that had not started at the
+ * last sweep of the upcoming counters.
+ */
+public record TherapistDashboard(Long therapistId, long totalSessions, long scheduledSessions,
+                                 long upcomingSessions, long completedSessions, long cancelledSessions,
+                                 long noShowSessions, long completedMinutes, long distinctClients,
+                                 LocalDateTime updatedAt) {}
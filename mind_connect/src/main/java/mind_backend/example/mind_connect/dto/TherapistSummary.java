@@ -0,0 +1,5 @@
+package mind_backend.example.mind_connect.dto;
+
+public record TherapistSummary(Long id, String firstName, String lastName, String email, String phone,
+                               String specialization, String qualification, Integer experience, String bio,
+                               Double rating, Boolean available) {}
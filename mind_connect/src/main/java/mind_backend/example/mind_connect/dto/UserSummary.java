@@ -0,0 +1,19 @@
+package mind_backend.example.mind_connect.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user as it appears in listings. Contact details, the password hash and the token
+ * version stay on the entity.
+ */
+public record UserSummary(Long id, String firstName, String lastName, String email, RoleRef role,
+                          LocalDateTime createdAt) {
+
+    public record RoleRef(String name) {}
+
+    // Flat form used by the JPQL constructor expressions in UserRepository
+    public UserSummary(Long id, String firstName, String lastName, String email, String roleName,
+                       LocalDateTime createdAt) {
+        this(id, firstName, lastName, email, roleName != null ? new RoleRef(roleName) : null, createdAt);
+    }
+}
@@ -0,0 +1,82 @@
+package mind_backend.example.mind_connect.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Stores text as LZ4-compressed bytes. A compressed value starts with a zero byte, a
+ * format byte and the length of the UTF-8 text, followed by the LZ4 block. Anything else
+ * is read as plain UTF-8: rows written before compression, and short values that would
+ * not get smaller, which are stored that way. Text columns cannot hold a zero byte, so
+ * rows converted from one never start with the marker.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    private static final byte MARKER = 0;
+    private static final byte PLAIN = 0;
+    private static final byte LZ4 = 1;
+    private static final int HEADER = 6;
+
+    // Below this LZ4 rarely wins back its header
+    private static final int MIN_COMPRESS_BYTES = 128;
+
+    private static final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] plain = text.getBytes(StandardCharsets.UTF_8);
+        if (plain.length >= MIN_COMPRESS_BYTES) {
+            byte[] packed = new byte[HEADER + compressor.maxCompressedLength(plain.length)];
+            int length = compressor.compress(plain, 0, plain.length, packed, HEADER);
+            if (HEADER + length < plain.length) {
+                return header(packed, LZ4, plain.length, HEADER + length);
+            }
+        }
+        if (plain.length > 0 && plain[0] == MARKER) {
+            // Would be mistaken for the marker, so it gets a header of its own
+            byte[] wrapped = new byte[HEADER + plain.length];
+            System.arraycopy(plain, 0, wrapped, HEADER, plain.length);
+            return header(wrapped, PLAIN, plain.length, wrapped.length);
+        }
+        return plain;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length < HEADER || stored[0] != MARKER) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+        int length = ByteBuffer.wrap(stored, 2, 4).getInt();
+        switch (stored[1]) {
+            case PLAIN:
+                return new String(stored, HEADER, length, StandardCharsets.UTF_8);
+            case LZ4:
+                byte[] plain = new byte[length];
+                decompressor.decompress(stored, HEADER, stored.length - HEADER, plain, 0, length);
+                return new String(plain, StandardCharsets.UTF_8);
+            default:
+                throw new IllegalStateException("Unknown text storage format " + stored[1]);
+        }
+    }
+
+    private static byte[] header(byte[] buffer, byte format, int length, int used) {
+        buffer[0] = MARKER;
+        buffer[1] = format;
+        ByteBuffer.wrap(buffer, 2, 4).putInt(length);
+        return used == buffer.length ? buffer : Arrays.copyOf(buffer, used);
+    }
+}
@@ -3,32 +3,62 @@ package mind_backend.example.mind_connect.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "journals")
+@NamedEntityGraph(name = "Journal.author",
+    attributeNodes = @NamedAttributeNode(value = "user", subgraph = "user.role"),
+    subgraphs = @NamedSubgraph(name = "user.role", attributeNodes = @NamedAttributeNode("role")))
 public class Journal {
+    public static final int PREVIEW_LENGTH = 200;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journals_seq")
+    @SequenceGenerator(name = "journals_seq", sequenceName = "journals_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @NotNull
+    @JsonIgnoreProperties({"journals", "sessions", "hibernateLazyInitializer", "handler"})
     private User user;
 
     @NotBlank
     private String title;
 
     @NotBlank
-    @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
     private String content;
 
+    // Kept with the content so listings never read or decompress it
+    private String preview;
+
+    @Column(name = "content_length")
+    private Integer contentLength;
+
     @Enumerated(EnumType.STRING)
     private MoodLevel mood;
 
     private String tags;
 
+    // Written only by JournalAnalysisPipeline, so a save never overwrites a newer analysis
+    @Column(insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Float sentiment;
+
+    @Column(insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String keywords;
+
+    // Null until analyzed; an edit clears it
+    @Column(name = "analyzed_at")
+    @JsonIgnore
+    private LocalDateTime analyzedAt;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -56,7 +86,23 @@ public class Journal {
     public void setTitle(String title) { this.title = title; }
 
     public String getContent() { return content; }
-    public void setContent(String content) { this.content = content; }
+    public void setContent(String content) {
+        this.content = content;
+        if (content == null) {
+            this.preview = null;
+            this.contentLength = null;
+        } else {
+            int length = content.codePointCount(0, content.length());
+            this.preview = length > PREVIEW_LENGTH ? content.substring(0, content.offsetByCodePoints(0, PREVIEW_LENGTH))
+                : content;
+            this.contentLength = length;
+        }
+    }
+
+    @JsonIgnore
+    public String getPreview() { return preview; }
+
+    public Integer getContentLength() { return contentLength; }
 
     public MoodLevel getMood() { return mood; }
     public void setMood(MoodLevel mood) { this.mood = mood; }
@@ -64,6 +110,15 @@ public class Journal {
     public String getTags() { return tags; }
     public void setTags(String tags) { this.tags = tags; }
 
+    public Float getSentiment() { return sentiment; }
+    public void setSentiment(Float sentiment) { this.sentiment = sentiment; }
+
+    public String getKeywords() { return keywords; }
+    public void setKeywords(String keywords) { this.keywords = keywords; }
+
+    public LocalDateTime getAnalyzedAt() { return analyzedAt; }
+    public void setAnalyzedAt(LocalDateTime analyzedAt) { this.analyzedAt = analyzedAt; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,61 @@
+package mind_backend.example.mind_connect.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A journal whose analysis found risk terms or a sentiment at or below
+ * {@code journals.analysis.alert-threshold}. Raised once per journal by
+ * {@link mind_backend.example.mind_connect.analysis.JournalAnalysisPipeline}.
+ */
+@Entity
+@Table(name = "journal_alerts")
+public class JournalAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_alerts_seq")
+    @SequenceGenerator(name = "journal_alerts_seq", sequenceName = "journal_alerts_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "journal_id", nullable = false, unique = true)
+    private Long journalId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Float sentiment;
+
+    // Comma-separated risk terms found, empty when only the sentiment was low
+    private String terms;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public JournalAlert() {}
+
+    public JournalAlert(Long journalId, Long userId, Float sentiment, String terms, LocalDateTime createdAt) {
+        this.journalId = journalId;
+        this.userId = userId;
+        this.sentiment = sentiment;
+        this.terms = terms;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getJournalId() { return journalId; }
+    public void setJournalId(Long journalId) { this.journalId = journalId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Float getSentiment() { return sentiment; }
+    public void setSentiment(Float sentiment) { this.sentiment = sentiment; }
+
+    public String getTerms() { return terms; }
+    public void setTerms(String terms) { this.terms = terms; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
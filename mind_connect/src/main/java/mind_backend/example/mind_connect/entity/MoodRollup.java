@@ -0,0 +1,96 @@
+package mind_backend.example.mind_connect.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Objects;
+
+/**
+ * Number of a user's journals with one mood in one day, week or month. Like
+ * {@link TherapistStats}, rows are only changed by relative updates in
+ * {@link mind_backend.example.mind_connect.repository.MoodRollupRepository}.
+ */
+@Entity
+@Table(name = "mood_rollups")
+@IdClass(MoodRollup.Key.class)
+public class MoodRollup {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Period period;
+
+    @Id
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Journal.MoodLevel mood;
+
+    private Long entries;
+
+    public enum Period {
+        DAY, WEEK, MONTH;
+
+        /** First day of the period containing {@code date}; weeks start on Monday. */
+        public LocalDate start(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        public LocalDate next(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+            };
+        }
+    }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private Period period;
+        private LocalDate periodStart;
+        private Journal.MoodLevel mood;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && period == key.period
+                && Objects.equals(periodStart, key.periodStart) && mood == key.mood;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, period, periodStart, mood);
+        }
+    }
+
+    public MoodRollup() {}
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Period getPeriod() { return period; }
+    public void setPeriod(Period period) { this.period = period; }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+    public Journal.MoodLevel getMood() { return mood; }
+    public void setMood(Journal.MoodLevel mood) { this.mood = mood; }
+
+    public Long getEntries() { return entries; }
+    public void setEntries(Long entries) { this.entries = entries; }
+}
@@ -1,14 +1,17 @@
 package mind_backend.example.mind_connect.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "motivations")
 public class Motivation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "motivations_seq")
+    @SequenceGenerator(name = "motivations_seq", sequenceName = "motivations_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -25,9 +28,18 @@ public class Motivation {
     private String category;
     private Boolean active;
 
+    // Relative chance of being picked at random or recommended
+    @Min(1)
+    private Integer weight;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Bumped on every update; GET responses carry it as the ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     public enum ContentType {
         QUOTE, ARTICLE, TIP, EXERCISE, VIDEO, AUDIO
     }
@@ -36,6 +48,7 @@ public class Motivation {
     public Motivation() {
         this.createdAt = LocalDateTime.now();
         this.active = true;
+        this.weight = 1;
     }
 
     // Getters and Setters
@@ -60,6 +73,12 @@ public class Motivation {
     public Boolean getActive() { return active; }
     public void setActive(Boolean active) { this.active = active; }
 
+    public Integer getWeight() { return weight; }
+    public void setWeight(Integer weight) { this.weight = weight; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -3,22 +3,30 @@ package mind_backend.example.mind_connect.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "sessions")
+@NamedEntityGraph(name = "Session.participants",
+    attributeNodes = {
+        @NamedAttributeNode(value = "user", subgraph = "user.role"),
+        @NamedAttributeNode("therapist")
+    },
+    subgraphs = @NamedSubgraph(name = "user.role", attributeNodes = @NamedAttributeNode("role")))
 public class Session {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sessions_seq")
+    @SequenceGenerator(name = "sessions_seq", sequenceName = "sessions_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @NotNull
     @JsonIgnoreProperties({"sessions", "hibernateLazyInitializer", "handler"})
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "therapist_id")
     @NotNull
     @JsonIgnoreProperties({"sessions", "hibernateLazyInitializer", "handler"})
@@ -38,6 +46,14 @@ public class Session {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Bumped on every update; GET responses carry it as the ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     public enum SessionStatus {
         SCHEDULED, COMPLETED, CANCELLED, NO_SHOW
     }
@@ -76,4 +92,16 @@ public class Session {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
 }
@@ -12,7 +12,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @Table(name = "therapists")
 public class Therapist {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "therapists_seq")
+    @SequenceGenerator(name = "therapists_seq", sequenceName = "therapists_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -38,9 +39,18 @@ public class Therapist {
     private Double rating;
     private Boolean available;
 
+    @Column(name = "token_version")
+    @JsonIgnore
+    private Integer tokenVersion;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Bumped on every update; GET responses carry it as the ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @OneToMany(mappedBy = "therapist", cascade = CascadeType.ALL)
     @JsonIgnore
     private List<Session> sessions;
@@ -50,6 +60,7 @@ public class Therapist {
         this.createdAt = LocalDateTime.now();
         this.available = true;
         this.rating = 0.0;
+        this.tokenVersion = 0;
     }
 
     // Getters and Setters
@@ -89,9 +100,15 @@ public class Therapist {
     public Boolean getAvailable() { return available; }
     public void setAvailable(Boolean available) { this.available = available; }
 
+    public Integer getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(Integer tokenVersion) { this.tokenVersion = tokenVersion; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public List<Session> getSessions() { return sessions; }
     public void setSessions(List<Session> sessions) { this.sessions = sessions; }
 }
@@ -0,0 +1,77 @@
+package mind_backend.example.mind_connect.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Caseload counters for one therapist. Rows are only ever changed by relative updates in
+ * {@link mind_backend.example.mind_connect.repository.TherapistStatsRepository}, never
+ * saved from this entity, so concurrent session changes cannot overwrite each other.
+ */
+@Entity
+@Table(name = "therapist_stats")
+public class TherapistStats {
+    @Id
+    @Column(name = "therapist_id")
+    private Long therapistId;
+
+    @Column(name = "scheduled_sessions")
+    private Long scheduledSessions;
+
+    @Column(name = "completed_sessions")
+    private Long completedSessions;
+
+    @Column(name = "cancelled_sessions")
+    private Long cancelledSessions;
+
+    @Column(name = "no_show_sessions")
+    private Long noShowSessions;
+
+    @Column(name = "completed_minutes")
+    private Long completedMinutes;
+
+    @Column(name = "distinct_clients")
+    private Long distinctClients;
+
+    @Column(name = "upcoming_sessions")
+    private Long upcomingSessions;
+
+    // Scheduled sessions starting after this time are counted in upcomingSessions
+    @Column(name = "upcoming_as_of")
+    private LocalDateTime upcomingAsOf;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public TherapistStats() {}
+
+    public Long getTherapistId() { return therapistId; }
+    public void setTherapistId(Long therapistId) { this.therapistId = therapistId; }
+
+    public Long getScheduledSessions() { return scheduledSessions; }
+    public void setScheduledSessions(Long scheduledSessions) { this.scheduledSessions = scheduledSessions; }
+
+    public Long getCompletedSessions() { return completedSessions; }
+    public void setCompletedSessions(Long completedSessions) { this.completedSessions = completedSessions; }
+
+    public Long getCancelledSessions() { return cancelledSessions; }
+    public void setCancelledSessions(Long cancelledSessions) { this.cancelledSessions = cancelledSessions; }
+
+    public Long getNoShowSessions() { return noShowSessions; }
+    public void setNoShowSessions(Long noShowSessions) { this.noShowSessions = noShowSessions; }
+
+    public Long getCompletedMinutes() { return completedMinutes; }
+    public void setCompletedMinutes(Long completedMinutes) { this.completedMinutes = completedMinutes; }
+
+    public Long getDistinctClients() { return distinctClients; }
+    public void setDistinctClients(Long distinctClients) { this.distinctClients = distinctClients; }
+
+    public Long getUpcomingSessions() { return upcomingSessions; }
+    public void setUpcomingSessions(Long upcomingSessions) { this.upcomingSessions = upcomingSessions; }
+
+    public LocalDateTime getUpcomingAsOf() { return upcomingAsOf; }
+    public void setUpcomingAsOf(LocalDateTime upcomingAsOf) { this.upcomingAsOf = upcomingAsOf; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
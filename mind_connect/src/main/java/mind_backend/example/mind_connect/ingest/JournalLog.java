@@ -0,0 +1,307 @@
+package mind_backend.example.mind_connect.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of records in segment files under one directory. A segment is named
+ * after the log position of its first byte, and each record is framed as its length, a
+ * CRC32C of the payload and the payload.
+ *
+ * <p>Appends only write to the active segment; a single sync thread forces it to disk and
+ * then wakes every appender whose record is covered, so one fsync acknowledges all the
+ * records that arrived while the previous one was running. Readers only see records that
+ * are durable. On open, each segment is scanned and cut at the first incomplete or
+ * corrupt frame, which is where a crash interrupted a write.
+ */
+public class JournalLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalLog.class);
+
+    private static final int FRAME_HEADER = 8;
+    private static final String SUFFIX = ".log";
+
+    public record Record(long end, byte[] payload) {}
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final TreeMap<Long, FileChannel> segments = new TreeMap<>();
+    private final Thread syncer;
+
+    // Guarded by this
+    private FileChannel active;
+    private long activeBase;
+    private long written;
+
+    // Guarded by durability
+    private final Object durability = new Object();
+    private long durable;
+    private IOException syncFailure;
+    private boolean closed;
+
+    public JournalLog(Path dir, long segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())),
+                    FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            }
+        }
+        for (Map.Entry<Long, FileChannel> segment : segments.entrySet()) {
+            long valid = scan(segment.getValue());
+            if (valid < segment.getValue().size()) {
+                logger.warn("Journal log segment {} cut from {} to {} bytes after an interrupted write",
+                    segment.getKey(), segment.getValue().size(), valid);
+                segment.getValue().truncate(valid);
+                segment.getValue().force(true);
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, create(0));
+        }
+        activeBase = segments.lastKey();
+        active = segments.lastEntry().getValue();
+        written = activeBase + active.size();
+        durable = written;
+
+        syncer = new Thread(this::syncLoop, "journal-log-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /** Log position of the first record still on disk. */
+    public synchronized long start() {
+        return segments.firstKey();
+    }
+
+    /** Appends a record and returns its end position, to pass to {@link #awaitDurable}. */
+    public synchronized long append(byte[] payload) throws IOException {
+        if (written - activeBase > 0 && written - activeBase + FRAME_HEADER + payload.length > segmentBytes) {
+            active.force(false);
+            activeBase = written;
+            active = create(activeBase);
+            segments.put(activeBase, active);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + payload.length)
+            .putInt(payload.length)
+            .putInt((int) crc.getValue())
+            .put(payload)
+            .flip();
+        while (frame.hasRemaining()) {
+            active.write(frame, written - activeBase + frame.position());
+        }
+        written += FRAME_HEADER + payload.length;
+        notifyAll();
+        return written;
+    }
+
+    public void awaitDurable(long position) throws IOException, InterruptedException {
+        synchronized (durability) {
+            while (durable < position) {
+                if (syncFailure != null) {
+                    throw syncFailure;
+                }
+                if (closed) {
+                    throw new IOException("Journal log is closed");
+                }
+                durability.wait();
+            }
+        }
+    }
+
+    /**
+     * Up to {@code max} durable records starting at {@code from}, waiting at most
+     * {@code waitMs} for one to become durable.
+     */
+    public List<Record> read(long from, int max, long waitMs) throws IOException, InterruptedException {
+        long limit;
+        synchronized (durability) {
+            if (durable <= from && !closed && waitMs > 0) {
+                durability.wait(waitMs);
+            }
+            limit = durable;
+        }
+        List<Record> records = new ArrayList<>();
+        long position = from;
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        while (position < limit && records.size() < max) {
+            Map.Entry<Long, FileChannel> segment;
+            synchronized (this) {
+                segment = segments.floorEntry(position);
+            }
+            long offset = position - segment.getKey();
+            if (offset >= segment.getValue().size()) {
+                // Rolled: the next record starts the following segment
+                synchronized (this) {
+                    Long next = segments.higherKey(segment.getKey());
+                    if (next == null) {
+                        break;
+                    }
+                    position = next;
+                }
+                continue;
+            }
+            header.clear();
+            readFully(segment.getValue(), header, offset);
+            int length = header.flip().getInt();
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(segment.getValue(), payload, offset + FRAME_HEADER);
+            position += FRAME_HEADER + length;
+            records.add(new Record(position, payload.array()));
+        }
+        return records;
+    }
+
+    /** Deletes the segments that end at or before {@code position}. */
+    public synchronized void release(long position) throws IOException {
+        while (segments.size() > 1) {
+            Map.Entry<Long, FileChannel> first = segments.firstEntry();
+            Long next = segments.higherKey(first.getKey());
+            if (next > position) {
+                return;
+            }
+            first.getValue().close();
+            Files.deleteIfExists(dir.resolve(name(first.getKey())));
+            segments.remove(first.getKey());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (durability) {
+            closed = true;
+            durability.notifyAll();
+        }
+        syncer.interrupt();
+        try {
+            syncer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            active.force(false);
+            for (FileChannel channel : segments.values()) {
+                channel.close();
+            }
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            long target;
+            FileChannel channel;
+            synchronized (this) {
+                try {
+                    while (written == durableSnapshot()) {
+                        if (isClosed()) {
+                            return;
+                        }
+                        wait(100);
+                    }
+                } catch (InterruptedException e) {
+                    if (isClosed()) {
+                        return;
+                    }
+                    continue;
+                }
+                target = written;
+                channel = active;
+            }
+            try {
+                // Earlier segments were forced when the log rolled past them
+                channel.force(false);
+                synchronized (durability) {
+                    durable = target;
+                    durability.notifyAll();
+                }
+            } catch (IOException e) {
+                logger.error("Journal log sync failed: {}", e.getMessage());
+                synchronized (durability) {
+                    syncFailure = e;
+                    durability.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private long durableSnapshot() {
+        synchronized (durability) {
+            return durable;
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (durability) {
+            return closed;
+        }
+    }
+
+    // Length of the valid prefix of a segment
+    private static long scan(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        while (position + FRAME_HEADER <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0 || position + FRAME_HEADER + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + FRAME_HEADER);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.flip());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            position += FRAME_HEADER + length;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of journal log segment");
+            }
+        }
+    }
+
+    private FileChannel create(long base) throws IOException {
+        FileChannel channel = FileChannel.open(dir.resolve(name(base)), StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Make the new file itself survive a crash
+        try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Not every platform can open a directory; the file is forced with its first sync
+        }
+        return channel;
+    }
+
+    private static String name(long base) {
+        return String.format("%020d%s", base, SUFFIX);
+    }
+}
@@ -0,0 +1,446 @@
+package mind_backend.example.mind_connect.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.analysis.JournalAnalysisPipeline;
+import mind_backend.example.mind_connect.dto.BulkResult.ItemError;
+import mind_backend.example.mind_connect.dto.JournalSummary;
+import mind_backend.example.mind_connect.dto.JournalText;
+import mind_backend.example.mind_connect.entity.CompressedTextConverter;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.UserRepository;
+import mind_backend.example.mind_connect.search.JournalSearchIndex;
+import mind_backend.example.mind_connect.service.BulkRequestValidator;
+import mind_backend.example.mind_connect.service.MoodRollupService;
+import mind_backend.example.mind_connect.service.TagService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optional write-behind path for new journals, on with {@code journals.write-behind.enabled}.
+ * An accepted journal gets its id from a block of journals_seq, is appended to the
+ * {@link JournalLog} and acknowledged once the log is synced; a single writer thread then
+ * drains the log into the database in batches of {@code journals.write-behind.batch-size},
+ * one transaction each, with the same rollup, tag and search updates as a bulk create.
+ *
+ * <p>After a crash the log is read again from its oldest segment. Journals already in the
+ * table are skipped by id, so a batch that committed before its segment was released is
+ * not written twice. Until a journal has been written it is served from memory by
+ * {@link #pending(Long)} and {@link #withPending}, so its author sees it in their own
+ * listing straight away; search, tags and trends catch up when it is written.
+ *
+ * <p>A journal the database rejects, typically because its user was deleted after it was
+ * accepted, is moved to journal_dead_letters with its logged record rather than dropped.
+ */
+@Component
+public class JournalWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalWriteBehind.class);
+
+    private static final String INSERT = "insert into journals (id, user_id, title, content, preview, content_length, " +
+        "mood, tags, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DEAD_LETTER = "insert into journal_dead_letters (journal_id, user_id, payload, error, " +
+        "failed_at) values (?, ?, ?, ?, ?) on conflict do nothing";
+
+    // Must match the allocationSize of journals_seq
+    private static final int ID_BLOCK = 50;
+
+    private static final long RETRY_MS = 1_000;
+
+    private static final CompressedTextConverter contentConverter = new CompressedTextConverter();
+
+    private static final Comparator<JournalSummary> NEWEST_FIRST = Comparator
+        .comparing(JournalSummary::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(JournalSummary::id, Comparator.reverseOrder());
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BulkRequestValidator bulkRequestValidator;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private JournalSearchIndex searchIndex;
+
+    @Autowired
+    private JournalAnalysisPipeline analysisPipeline;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${journals.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${journals.write-behind.dir:data/journal-log}")
+    private String dir;
+
+    @Value("${journals.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${journals.write-behind.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${journals.write-behind.await-ms:10000}")
+    private long awaitMs;
+
+    private JournalLog log;
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final Map<Long, PendingJournal> pendingById = new ConcurrentHashMap<>();
+    // Only users with a pending journal; a set is removed with its last journal
+    private final Map<Long, Set<Long>> pendingByUser = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private long nextId;
+    private long lastId = -1;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (batchSize <= 0 || segmentBytes <= 0) {
+            throw new IllegalStateException("journals.write-behind.batch-size and segment-bytes must be positive");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        log = new JournalLog(Path.of(dir), segmentBytes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        // Whatever is still in the log was accepted but may not have been written
+        long start = log.start();
+        int replayed = 0;
+        List<JournalLog.Record> records;
+        do {
+            records = log.read(start, batchSize, 0);
+            for (JournalLog.Record record : records) {
+                addPending(objectMapper.readValue(record.payload(), PendingJournal.class));
+                start = record.end();
+                replayed++;
+            }
+        } while (!records.isEmpty());
+        logger.info("Journal write-behind started with {} journals to replay from {}", replayed, dir);
+
+        running = true;
+        writer = new Thread(this::drain, "journal-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        if (writer != null) {
+            writer.join(awaitMs);
+        }
+        log.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Logs a new journal and returns it with its id once the log record is on disk. Throws
+     * the same errors a synchronous create would for an invalid journal or unknown user.
+     */
+    public Journal accept(Journal journal) {
+        List<ItemError> errors = new ArrayList<>();
+        if (!bulkRequestValidator.validate(0, journal, errors)) {
+            throw new RuntimeException(errors.get(0).message());
+        }
+        Long userId = journal.getUser().getId();
+        if (userId == null || !userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+
+        journal.setId(nextId());
+        if (journal.getCreatedAt() != null) {
+            // As the column stores it, so a cursor taken from the overlay matches the row
+            journal.setCreatedAt(journal.getCreatedAt().truncatedTo(ChronoUnit.MICROS));
+        }
+        PendingJournal pending = new PendingJournal(journal.getId(), userId, journal.getTitle(), journal.getContent(),
+            journal.getMood(), journal.getTags(), journal.getCreatedAt());
+        // Visible before the writer can see the record, so its removal always comes after
+        addPending(pending);
+        try {
+            log.awaitDurable(log.append(objectMapper.writeValueAsBytes(pending)));
+        } catch (IOException e) {
+            removePending(List.of(pending));
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while saving the journal");
+        }
+        return journal;
+    }
+
+    public Optional<Journal> pending(Long id) {
+        PendingJournal pending = pendingById.get(id);
+        return pending == null ? Optional.empty() : Optional.of(journal(pending));
+    }
+
+    /**
+     * Reads a page of the user's journals with {@code query}, newest first, and merges in
+     * their pending journals that sort after {@code after} (all of them when it is null),
+     * keeping at most {@code limit} rows.
+     */
+    public List<JournalSummary> withPending(Long userId, Cursor after, int limit, Supplier<List<JournalSummary>> query) {
+        // Taken before the query: a journal leaves the overlay only once its row is committed
+        List<PendingJournal> pending = new ArrayList<>();
+        for (Long id : pendingByUser.getOrDefault(userId, Set.of())) {
+            PendingJournal journal = pendingById.get(id);
+            if (journal != null) {
+                pending.add(journal);
+            }
+        }
+        List<JournalSummary> rows = query.get();
+        if (pending.isEmpty()) {
+            return rows;
+        }
+        JournalSummary cursor = after == null ? null
+            : new JournalSummary(after.id(), userId, null, null, null, null, null, after.sortKeyAsDateTime());
+        Map<Long, JournalSummary> merged = new LinkedHashMap<>();
+        for (JournalSummary row : rows) {
+            merged.put(row.id(), row);
+        }
+        for (PendingJournal journal : pending) {
+            JournalSummary summary = summary(journal);
+            if (cursor == null || NEWEST_FIRST.compare(summary, cursor) > 0) {
+                merged.putIfAbsent(summary.id(), summary);
+            }
+        }
+        return merged.values().stream().sorted(NEWEST_FIRST).limit(limit).toList();
+    }
+
+    /** Waits until a pending journal has been written, so it can be changed or deleted. */
+    public void awaitWritten(Long id) {
+        if (!pendingById.containsKey(id)) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + awaitMs;
+        synchronized (pendingById) {
+            while (pendingById.containsKey(id)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new RuntimeException("Journal is still being saved, try again shortly");
+                }
+                try {
+                    pendingById.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for the journal to be saved");
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        long position = log.start();
+        while (running) {
+            try {
+                List<JournalLog.Record> records = log.read(position, batchSize, 100);
+                if (records.isEmpty()) {
+                    continue;
+                }
+                List<PendingJournal> batch = new ArrayList<>(records.size());
+                for (JournalLog.Record record : records) {
+                    batch.add(objectMapper.readValue(record.payload(), PendingJournal.class));
+                }
+                write(batch);
+                position = records.get(records.size() - 1).end();
+                removePending(batch);
+                log.release(position);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                // The records stay in the log and are retried
+                logger.warn("Journal write-behind batch failed, retrying in {} ms: {}", RETRY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write(List<PendingJournal> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (DataIntegrityViolationException e) {
+            // One bad journal must not hold up the rest; its user has most likely been deleted
+            for (PendingJournal pending : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(pending)));
+                } catch (DataIntegrityViolationException rejected) {
+                    deadLetter(pending, rejected);
+                }
+            }
+        }
+    }
+
+    // Throws, and so keeps the record in the log, unless the journal is safely set aside
+    private void deadLetter(PendingJournal pending, DataIntegrityViolationException rejected) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(pending);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        jdbcTemplate.update(DEAD_LETTER, pending.id(), pending.userId(), payload, rejected.getMessage(),
+            LocalDateTime.now());
+        logger.error("Moved logged journal {} of user {} to journal_dead_letters: {}", pending.id(),
+            pending.userId(), rejected.getMessage());
+    }
+
+    // Runs inside the batch's transaction
+    private void insert(List<PendingJournal> batch) {
+        Set<Long> written = new HashSet<>(journalRepository.findExistingIds(
+            batch.stream().map(PendingJournal::id).toList()));
+        List<Journal> journals = new ArrayList<>(batch.size());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingJournal pending : batch) {
+            if (written.contains(pending.id())) {
+                continue;
+            }
+            Journal journal = journal(pending);
+            journal.setUser(userRepository.getReferenceById(pending.userId()));
+            journals.add(journal);
+            rows.add(new Object[] {journal.getId(), pending.userId(), journal.getTitle(),
+                contentConverter.convertToDatabaseColumn(journal.getContent()), journal.getPreview(),
+                journal.getContentLength(), journal.getMood() != null ? journal.getMood().name() : null,
+                journal.getTags(), journal.getCreatedAt(), journal.getUpdatedAt()});
+        }
+        if (journals.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        moodRollupService.journalsAdded(journals);
+        tagService.journalsSaved(journals);
+
+        List<JournalText> indexed = batch.stream()
+            .filter(pending -> !written.contains(pending.id()))
+            .map(pending -> new JournalText(pending.id(), pending.userId(), pending.title(), pending.content(),
+                pending.mood(), pending.tags(), pending.createdAt()))
+            .toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                searchIndex.index(indexed);
+                analysisPipeline.submit(indexed.stream().map(JournalText::id).toList());
+            }
+        });
+    }
+
+    private synchronized long nextId() {
+        if (nextId > lastId) {
+            // The pooled optimizer's reading of a sequence value n: ids n - 49 to n are ours
+            lastId = jdbcTemplate.queryForObject("select nextval('journals_seq')", Long.class);
+            nextId = lastId - ID_BLOCK + 1;
+        }
+        return nextId++;
+    }
+
+    private void addPending(PendingJournal pending) {
+        pendingById.put(pending.id(), pending);
+        // Added under the map's lock for the user, so removePending cannot drop the set meanwhile
+        pendingByUser.compute(pending.userId(), (userId, ids) -> {
+            Set<Long> pendingIds = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            pendingIds.add(pending.id());
+            return pendingIds;
+        });
+    }
+
+    private void removePending(List<PendingJournal> batch) {
+        for (PendingJournal pending : batch) {
+            pendingByUser.computeIfPresent(pending.userId(), (userId, ids) -> {
+                ids.remove(pending.id());
+                return ids.isEmpty() ? null : ids;
+            });
+            pendingById.remove(pending.id());
+        }
+        synchronized (pendingById) {
+            pendingById.notifyAll();
+        }
+    }
+
+    private static Journal journal(PendingJournal pending) {
+        Journal journal = new Journal();
+        journal.setId(pending.id());
+        journal.setTitle(pending.title());
+        journal.setContent(pending.content());
+        journal.setMood(pending.mood());
+        journal.setTags(pending.tags());
+        if (pending.createdAt() != null) {
+            journal.setCreatedAt(pending.createdAt());
+            journal.setUpdatedAt(pending.createdAt());
+        }
+        User user = new User();
+        user.setId(pending.userId());
+        journal.setUser(user);
+        return journal;
+    }
+
+    private static JournalSummary summary(PendingJournal pending) {
+        Journal journal = journal(pending);
+        return new JournalSummary(pending.id(), pending.userId(), pending.title(), journal.getPreview(),
+            journal.getContentLength(), pending.mood(), pending.tags(), pending.createdAt());
+    }
+}
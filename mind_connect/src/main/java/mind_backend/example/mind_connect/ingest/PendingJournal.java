@@ -0,0 +1,8 @@
+package mind_backend.example.mind_connect.ingest;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import java.time.LocalDateTime;
+
+/** An accepted journal as it is kept in the journal log until it has been written to the database. */
+public record PendingJournal(long id, long userId, String title, String content, MoodLevel mood, String tags,
+                             LocalDateTime createdAt) {}
@@ -0,0 +1,67 @@
+package mind_backend.example.mind_connect.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the number of SQL statements each request issues, tagged by the matched
+ * endpoint, and writes a sampled one-line summary to the asynchronous
+ * {@code mind_connect.requests} logger. Per-endpoint latency itself comes from
+ * Spring Boot's {@code http.server.requests} timer.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger requestLog = LoggerFactory.getLogger("mind_connect.requests");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${logging.request.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        StatementCounter.reset();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.current();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("hibernate.statements.per.request")
+                .description("SQL statements issued while handling a request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+
+            if (sampleRate > 0 && requestLog.isInfoEnabled()
+                    && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                requestLog.info("{} {} status={} durationMs={} statements={}",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), statements);
+            }
+        }
+    }
+}
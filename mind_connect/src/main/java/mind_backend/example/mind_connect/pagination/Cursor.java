@@ -0,0 +1,61 @@
+package mind_backend.example.mind_connect.pagination;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page, made of the sort key and the row id that breaks
+ * ties. Listings ordered by id alone leave the sort key empty.
+ */
+public record Cursor(String sortKey, long id) {
+
+    public static Cursor ofId(Long id) {
+        return new Cursor("", id);
+    }
+
+    public static Cursor of(LocalDateTime sortKey, Long id) {
+        return new Cursor(sortKey.toString(), id);
+    }
+
+    public static Cursor of(float score, Long id) {
+        return new Cursor(Float.toString(score), id);
+    }
+
+    public String encode() {
+        String raw = sortKey + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            return new Cursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public LocalDateTime sortKeyAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public float sortKeyAsScore() {
+        try {
+            return Float.parseFloat(sortKey);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
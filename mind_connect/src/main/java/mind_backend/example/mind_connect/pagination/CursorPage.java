@@ -0,0 +1,26 @@
+package mind_backend.example.mind_connect.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is opaque to clients and is
+ * passed back unchanged to fetch the following slice; no total count is computed.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasNext) {
+
+    /**
+     * Builds a page from a query that fetched up to {@code size + 1} rows; the extra row only
+     * signals that another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> items = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? cursorOf.apply(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, next, hasNext);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+}
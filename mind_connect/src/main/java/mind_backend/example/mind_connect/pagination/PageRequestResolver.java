@@ -0,0 +1,31 @@
+package mind_backend.example.mind_connect.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the configured default and hard maximum page sizes to client-supplied values.
+ */
+@Component
+public class PageRequestResolver {
+
+    @Value("${pagination.default-size:20}")
+    private int defaultSize;
+
+    @Value("${pagination.max-size:100}")
+    private int maxSize;
+
+    public int size(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    /**
+     * Id to continue after for listings ordered by id; the first page starts after 0.
+     */
+    public long afterId(String cursor) {
+        return cursor == null || cursor.isEmpty() ? 0L : Cursor.decode(cursor).id();
+    }
+}
@@ -0,0 +1,46 @@
+package mind_backend.example.mind_connect.reminder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stand-in for a real email or SMS channel: writes one line per reminder to the
+ * {@code mind_connect.reminders} logger and, when a sink file is configured, appends the
+ * batch to that file.
+ */
+public class LogReminderNotifier implements ReminderNotifier {
+
+    private static final Logger reminderLog = LoggerFactory.getLogger("mind_connect.reminders");
+
+    private final Path sink;
+
+    public LogReminderNotifier(Path sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void deliver(List<SessionReminder> batch) {
+        List<String> lines = new ArrayList<>(batch.size());
+        for (SessionReminder reminder : batch) {
+            lines.add(String.format("session=%d user=%d therapist=%d at=%s lead=%s",
+                reminder.session().id(), reminder.session().user().id(), reminder.session().therapist().id(),
+                reminder.session().sessionDate(), reminder.lead()));
+        }
+        lines.forEach(reminderLog::info);
+
+        if (sink != null) {
+            try {
+                Files.write(sink, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                reminderLog.warn("Could not append {} reminders to {}: {}", lines.size(), sink, e.getMessage());
+            }
+        }
+    }
+}
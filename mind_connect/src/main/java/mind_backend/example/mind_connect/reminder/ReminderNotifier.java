@@ -0,0 +1,14 @@
+package mind_backend.example.mind_connect.reminder;
+
+import java.util.List;
+
+/**
+ * Delivers due session reminders. {@link ReminderScheduler} hands over reminders in
+ * batches of at most {@code reminders.batch-size}, one batch at a time from its own
+ * thread; a notifier that talks to a mail or SMS gateway can send each batch as a single
+ * request. Declaring a bean of this type replaces the default {@link LogReminderNotifier}.
+ */
+public interface ReminderNotifier {
+
+    void deliver(List<SessionReminder> batch);
+}
@@ -0,0 +1,312 @@
+package mind_backend.example.mind_connect.reminder;
+
+import mind_backend.example.mind_connect.dto.SessionSummary;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.repository.SessionIntervalView;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps one {@link TimingWheel} entry per pending reminder: a session gets one entry per
+ * configured lead time ({@code reminders.leads}, 24 hours and 15 minutes by default). The
+ * wheel is filled from the sessions table when the application starts and kept in step by
+ * {@link mind_backend.example.mind_connect.service.SessionService}, which calls
+ * {@link #track(Session)} after every save and {@link #cancel(Long)} after a delete.
+ *
+ * <p>A single thread advances the wheel every {@code reminders.tick-ms}. Due reminders are
+ * buffered and, once {@code reminders.batch-size} have collected or the oldest has waited
+ * {@code reminders.linger-ms}, loaded with one query and handed to the
+ * {@link ReminderNotifier}. Sessions that were cancelled or moved since the reminder was
+ * scheduled (on this node or another) are dropped at that point. Every node keeps its own
+ * wheel, so each reminder is claimed with a conditional update of its session row before
+ * it is sent, one JDBC batch per delivery; the nodes that lose the claim drop it.
+ *
+ * <p>A claimed reminder has been taken from every other node, so when the notifier throws
+ * the batch is kept and handed over again after {@code reminders.linger-ms}, until it goes
+ * through or its session has started.
+ *
+ * <p>A session booked inside one of its lead windows gets the nearest passed reminder
+ * straight away. Reminders that fell due while the application was down are not replayed.
+ */
+@Component
+public class ReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    private record Due(long sessionId, int lead) {}
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReminderNotifier notifier;
+
+    @Value("${reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reminders.leads:24h,15m}")
+    private String[] leadSpecs;
+
+    @Value("${reminders.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${reminders.batch-size:100}")
+    private int batchSize;
+
+    @Value("${reminders.linger-ms:2000}")
+    private long lingerMs;
+
+    // Longest lead first; entries are tagged with an index into this array
+    private Duration[] leads;
+    private TimingWheel wheel;
+    private ScheduledExecutorService ticker;
+    private final List<Due> due = new ArrayList<>();
+    private long firstDueAt;
+    // Claimed reminders the notifier failed to take, retried from retryAt on
+    private final List<SessionReminder> undelivered = new ArrayList<>();
+    private long retryAt;
+
+    @PostConstruct
+    void init() {
+        leads = Arrays.stream(leadSpecs)
+            .map(String::trim)
+            .map(DurationStyle::detectAndParse)
+            .sorted(Comparator.reverseOrder())
+            .toArray(Duration[]::new);
+        if (leads.length == 0 || leads.length > Byte.MAX_VALUE || leads[leads.length - 1].isNegative()) {
+            throw new IllegalStateException("reminders.leads must list between 1 and 127 non-negative durations");
+        }
+        if (tickMs <= 0 || batchSize <= 0) {
+            throw new IllegalStateException("reminders.tick-ms and reminders.batch-size must be positive");
+        }
+        wheel = new TimingWheel(tick(System.currentTimeMillis()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<SessionIntervalView> sessions = sessionRepository.findScheduledIntervalsAfter(now);
+        synchronized (this) {
+            for (SessionIntervalView session : sessions) {
+                schedule(session.getId(), session.getSessionDate(), false);
+            }
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::run, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        logger.info("Reminder scheduler loaded {} reminders for {} sessions", pending(), sessions.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /** Replaces the reminders for a saved session with ones matching its current state. */
+    public void track(Session session) {
+        if (!enabled || session.getId() == null) {
+            return;
+        }
+        synchronized (this) {
+            wheel.cancel(session.getId());
+            if (session.getStatus() == SessionStatus.SCHEDULED && session.getSessionDate() != null
+                    && session.getSessionDate().isAfter(LocalDateTime.now())) {
+                schedule(session.getId(), session.getSessionDate(), true);
+            }
+        }
+    }
+
+    public void cancel(Long sessionId) {
+        if (!enabled || sessionId == null) {
+            return;
+        }
+        synchronized (this) {
+            wheel.cancel(sessionId);
+        }
+    }
+
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    public synchronized int pending(Long sessionId) {
+        return wheel.size(sessionId);
+    }
+
+    /**
+     * Delivers everything that is due now, regardless of batch size or linger time, and
+     * returns the number of reminders handed to the notifier.
+     */
+    public int flush() {
+        List<Due> batch;
+        List<SessionReminder> retries;
+        synchronized (this) {
+            wheel.advance(tick(System.currentTimeMillis()), this::collect);
+            batch = new ArrayList<>(due);
+            due.clear();
+            retries = new ArrayList<>(undelivered);
+            undelivered.clear();
+        }
+        int delivered = 0;
+        for (int from = 0; from < retries.size(); from += batchSize) {
+            delivered += retry(retries.subList(from, Math.min(from + batchSize, retries.size())));
+        }
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            delivered += deliver(batch.subList(from, Math.min(from + batchSize, batch.size())));
+        }
+        return delivered;
+    }
+
+    private void run() {
+        try {
+            long now = System.currentTimeMillis();
+            boolean ready;
+            synchronized (this) {
+                wheel.advance(tick(now), this::collect);
+                ready = due.size() >= batchSize || (!due.isEmpty() && now - firstDueAt >= lingerMs)
+                    || (!undelivered.isEmpty() && now >= retryAt);
+            }
+            if (ready) {
+                flush();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Reminder delivery failed: {}", e.getMessage());
+        }
+    }
+
+    // Called with the monitor held
+    private void schedule(long sessionId, LocalDateTime sessionDate, boolean sendOverdue) {
+        long start = sessionDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        int overdue = -1;
+        for (int i = 0; i < leads.length; i++) {
+            if (!wheel.schedule(sessionId, tick(start - leads[i].toMillis()), i)) {
+                overdue = i;
+            }
+        }
+        if (sendOverdue && overdue >= 0) {
+            add(new Due(sessionId, overdue));
+        }
+    }
+
+    private void collect(TimingWheel.Entry entry) {
+        add(new Due(entry.key(), entry.tag()));
+    }
+
+    private void add(Due reminder) {
+        if (due.isEmpty()) {
+            firstDueAt = System.currentTimeMillis();
+        }
+        due.add(reminder);
+    }
+
+    private int deliver(List<Due> batch) {
+        Set<Long> ids = batch.stream().map(Due::sessionId).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, SessionSummary> sessions = sessionRepository.findScheduledSummaries(ids).stream()
+            .collect(Collectors.toMap(SessionSummary::id, Function.identity()));
+
+        // One tick of slack for rounding; anything later was rescheduled after this reminder was set
+        LocalDateTime horizon = LocalDateTime.now().plus(Duration.ofMillis(tickMs));
+        List<SessionReminder> candidates = new ArrayList<>(batch.size());
+        for (Due reminder : batch) {
+            SessionSummary session = sessions.get(reminder.sessionId());
+            Duration lead = leads[reminder.lead()];
+            if (session != null && !session.sessionDate().minus(lead).isAfter(horizon)) {
+                candidates.add(new SessionReminder(session, lead));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        SqlParameterSource[] claims = candidates.stream()
+            .map(reminder -> new MapSqlParameterSource()
+                .addValue("id", reminder.session().id())
+                .addValue("sessionDate", reminder.session().sessionDate())
+                .addValue("leadSeconds", reminder.lead().toSeconds()))
+            .toArray(SqlParameterSource[]::new);
+        int[] claimed = jdbcTemplate.batchUpdate(SessionRepository.CLAIM_REMINDER, claims);
+        List<SessionReminder> reminders = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (claimed[i] == 1) {
+                reminders.add(candidates.get(i));
+            }
+        }
+        return send(reminders);
+    }
+
+    // Reminders claimed by an earlier delivery; the ones whose session has started are dropped
+    private int retry(List<SessionReminder> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SessionReminder> reminders = new ArrayList<>(batch.size());
+        for (SessionReminder reminder : batch) {
+            if (reminder.session().sessionDate().isAfter(now)) {
+                reminders.add(reminder);
+            } else {
+                logger.error("Dropped the {} reminder for session {}: it could not be delivered before the session started",
+                    reminder.lead(), reminder.session().id());
+            }
+        }
+        return send(reminders);
+    }
+
+    private int send(List<SessionReminder> reminders) {
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        try {
+            notifier.deliver(reminders);
+            return reminders.size();
+        } catch (RuntimeException e) {
+            logger.warn("Could not deliver {} claimed reminders, retrying in {} ms: {}", reminders.size(), lingerMs,
+                e.getMessage());
+            synchronized (this) {
+                undelivered.addAll(reminders);
+                retryAt = System.currentTimeMillis() + lingerMs;
+            }
+            return 0;
+        }
+    }
+
+    private long tick(long epochMillis) {
+        return Math.floorDiv(epochMillis, tickMs);
+    }
+}
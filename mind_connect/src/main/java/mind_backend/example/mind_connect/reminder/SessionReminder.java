@@ -0,0 +1,10 @@
+package mind_backend.example.mind_connect.reminder;
+
+import mind_backend.example.mind_connect.dto.SessionSummary;
+import java.time.Duration;
+
+/**
+ * A reminder that has fallen due: the session it is for and how far ahead of the session
+ * it was meant to go out.
+ */
+public record SessionReminder(SessionSummary session, Duration lead) {}
@@ -0,0 +1,194 @@
+package mind_backend.example.mind_connect.reminder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timing wheel. Deadlines are whole ticks; level {@code n} has 64
+ * slots of {@code 64^n} ticks each, so five levels cover {@code 64^5} ticks (about 34
+ * years at one-second ticks). An entry sits in the slot of the lowest level whose span
+ * still reaches its deadline and is moved down a level each time the level above wraps,
+ * the way the classic kernel timer wheel cascades.
+ *
+ * <p>Scheduling and cancelling are O(1): each slot is a circular doubly linked list, and
+ * entries sharing a key are chained so a key's entries can be found without scanning.
+ * An entry holds two longs, a byte tag and three references, about 48 bytes with
+ * compressed pointers. Not thread-safe; callers synchronize.
+ */
+public final class TimingWheel {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 5;
+
+    private static final int MASK = SLOTS - 1;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    public static final class Entry {
+        private final long key;
+        private final long deadline;
+        private final byte tag;
+        private Entry prev;
+        private Entry next;
+        private Entry sibling;
+
+        private Entry(long key, long deadline, int tag) {
+            this.key = key;
+            this.deadline = deadline;
+            this.tag = (byte) tag;
+        }
+
+        public long key() {
+            return key;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public int tag() {
+            return tag;
+        }
+    }
+
+    // Each slot starts with a sentinel so unlinking never has to know which slot it is in
+    private final Entry[][] wheels = new Entry[LEVELS][SLOTS];
+    private final Map<Long, Entry> byKey = new HashMap<>();
+    private long current;
+    private int size;
+
+    public TimingWheel(long startTick) {
+        this.current = startTick;
+        for (Entry[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                Entry sentinel = new Entry(0, 0, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                wheel[i] = sentinel;
+            }
+        }
+    }
+
+    public long currentTick() {
+        return current;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int size(long key) {
+        int count = 0;
+        for (Entry entry = byKey.get(key); entry != null; entry = entry.sibling) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Adds an entry for {@code key} due at {@code deadline}. Returns false, without adding
+     * anything, when the deadline is not after the current tick.
+     */
+    public boolean schedule(long key, long deadline, int tag) {
+        if (deadline <= current) {
+            return false;
+        }
+        Entry entry = new Entry(key, deadline, tag);
+        entry.sibling = byKey.put(key, entry);
+        place(entry);
+        size++;
+        return true;
+    }
+
+    /** Removes every entry for {@code key} and returns how many there were. */
+    public int cancel(long key) {
+        int removed = 0;
+        for (Entry entry = byKey.remove(key); entry != null; entry = entry.sibling) {
+            unlink(entry);
+            removed++;
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /** Moves the wheel forward to {@code tick}, handing every entry that falls due to {@code expired}. */
+    public void advance(long tick, Consumer<Entry> expired) {
+        while (current < tick) {
+            current++;
+            int index = (int) (current & MASK);
+            if (index == 0) {
+                for (int level = 1; level < LEVELS; level++) {
+                    int slot = (int) ((current >>> (SLOT_BITS * level)) & MASK);
+                    cascade(wheels[level][slot]);
+                    if (slot != 0) {
+                        break;
+                    }
+                }
+            }
+            Entry head = wheels[0][index];
+            while (head.next != head) {
+                Entry entry = head.next;
+                unlink(entry);
+                forget(entry);
+                size--;
+                expired.accept(entry);
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        long delta = entry.deadline - current;
+        long at = entry.deadline;
+        if (delta >= SPAN) {
+            // Beyond the top level: park it as far out as the wheel reaches and re-place it from there
+            delta = SPAN - 1;
+            at = current + delta;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        Entry head = wheels[level][(int) ((at >>> (SLOT_BITS * level)) & MASK)];
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+    }
+
+    private void cascade(Entry head) {
+        Entry entry = head.next;
+        head.prev = head;
+        head.next = head;
+        while (entry != head) {
+            Entry next = entry.next;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private static void unlink(Entry entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private void forget(Entry entry) {
+        Entry first = byKey.get(entry.key);
+        if (first == entry) {
+            if (entry.sibling == null) {
+                byKey.remove(entry.key);
+            } else {
+                byKey.put(entry.key, entry.sibling);
+            }
+            return;
+        }
+        for (Entry other = first; other != null; other = other.sibling) {
+            if (other.sibling == entry) {
+                other.sibling = entry.sibling;
+                return;
+            }
+        }
+    }
+}
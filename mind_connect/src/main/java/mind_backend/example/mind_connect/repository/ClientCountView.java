@@ -0,0 +1,7 @@
+package mind_backend.example.mind_connect.repository;
+
+public interface ClientCountView {
+    Long getTherapistId();
+    Long getUserId();
+    Long getSessions();
+}
@@ -0,0 +1,22 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.JournalAlert;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JournalAlertRepository extends JpaRepository<JournalAlert, Long> {
+    @Query("select a.journalId from JournalAlert a where a.journalId in :journalIds")
+    List<Long> findAlertedJournalIds(@Param("journalIds") Collection<Long> journalIds);
+
+    // Alerts of the users with a session booked with the therapist, newest first
+    @Query("select a from JournalAlert a where a.id < :beforeId and a.userId in " +
+           "(select s.user.id from Session s where s.therapist.id = :therapistId) order by a.id desc")
+    List<JournalAlert> findPageForTherapist(@Param("therapistId") Long therapistId, @Param("beforeId") long beforeId,
+                                            Limit limit);
+}
@@ -0,0 +1,11 @@
+package mind_backend.example.mind_connect.repository;
+
+import java.time.LocalDateTime;
+
+public interface JournalAnalysisView {
+    Long getId();
+    Long getUserId();
+    String getTitle();
+    String getContent();
+    LocalDateTime getUpdatedAt();
+}
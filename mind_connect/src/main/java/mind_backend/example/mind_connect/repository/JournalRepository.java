@@ -1,17 +1,105 @@
 package mind_backend.example.mind_connect.repository;
 
+import mind_backend.example.mind_connect.dto.JournalSummary;
+import mind_backend.example.mind_connect.dto.JournalText;
 import mind_backend.example.mind_connect.entity.Journal;
 import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 
 @Repository
 public interface JournalRepository extends JpaRepository<Journal, Long> {
-    List<Journal> findByUserId(Long userId);
+    @Override
+    @EntityGraph("Journal.author")
+    Optional<Journal> findById(Long id);
+
+    @EntityGraph("Journal.author")
     List<Journal> findByUserIdOrderByCreatedAtDesc(Long userId);
-    List<Journal> findByMood(MoodLevel mood);
-    List<Journal> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph("Journal.author")
     List<Journal> findByUserIdAndCreatedAtBetween(Long userId, LocalDateTime start, LocalDateTime end);
+
+    // Keyset pages ordered by id; pass the last id of the previous page (0 for the first)
+    String SUMMARY = "select new mind_backend.example.mind_connect.dto.JournalSummary(" +
+        "j.id, j.user.id, j.title, j.preview, j.contentLength, j.mood, j.tags, j.createdAt) from Journal j ";
+
+    // Reads and decompresses the content; only for the search index
+    String TEXT = "select new mind_backend.example.mind_connect.dto.JournalText(" +
+        "j.id, j.user.id, j.title, j.content, j.mood, j.tags, j.createdAt) from Journal j ";
+
+    @Query(SUMMARY + "where j.id > :afterId order by j.id")
+    List<JournalSummary> findPage(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SUMMARY + "where j.mood = :mood and j.id > :afterId order by j.id")
+    List<JournalSummary> findPageByMood(@Param("mood") MoodLevel mood, @Param("afterId") long afterId, Limit limit);
+
+    @Query("select j.id from Journal j where j.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY + "where j.id in :ids")
+    List<JournalSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(TEXT + "where j.id > :afterId order by j.id")
+    List<JournalText> findTextPage(@Param("afterId") long afterId, Limit limit);
+
+    @Query(TEXT + "where j.id in :ids")
+    List<JournalText> findTextsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(TEXT + "where j.updatedAt >= :since")
+    List<JournalText> findTextsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Analysis: journals waiting for it in id order, then what the analyzer reads
+    @Query("select j.id from Journal j where j.analyzedAt is null and j.id > :afterId order by j.id")
+    List<Long> findUnanalyzedIds(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select j.id as id, j.user.id as userId, j.title as title, j.content as content, " +
+           "j.updatedAt as updatedAt from Journal j where j.id in :ids")
+    List<JournalAnalysisView> findAnalysisInputs(@Param("ids") Collection<Long> ids);
+
+    // Mood rollup rebuilds: journals per user, day and mood for a range of user ids
+    @Query("select j.user.id as userId, cast(j.createdAt as LocalDate) as day, j.mood as mood, count(j) as entries " +
+           "from Journal j where j.user.id between :fromUserId and :toUserId " +
+           "and j.mood is not null and j.createdAt is not null " +
+           "group by j.user.id, cast(j.createdAt as LocalDate), j.mood")
+    List<MoodDayCountView> countMoodsByDay(@Param("fromUserId") long fromUserId, @Param("toUserId") long toUserId);
+
+    // Motivation recommendations: the mood of a user's newest journal that has one
+    @Query("select j.createdAt as createdAt, j.mood as mood from Journal j " +
+           "where j.user.id = :userId and j.mood is not null and j.createdAt is not null " +
+           "order by j.createdAt desc, j.id desc")
+    List<LatestMoodView> findLatestMoods(@Param("userId") Long userId, Limit limit);
+
+    // Exports: oldest first, fetched in chunks from an open cursor and never dirty-checked
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select j from Journal j where j.user.id = :userId order by j.createdAt, j.id")
+    Stream<Journal> streamByUserId(@Param("userId") Long userId);
+
+    @Query("select min(j.user.id) from Journal j")
+    Optional<Long> findMinUserId();
+
+    @Query("select max(j.user.id) from Journal j")
+    Optional<Long> findMaxUserId();
+
+    // A user's journals, newest first, keyed on (createdAt, id)
+    @Query(SUMMARY + "where j.user.id = :userId order by j.createdAt desc, j.id desc")
+    List<JournalSummary> findFirstPageByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query(SUMMARY + "where j.user.id = :userId and " +
+           "(j.createdAt < :createdAt or (j.createdAt = :createdAt and j.id < :id)) " +
+           "order by j.createdAt desc, j.id desc")
+    List<JournalSummary> findPageByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") long id, Limit limit);
 }
@@ -0,0 +1,7 @@
+package mind_backend.example.mind_connect.repository;
+
+public interface JournalTagView {
+    Long getJournalId();
+    Long getUserId();
+    Long getTagId();
+}
@@ -0,0 +1,9 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import java.time.LocalDateTime;
+
+public interface LatestMoodView {
+    LocalDateTime getCreatedAt();
+    MoodLevel getMood();
+}
@@ -0,0 +1,11 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import java.time.LocalDate;
+
+public interface MoodDayCountView {
+    Long getUserId();
+    LocalDate getDay();
+    MoodLevel getMood();
+    Long getEntries();
+}
@@ -0,0 +1,53 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.MoodRollup;
+import mind_backend.example.mind_connect.entity.MoodRollup.Period;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MoodRollupRepository extends JpaRepository<MoodRollup, MoodRollup.Key> {
+
+    @Query("select r from MoodRollup r where r.userId = :userId and r.period = :period " +
+           "and r.periodStart >= :from and r.periodStart < :to order by r.periodStart")
+    List<MoodRollup> findRange(@Param("userId") Long userId, @Param("period") Period period,
+                               @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Transactional
+    @Query("update MoodRollup r set r.entries = r.entries + :delta where r.userId = :userId " +
+           "and r.period = :period and r.periodStart = :periodStart and r.mood = :mood")
+    int addEntries(@Param("userId") Long userId, @Param("period") Period period,
+                   @Param("periodStart") LocalDate periodStart, @Param("mood") MoodLevel mood,
+                   @Param("delta") long delta);
+
+    @Modifying
+    @Transactional
+    // Does nothing, and returns 0, if another request created the row first. Unlike a unique
+    // violation that leaves the caller's transaction usable on PostgreSQL.
+    @Query(value = "insert into mood_rollups (user_id, period, period_start, mood, entries) " +
+                   "values (:userId, :period, :periodStart, :mood, :entries) on conflict do nothing",
+           nativeQuery = true)
+    int insertEntries(@Param("userId") Long userId, @Param("period") String period,
+                      @Param("periodStart") LocalDate periodStart, @Param("mood") String mood,
+                      @Param("entries") long entries);
+
+    @Modifying
+    @Transactional
+    @Query("delete from MoodRollup r where r.userId = :userId and r.period = :period " +
+           "and r.periodStart = :periodStart and r.mood = :mood and r.entries <= 0")
+    int deleteEmpty(@Param("userId") Long userId, @Param("period") Period period,
+                    @Param("periodStart") LocalDate periodStart, @Param("mood") MoodLevel mood);
+
+    // Rebuilds; MoodRollupRebuilder runs them in the transaction that rewrites the range
+    @Modifying
+    @Query("delete from MoodRollup r where r.userId between :fromUserId and :toUserId")
+    int deleteUsers(@Param("fromUserId") long fromUserId, @Param("toUserId") long toUserId);
+}
@@ -1,12 +1,31 @@
 package mind_backend.example.mind_connect.repository;
 
+import mind_backend.example.mind_connect.dto.MotivationSummary;
 import mind_backend.example.mind_connect.entity.Motivation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Repository
 public interface MotivationRepository extends JpaRepository<Motivation, Long> {
     List<Motivation> findByType(Motivation.ContentType type);
     List<Motivation> findByCategory(String category);
+
+    @Modifying
+    @Transactional
+    @Query("update Motivation m set m.active = case when m.active = true then false else true end, " +
+           "m.version = m.version + 1 where m.id = :id and (:version is null or m.version = :version)")
+    int toggleActive(@Param("id") Long id, @Param("version") Long version);
+
+    // Keyset pages ordered by id; pass the last id of the previous page (0 for the first)
+    String SUMMARY = "select new mind_backend.example.mind_connect.dto.MotivationSummary(" +
+        "m.id, m.title, m.content, m.type, m.author, m.category) from Motivation m ";
+
+    @Query(SUMMARY + "where m.id > :afterId order by m.id")
+    List<MotivationSummary> findPage(@Param("afterId") long afterId, Limit limit);
 }
@@ -0,0 +1,7 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+
+public interface SessionChangeView extends SessionIntervalView {
+    SessionStatus getStatus();
+}
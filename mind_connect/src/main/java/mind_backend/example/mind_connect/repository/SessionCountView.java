@@ -0,0 +1,10 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+
+public interface SessionCountView {
+    Long getTherapistId();
+    SessionStatus getStatus();
+    Long getSessions();
+    Long getMinutes();
+}
@@ -0,0 +1,10 @@
+package mind_backend.example.mind_connect.repository;
+
+import java.time.LocalDateTime;
+
+public interface SessionIntervalView {
+    Long getId();
+    Long getTherapistId();
+    LocalDateTime getSessionDate();
+    Integer getDuration();
+}
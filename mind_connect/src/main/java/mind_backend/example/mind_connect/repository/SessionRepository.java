@@ -1,18 +1,144 @@
 package mind_backend.example.mind_connect.repository;
 
+import mind_backend.example.mind_connect.dto.SessionSummary;
 import mind_backend.example.mind_connect.entity.Session;
 import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
-    List<Session> findByUserId(Long userId);
-    List<Session> findByTherapistId(Long therapistId);
-    List<Session> findByStatus(SessionStatus status);
-    List<Session> findBySessionDateBetween(LocalDateTime start, LocalDateTime end);
-    List<Session> findByUserIdAndStatus(Long userId, SessionStatus status);
-    List<Session> findByTherapistIdAndStatus(Long therapistId, SessionStatus status);
+    @Override
+    @EntityGraph("Session.participants")
+    Optional<Session> findById(Long id);
+
+    // Exports: oldest first, fetched in chunks from an open cursor and never dirty-checked
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select s from Session s where s.user.id = :userId order by s.sessionDate, s.id")
+    Stream<Session> streamByUserId(@Param("userId") Long userId);
+
+    // Single-statement status change, applied only while the session is still in status from;
+    // with a null version it applies whatever the current version is
+    @Modifying
+    @Transactional
+    @Query("update Session s set s.status = :status, s.version = s.version + 1, s.updatedAt = local datetime " +
+           "where s.id = :id and s.status = :from and (:version is null or s.version = :version)")
+    int updateStatus(@Param("id") Long id, @Param("from") SessionStatus from, @Param("status") SessionStatus status,
+                     @Param("version") Long version);
+
+    @Query("select s.id as id, s.therapist.id as therapistId, s.user.id as userId, s.status as status, " +
+           "s.duration as duration, s.sessionDate as sessionDate, s.version as version " +
+           "from Session s where s.id = :id")
+    Optional<SessionStateView> findStateById(@Param("id") Long id);
+
+    // Caseload counts for TherapistStatsReconciler, grouped for a chunk of therapists
+    @Query("select s.therapist.id as therapistId, s.status as status, count(s) as sessions, " +
+           "coalesce(sum(s.duration), 0) as minutes from Session s " +
+           "where s.therapist.id in :therapistIds group by s.therapist.id, s.status")
+    List<SessionCountView> countByTherapistAndStatus(@Param("therapistIds") Collection<Long> therapistIds);
+
+    @Query("select s.therapist.id as therapistId, s.user.id as userId, count(s) as sessions from Session s " +
+           "where s.therapist.id in :therapistIds group by s.therapist.id, s.user.id")
+    List<ClientCountView> countByTherapistAndUser(@Param("therapistIds") Collection<Long> therapistIds);
+
+    @Query("select s.therapist.id as therapistId, count(s) as sessions from Session s " +
+           "where s.therapist.id in :therapistIds and s.status = 'SCHEDULED' and s.sessionDate > :from " +
+           "group by s.therapist.id")
+    List<TherapistCountView> countUpcomingByTherapist(@Param("therapistIds") Collection<Long> therapistIds,
+                                                      @Param("from") LocalDateTime from);
+
+    @Query("select s.id as id, s.therapist.id as therapistId, s.sessionDate as sessionDate, s.duration as duration " +
+           "from Session s where s.therapist.id = :therapistId and s.status = 'SCHEDULED'")
+    List<SessionIntervalView> findScheduledIntervals(@Param("therapistId") Long therapistId);
+
+    @Query("select s.id as id, s.therapist.id as therapistId, s.sessionDate as sessionDate, s.duration as duration " +
+           "from Session s where s.id = :id and s.status = 'SCHEDULED'")
+    Optional<SessionIntervalView> findScheduledInterval(@Param("id") Long id);
+
+    @Query("select s.id as id, s.therapist.id as therapistId, s.sessionDate as sessionDate, s.duration as duration " +
+           "from Session s where s.status = 'SCHEDULED'")
+    List<SessionIntervalView> findAllScheduledIntervals();
+
+    // Every status, so sessions that stopped being scheduled are reported too
+    @Query("select s.id as id, s.therapist.id as therapistId, s.sessionDate as sessionDate, s.duration as duration, " +
+           "s.status as status from Session s where s.updatedAt >= :since")
+    List<SessionChangeView> findChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("select s.id as id, s.therapist.id as therapistId, s.sessionDate as sessionDate, s.duration as duration " +
+           "from Session s where s.status = 'SCHEDULED' and s.sessionDate > :from")
+    List<SessionIntervalView> findScheduledIntervalsAfter(@Param("from") LocalDateTime from);
+
+    // Claims the reminder due leadSeconds before the session starts at sessionDate. Only the first
+    // node to claim it updates the row; a reminder for a longer lead or an earlier start does not block it.
+    // ReminderScheduler runs the same statement as one JDBC batch per delivery
+    String CLAIM_REMINDER = "update sessions set reminded_for = :sessionDate, reminded_lead_seconds = :leadSeconds " +
+        "where id = :id and status = 'SCHEDULED' and session_date = :sessionDate and " +
+        "(reminded_for is null or reminded_for <> session_date or reminded_lead_seconds > :leadSeconds)";
+
+    @Modifying
+    @Transactional
+    @Query(value = CLAIM_REMINDER, nativeQuery = true)
+    int claimReminder(@Param("id") Long id, @Param("sessionDate") LocalDateTime sessionDate,
+                      @Param("leadSeconds") long leadSeconds);
+
+    // Keyset pages ordered by id; pass the last id of the previous page (0 for the first)
+    String SUMMARY = "select new mind_backend.example.mind_connect.dto.SessionSummary(" +
+        "s.id, s.sessionDate, s.status, s.sessionType, s.duration, s.notes, " +
+        "u.id, u.firstName, u.lastName, t.id, t.firstName, t.lastName, t.specialization) " +
+        "from Session s join s.user u join s.therapist t ";
+
+    @Query(SUMMARY + "where s.id > :afterId order by s.id")
+    List<SessionSummary> findPage(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SUMMARY + "where u.id = :userId and s.id > :afterId order by s.id")
+    List<SessionSummary> findPageByUserId(@Param("userId") Long userId, @Param("afterId") long afterId, Limit limit);
+
+    @Query(SUMMARY + "where t.id = :therapistId and s.id > :afterId order by s.id")
+    List<SessionSummary> findPageByTherapistId(@Param("therapistId") Long therapistId,
+                                               @Param("afterId") long afterId, Limit limit);
+
+    // Upcoming scheduled sessions in date order, keyed on (sessionDate, id); the first page
+    // starts after (now, 0)
+    @Query(SUMMARY + "where u.id = :userId and s.status = 'SCHEDULED' and " +
+           "(s.sessionDate > :date or (s.sessionDate = :date and s.id > :id)) order by s.sessionDate, s.id")
+    List<SessionSummary> findUpcomingByUserId(@Param("userId") Long userId, @Param("date") LocalDateTime date,
+                                              @Param("id") long id, Limit limit);
+
+    @Query(SUMMARY + "where t.id = :therapistId and s.status = 'SCHEDULED' and " +
+           "(s.sessionDate > :date or (s.sessionDate = :date and s.id > :id)) order by s.sessionDate, s.id")
+    List<SessionSummary> findUpcomingByTherapistId(@Param("therapistId") Long therapistId,
+                                                   @Param("date") LocalDateTime date,
+                                                   @Param("id") long id, Limit limit);
+
+    // Past sessions of any status, newest first, keyed on (sessionDate, id); the first page
+    // starts before (now, 0)
+    @Query(SUMMARY + "where u.id = :userId and " +
+           "(s.sessionDate < :date or (s.sessionDate = :date and s.id < :id)) order by s.sessionDate desc, s.id desc")
+    List<SessionSummary> findHistoryByUserId(@Param("userId") Long userId, @Param("date") LocalDateTime date,
+                                             @Param("id") long id, Limit limit);
+
+    @Query(SUMMARY + "where t.id = :therapistId and " +
+           "(s.sessionDate < :date or (s.sessionDate = :date and s.id < :id)) order by s.sessionDate desc, s.id desc")
+    List<SessionSummary> findHistoryByTherapistId(@Param("therapistId") Long therapistId,
+                                                  @Param("date") LocalDateTime date,
+                                                  @Param("id") long id, Limit limit);
+
+    // Scheduled sessions among the given ids, for batched reminder delivery
+    @Query(SUMMARY + "where s.id in :ids and s.status = 'SCHEDULED'")
+    List<SessionSummary> findScheduledSummaries(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,14 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import java.time.LocalDateTime;
+
+public interface SessionStateView {
+    Long getId();
+    Long getTherapistId();
+    Long getUserId();
+    SessionStatus getStatus();
+    Integer getDuration();
+    LocalDateTime getSessionDate();
+    Long getVersion();
+}
@@ -0,0 +1,36 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.Tag;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+    Optional<Tag> findByName(String name);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from journal_tags where journal_id = :journalId and tag_id in :tagIds", nativeQuery = true)
+    int deleteJournalTags(@Param("journalId") Long journalId, @Param("tagIds") Collection<Long> tagIds);
+
+    // Startup load, keyset pages ordered by (journal_id, tag_id)
+    @Query(value = "select jt.journal_id as journalId, j.user_id as userId, jt.tag_id as tagId " +
+                   "from journal_tags jt join journals j on j.id = jt.journal_id " +
+                   "where jt.journal_id > :journalId or (jt.journal_id = :journalId and jt.tag_id > :tagId) " +
+                   "order by jt.journal_id, jt.tag_id", nativeQuery = true)
+    List<JournalTagView> findTaggedJournals(@Param("journalId") long journalId, @Param("tagId") long tagId,
+                                            Limit limit);
+
+    @Query(value = "select j.id as id, j.user_id as userId, j.tags as tags from journals j " +
+                   "where j.tags is not null and j.tags <> '' " +
+                   "and not exists (select 1 from journal_tags jt where jt.journal_id = j.id)", nativeQuery = true)
+    List<UntaggedJournalView> findJournalsWithoutTagRows();
+}
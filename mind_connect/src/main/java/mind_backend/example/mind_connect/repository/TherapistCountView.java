@@ -0,0 +1,6 @@
+package mind_backend.example.mind_connect.repository;
+
+public interface TherapistCountView {
+    Long getTherapistId();
+    Long getSessions();
+}
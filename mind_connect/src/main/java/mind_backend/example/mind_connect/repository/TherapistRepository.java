@@ -1,15 +1,59 @@
 package mind_backend.example.mind_connect.repository;
 
+import mind_backend.example.mind_connect.dto.TherapistSummary;
 import mind_backend.example.mind_connect.entity.Therapist;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TherapistRepository extends JpaRepository<Therapist, Long> {
     Optional<Therapist> findByEmail(String email);
-    List<Therapist> findByAvailableTrue();
-    List<Therapist> findBySpecialization(String specialization);
     boolean existsByEmail(String email);
+
+    @Query("select t.id from Therapist t order by t.id")
+    List<Long> findAllIds();
+
+    @Query("select t.id from Therapist t where t.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(t.tokenVersion, 0) from Therapist t where t.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update Therapist t set t.password = :password where t.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Modifying
+    @Transactional
+    @Query("update Therapist t set t.available = :available, t.version = t.version + 1 " +
+           "where t.id = :id and (:version is null or t.version = :version)")
+    int updateAvailability(@Param("id") Long id, @Param("available") Boolean available, @Param("version") Long version);
+
+    // Keyset pages ordered by id; pass the last id of the previous page (0 for the first)
+    String SUMMARY = "select new mind_backend.example.mind_connect.dto.TherapistSummary(" +
+        "t.id, t.firstName, t.lastName, t.email, t.phone, t.specialization, t.qualification, " +
+        "t.experience, t.bio, t.rating, t.available) from Therapist t ";
+
+    @Query(SUMMARY + "where t.id > :afterId order by t.id")
+    List<TherapistSummary> findPage(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SUMMARY + "where t.available = true and t.id > :afterId order by t.id")
+    List<TherapistSummary> findAvailablePage(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SUMMARY + "where t.available = true and (:specialization is null or t.specialization = :specialization) " +
+           "order by t.id")
+    List<TherapistSummary> findAvailableBySpecialization(@Param("specialization") String specialization);
+
+    @Query(SUMMARY + "where t.specialization = :specialization and t.id > :afterId order by t.id")
+    List<TherapistSummary> findPageBySpecialization(@Param("specialization") String specialization,
+                                                    @Param("afterId") long afterId, Limit limit);
 }
@@ -0,0 +1,129 @@
+package mind_backend.example.mind_connect.repository;
+
+import mind_backend.example.mind_connect.entity.TherapistStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TherapistStatsRepository extends JpaRepository<TherapistStats, Long> {
+
+    // Relative updates, so concurrent changes for the same therapist add up instead of racing.
+    // A group of scheduled sessions arriving or leaving moves the upcoming count only if its
+    // earliest start is after the row's upcoming_as_of.
+    @Modifying
+    @Transactional
+    @Query("update TherapistStats s set s.scheduledSessions = s.scheduledSessions + :scheduled, " +
+           "s.completedSessions = s.completedSessions + :completed, " +
+           "s.cancelledSessions = s.cancelledSessions + :cancelled, " +
+           "s.noShowSessions = s.noShowSessions + :noShow, " +
+           "s.completedMinutes = s.completedMinutes + :minutes, " +
+           "s.distinctClients = s.distinctClients + :clients, " +
+           "s.upcomingSessions = s.upcomingSessions " +
+           "+ case when :arrivingFrom > s.upcomingAsOf then :arriving else 0 end " +
+           "- case when :leavingFrom > s.upcomingAsOf then :leaving else 0 end, s.updatedAt = :now " +
+           "where s.therapistId = :therapistId")
+    int applyDelta(@Param("therapistId") Long therapistId, @Param("scheduled") long scheduled,
+                   @Param("completed") long completed, @Param("cancelled") long cancelled,
+                   @Param("noShow") long noShow, @Param("minutes") long minutes,
+                   @Param("clients") long clients, @Param("arriving") long arriving,
+                   @Param("arrivingFrom") LocalDateTime arrivingFrom, @Param("leaving") long leaving,
+                   @Param("leavingFrom") LocalDateTime leavingFrom, @Param("now") LocalDateTime now);
+
+    // A status change of one session; its therapist, start and duration are read from the
+    // sessions row, so the caller needs nothing but the id
+    @Modifying
+    @Transactional
+    @Query(value = "update therapist_stats set scheduled_sessions = scheduled_sessions + :scheduled, " +
+                   "completed_sessions = completed_sessions + :completed, " +
+                   "cancelled_sessions = cancelled_sessions + :cancelled, " +
+                   "no_show_sessions = no_show_sessions + :noShow, " +
+                   "completed_minutes = completed_minutes + :completed * " +
+                   "coalesce((select duration from sessions where id = :sessionId), 0), " +
+                   "upcoming_sessions = upcoming_sessions + case when " +
+                   "(select session_date from sessions where id = :sessionId) > upcoming_as_of " +
+                   "then :scheduled else 0 end, updated_at = :now " +
+                   "where therapist_id = (select therapist_id from sessions where id = :sessionId)", nativeQuery = true)
+    int applyStatusChange(@Param("sessionId") Long sessionId, @Param("scheduled") long scheduled,
+                          @Param("completed") long completed, @Param("cancelled") long cancelled,
+                          @Param("noShow") long noShow, @Param("now") LocalDateTime now);
+
+    // The inserts below never fail, so the session write they run with can still commit:
+    // a row created concurrently or a therapist that is gone just inserts nothing
+    @Modifying
+    @Transactional
+    @Query(value = "insert into therapist_stats (therapist_id, scheduled_sessions, completed_sessions, " +
+                   "cancelled_sessions, no_show_sessions, completed_minutes, distinct_clients, upcoming_sessions, " +
+                   "upcoming_as_of, updated_at) select id, 0, 0, 0, 0, 0, 0, 0, :now, :now " +
+                   "from therapists where id = :therapistId on conflict do nothing", nativeQuery = true)
+    int insertEmpty(@Param("therapistId") Long therapistId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "insert into therapist_stats (therapist_id, scheduled_sessions, completed_sessions, " +
+                   "cancelled_sessions, no_show_sessions, completed_minutes, distinct_clients, upcoming_sessions, " +
+                   "upcoming_as_of, updated_at) select therapist_id, 0, 0, 0, 0, 0, 0, 0, :now, :now " +
+                   "from sessions where id = :sessionId on conflict do nothing", nativeQuery = true)
+    int insertEmptyForSession(@Param("sessionId") Long sessionId, @Param("now") LocalDateTime now);
+
+    /**
+     * Takes the scheduled sessions that started after a row's upcoming_as_of and by
+     * {@code now} out of its upcoming count, and moves upcoming_as_of to {@code now}. Only
+     * therapists with a scheduled session starting in ({@code since}, {@code now}] are
+     * touched; running it again, or on several nodes, changes nothing.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update therapist_stats set upcoming_sessions = upcoming_sessions - (" +
+                   "select count(*) from sessions s where s.therapist_id = therapist_stats.therapist_id " +
+                   "and s.status = 'SCHEDULED' and s.session_date > therapist_stats.upcoming_as_of " +
+                   "and s.session_date <= :now), upcoming_as_of = :now " +
+                   "where upcoming_as_of < :now and therapist_id in (select s.therapist_id from sessions s " +
+                   "where s.status = 'SCHEDULED' and s.session_date > :since and s.session_date <= :now)",
+           nativeQuery = true)
+    int advanceUpcoming(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    @Query("select min(s.upcomingAsOf) from TherapistStats s")
+    LocalDateTime findOldestUpcomingAsOf();
+
+    @Modifying
+    @Transactional
+    @Query(value = "update therapist_clients set sessions = sessions + :delta " +
+                   "where therapist_id = :therapistId and user_id = :userId", nativeQuery = true)
+    int addClientSessions(@Param("therapistId") Long therapistId, @Param("userId") Long userId,
+                          @Param("delta") long delta);
+
+    @Modifying
+    @Transactional
+    @Query(value = "insert into therapist_clients (therapist_id, user_id, sessions) " +
+                   "values (:therapistId, :userId, :sessions) on conflict do nothing", nativeQuery = true)
+    int insertClient(@Param("therapistId") Long therapistId, @Param("userId") Long userId,
+                     @Param("sessions") long sessions);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from therapist_clients " +
+                   "where therapist_id = :therapistId and user_id = :userId and sessions <= 0", nativeQuery = true)
+    int deleteIdleClient(@Param("therapistId") Long therapistId, @Param("userId") Long userId);
+
+    // Reconciliation; callers run these in the transaction that rebuilds the rows. The row
+    // locks make counter updates for those therapists wait for the rebuild.
+    @Query(value = "select therapist_id from therapist_stats where therapist_id in :therapistIds " +
+                   "order by therapist_id for update", nativeQuery = true)
+    List<Long> lockStats(@Param("therapistIds") Collection<Long> therapistIds);
+
+    @Modifying
+    @Query(value = "update therapist_clients set sessions = 0 where therapist_id in :therapistIds", nativeQuery = true)
+    int resetClients(@Param("therapistIds") Collection<Long> therapistIds);
+
+    @Modifying
+    @Query(value = "delete from therapist_clients where therapist_id in :therapistIds and sessions <= 0",
+           nativeQuery = true)
+    int deleteIdleClients(@Param("therapistIds") Collection<Long> therapistIds);
+}
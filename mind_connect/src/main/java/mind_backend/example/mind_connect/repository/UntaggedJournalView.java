@@ -0,0 +1,7 @@
+package mind_backend.example.mind_connect.repository;
+
+public interface UntaggedJournalView {
+    Long getId();
+    Long getUserId();
+    String getTags();
+}
@@ -1,14 +1,51 @@
 package mind_backend.example.mind_connect.repository;
 
+import mind_backend.example.mind_connect.dto.UserSummary;
 import mind_backend.example.mind_connect.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Override
+    @EntityGraph("User.role")
+    Optional<User> findById(Long id);
+
+    @EntityGraph("User.role")
     Optional<User> findByEmail(String email);
+
+    @EntityGraph("User.role")
     List<User> findByRole_Name(String roleName);
+
     boolean existsByEmail(String email);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(u.tokenVersion, 0) from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    // Keyset pages ordered by id; pass the last id of the previous page (0 for the first)
+    String SUMMARY = "select new mind_backend.example.mind_connect.dto.UserSummary(" +
+        "u.id, u.firstName, u.lastName, u.email, r.name, u.createdAt) from User u left join u.role r ";
+
+    @Query(SUMMARY + "where u.id > :afterId order by u.id")
+    List<UserSummary> findPage(@Param("afterId") long afterId, Limit limit);
+
+    @Query(SUMMARY + "where r.name = :roleName and u.id > :afterId order by u.id")
+    List<UserSummary> findPageByRoleName(@Param("roleName") String roleName, @Param("afterId") long afterId, Limit limit);
 }
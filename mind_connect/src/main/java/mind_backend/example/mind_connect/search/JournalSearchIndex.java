@@ -0,0 +1,425 @@
+package mind_backend.example.mind_connect.search;
+
+import mind_backend.example.mind_connect.dto.JournalText;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.NullFragmenter;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.search.highlight.SimpleSpanFragmenter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded Lucene index over journal titles, content, mood, tags and creation time, kept
+ * in step by {@link mind_backend.example.mind_connect.service.JournalService} after every
+ * save and delete. Only the searchable terms are indexed; the text itself stays in the
+ * journals table and is read back for the page of hits when building highlights.
+ *
+ * <p>Writes don't reopen the searcher themselves: a background thread does, at most
+ * {@code journals.search.refresh-ms} after a write, and sooner when a search is waiting for
+ * one. A search waits for its user's own last write, so users always find what they just
+ * saved.
+ *
+ * <p>Every node keeps its own index in {@code journals.search.index-dir} on local disk; the
+ * IndexWriter holds the directory's write.lock, so nodes can't share one. Each
+ * {@code journals.search.commit-ms} the index picks up journals saved through other nodes
+ * and is committed, with the time of the commit recorded in it. On startup journals updated
+ * since then are indexed again, and the whole index is rebuilt if its size no longer
+ * matches the table (deletes made elsewhere, or a new directory). A blank index-dir keeps
+ * the index in memory, for tests.
+ */
+@Component
+public class JournalSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String USER = "user";
+    private static final String CREATED = "created";
+    private static final String MOOD = "mood";
+    private static final String TAG = "tag";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String COMMITTED_AT = "committedAt";
+
+    // Journals written while a commit runs may miss it; replay a little before it started
+    private static final long REPLAY_SLACK_SECONDS = 60;
+    // The same for the periodic catch-up, which only has to cover transactions still in flight
+    private static final long CATCH_UP_SLACK_SECONDS = 5;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int FRAGMENT_CHARS = 160;
+    private static final int FRAGMENTS = 3;
+
+    private static final Sort RANKED = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG, true));
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${journals.search.index-dir:data/journal-index}")
+    private String indexDir;
+
+    @Value("${journals.search.commit-ms:5000}")
+    private long commitMs;
+
+    @Value("${journals.search.refresh-ms:1000}")
+    private long refreshMs;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopener;
+    // Last write of each user not yet known to be searchable, as an IndexWriter sequence number
+    private final Map<Long, Long> pendingWrites = new ConcurrentHashMap<>();
+    private ScheduledExecutorService committer;
+    // Start of the next catch-up with other nodes' writes; only the committer thread touches it
+    private LocalDateTime caughtUpTo;
+    private Timer searchTimer;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (refreshMs <= 0) {
+            throw new IllegalStateException("journals.search.refresh-ms must be positive");
+        }
+        directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        // Waiting searches get a reopen within 25 ms; otherwise one every refresh-ms
+        reopener = new ControlledRealTimeReopenThread<>(writer, searcherManager, refreshMs / 1000.0, 0.025);
+        reopener.setName("journal-index-reopen");
+        reopener.setDaemon(true);
+        reopener.start();
+        searchTimer = Timer.builder("journals.search")
+            .description("Time spent answering journal searches")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() throws IOException {
+        long started = System.currentTimeMillis();
+        long journals = journalRepository.count();
+        String committedAt = committedAt();
+        caughtUpTo = LocalDateTime.now();
+        if (committedAt == null || writer.getDocStats().numDocs != journals) {
+            rebuild();
+        } else {
+            replay(LocalDateTime.parse(committedAt).minusSeconds(REPLAY_SLACK_SECONDS));
+            commit();
+        }
+        searcherManager.maybeRefreshBlocking();
+        logger.info("Journal search index holds {} journals, ready in {} ms", writer.getDocStats().numDocs,
+            System.currentTimeMillis() - started);
+
+        if (commitMs > 0) {
+            committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-index-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            committer.scheduleWithFixedDelay(() -> {
+                try {
+                    LocalDateTime since = caughtUpTo;
+                    caughtUpTo = LocalDateTime.now();
+                    replay(since.minusSeconds(CATCH_UP_SLACK_SECONDS));
+                    commit();
+                    long searchable = reopener.getSearchingGen();
+                    pendingWrites.values().removeIf(write -> write <= searchable);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Journal index commit failed: {}", e.getMessage());
+                }
+            }, commitMs, commitMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (committer != null) {
+            committer.shutdownNow();
+        }
+        reopener.close();
+        searcherManager.close();
+        commit();
+        writer.close();
+        directory.close();
+    }
+
+    public void index(Journal journal) {
+        index(List.of(text(journal)));
+    }
+
+    public void index(Collection<JournalText> journals) {
+        try {
+            for (JournalText journal : journals) {
+                long write = writer.updateDocument(new Term(ID, journal.id().toString()), document(journal));
+                pendingWrites.merge(journal.userId(), write, Math::max);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Until the next reopen a deleted journal can still be a hit; callers read the hits back
+    // from the table, which no longer has it
+    public void delete(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ranks a user's journals against {@code text} (words, "phrases", -excluded, or blank to
+     * list by filters alone) and returns up to {@code limit} hits after {@code after}, best
+     * first with newer journals winning ties. {@code from} is inclusive, {@code to} exclusive.
+     */
+    public List<Hit> search(Long userId, String text, Journal.MoodLevel mood, List<String> tags,
+                            LocalDateTime from, LocalDateTime to, Hit after, int limit) {
+        Query textQuery = parse(text);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+            .add(textQuery, BooleanClause.Occur.MUST)
+            .add(LongField.newExactQuery(USER, userId), BooleanClause.Occur.FILTER);
+        if (mood != null) {
+            query.add(new TermQuery(new Term(MOOD, mood.name())), BooleanClause.Occur.FILTER);
+        }
+        for (String tag : tags) {
+            query.add(new TermQuery(new Term(TAG, normalizeTag(tag))), BooleanClause.Occur.FILTER);
+        }
+        if (from != null || to != null) {
+            query.add(LongField.newRangeQuery(CREATED, from != null ? millis(from) : Long.MIN_VALUE,
+                to != null ? millis(to) - 1 : Long.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+
+        return searchTimer.record(() -> {
+            try {
+                awaitWrites(userId);
+                IndexSearcher searcher = searcherManager.acquire();
+                try {
+                    int maxDoc = searcher.getIndexReader().maxDoc();
+                    if (maxDoc == 0) {
+                        return List.<Hit>of();
+                    }
+                    // Ids are unique, so the doc number only matters for the hit the cursor
+                    // points at, which has to be skipped: any number not below its own will do
+                    FieldDoc start = after == null ? null
+                        : new FieldDoc(maxDoc - 1, after.score(), new Object[] {after.score(), after.id()});
+                    TopFieldDocs top = searcher.searchAfter(start, query.build(), limit, RANKED, true);
+                    List<Hit> hits = new ArrayList<>(top.scoreDocs.length);
+                    for (ScoreDoc doc : top.scoreDocs) {
+                        FieldDoc fieldDoc = (FieldDoc) doc;
+                        hits.add(new Hit((Long) fieldDoc.fields[1], fieldDoc.score));
+                    }
+                    return hits;
+                } finally {
+                    searcherManager.release(searcher);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** Marks the matched words of {@code title} with {@code <mark>}, HTML-escaping the rest. */
+    public String highlightTitle(String text, String title) {
+        Highlighter highlighter = highlighter(text, TITLE);
+        highlighter.setTextFragmenter(new NullFragmenter());
+        String[] marked = bestFragments(highlighter, TITLE, title, 1);
+        return marked.length > 0 ? marked[0] : new SimpleHTMLEncoder().encodeText(title);
+    }
+
+    /** Up to three marked passages of {@code content} around the words that matched. */
+    public List<String> highlightContent(String text, String content) {
+        Highlighter highlighter = highlighter(text, CONTENT);
+        return Arrays.asList(bestFragments(highlighter, CONTENT, content, FRAGMENTS));
+    }
+
+    public record Hit(long id, float score) {}
+
+    static String normalizeTag(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Highlighter highlighter(String text, String field) {
+        QueryScorer scorer = new QueryScorer(parse(text), field);
+        Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<mark>", "</mark>"),
+            new SimpleHTMLEncoder(), scorer);
+        highlighter.setTextFragmenter(new SimpleSpanFragmenter(scorer, FRAGMENT_CHARS));
+        return highlighter;
+    }
+
+    // Empty when nothing in the text matched
+    private String[] bestFragments(Highlighter highlighter, String field, String value, int fragments) {
+        if (value == null || value.isEmpty()) {
+            return new String[0];
+        }
+        try {
+            return highlighter.getBestFragments(analyzer, field, value, fragments);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InvalidTokenOffsetsException e) {
+            return new String[0];
+        }
+    }
+
+    private Query parse(String text) {
+        if (text == null || text.isBlank()) {
+            return new MatchAllDocsQuery();
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(TITLE, 2f, CONTENT, 1f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(text);
+        // Only stop words: nothing can match
+        return query != null ? query : new BooleanQuery.Builder().build();
+    }
+
+    private Document document(JournalText journal) {
+        Document document = new Document();
+        document.add(new StringField(ID, journal.id().toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID, journal.id()));
+        document.add(new LongField(USER, journal.userId(), Field.Store.NO));
+        if (journal.createdAt() != null) {
+            document.add(new LongField(CREATED, millis(journal.createdAt()), Field.Store.NO));
+        }
+        if (journal.mood() != null) {
+            document.add(new StringField(MOOD, journal.mood().name(), Field.Store.NO));
+        }
+        if (journal.tags() != null) {
+            for (String tag : journal.tags().split(",")) {
+                if (!tag.isBlank()) {
+                    document.add(new StringField(TAG, normalizeTag(tag), Field.Store.NO));
+                }
+            }
+        }
+        if (journal.title() != null) {
+            document.add(new TextField(TITLE, journal.title(), Field.Store.NO));
+        }
+        if (journal.content() != null) {
+            document.add(new TextField(CONTENT, journal.content(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private void awaitWrites(Long userId) {
+        Long write = pendingWrites.get(userId);
+        if (write == null) {
+            return;
+        }
+        try {
+            reopener.waitForGeneration(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the journal index");
+        }
+        pendingWrites.remove(userId, write);
+    }
+
+    // Journals saved since, here or on another node
+    private void replay(LocalDateTime since) throws IOException {
+        for (JournalText journal : journalRepository.findTextsUpdatedSince(since)) {
+            writer.updateDocument(new Term(ID, journal.id().toString()), document(journal));
+        }
+    }
+
+    private void rebuild() throws IOException {
+        writer.deleteAll();
+        long afterId = 0;
+        List<JournalText> page;
+        do {
+            page = journalRepository.findTextPage(afterId, Limit.of(REBUILD_PAGE_SIZE));
+            for (JournalText journal : page) {
+                // Not addDocument: a journal saved meanwhile may already have been indexed
+                writer.updateDocument(new Term(ID, journal.id().toString()), document(journal));
+                afterId = journal.id();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        commit();
+    }
+
+    private synchronized void commit() throws IOException {
+        if (!writer.isOpen()) {
+            return;
+        }
+        writer.setLiveCommitData(Map.of(COMMITTED_AT, LocalDateTime.now().toString()).entrySet());
+        writer.commit();
+    }
+
+    private String committedAt() {
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (COMMITTED_AT.equals(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static JournalText text(Journal journal) {
+        return new JournalText(journal.getId(), journal.getUser().getId(), journal.getTitle(),
+            journal.getContent(), journal.getMood(), journal.getTags(), journal.getCreatedAt());
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
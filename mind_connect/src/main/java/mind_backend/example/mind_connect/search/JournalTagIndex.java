@@ -0,0 +1,303 @@
+package mind_backend.example.mind_connect.search;
+
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Per-user inverted index from tag id to the user's journals carrying it. Each user's
+ * journals are numbered densely from 0 in journal id order, so a tag's postings are a
+ * {@link BitSet} over those slots: one bit per journal of that user however large the
+ * global journal ids grow. AND and OR queries are bitwise operations, a tag's frequency is
+ * its cardinality, and a page of newest journals is read straight off the result bits.
+ * Each slot also records its journal's tags, so retagging touches only those postings.
+ *
+ * <p>Slots of deleted journals stay empty until they make up half of a user's slots, and
+ * a journal id arriving out of order renumbers that user's slots; both rebuild only the
+ * one user's postings.
+ *
+ * <p>Fed by {@link mind_backend.example.mind_connect.service.TagService}, which updates it
+ * after every journal write on this node and reloads it from journal_tags periodically. A
+ * reload replaces a user's postings only if the user had no write since it started. Each
+ * user has its own monitor.
+ */
+@Component
+public class JournalTagIndex {
+
+    private final Map<Long, UserTags> users = new ConcurrentHashMap<>();
+    // Numbers every write, so a reload can tell which users changed while it was reading
+    private final AtomicLong writes = new AtomicLong();
+
+    /** Replaces the tags of a journal. */
+    public void put(Long userId, Long journalId, Collection<Long> tagIds) {
+        write(userId, tags -> tags.put(journalId, tagIds));
+    }
+
+    /** Adds tags to a journal, keeping those it already has. */
+    public void add(Long userId, Long journalId, Collection<Long> tagIds) {
+        write(userId, tags -> tags.add(journalId, tagIds));
+    }
+
+    public void remove(Long userId, Long journalId) {
+        if (users.containsKey(userId)) {
+            write(userId, tags -> tags.remove(journalId));
+        }
+    }
+
+    /**
+     * Up to {@code limit} journal ids below {@code before}, newest first, carrying every tag
+     * in {@code all} and, if {@code any} is not empty, at least one of those.
+     */
+    public List<Long> match(Long userId, Collection<Long> all, Collection<Long> any, long before, int limit) {
+        UserTags tags = users.get(userId);
+        if (tags == null) {
+            return List.of();
+        }
+        synchronized (tags) {
+            BitSet result = null;
+            for (Long tagId : all) {
+                BitSet postings = tags.postings.get(tagId);
+                if (postings == null) {
+                    return List.of();
+                }
+                if (result == null) {
+                    result = (BitSet) postings.clone();
+                } else {
+                    result.and(postings);
+                }
+            }
+            if (!any.isEmpty()) {
+                BitSet union = new BitSet();
+                for (Long tagId : any) {
+                    BitSet postings = tags.postings.get(tagId);
+                    if (postings != null) {
+                        union.or(postings);
+                    }
+                }
+                if (result == null) {
+                    result = union;
+                } else {
+                    result.and(union);
+                }
+            }
+            if (result == null) {
+                return List.of();
+            }
+            List<Long> newestFirst = new ArrayList<>(Math.min(limit, result.cardinality()));
+            for (int slot = result.previousSetBit(tags.lastSlotBefore(before)); slot >= 0 && newestFirst.size() < limit;
+                 slot = result.previousSetBit(slot - 1)) {
+                newestFirst.add(tags.journals[slot]);
+            }
+            return newestFirst;
+        }
+    }
+
+    /** Number of the user's journals per tag id. */
+    public Map<Long, Integer> counts(Long userId) {
+        UserTags tags = users.get(userId);
+        if (tags == null) {
+            return Map.of();
+        }
+        synchronized (tags) {
+            Map<Long, Integer> counts = new HashMap<>(tags.postings.size() * 2);
+            tags.postings.forEach((tagId, postings) -> counts.put(tagId, postings.cardinality()));
+            return counts;
+        }
+    }
+
+    /** Starts a reload; call it before reading the rows that are then added to the reload. */
+    public Reload reload() {
+        return new Reload(writes.get());
+    }
+
+    private void write(Long userId, Consumer<UserTags> change) {
+        while (true) {
+            UserTags tags = users.computeIfAbsent(userId, id -> new UserTags());
+            synchronized (tags) {
+                // Otherwise a reload has just put new postings in its place
+                if (!tags.replaced) {
+                    change.accept(tags);
+                    tags.lastWrite = writes.incrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Postings read from journal_tags, swapped in by {@link #finish()}. */
+    public final class Reload {
+        private final long startedAt;
+        private final Map<Long, UserTags> loaded = new HashMap<>();
+
+        private Reload(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        public void add(Long userId, Long journalId, Collection<Long> tagIds) {
+            loaded.computeIfAbsent(userId, id -> new UserTags()).add(journalId, tagIds);
+        }
+
+        /** Replaces the postings of every user without a write since the reload started. */
+        public void finish() {
+            loaded.forEach(this::replace);
+            for (Long userId : users.keySet()) {
+                if (!loaded.containsKey(userId)) {
+                    replace(userId, null);
+                }
+            }
+        }
+
+        private void replace(Long userId, UserTags tags) {
+            UserTags current = users.get(userId);
+            if (current == null) {
+                if (tags != null) {
+                    users.putIfAbsent(userId, tags);
+                }
+                return;
+            }
+            synchronized (current) {
+                if (current.replaced || current.lastWrite > startedAt) {
+                    return;
+                }
+                current.replaced = true;
+                if (tags != null) {
+                    users.put(userId, tags);
+                } else {
+                    users.remove(userId);
+                }
+            }
+        }
+    }
+
+    private static final class UserTags {
+        // Journal ids by slot, ascending; an empty slot keeps the id it had, in no postings
+        private long[] journals = new long[8];
+        private long[][] tagsBySlot = new long[8][];
+        private int next;
+        private int empty;
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private final Map<Long, BitSet> postings = new HashMap<>();
+        private long lastWrite;
+        private boolean replaced;
+
+        void put(Long journalId, Collection<Long> tagIds) {
+            int slot = slotOf(journalId);
+            unlink(slot);
+            link(slot, tagIds.stream().mapToLong(Long::longValue).distinct().toArray());
+        }
+
+        void add(Long journalId, Collection<Long> tagIds) {
+            int slot = slotOf(journalId);
+            long[] current = tagsBySlot[slot];
+            long[] added = tagIds.stream().mapToLong(Long::longValue)
+                .filter(tagId -> Arrays.stream(current).noneMatch(existing -> existing == tagId))
+                .distinct().toArray();
+            long[] merged = Arrays.copyOf(current, current.length + added.length);
+            System.arraycopy(added, 0, merged, current.length, added.length);
+            link(slot, merged);
+        }
+
+        void remove(Long journalId) {
+            Integer slot = slots.remove(journalId);
+            if (slot == null) {
+                return;
+            }
+            unlink(slot);
+            empty++;
+            if (empty > next / 2) {
+                renumber(null, null);
+            }
+        }
+
+        // Highest slot whose journal id is below before, or -1
+        int lastSlotBefore(long before) {
+            int found = Arrays.binarySearch(journals, 0, next, before);
+            return (found >= 0 ? found : -found - 1) - 1;
+        }
+
+        private int slotOf(Long journalId) {
+            Integer slot = slots.get(journalId);
+            if (slot != null) {
+                return slot;
+            }
+            if (next > 0 && journalId <= journals[next - 1]) {
+                // Out of order: ids come from several nodes' sequence blocks and commit in any order
+                renumber(journalId, new long[0]);
+                return slots.get(journalId);
+            }
+            if (next == journals.length) {
+                journals = Arrays.copyOf(journals, next * 2);
+                tagsBySlot = Arrays.copyOf(tagsBySlot, next * 2);
+            }
+            journals[next] = journalId;
+            tagsBySlot[next] = new long[0];
+            slots.put(journalId, next);
+            return next++;
+        }
+
+        private void link(int slot, long[] tagIds) {
+            tagsBySlot[slot] = tagIds;
+            for (long tagId : tagIds) {
+                postings.computeIfAbsent(tagId, id -> new BitSet()).set(slot);
+            }
+        }
+
+        // Takes the slot out of its tags, dropping tags the user no longer uses
+        private void unlink(int slot) {
+            for (long tagId : tagsBySlot[slot]) {
+                BitSet tagged = postings.get(tagId);
+                tagged.clear(slot);
+                if (tagged.isEmpty()) {
+                    postings.remove(tagId);
+                }
+            }
+            tagsBySlot[slot] = new long[0];
+        }
+
+        // Numbers the live journals, plus journalId if given, from 0 again
+        private void renumber(Long journalId, long[] tagIds) {
+            int live = slots.size() + (journalId != null ? 1 : 0);
+            long[] oldJournals = journals;
+            long[][] oldTags = tagsBySlot;
+            int oldNext = next;
+            boolean[] wasLive = new boolean[oldNext];
+            for (int slot : slots.values()) {
+                wasLive[slot] = true;
+            }
+            journals = new long[Math.max(8, live * 2)];
+            tagsBySlot = new long[journals.length][];
+            next = 0;
+            empty = 0;
+            slots.clear();
+            postings.clear();
+            boolean placed = journalId == null;
+            for (int slot = 0; slot < oldNext; slot++) {
+                if (!placed && journalId < oldJournals[slot]) {
+                    append(journalId, tagIds);
+                    placed = true;
+                }
+                if (wasLive[slot]) {
+                    append(oldJournals[slot], oldTags[slot]);
+                }
+            }
+            if (!placed) {
+                append(journalId, tagIds);
+            }
+        }
+
+        private void append(long journalId, long[] tagIds) {
+            journals[next] = journalId;
+            slots.put(journalId, next);
+            link(next, tagIds);
+            next++;
+        }
+    }
+}
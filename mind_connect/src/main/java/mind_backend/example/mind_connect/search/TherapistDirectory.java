@@ -0,0 +1,500 @@
+package mind_backend.example.mind_connect.search;
+
+import mind_backend.example.mind_connect.dto.TherapistSummary;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.repository.TherapistRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory therapist directory for multi-criteria search and autocomplete. Therapists
+ * occupy slots kept in id order, and every word of their name, specialization,
+ * qualification and bio is a node in a trie holding a {@link BitSet} of the slots that
+ * contain it. A text query ANDs the postings of its words, the last one matched as a
+ * prefix of any word so results follow typing; availability and specialization are
+ * BitSets as well. Minimum rating and experience are checked from arrays while walking
+ * the matches from the cursor, which stops as soon as the page is full.
+ *
+ * <p>Loaded at startup and kept current by
+ * {@link mind_backend.example.mind_connect.service.TherapistService}, one therapist at a
+ * time; reloaded every {@code therapists.directory.refresh-ms} to pick up changes made
+ * elsewhere. Searches share a read lock, writes take the write lock.
+ */
+@Component
+public class TherapistDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TherapistDirectory.class);
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int MAX_TERM_LENGTH = 40;
+    // Deleted slots tolerated before the slots are compacted
+    private static final int MAX_HOLES = 1024;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    @Autowired
+    private TherapistRepository therapistRepository;
+
+    @Value("${therapists.directory.refresh-ms:300000}")
+    private long refreshMs;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private Index index = new Index(List.of());
+    private long changes;
+    private boolean loaded;
+    private ScheduledExecutorService refresher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        if (refreshMs <= 0) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "therapist-directory-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                logger.warn("Therapist directory reload failed: {}", e.getMessage());
+            }
+        }, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /** Rebuilds the directory from the therapists table, unless a write is applied meanwhile. */
+    public void reload() {
+        long seen;
+        lock.readLock().lock();
+        try {
+            seen = changes;
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<TherapistSummary> therapists = new ArrayList<>();
+        long afterId = 0;
+        List<TherapistSummary> page;
+        do {
+            page = therapistRepository.findPage(afterId, Limit.of(LOAD_PAGE_SIZE));
+            therapists.addAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        Index rebuilt = new Index(therapists);
+
+        lock.writeLock().lock();
+        try {
+            if (changes == seen || !loaded) {
+                index = rebuilt;
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Therapist directory loaded with {} therapists", therapists.size());
+    }
+
+    public void put(Therapist therapist) {
+        put(new TherapistSummary(therapist.getId(), therapist.getFirstName(), therapist.getLastName(),
+            therapist.getEmail(), therapist.getPhone(), therapist.getSpecialization(), therapist.getQualification(),
+            therapist.getExperience(), therapist.getBio(), therapist.getRating(), therapist.getAvailable()));
+    }
+
+    public void put(TherapistSummary therapist) {
+        lock.writeLock().lock();
+        try {
+            if (!index.put(therapist)) {
+                // Ids from another node's sequence block can arrive out of order
+                List<TherapistSummary> therapists = index.therapists();
+                therapists.add(therapist);
+                therapists.sort(Comparator.comparing(TherapistSummary::id));
+                index = new Index(therapists);
+            }
+            changes++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void availabilityChanged(Long id, Boolean available) {
+        lock.writeLock().lock();
+        try {
+            index.setAvailable(id, Boolean.TRUE.equals(available));
+            changes++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (index.remove(id) && index.holes > MAX_HOLES && index.holes > index.slots / 2) {
+                index = new Index(index.therapists());
+            }
+            changes++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit + 1} therapists with an id above {@code afterId}, in id order,
+     * matching every given criterion: all words of {@code text}, the specialization
+     * (ignoring case), availability, and at least the given rating and years of
+     * experience. Therapists without a rating or experience fail those two minimums.
+     */
+    public List<TherapistSummary> search(String text, String specialization, Double minRating,
+                                         Integer minExperience, Boolean available, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            BitSet matches = (BitSet) current.live.clone();
+            if (specialization != null && !specialization.isBlank()) {
+                BitSet withSpecialization = current.bySpecialization.get(normalize(specialization.trim()));
+                if (withSpecialization == null) {
+                    return List.of();
+                }
+                matches.and(withSpecialization);
+            }
+            if (available != null) {
+                if (available) {
+                    matches.and(current.available);
+                } else {
+                    matches.andNot(current.available);
+                }
+            }
+            List<String> words = words(text);
+            for (int i = 0; i < words.size() && !matches.isEmpty(); i++) {
+                Node node = current.terms.find(words.get(i));
+                if (node == null) {
+                    return List.of();
+                }
+                if (i < words.size() - 1) {
+                    matches.and(node.postings != null ? node.postings : new BitSet());
+                } else {
+                    matches.and(node.union(new BitSet()));
+                }
+            }
+
+            List<TherapistSummary> rows = new ArrayList<>(Math.min(limit + 1, 256));
+            for (int slot = matches.nextSetBit(current.firstSlotAfter(afterId)); slot >= 0 && rows.size() <= limit;
+                    slot = matches.nextSetBit(slot + 1)) {
+                if (minRating != null && !(current.ratings[slot] >= minRating)) {
+                    continue;
+                }
+                if (minExperience != null && current.experience[slot] < minExperience) {
+                    continue;
+                }
+                rows.add(current.therapists[slot]);
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The indexed words starting with the last word of {@code prefix}, the most common first. */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> words = words(prefix);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = index.terms.find(words.get(words.size() - 1));
+            if (node == null) {
+                return List.of();
+            }
+            PriorityQueue<Node> top = new PriorityQueue<>(Comparator.comparingInt((Node candidate) -> candidate.documents)
+                .thenComparing(candidate -> candidate.term, Comparator.reverseOrder()));
+            node.collect(top, limit);
+            List<String> suggestions = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                suggestions.add(top.poll().term);
+            }
+            Collections.reverse(suggestions);
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Slots, postings and attribute arrays; changed only under the write lock
+    private static final class Index {
+        long[] ids;
+        TherapistSummary[] therapists;
+        double[] ratings;
+        int[] experience;
+        int slots;
+        int holes;
+        final Map<Long, Integer> slotById = new HashMap<>();
+        final BitSet live = new BitSet();
+        final BitSet available = new BitSet();
+        final Map<String, BitSet> bySpecialization = new HashMap<>();
+        final Node terms = new Node();
+
+        // Therapists in id order
+        Index(List<TherapistSummary> therapists) {
+            int capacity = Math.max(16, therapists.size() + therapists.size() / 8);
+            ids = new long[capacity];
+            this.therapists = new TherapistSummary[capacity];
+            ratings = new double[capacity];
+            experience = new int[capacity];
+            for (TherapistSummary therapist : therapists) {
+                put(therapist);
+            }
+        }
+
+        List<TherapistSummary> therapists() {
+            List<TherapistSummary> result = new ArrayList<>(live.cardinality() + 1);
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                result.add(therapists[slot]);
+            }
+            return result;
+        }
+
+        /** False when the therapist is new and its id is not above every other one. */
+        boolean put(TherapistSummary therapist) {
+            Integer slot = slotById.get(therapist.id());
+            if (slot != null) {
+                unindex(slot);
+            } else {
+                if (slots > 0 && therapist.id() <= ids[slots - 1]) {
+                    return false;
+                }
+                if (slots == ids.length) {
+                    int capacity = slots + (slots >> 1);
+                    ids = Arrays.copyOf(ids, capacity);
+                    therapists = Arrays.copyOf(therapists, capacity);
+                    ratings = Arrays.copyOf(ratings, capacity);
+                    experience = Arrays.copyOf(experience, capacity);
+                }
+                slot = slots++;
+                ids[slot] = therapist.id();
+                slotById.put(therapist.id(), slot);
+            }
+            index(slot, therapist);
+            return true;
+        }
+
+        boolean remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return false;
+            }
+            unindex(slot);
+            // The id stays, so the slots remain sorted for the cursor search
+            therapists[slot] = null;
+            live.clear(slot);
+            holes++;
+            return true;
+        }
+
+        void setAvailable(Long id, boolean available) {
+            Integer slot = slotById.get(id);
+            if (slot == null) {
+                return;
+            }
+            TherapistSummary t = therapists[slot];
+            therapists[slot] = new TherapistSummary(t.id(), t.firstName(), t.lastName(), t.email(), t.phone(),
+                t.specialization(), t.qualification(), t.experience(), t.bio(), t.rating(), available);
+            this.available.set(slot, available);
+        }
+
+        int firstSlotAfter(long afterId) {
+            int low = 0;
+            int high = slots;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ids[mid] <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void index(int slot, TherapistSummary therapist) {
+            therapists[slot] = therapist;
+            ratings[slot] = therapist.rating() != null ? therapist.rating() : Double.NaN;
+            experience[slot] = therapist.experience() != null ? therapist.experience() : Integer.MIN_VALUE;
+            live.set(slot);
+            available.set(slot, Boolean.TRUE.equals(therapist.available()));
+            if (therapist.specialization() != null && !therapist.specialization().isBlank()) {
+                bySpecialization.computeIfAbsent(normalize(therapist.specialization().trim()), key -> new BitSet())
+                    .set(slot);
+            }
+            for (String term : terms(therapist)) {
+                terms.add(term, slot);
+            }
+        }
+
+        private void unindex(int slot) {
+            TherapistSummary therapist = therapists[slot];
+            if (therapist.specialization() != null && !therapist.specialization().isBlank()) {
+                String key = normalize(therapist.specialization().trim());
+                BitSet withSpecialization = bySpecialization.get(key);
+                withSpecialization.clear(slot);
+                if (withSpecialization.isEmpty()) {
+                    bySpecialization.remove(key);
+                }
+            }
+            available.clear(slot);
+            for (String term : terms(therapist)) {
+                terms.remove(term, slot);
+            }
+        }
+    }
+
+    // Trie node; terminal nodes carry the term and its postings
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        String term;
+        BitSet postings;
+        int documents;
+
+        Node find(String word) {
+            Node node = this;
+            for (int i = 0; i < word.length() && node != null; i++) {
+                int at = Arrays.binarySearch(node.labels, word.charAt(i));
+                node = at >= 0 ? node.children[at] : null;
+            }
+            return node;
+        }
+
+        void add(String term, int slot) {
+            Node node = this;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.child(term.charAt(i));
+            }
+            if (node.postings == null) {
+                node.term = term;
+                node.postings = new BitSet();
+            }
+            if (!node.postings.get(slot)) {
+                node.postings.set(slot);
+                node.documents++;
+            }
+        }
+
+        // Emptied nodes stay until the next rebuild
+        void remove(String term, int slot) {
+            Node node = find(term);
+            if (node != null && node.postings != null && node.postings.get(slot)) {
+                node.postings.clear(slot);
+                node.documents--;
+            }
+        }
+
+        BitSet union(BitSet into) {
+            if (documents > 0) {
+                into.or(postings);
+            }
+            for (Node child : children) {
+                child.union(into);
+            }
+            return into;
+        }
+
+        void collect(PriorityQueue<Node> top, int limit) {
+            if (documents > 0) {
+                top.add(this);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            for (Node child : children) {
+                child.collect(top, limit);
+            }
+        }
+
+        private Node child(char label) {
+            int at = Arrays.binarySearch(labels, label);
+            if (at >= 0) {
+                return children[at];
+            }
+            int insert = -at - 1;
+            char[] grownLabels = new char[labels.length + 1];
+            Node[] grownChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, grownLabels, 0, insert);
+            System.arraycopy(children, 0, grownChildren, 0, insert);
+            grownLabels[insert] = label;
+            grownChildren[insert] = new Node();
+            System.arraycopy(labels, insert, grownLabels, insert + 1, labels.length - insert);
+            System.arraycopy(children, insert, grownChildren, insert + 1, children.length - insert);
+            labels = grownLabels;
+            children = grownChildren;
+            return grownChildren[insert];
+        }
+    }
+
+    private static Set<String> terms(TherapistSummary therapist) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String field : new String[] {therapist.firstName(), therapist.lastName(), therapist.specialization(),
+                therapist.qualification(), therapist.bio()}) {
+            terms.addAll(words(field));
+        }
+        return terms;
+    }
+
+    // Lower case without accents, split on anything but letters and digits
+    private static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word.length() > MAX_TERM_LENGTH ? word.substring(0, MAX_TERM_LENGTH) : word);
+            }
+        }
+        return words;
+    }
+
+    private static String normalize(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
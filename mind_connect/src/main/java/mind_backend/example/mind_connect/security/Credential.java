@@ -0,0 +1,20 @@
+package mind_backend.example.mind_connect.security;
+
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+
+/**
+ * Login-relevant fields of a user or therapist together with the profile they were read from.
+ */
+public record Credential(PrincipalKind kind, Long id, String email, String passwordHash, String role, Object profile) {
+
+    public static Credential of(User user) {
+        String role = user.getRole() != null ? user.getRole().getName() : "USER";
+        return new Credential(PrincipalKind.USER, user.getId(), user.getEmail(), user.getPassword(), role, user);
+    }
+
+    public static Credential of(Therapist therapist) {
+        return new Credential(PrincipalKind.THERAPIST, therapist.getId(), therapist.getEmail(),
+                therapist.getPassword(), "THERAPIST", therapist);
+    }
+}
@@ -0,0 +1,32 @@
+package mind_backend.example.mind_connect.security;
+
+import mind_backend.example.mind_connect.repository.TherapistRepository;
+import mind_backend.example.mind_connect.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.util.Optional;
+
+/**
+ * Email to credential lookup over both the users and therapists tables. Each lookup is
+ * one select on the unique email index that also loads the profile returned on login,
+ * so a password or role changed on another node is checked against the current row.
+ */
+@Component
+public class CredentialLookup {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TherapistRepository therapistRepository;
+
+    public Optional<Credential> find(PrincipalKind kind, String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return switch (kind) {
+            case USER -> userRepository.findByEmail(email).map(Credential::of);
+            case THERAPIST -> therapistRepository.findByEmail(email).map(Credential::of);
+        };
+    }
+}
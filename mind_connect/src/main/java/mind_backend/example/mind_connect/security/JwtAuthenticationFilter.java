@@ -1,5 +1,9 @@
 package mind_backend.example.mind_connect.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,12 +11,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,60 +29,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer verifyTimer;
+    private Timer principalTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        verifyTimer = Timer.builder("auth.filter")
+            .description("Time spent in each phase of JWT authentication")
+            .tag("phase", "verify")
+            .register(meterRegistry);
+        principalTimer = Timer.builder("auth.filter")
+            .description("Time spent in each phase of JWT authentication")
+            .tag("phase", "principal")
+            .register(meterRegistry);
+    }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-        String path = request.getRequestURI();
-        boolean shouldSkip = path.startsWith("/api/sessions/");
-        logger.info("JWT Filter - Path: {}, Should Skip: {}", path, shouldSkip);
-        return shouldSkip;
+        return request.getRequestURI().startsWith("/api/sessions/");
     }
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                   FilterChain filterChain) throws ServletException, IOException {
-        
-        String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
-
-        logger.info("Processing request: {} {}", request.getMethod(), request.getRequestURI());
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            logger.info("Token found: {}", token.substring(0, Math.min(20, token.length())) + "...");
-            try {
-                email = jwtUtil.getEmailFromToken(token);
-                logger.info("Email extracted from token: {}", email);
-            } catch (Exception e) {
-                logger.error("Cannot get email from token", e);
-            }
-        } else {
-            logger.info("No Authorization header found for: {}", request.getRequestURI());
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        long start = System.nanoTime();
+        Optional<Claims> claims = jwtUtil.verifyToken(authHeader.substring(7));
+        long verified = System.nanoTime();
+        verifyTimer.record(verified - start, TimeUnit.NANOSECONDS);
+
+        String outcome = "invalid";
+        if (claims.isPresent()) {
             try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                logger.info("User details loaded for: {}", email);
-                
-                if (jwtUtil.validateToken(token) && !jwtUtil.isTokenExpired(token)) {
-                    UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                JwtPrincipal principal = jwtUtil.toPrincipal(claims.get()).orElse(null);
+                if (principal != null && tokenVersionRegistry.isCurrent(principal)) {
+                    UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.info("Authentication set for user: {}", email);
-                } else {
-                    logger.warn("Token validation failed for user: {}", email);
+                    outcome = "authenticated";
+                } else if (principal != null) {
+                    outcome = "revoked";
                 }
             } catch (Exception e) {
-                logger.error("Error loading user details for: {}", email, e);
+                logger.error("Error building principal for: {}", claims.get().getSubject(), e);
             }
-        } else if (email == null) {
-            logger.info("No email extracted from token for: {}", request.getRequestURI());
-        } else {
-            logger.info("Authentication already exists for user: {}", email);
+            principalTimer.record(System.nanoTime() - verified, TimeUnit.NANOSECONDS);
+        }
+
+        meterRegistry.counter("auth.filter.outcome", "outcome", outcome).increment();
+        if (logger.isDebugEnabled()) {
+            logger.debug("JWT {} for {} {}", outcome, request.getMethod(), request.getRequestURI());
         }
 
         filterChain.doFilter(request, response);
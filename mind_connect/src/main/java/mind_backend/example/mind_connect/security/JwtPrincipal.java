@@ -0,0 +1,22 @@
+package mind_backend.example.mind_connect.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal rebuilt from verified token claims, so authenticated
+ * requests never need to load the account from the database.
+ */
+public record JwtPrincipal(Long id, String email, PrincipalKind kind, String role, int tokenVersion) {
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
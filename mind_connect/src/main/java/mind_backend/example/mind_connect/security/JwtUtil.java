@@ -2,65 +2,136 @@ package mind_backend.example.mind_connect.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
 
+    private static final String CLAIM_ID = "uid";
+    private static final String CLAIM_KIND = "kind";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+    private Timer parseTimer;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = new VerifiedTokenCache(cacheMaxEntries);
+        parseTimer = Timer.builder("auth.jwt.parse")
+                .description("Signature verification and parsing of tokens not found in the cache")
+                .register(meterRegistry);
+        cacheHits = Counter.builder("auth.jwt.cache").tag("result", "hit").register(meterRegistry);
+        cacheMisses = Counter.builder("auth.jwt.cache").tag("result", "miss").register(meterRegistry);
     }
 
-    public String generateToken(String email) {
+    public String generateToken(JwtPrincipal principal) {
         return Jwts.builder()
-                .setSubject(email)
+                .setSubject(principal.email())
+                .claim(CLAIM_ID, principal.id())
+                .claim(CLAIM_KIND, principal.kind().name())
+                .claim(CLAIM_ROLE, principal.role())
+                .claim(CLAIM_VERSION, principal.tokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
+    /**
+     * Verifies the signature and expiry of a token exactly once and returns its claims.
+     * Tokens that were already verified are served from a bounded cache keyed by the
+     * token digest until they expire, so repeat requests skip the HMAC check.
+     */
+    public Optional<Claims> verifyToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        Claims cached = verifiedTokens.get(digest, now);
+        if (cached != null) {
+            cacheHits.increment();
+            return Optional.of(cached);
+        }
+        cacheMisses.increment();
 
-    public boolean validateToken(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Date expiresAt = claims.getExpiration();
+            if (expiresAt != null) {
+                verifiedTokens.put(digest, claims, expiresAt.getTime(), now);
+            }
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
-    public boolean isTokenExpired(String token) {
+    /**
+     * Rebuilds the principal from verified claims. Tokens issued before the identity
+     * claims were introduced yield an empty result and must be renewed by logging in.
+     */
+    public Optional<JwtPrincipal> toPrincipal(Claims claims) {
+        Number id = claims.get(CLAIM_ID, Number.class);
+        String kind = claims.get(CLAIM_KIND, String.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number version = claims.get(CLAIM_VERSION, Number.class);
+        if (id == null || kind == null || role == null || version == null) {
+            return Optional.empty();
+        }
         try {
-            Date expiration = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getExpiration();
-            return expiration.before(new Date());
-        } catch (JwtException | IllegalArgumentException e) {
-            return true;
+            return Optional.of(new JwtPrincipal(id.longValue(), claims.getSubject(),
+                    PrincipalKind.valueOf(kind), role, version.intValue()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
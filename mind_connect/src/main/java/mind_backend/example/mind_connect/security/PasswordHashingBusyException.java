@@ -0,0 +1,12 @@
+package mind_backend.example.mind_connect.security;
+
+/**
+ * Thrown when the password hashing executor is saturated and the request should be
+ * retried later rather than queued behind other logins.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
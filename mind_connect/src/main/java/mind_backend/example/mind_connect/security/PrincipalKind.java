@@ -0,0 +1,5 @@
+package mind_backend.example.mind_connect.security;
+
+public enum PrincipalKind {
+    USER, THERAPIST
+}
@@ -0,0 +1,101 @@
+package mind_backend.example.mind_connect.security;
+
+import mind_backend.example.mind_connect.repository.TherapistRepository;
+import mind_backend.example.mind_connect.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Current token version per principal. A token is accepted only while its version claim
+ * matches, so bumping the version revokes every token issued before the change.
+ * Versions are cached in memory and re-read from the database after {@code ttlMs},
+ * which bounds how long a revocation made on another node can take to be seen.
+ * Entries past that age are swept every {@code ttlMs}, so the map only holds the
+ * principals seen recently rather than every one since startup.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final int REVOKED = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TherapistRepository therapistRepository;
+
+    @Value("${jwt.version-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private final Map<String, CachedVersion> versions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void start() {
+        if (ttlMs <= 0) {
+            throw new IllegalStateException("jwt.version-cache.ttl-ms must be positive");
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-version-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, ttlMs, ttlMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        sweeper.shutdownNow();
+    }
+
+    // A stale entry would be re-read on its next use anyway
+    void sweep() {
+        long now = System.currentTimeMillis();
+        versions.values().removeIf(cached -> now - cached.loadedAt >= ttlMs);
+    }
+
+    public boolean isCurrent(JwtPrincipal principal) {
+        return currentVersion(principal.kind(), principal.id()) == principal.tokenVersion();
+    }
+
+    public int currentVersion(PrincipalKind kind, Long id) {
+        String key = key(kind, id);
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(key);
+        if (cached != null && now - cached.loadedAt < ttlMs) {
+            return cached.version;
+        }
+        int version = load(kind, id);
+        versions.put(key, new CachedVersion(version, now));
+        return version;
+    }
+
+    public void update(PrincipalKind kind, Long id, int version) {
+        versions.put(key(kind, id), new CachedVersion(version, System.currentTimeMillis()));
+    }
+
+    public void revoke(PrincipalKind kind, Long id) {
+        update(kind, id, REVOKED);
+    }
+
+    private int load(PrincipalKind kind, Long id) {
+        return switch (kind) {
+            case USER -> userRepository.findTokenVersionById(id).orElse(REVOKED);
+            case THERAPIST -> therapistRepository.findTokenVersionById(id).orElse(REVOKED);
+        };
+    }
+
+    private static String key(PrincipalKind kind, Long id) {
+        return kind.name() + ":" + id;
+    }
+
+    private record CachedVersion(int version, long loadedAt) {}
+}
@@ -0,0 +1,49 @@
+package mind_backend.example.mind_connect.security;
+
+import io.jsonwebtoken.Claims;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded map of token digest to already-verified claims. Entries are dropped once the
+ * token expires; when the cache is full the oldest entry makes room for the new one.
+ * Tokens share one lifetime, so the oldest entry is also the first to expire, and every
+ * operation is O(1) however full the cache is.
+ */
+class VerifiedTokenCache {
+
+    private final int maxEntries;
+    // Insertion order; guarded by this
+    private final Map<String, Entry> entries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > VerifiedTokenCache.this.maxEntries;
+            }
+        };
+    }
+
+    synchronized Claims get(String digest, long now) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= now) {
+            entries.remove(digest);
+            return null;
+        }
+        return entry.claims;
+    }
+
+    synchronized void put(String digest, Claims claims, long expiresAt, long now) {
+        if (maxEntries <= 0 || expiresAt <= now) {
+            return;
+        }
+        entries.put(digest, new Entry(claims, expiresAt));
+    }
+
+    private record Entry(Claims claims, long expiresAt) {}
+}
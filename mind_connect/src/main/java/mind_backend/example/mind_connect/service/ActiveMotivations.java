@@ -0,0 +1,376 @@
+package mind_backend.example.mind_connect.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.dto.MotivationSummary;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.Motivation;
+import mind_backend.example.mind_connect.entity.Motivation.ContentType;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.repository.MotivationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable snapshot of the motivations that serves the public active listing and the
+ * listings by type and category, all limited to active content. Every change made through
+ * {@link MotivationService} copies the snapshot with that one change applied and swaps it
+ * in, so readers never lock and never see half of a change; nothing is read back from the
+ * database. The snapshot is loaded at startup and reloaded every
+ * {@code motivations.snapshot.refresh-ms} to pick up changes made elsewhere.
+ *
+ * <p>Each page is serialized once per snapshot, up to {@link #MAX_RENDERED} pages, and
+ * carries a strong ETag computed from its bytes, so it stays the same across restarts for
+ * as long as the content does.
+ *
+ * <p>Single picks come from alias tables built with the snapshot over the active
+ * motivations, all of them, per type and per mood, weighted by {@link Motivation#getWeight()}:
+ * a deterministic pick of the day per user, a random pick, and recommendations for the
+ * categories that {@code motivations.recommend.categories} lists for a mood. The same user,
+ * day and snapshot always give the same pick.
+ */
+@Component
+public class ActiveMotivations {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveMotivations.class);
+
+    // Pages kept per snapshot; others are serialized on every request
+    private static final int MAX_RENDERED = 256;
+
+    public record Rendered(byte[] body, String eTag) {}
+
+    private record Row(MotivationSummary summary, boolean active, long version, int weight) {}
+
+    // Motivations to pick from, with an alias table over their weights
+    private record Pool(MotivationSummary[] items, AliasTable weights) {
+
+        static Pool of(List<Row> rows) {
+            if (rows.isEmpty()) {
+                return null;
+            }
+            MotivationSummary[] items = new MotivationSummary[rows.size()];
+            double[] weights = new double[rows.size()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = rows.get(i).summary();
+                weights[i] = rows.get(i).weight();
+            }
+            return new Pool(items, new AliasTable(weights));
+        }
+
+        MotivationSummary pick(RandomGenerator random) {
+            return items[weights.sample(random)];
+        }
+
+        // Distinct picks, fewer when repeated draws keep landing on the heavy ones
+        List<MotivationSummary> pick(int count, RandomGenerator random) {
+            int wanted = Math.min(count, items.length);
+            Set<MotivationSummary> picked = new LinkedHashSet<>();
+            for (int draw = 0; picked.size() < wanted && draw < wanted * 8; draw++) {
+                picked.add(pick(random));
+            }
+            return List.copyOf(picked);
+        }
+    }
+
+    private static final class Snapshot {
+        final Map<Long, Row> rows;
+        final List<MotivationSummary> active;
+        final Map<ContentType, List<MotivationSummary>> byType;
+        final Map<String, List<MotivationSummary>> byCategory;
+        final Pool all;
+        final Map<ContentType, Pool> poolsByType;
+        final Map<MoodLevel, Pool> poolsByMood;
+        final Map<String, Rendered> rendered = new ConcurrentHashMap<>();
+
+        Snapshot(Map<Long, Row> rows, Map<String, List<MoodLevel>> moodsByCategory) {
+            this.rows = Collections.unmodifiableMap(rows);
+            List<Row> active = new ArrayList<>();
+            Map<ContentType, List<Row>> byType = new EnumMap<>(ContentType.class);
+            Map<String, List<Row>> byCategory = new HashMap<>();
+            Map<MoodLevel, List<Row>> byMood = new EnumMap<>(MoodLevel.class);
+            // Rows are in id order, and so is every list built from them
+            for (Row row : rows.values()) {
+                if (!row.active()) {
+                    continue;
+                }
+                MotivationSummary summary = row.summary();
+                active.add(row);
+                if (summary.type() != null) {
+                    byType.computeIfAbsent(summary.type(), type -> new ArrayList<>()).add(row);
+                }
+                if (summary.category() != null) {
+                    byCategory.computeIfAbsent(summary.category(), category -> new ArrayList<>()).add(row);
+                    for (MoodLevel mood : moodsByCategory.getOrDefault(summary.category().toLowerCase(Locale.ROOT),
+                            List.of())) {
+                        byMood.computeIfAbsent(mood, key -> new ArrayList<>()).add(row);
+                    }
+                }
+            }
+            this.active = summaries(active);
+            this.byType = Collections.unmodifiableMap(summaries(byType, new EnumMap<>(ContentType.class)));
+            this.byCategory = Collections.unmodifiableMap(summaries(byCategory, new HashMap<>()));
+            this.all = Pool.of(active);
+            Map<ContentType, Pool> poolsByType = new EnumMap<>(ContentType.class);
+            byType.forEach((type, list) -> poolsByType.put(type, Pool.of(list)));
+            this.poolsByType = Collections.unmodifiableMap(poolsByType);
+            Map<MoodLevel, Pool> poolsByMood = new EnumMap<>(MoodLevel.class);
+            byMood.forEach((mood, list) -> poolsByMood.put(mood, Pool.of(list)));
+            this.poolsByMood = Collections.unmodifiableMap(poolsByMood);
+        }
+
+        private static List<MotivationSummary> summaries(List<Row> rows) {
+            return rows.stream().map(Row::summary).toList();
+        }
+
+        private static <K> Map<K, List<MotivationSummary>> summaries(Map<K, List<Row>> rows,
+                                                                   Map<K, List<MotivationSummary>> into) {
+            rows.forEach((key, list) -> into.put(key, summaries(list)));
+            return into;
+        }
+    }
+
+    @Autowired
+    private MotivationRepository motivationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${motivations.snapshot.refresh-ms:60000}")
+    private long refreshMs;
+
+    // MOOD:Category|Category entries, separated by commas
+    @Value("${motivations.recommend.categories:}")
+    private String recommendCategories;
+
+    // Lower-cased category to the moods it is recommended for
+    private Map<String, List<MoodLevel>> moodsByCategory = Map.of();
+
+    private volatile Snapshot snapshot;
+    // Guarded by this; lets a reload tell whether a change landed while it was reading
+    private long changes;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void parseRecommendations() {
+        Map<String, List<MoodLevel>> moodsByCategory = new HashMap<>();
+        for (String entry : recommendCategories.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalStateException("motivations.recommend.categories entries must look like MOOD:Category");
+            }
+            MoodLevel mood;
+            try {
+                mood = MoodLevel.valueOf(entry.substring(0, colon).trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Unknown mood in motivations.recommend.categories: " + entry.trim());
+            }
+            for (String category : entry.substring(colon + 1).split("\\|")) {
+                if (!category.isBlank()) {
+                    moodsByCategory.computeIfAbsent(category.trim().toLowerCase(Locale.ROOT), key -> new ArrayList<>())
+                        .add(mood);
+                }
+            }
+        }
+        moodsByCategory.replaceAll((category, moods) -> List.copyOf(moods));
+        this.moodsByCategory = Map.copyOf(moodsByCategory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        if (refreshMs <= 0) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "motivation-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                logger.warn("Motivation snapshot reload failed: {}", e.getMessage());
+            }
+        }, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /** Replaces the snapshot with the motivations table, unless a change is applied meanwhile. */
+    public void reload() {
+        long seen;
+        synchronized (this) {
+            seen = changes;
+        }
+        Map<Long, Row> rows = new TreeMap<>();
+        for (Motivation motivation : motivationRepository.findAll()) {
+            rows.put(motivation.getId(), row(motivation));
+        }
+        synchronized (this) {
+            if (changes == seen || snapshot == null) {
+                snapshot = new Snapshot(rows, moodsByCategory);
+            }
+        }
+    }
+
+    public Rendered active(long afterId, int limit) {
+        Snapshot current = current();
+        return render(current, "active", afterId, limit, current.active);
+    }
+
+    public Rendered byType(ContentType type, long afterId, int limit) {
+        Snapshot current = current();
+        return render(current, "type:" + type, afterId, limit, current.byType.getOrDefault(type, List.of()));
+    }
+
+    public Rendered byCategory(String category, long afterId, int limit) {
+        Snapshot current = current();
+        return render(current, "category:" + category, afterId, limit,
+            current.byCategory.getOrDefault(category, List.of()));
+    }
+
+    /** The same motivation all day for one user, among those of {@code type} if given. */
+    public Optional<MotivationSummary> daily(long userId, LocalDate day, ContentType type) {
+        Snapshot current = current();
+        Pool pool = type != null ? current.poolsByType.get(type) : current.all;
+        return pool != null ? Optional.of(pool.pick(seeded(userId, day, -1))) : Optional.empty();
+    }
+
+    public Optional<MotivationSummary> random(ContentType type) {
+        Snapshot current = current();
+        Pool pool = type != null ? current.poolsByType.get(type) : current.all;
+        return pool != null ? Optional.of(pool.pick(ThreadLocalRandom.current())) : Optional.empty();
+    }
+
+    /**
+     * Up to {@code count} different motivations from the categories recommended for
+     * {@code mood}, or from all active ones when there is no mood or nothing matches it.
+     * Stable for the day, like {@link #daily}.
+     */
+    public List<MotivationSummary> recommended(long userId, LocalDate day, MoodLevel mood, int count) {
+        Snapshot current = current();
+        Pool pool = mood != null ? current.poolsByMood.get(mood) : null;
+        if (pool == null) {
+            pool = current.all;
+        }
+        return pool != null ? pool.pick(count, seeded(userId, day, mood != null ? mood.ordinal() : -1)) : List.of();
+    }
+
+    void saved(Motivation motivation) {
+        // Two saves can finish out of order; the row with the higher version is the current one
+        change(rows -> rows.merge(motivation.getId(), row(motivation),
+            (existing, saved) -> saved.version() >= existing.version() ? saved : existing));
+    }
+
+    void toggled(Long id) {
+        change(rows -> rows.computeIfPresent(id,
+            (key, row) -> new Row(row.summary(), !row.active(), row.version() + 1, row.weight())));
+    }
+
+    void removed(Long id) {
+        change(rows -> rows.remove(id));
+    }
+
+    private synchronized void change(Consumer<Map<Long, Row>> change) {
+        Snapshot current = current();
+        Map<Long, Row> rows = new TreeMap<>(current.rows);
+        change.accept(rows);
+        snapshot = new Snapshot(rows, moodsByCategory);
+        changes++;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // A request that arrives before the startup load
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private Rendered render(Snapshot current, String view, long afterId, int limit, List<MotivationSummary> list) {
+        String key = view + "|" + afterId + "|" + limit;
+        Rendered rendered = current.rendered.get(key);
+        if (rendered != null) {
+            return rendered;
+        }
+
+        // First motivation after the cursor; ids are unique and ascending
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid).id() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<MotivationSummary> rows = list.subList(low, Math.min(list.size(), low + limit + 1));
+        CursorPage<MotivationSummary> page = CursorPage.of(rows, limit, motivation -> Cursor.ofId(motivation.id()));
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(page);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            rendered = new Rendered(body, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize motivations", e);
+        }
+        if (current.rendered.size() < MAX_RENDERED) {
+            current.rendered.putIfAbsent(key, rendered);
+        }
+        return rendered;
+    }
+
+    private static SplittableRandom seeded(long userId, LocalDate day, int salt) {
+        long seed = (userId * 0x9E3779B97F4A7C15L + day.toEpochDay()) * 0xBF58476D1CE4E5B9L + salt;
+        return new SplittableRandom(seed);
+    }
+
+    private static Row row(Motivation motivation) {
+        return new Row(new MotivationSummary(motivation.getId(), motivation.getTitle(), motivation.getContent(),
+            motivation.getType(), motivation.getAuthor(), motivation.getCategory()),
+            Boolean.TRUE.equals(motivation.getActive()), motivation.getVersion() != null ? motivation.getVersion() : 0,
+            motivation.getWeight() != null && motivation.getWeight() > 0 ? motivation.getWeight() : 1);
+    }
+}
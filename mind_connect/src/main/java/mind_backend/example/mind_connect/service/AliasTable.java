@@ -0,0 +1,77 @@
+package mind_backend.example.mind_connect.service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice among a fixed set of items in constant time, using Vose's alias method:
+ * each of the n columns holds one item's share up to 1/n and the rest of the column is
+ * lent to a single other item, so a pick is one uniform column and one coin flip.
+ */
+public final class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one weight is required");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be positive");
+            }
+            total += weight;
+        }
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // What is left is full up to rounding
+        while (largeCount > 0) {
+            int full = large[--largeCount];
+            probability[full] = 1;
+            alias[full] = full;
+        }
+        while (smallCount > 0) {
+            int full = small[--smallCount];
+            probability[full] = 1;
+            alias[full] = full;
+        }
+    }
+
+    public int size() {
+        return probability.length;
+    }
+
+    /** Index of the chosen item. */
+    public int sample(RandomGenerator random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
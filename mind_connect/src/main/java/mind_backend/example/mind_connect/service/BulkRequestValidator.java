@@ -0,0 +1,54 @@
+package mind_backend.example.mind_connect.service;
+
+import mind_backend.example.mind_connect.dto.BulkResult.ItemError;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Shared checks for the bulk create endpoints: the request size limit and the entity's
+ * bean validation constraints, reported per item.
+ */
+@Component
+public class BulkRequestValidator {
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${bulk.max-items:5000}")
+    private int maxItems;
+
+    public void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("No items to create");
+        }
+        if (items.size() > maxItems) {
+            throw new RuntimeException("At most " + maxItems + " items can be created per request");
+        }
+    }
+
+    /**
+     * Adds an error for the item at {@code index} if it breaks any constraint; returns
+     * whether it was valid.
+     */
+    public boolean validate(int index, Object item, List<ItemError> errors) {
+        if (item == null) {
+            errors.add(new ItemError(index, "Item is empty"));
+            return false;
+        }
+        var violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return true;
+        }
+        String message = violations.stream()
+            .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .collect(Collectors.joining(", "));
+        errors.add(new ItemError(index, message));
+        return false;
+    }
+}
@@ -0,0 +1,235 @@
+package mind_backend.example.mind_connect.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import mind_backend.example.mind_connect.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a user's journals and sessions as NDJSON or CSV, or both in a zip. Rows come from
+ * repository streams that the driver fetches 500 at a time (the Postgres driver only uses
+ * a cursor inside a transaction, hence the read-only one here) and the persistence context
+ * is cleared every {@code exports.clear-every} rows, so memory use does not grow with the
+ * length of the history.
+ *
+ * <p>Every export records its duration on the {@code exports} timer and its rows on the
+ * {@code exports.rows} counter, both tagged with kind and format; throughput is the rate of
+ * the counter.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() { return contentType; }
+        public String extension() { return extension; }
+    }
+
+    private record Columns<T>(String kind, String[] names, Function<T, Object[]> values) {}
+
+    private static final Columns<Journal> JOURNALS = new Columns<>("journals",
+        new String[] {"id", "title", "content", "mood", "tags", "createdAt", "updatedAt"},
+        journal -> new Object[] {journal.getId(), journal.getTitle(), journal.getContent(), journal.getMood(),
+            journal.getTags(), journal.getCreatedAt(), journal.getUpdatedAt()});
+
+    // The therapist is a lazy proxy; reading its id does not load it
+    private static final Columns<Session> SESSIONS = new Columns<>("sessions",
+        new String[] {"id", "therapistId", "sessionDate", "sessionType", "duration", "status", "notes", "createdAt"},
+        session -> new Object[] {session.getId(), session.getTherapist().getId(), session.getSessionDate(),
+            session.getSessionType(), session.getDuration(), session.getStatus(), session.getNotes(),
+            session.getCreatedAt()});
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${exports.clear-every:500}")
+    private int clearEvery;
+
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    void init() {
+        if (clearEvery <= 0) {
+            throw new IllegalStateException("exports.clear-every must be positive");
+        }
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    public boolean userExists(Long userId) {
+        return userRepository.existsById(userId);
+    }
+
+    public void exportJournals(Long userId, Format format, OutputStream out) {
+        export(JOURNALS, format, () -> journalRepository.streamByUserId(userId), out);
+    }
+
+    public void exportSessions(Long userId, Format format, OutputStream out) {
+        export(SESSIONS, format, () -> sessionRepository.streamByUserId(userId), out);
+    }
+
+    /** Both exports as journals.{ext} and sessions.{ext} in one zip. */
+    public void exportAll(Long userId, Format format, OutputStream out) {
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            zip.putNextEntry(new ZipEntry(JOURNALS.kind() + "." + format.extension()));
+            exportJournals(userId, format, zip);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry(SESSIONS.kind() + "." + format.extension()));
+            exportSessions(userId, format, zip);
+            zip.closeEntry();
+            zip.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Leaves out open: it may be a zip entry
+    private <T> void export(Columns<T> columns, Format format, Supplier<Stream<T>> query, OutputStream out) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.currentTimeMillis();
+        long rows = readOnly.execute(status -> {
+            try (Stream<T> stream = query.get()) {
+                return format == Format.NDJSON ? writeNdjson(columns, stream.iterator(), out)
+                    : writeCsv(columns, stream.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        sample.stop(Timer.builder("exports")
+            .description("Time spent writing data exports")
+            .tags("kind", columns.kind(), "format", format.name())
+            .register(meterRegistry));
+        Counter.builder("exports.rows")
+            .description("Rows written by data exports")
+            .tags("kind", columns.kind(), "format", format.name())
+            .register(meterRegistry)
+            .increment(rows);
+        long millis = Math.max(1, System.currentTimeMillis() - started);
+        logger.info("Exported {} {} as {} in {} ms ({} rows/s)", rows, columns.kind(), format, millis,
+            rows * 1000 / millis);
+    }
+
+    private <T> long writeNdjson(Columns<T> columns, Iterator<T> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+        long count = 0;
+        while (rows.hasNext()) {
+            Object[] values = columns.values().apply(rows.next());
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.names()[i]);
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            count = advance(count);
+        }
+        generator.flush();
+        return count;
+    }
+
+    private <T> long writeCsv(Columns<T> columns, Iterator<T> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns.names()));
+        writer.write("\r\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            Object[] values = columns.values().apply(rows.next());
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csv(values[i]));
+            }
+            writer.write("\r\n");
+            count = advance(count);
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long advance(long count) {
+        if (++count % clearEvery == 0) {
+            // Detach what has been written so far; nothing here is modified
+            entityManager.clear();
+        }
+        return count;
+    }
+
+    // RFC 4180: quoted when it holds a separator, quote or line break. Text a spreadsheet
+    // would read as a formula is prefixed with an apostrophe so it stays text.
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof CharSequence && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,113 @@
+package mind_backend.example.mind_connect.service;
+
+import mind_backend.example.mind_connect.booking.SessionIntervalIndex;
+import mind_backend.example.mind_connect.dto.FreeSlot;
+import mind_backend.example.mind_connect.dto.TherapistSummary;
+import mind_backend.example.mind_connect.pagination.PageRequestResolver;
+import mind_backend.example.mind_connect.repository.TherapistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the earliest open start times across available therapists by scanning the
+ * per-day occupancy bitmaps of {@link SessionIntervalIndex}: a start slot is free for a
+ * therapist when the {@code duration} worth of slots from it are clear and inside
+ * working hours. Results are ordered by start time, then therapist id.
+ */
+@Service
+public class FreeSlotService {
+
+    @Autowired
+    private SessionIntervalIndex intervalIndex;
+
+    @Autowired
+    private TherapistRepository therapistRepository;
+
+    @Autowired
+    private PageRequestResolver pageRequestResolver;
+
+    @Value("${booking.day-start-hour:9}")
+    private int dayStartHour;
+
+    @Value("${booking.day-end-hour:17}")
+    private int dayEndHour;
+
+    @Value("${booking.search.max-days:31}")
+    private int maxDays;
+
+    public List<FreeSlot> findFreeSlots(LocalDate from, LocalDate to, Integer duration, String specialization,
+                                        Integer count) {
+        LocalDate today = LocalDate.now();
+        LocalDate first = from != null ? from : today;
+        LocalDate last = to != null ? to : first.plusDays(13);
+        int minutes = duration != null ? duration : 60;
+        if (last.isBefore(first) || ChronoUnit.DAYS.between(first, last) >= maxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Date range must be between 1 and " + maxDays + " days");
+        }
+        if (minutes <= 0 || minutes > (dayEndHour - dayStartHour) * 60) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid duration");
+        }
+
+        int limit = pageRequestResolver.size(count);
+        int slotMinutes = intervalIndex.slotMinutes();
+        int needed = (minutes + slotMinutes - 1) / slotMinutes;
+        long workingHours = range(dayStartHour * 60 / slotMinutes, dayEndHour * 60 / slotMinutes);
+
+        List<TherapistSummary> therapists = therapistRepository.findAvailableBySpecialization(specialization);
+        List<FreeSlot> slots = new ArrayList<>(limit);
+        long[] starts = new long[therapists.size()];
+
+        for (LocalDate day = first.isBefore(today) ? today : first; !day.isAfter(last); day = day.plusDays(1)) {
+            long open = workingHours;
+            if (day.equals(today)) {
+                LocalDateTime now = LocalDateTime.now();
+                int elapsed = now.getHour() * 60 + now.getMinute();
+                open &= ~range(0, (elapsed + slotMinutes - 1) / slotMinutes);
+            }
+
+            long anyStart = 0;
+            for (int t = 0; t < therapists.size(); t++) {
+                long free = open & ~intervalIndex.occupancy(therapists.get(t).id(), day);
+                long fits = free;
+                for (int i = 1; i < needed; i++) {
+                    fits &= free >>> i;
+                }
+                starts[t] = fits;
+                anyStart |= fits;
+            }
+
+            while (anyStart != 0) {
+                int slot = Long.numberOfTrailingZeros(anyStart);
+                anyStart &= anyStart - 1;
+                LocalDateTime start = day.atStartOfDay().plusMinutes((long) slot * slotMinutes);
+                for (int t = 0; t < therapists.size(); t++) {
+                    if ((starts[t] & (1L << slot)) == 0) {
+                        continue;
+                    }
+                    TherapistSummary therapist = therapists.get(t);
+                    slots.add(new FreeSlot(therapist.id(), therapist.firstName(), therapist.lastName(),
+                        therapist.specialization(), start, start.plusMinutes(minutes)));
+                    if (slots.size() == limit) {
+                        return slots;
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    // Bits [from, to)
+    private static long range(int from, int to) {
+        long upTo = to >= Long.SIZE ? -1L : (1L << to) - 1;
+        return from >= Long.SIZE ? 0L : upTo & -(1L << from);
+    }
+}
@@ -1,13 +1,37 @@
 package mind_backend.example.mind_connect.service;
 
+import mind_backend.example.mind_connect.analysis.JournalAnalysisPipeline;
+import mind_backend.example.mind_connect.dto.BulkResult;
+import mind_backend.example.mind_connect.dto.BulkResult.ItemError;
+import mind_backend.example.mind_connect.dto.JournalSearchHit;
+import mind_backend.example.mind_connect.dto.JournalSummary;
+import mind_backend.example.mind_connect.dto.JournalText;
 import mind_backend.example.mind_connect.entity.Journal;
 import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.ingest.JournalWriteBehind;
 import mind_backend.example.mind_connect.repository.JournalRepository;
 import mind_backend.example.mind_connect.repository.UserRepository;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.pagination.PageRequestResolver;
+import mind_backend.example.mind_connect.search.JournalSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Service
@@ -16,47 +40,195 @@ public class JournalService {
     @Autowired
     private JournalRepository journalRepository;
 
+    @Autowired
+    private PageRequestResolver pageRequestResolver;
+
     @Autowired
     private UserRepository userRepository;
 
-    public List<Journal> getAllJournals() {
-        return journalRepository.findAll();
+    @Autowired
+    private BulkRequestValidator bulkRequestValidator;
+
+    @Autowired
+    private JournalSearchIndex searchIndex;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private JournalWriteBehind writeBehind;
+
+    @Autowired
+    private JournalAnalysisPipeline analysisPipeline;
+
+    public CursorPage<JournalSummary> getAllJournals(String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<JournalSummary> rows = journalRepository.findPage(pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, journal -> Cursor.ofId(journal.id()));
     }
 
     public Optional<Journal> getJournalById(Long id) {
-        return journalRepository.findById(id);
+        // The overlay first: a journal leaves it only after its row is committed
+        Optional<Journal> pending = writeBehind.isEnabled() ? writeBehind.pending(id) : Optional.empty();
+        return pending.isPresent() ? pending : journalRepository.findById(id);
     }
 
-    public List<Journal> getJournalsByUserId(Long userId) {
-        return journalRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public CursorPage<JournalSummary> getJournalsByUserId(Long userId, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        Cursor after = cursor == null || cursor.isEmpty() ? null : Cursor.decode(cursor);
+        Supplier<List<JournalSummary>> query = after == null
+            ? () -> journalRepository.findFirstPageByUserId(userId, Limit.of(limit + 1))
+            : () -> journalRepository.findPageByUserIdBefore(userId, after.sortKeyAsDateTime(), after.id(),
+                Limit.of(limit + 1));
+        List<JournalSummary> rows = writeBehind.isEnabled()
+            ? writeBehind.withPending(userId, after, limit + 1, query) : query.get();
+        return CursorPage.of(rows, limit, journal -> Cursor.of(journal.createdAt(), journal.id()));
     }
 
-    public List<Journal> getJournalsByMood(MoodLevel mood) {
-        return journalRepository.findByMood(mood);
+    public CursorPage<JournalSummary> getJournalsByMood(MoodLevel mood, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<JournalSummary> rows = journalRepository.findPageByMood(mood, pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, journal -> Cursor.ofId(journal.id()));
     }
 
     public Journal createJournal(Journal journal) {
+        if (writeBehind.isEnabled()) {
+            return writeBehind.accept(journal);
+        }
         // Validate user exists
         userRepository.findById(journal.getUser().getId())
             .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return journalRepository.save(journal);
+        Journal saved = journalRepository.save(journal);
+        searchIndex.index(saved);
+        moodRollupService.journalAdded(saved);
+        tagService.journalSaved(saved, null);
+        analysisPipeline.submit(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Saves every journal in one transaction, the inserts going out in JDBC batches, or
+     * none of them if any item is invalid or belongs to an unknown user.
+     */
+    @Transactional
+    public BulkResult createJournals(List<Journal> journals) {
+        bulkRequestValidator.checkSize(journals);
+
+        Set<Long> userIds = new HashSet<>();
+        for (Journal journal : journals) {
+            if (journal != null && journal.getUser() != null && journal.getUser().getId() != null) {
+                userIds.add(journal.getUser().getId());
+            }
+        }
+        Set<Long> knownUsers = new HashSet<>(userRepository.findExistingIds(userIds));
+
+        List<ItemError> errors = new ArrayList<>();
+        for (int i = 0; i < journals.size(); i++) {
+            Journal journal = journals.get(i);
+            if (bulkRequestValidator.validate(i, journal, errors) && !knownUsers.contains(journal.getUser().getId())) {
+                errors.add(new ItemError(i, "User not found"));
+            }
+        }
+        if (!errors.isEmpty()) {
+            return BulkResult.rejected(errors);
+        }
+
+        for (Journal journal : journals) {
+            journal.setId(null);
+            journal.setUser(userRepository.getReferenceById(journal.getUser().getId()));
+        }
+        journals = journalRepository.saveAll(journals);
+        moodRollupService.journalsAdded(journals);
+        tagService.journalsSaved(journals);
+
+        List<Long> ids = new ArrayList<>(journals.size());
+        List<JournalText> indexed = new ArrayList<>(journals.size());
+        for (Journal journal : journals) {
+            ids.add(journal.getId());
+            indexed.add(new JournalText(journal.getId(), journal.getUser().getId(), journal.getTitle(),
+                journal.getContent(), journal.getMood(), journal.getTags(), journal.getCreatedAt()));
+        }
+        // Only searchable once the rows are there to highlight from
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                searchIndex.index(indexed);
+                analysisPipeline.submit(ids);
+            }
+        });
+        return BulkResult.created(ids);
     }
 
     public Journal updateJournal(Long id, Journal journalDetails) {
+        if (writeBehind.isEnabled()) {
+            writeBehind.awaitWritten(id);
+        }
         Journal journal = journalRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Journal not found"));
+        MoodLevel oldMood = journal.getMood();
+        String oldTags = journal.getTags();
 
         journal.setTitle(journalDetails.getTitle());
         journal.setContent(journalDetails.getContent());
         journal.setMood(journalDetails.getMood());
         journal.setTags(journalDetails.getTags());
+        journal.setAnalyzedAt(null);
 
-        return journalRepository.save(journal);
+        Journal saved = journalRepository.save(journal);
+        searchIndex.index(saved);
+        moodRollupService.journalChanged(saved.getUser().getId(), saved.getCreatedAt(), oldMood, saved.getMood());
+        tagService.journalSaved(saved, oldTags);
+        analysisPipeline.submit(saved.getId());
+        return saved;
     }
 
     public void deleteJournal(Long id) {
-        journalRepository.deleteById(id);
+        if (writeBehind.isEnabled()) {
+            writeBehind.awaitWritten(id);
+        }
+        Optional<Journal> journal = journalRepository.findById(id);
+        journal.ifPresent(journalRepository::delete);
+        searchIndex.delete(id);
+        journal.ifPresent(removed -> {
+            moodRollupService.journalRemoved(removed.getUser().getId(), removed.getCreatedAt(), removed.getMood());
+            tagService.journalRemoved(removed.getUser().getId(), removed.getId());
+        });
+    }
+
+    /**
+     * Ranked search over one user's journals. The index supplies the page of ids; their
+     * titles and content are then read with one query to build the highlighted snippets.
+     * {@code tags} is a comma-separated list that hits must all carry, and {@code to} is
+     * an inclusive day.
+     */
+    public CursorPage<JournalSearchHit> searchJournals(Long userId, String text, MoodLevel mood, String tags,
+                                                       LocalDate from, LocalDate to, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<String> tagList = tags == null ? List.of() : Arrays.stream(tags.split(","))
+            .filter(tag -> !tag.isBlank())
+            .toList();
+        Cursor after = cursor == null || cursor.isEmpty() ? null : Cursor.decode(cursor);
+        List<JournalSearchIndex.Hit> hits = searchIndex.search(userId, text, mood, tagList,
+            from != null ? from.atStartOfDay() : null, to != null ? to.plusDays(1).atStartOfDay() : null,
+            after != null ? new JournalSearchIndex.Hit(after.id(), after.sortKeyAsScore()) : null, limit + 1);
+
+        Map<Long, JournalText> journals = journalRepository.findTextsByIds(
+                hits.stream().map(JournalSearchIndex.Hit::id).toList()).stream()
+            .collect(Collectors.toMap(JournalText::id, Function.identity()));
+        List<JournalSearchHit> rows = new ArrayList<>(hits.size());
+        for (JournalSearchIndex.Hit hit : hits) {
+            JournalText journal = journals.get(hit.id());
+            if (journal != null) {
+                rows.add(new JournalSearchHit(journal.id(), searchIndex.highlightTitle(text, journal.title()),
+                    journal.mood(), journal.tags(), journal.createdAt(), hit.score(),
+                    searchIndex.highlightContent(text, journal.content())));
+            }
+        }
+        return CursorPage.of(rows, limit, hit -> Cursor.of(hit.score(), hit.id()));
     }
 
     public List<Journal> getJournalsInDateRange(Long userId, LocalDateTime start, LocalDateTime end) {
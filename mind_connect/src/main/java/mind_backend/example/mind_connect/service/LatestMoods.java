@@ -0,0 +1,140 @@
+package mind_backend.example.mind_connect.service;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.LatestMoodView;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * The mood of each user's newest journal, for motivation recommendations. A user's first
+ * lookup reads it with one query; after that {@link MoodRollupService} keeps it current
+ * from the same create, mood change and delete reports it counts, applied once their
+ * transaction commits, and lookups stay in memory. Deleting or clearing the mood of the
+ * newest journal drops the entry, so the next lookup reads the one before it.
+ *
+ * <p>At most {@code motivations.latest-mood.max-users} users are kept, least recently
+ * looked up first out. Journals saved through other nodes are not reported here, so an
+ * entry is read again {@code motivations.latest-mood.ttl-ms} after it was loaded.
+ */
+@Component
+public class LatestMoods {
+
+    private record Latest(LocalDateTime createdAt, MoodLevel mood, long expiresAt) {}
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Value("${motivations.latest-mood.max-users:100000}")
+    private int maxUsers;
+
+    @Value("${motivations.latest-mood.ttl-ms:300000}")
+    private long ttlMs;
+
+    // Access order; guarded by this
+    private final Map<Long, Latest> latest = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Latest> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    @PostConstruct
+    void validate() {
+        if (maxUsers <= 0 || ttlMs <= 0) {
+            throw new IllegalStateException("motivations.latest-mood.max-users and ttl-ms must be positive");
+        }
+    }
+
+    public MoodLevel get(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Latest known = latest.get(userId);
+            if (known != null && known.expiresAt() > now) {
+                return known.mood();
+            }
+        }
+        List<LatestMoodView> rows = journalRepository.findLatestMoods(userId, Limit.of(1));
+        // A user without any journal that has a mood is kept with neither
+        Latest loaded = rows.isEmpty() ? new Latest(null, null, now + ttlMs)
+            : new Latest(rows.get(0).getCreatedAt(), rows.get(0).getMood(), now + ttlMs);
+        synchronized (this) {
+            Latest known = latest.get(userId);
+            Latest current = known == null || known.expiresAt() <= now ? loaded : newer(known, loaded);
+            latest.put(userId, current);
+            return current.mood();
+        }
+    }
+
+    void added(Long userId, LocalDateTime createdAt, MoodLevel mood) {
+        if (mood == null || createdAt == null) {
+            return;
+        }
+        // Users not looked up yet are read when they are
+        afterCommit(() -> update(userId, known -> newer(known, new Latest(createdAt, mood, known.expiresAt()))));
+    }
+
+    void changed(Long userId, LocalDateTime createdAt, MoodLevel newMood) {
+        if (createdAt == null) {
+            return;
+        }
+        if (newMood != null) {
+            added(userId, createdAt, newMood);
+            return;
+        }
+        removed(userId, createdAt);
+    }
+
+    void removed(Long userId, LocalDateTime createdAt) {
+        if (createdAt == null) {
+            return;
+        }
+        afterCommit(() -> update(userId, known ->
+            known.createdAt() != null && notBefore(createdAt, known.createdAt()) ? null : known));
+    }
+
+    private synchronized void update(Long userId, UnaryOperator<Latest> change) {
+        latest.computeIfPresent(userId, (id, known) -> change.apply(known));
+    }
+
+    // A save that rolls back must never reach the map
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    // Columns round to microseconds, so a journal read back can be a microsecond off the time reported on save
+    private static boolean notBefore(LocalDateTime time, LocalDateTime other) {
+        return !time.isBefore(other.minus(1, ChronoUnit.MICROS));
+    }
+
+    // Of two journals created at the same time, the one reported last wins
+    private static Latest newer(Latest known, Latest candidate) {
+        if (known.createdAt() == null) {
+            return candidate;
+        }
+        if (candidate.createdAt() == null) {
+            return known;
+        }
+        return notBefore(candidate.createdAt(), known.createdAt()) ? candidate : known;
+    }
+}
@@ -0,0 +1,146 @@
+package mind_backend.example.mind_connect.service;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.MoodRollup.Period;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.MoodDayCountView;
+import mind_backend.example.mind_connect.repository.MoodRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recomputes mood_rollups from the journals table. The user ids that have journals are
+ * cut into ranges of {@code mood.rollups.rebuild.range-size}; each range is scanned with
+ * one grouped query (per user, day and mood, served by the user_id/created_at index),
+ * rolled up into weeks and months here, and rewritten in its own transaction. Ranges run
+ * in parallel on {@code mood.rollups.rebuild.threads} threads.
+ *
+ * <p>Run it by starting the application with {@code --mood.rollups.rebuild-on-start=true}.
+ * A journal change that lands while its user's range is being rewritten may be counted
+ * twice or not at all until the next rebuild.
+ */
+@Component
+public class MoodRollupRebuilder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoodRollupRebuilder.class);
+
+    private static final String INSERT = "insert into mood_rollups (user_id, period, period_start, mood, entries) " +
+        "values (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MoodRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${mood.rollups.rebuild-on-start:false}")
+    private boolean rebuildOnStart;
+
+    @Value("${mood.rollups.rebuild.range-size:1000}")
+    private long rangeSize;
+
+    @Value("${mood.rollups.rebuild.threads:4}")
+    private int threads;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        if (rangeSize <= 0 || threads <= 0) {
+            throw new IllegalStateException("mood.rollups.rebuild.range-size and mood.rollups.rebuild.threads must be positive");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStart) {
+            rebuild();
+        }
+    }
+
+    /** Rebuilds every user's rollups and returns the number of rows written. */
+    public int rebuild() {
+        Long first = journalRepository.findMinUserId().orElse(null);
+        Long last = journalRepository.findMaxUserId().orElse(null);
+        if (first == null || last == null) {
+            return 0;
+        }
+        long started = System.currentTimeMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mood-rollup-rebuild-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> ranges = new ArrayList<>();
+            for (long from = first; from <= last; from += rangeSize) {
+                // The outer ranges are open-ended so rollups left for users without journals go too
+                long lower = from == first ? Long.MIN_VALUE : from;
+                long upper = from + rangeSize > last ? Long.MAX_VALUE : from + rangeSize - 1;
+                ranges.add(pool.submit(() -> transactionTemplate.execute(status -> rebuild(lower, upper))));
+            }
+            int rows = 0;
+            for (Future<Integer> range : ranges) {
+                rows += range.get();
+            }
+            logger.info("Rebuilt {} mood rollups for users {} to {} in {} ms", rows, first, last,
+                System.currentTimeMillis() - started);
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Mood rollup rebuild was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Mood rollup rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Key(long userId, Period period, LocalDate periodStart, MoodLevel mood) {}
+
+    // Runs inside the range's transaction
+    private int rebuild(long fromUserId, long toUserId) {
+        Map<Key, Long> counts = new HashMap<>();
+        for (MoodDayCountView row : journalRepository.countMoodsByDay(fromUserId, toUserId)) {
+            for (Period period : Period.values()) {
+                counts.merge(new Key(row.getUserId(), period, period.start(row.getDay()), row.getMood()),
+                    row.getEntries(), Long::sum);
+            }
+        }
+
+        rollupRepository.deleteUsers(fromUserId, toUserId);
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, entries) -> rows.add(new Object[] {key.userId(), key.period().name(),
+            Date.valueOf(key.periodStart()), key.mood().name(), entries}));
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        return rows.size();
+    }
+}
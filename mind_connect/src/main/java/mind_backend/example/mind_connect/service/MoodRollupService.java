@@ -0,0 +1,143 @@
+package mind_backend.example.mind_connect.service;
+
+import mind_backend.example.mind_connect.dto.MoodTrends;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.MoodRollup;
+import mind_backend.example.mind_connect.entity.MoodRollup.Period;
+import mind_backend.example.mind_connect.repository.MoodRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the mood_rollups histograms in step with journals. JournalService reports every
+ * create, mood change and delete here; each becomes one relative UPDATE per period (day,
+ * week and month), with an INSERT the first time a mood appears in a period and a DELETE
+ * when its count drops back to zero. Trends are then served from the rollups without
+ * reading any journal. The same reports keep {@link LatestMoods} current.
+ */
+@Service
+public class MoodRollupService {
+
+    private static final MoodLevel[] MOODS = MoodLevel.values();
+
+    @Autowired
+    private MoodRollupRepository rollupRepository;
+
+    @Autowired
+    private LatestMoods latestMoods;
+
+    @Value("${mood.trends.max-buckets:366}")
+    private int maxBuckets;
+
+    /**
+     * Histograms for the periods starting from the one containing {@code from} up to the
+     * one containing {@code to}. Without a range this is the last 30 days, 12 weeks or 12
+     * months.
+     */
+    public MoodTrends getTrends(Long userId, Period period, LocalDate from, LocalDate to) {
+        LocalDate end = period.start(to != null ? to : LocalDate.now());
+        LocalDate start = from != null ? period.start(from) : switch (period) {
+            case DAY -> end.minusDays(29);
+            case WEEK -> end.minusWeeks(11);
+            case MONTH -> end.minusMonths(11);
+        };
+        if (start.isAfter(end)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        long buckets = switch (period) {
+            case DAY -> ChronoUnit.DAYS.between(start, end) + 1;
+            case WEEK -> ChronoUnit.WEEKS.between(start, end) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(start, end) + 1;
+        };
+        if (buckets > maxBuckets) {
+            throw new RuntimeException("At most " + maxBuckets + " periods can be requested at once");
+        }
+
+        Map<LocalDate, long[]> histograms = new LinkedHashMap<>();
+        for (LocalDate day = start; !day.isAfter(end); day = period.next(day)) {
+            histograms.put(day, new long[MOODS.length]);
+        }
+        for (MoodRollup rollup : rollupRepository.findRange(userId, period, start, period.next(end))) {
+            histograms.get(rollup.getPeriodStart())[rollup.getMood().ordinal()] = rollup.getEntries();
+        }
+        List<MoodTrends.Bucket> result = new ArrayList<>(histograms.size());
+        histograms.forEach((day, counts) -> result.add(new MoodTrends.Bucket(day, counts, Arrays.stream(counts).sum())));
+        return new MoodTrends(userId, period, List.of(MOODS), result);
+    }
+
+    public void journalAdded(Journal journal) {
+        journalsAdded(List.of(journal));
+    }
+
+    /** Counts saved journals in, with one update per (user, period, mood) they touch. */
+    public void journalsAdded(List<Journal> journals) {
+        Map<Key, Long> deltas = new LinkedHashMap<>();
+        for (Journal journal : journals) {
+            collect(deltas, journal.getUser().getId(), journal.getCreatedAt(), journal.getMood(), 1);
+            latestMoods.added(journal.getUser().getId(), journal.getCreatedAt(), journal.getMood());
+        }
+        deltas.forEach(this::apply);
+    }
+
+    public void journalChanged(Long userId, LocalDateTime createdAt, MoodLevel oldMood, MoodLevel newMood) {
+        if (oldMood == newMood) {
+            return;
+        }
+        latestMoods.changed(userId, createdAt, newMood);
+        Map<Key, Long> deltas = new LinkedHashMap<>();
+        collect(deltas, userId, createdAt, oldMood, -1);
+        collect(deltas, userId, createdAt, newMood, 1);
+        deltas.forEach(this::apply);
+    }
+
+    public void journalRemoved(Long userId, LocalDateTime createdAt, MoodLevel mood) {
+        latestMoods.removed(userId, createdAt);
+        Map<Key, Long> deltas = new LinkedHashMap<>();
+        collect(deltas, userId, createdAt, mood, -1);
+        deltas.forEach(this::apply);
+    }
+
+    private record Key(Long userId, Period period, LocalDate periodStart, MoodLevel mood) {}
+
+    private static void collect(Map<Key, Long> deltas, Long userId, LocalDateTime createdAt, MoodLevel mood,
+                                long delta) {
+        if (mood == null || createdAt == null) {
+            return;
+        }
+        LocalDate day = createdAt.toLocalDate();
+        for (Period period : Period.values()) {
+            deltas.merge(new Key(userId, period, period.start(day), mood), delta, Long::sum);
+        }
+    }
+
+    private void apply(Key key, Long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (rollupRepository.addEntries(key.userId(), key.period(), key.periodStart(), key.mood(), delta) > 0) {
+            if (delta < 0) {
+                rollupRepository.deleteEmpty(key.userId(), key.period(), key.periodStart(), key.mood());
+            }
+            return;
+        }
+        if (delta < 0) {
+            // Nothing counted to take away; the next rebuild settles it
+            return;
+        }
+        if (rollupRepository.insertEntries(key.userId(), key.period().name(), key.periodStart(), key.mood().name(),
+                delta) == 0) {
+            // Another request created the row first
+            rollupRepository.addEntries(key.userId(), key.period(), key.periodStart(), key.mood(), delta);
+        }
+    }
+}
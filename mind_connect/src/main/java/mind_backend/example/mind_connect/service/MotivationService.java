@@ -1,46 +1,90 @@
 package mind_backend.example.mind_connect.service;
 
+import mind_backend.example.mind_connect.dto.MotivationRecommendations;
+import mind_backend.example.mind_connect.dto.MotivationSummary;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
 import mind_backend.example.mind_connect.entity.Motivation;
 import mind_backend.example.mind_connect.entity.Motivation.ContentType;
 import mind_backend.example.mind_connect.repository.MotivationRepository;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.pagination.PageRequestResolver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class MotivationService {
 
+    private static final int DEFAULT_RECOMMENDATIONS = 3;
+    private static final int MAX_RECOMMENDATIONS = 10;
+
     @Autowired
     private MotivationRepository motivationRepository;
 
-    public List<Motivation> getAllMotivations() {
-        return motivationRepository.findAll();
+    @Autowired
+    private PageRequestResolver pageRequestResolver;
+
+    @Autowired
+    private ActiveMotivations activeMotivations;
+
+    @Autowired
+    private LatestMoods latestMoods;
+
+    public CursorPage<MotivationSummary> getAllMotivations(String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<MotivationSummary> rows = motivationRepository.findPage(pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, motivation -> Cursor.ofId(motivation.id()));
     }
 
-    public List<Motivation> getActiveMotivations() {
-        return motivationRepository.findAll();
+    public ActiveMotivations.Rendered getActiveMotivations(String cursor, Integer size) {
+        return activeMotivations.active(pageRequestResolver.afterId(cursor), pageRequestResolver.size(size));
     }
 
     public Optional<Motivation> getMotivationById(Long id) {
         return motivationRepository.findById(id);
     }
 
-    public List<Motivation> getMotivationsByType(ContentType type) {
-        return motivationRepository.findByType(type);
+    public ActiveMotivations.Rendered getMotivationsByType(ContentType type, String cursor, Integer size) {
+        return activeMotivations.byType(type, pageRequestResolver.afterId(cursor), pageRequestResolver.size(size));
     }
 
-    public List<Motivation> getMotivationsByCategory(String category) {
-        return motivationRepository.findByCategory(category);
+    public ActiveMotivations.Rendered getMotivationsByCategory(String category, String cursor, Integer size) {
+        return activeMotivations.byCategory(category, pageRequestResolver.afterId(cursor),
+            pageRequestResolver.size(size));
+    }
+
+    public Optional<MotivationSummary> getDailyMotivation(Long userId, ContentType type) {
+        return activeMotivations.daily(userId, LocalDate.now(), type);
+    }
+
+    public Optional<MotivationSummary> getRandomMotivation(ContentType type) {
+        return activeMotivations.random(type);
+    }
+
+    public MotivationRecommendations getRecommendedMotivations(Long userId, Integer size) {
+        int count = size == null || size <= 0 ? DEFAULT_RECOMMENDATIONS : Math.min(size, MAX_RECOMMENDATIONS);
+        MoodLevel mood = latestMoods.get(userId);
+        return new MotivationRecommendations(userId, mood,
+            activeMotivations.recommended(userId, LocalDate.now(), mood, count));
     }
 
     public Motivation createMotivation(Motivation motivation) {
-        return motivationRepository.save(motivation);
+        Motivation saved = motivationRepository.save(motivation);
+        activeMotivations.saved(saved);
+        return saved;
     }
 
-    public Motivation updateMotivation(Long id, Motivation motivationDetails) {
+    public Motivation updateMotivation(Long id, Motivation motivationDetails, Long expectedVersion) {
         Motivation motivation = motivationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Motivation content not found"));
+        if (expectedVersion != null && !expectedVersion.equals(motivation.getVersion())) {
+            throw new OptimisticLockingFailureException("Motivation content was changed by someone else");
+        }
 
         motivation.setTitle(motivationDetails.getTitle());
         motivation.setContent(motivationDetails.getContent());
@@ -48,19 +92,26 @@ public class MotivationService {
         motivation.setAuthor(motivationDetails.getAuthor());
         motivation.setCategory(motivationDetails.getCategory());
         motivation.setActive(motivationDetails.getActive());
+        motivation.setWeight(motivationDetails.getWeight());
 
-        return motivationRepository.save(motivation);
+        Motivation saved = motivationRepository.save(motivation);
+        activeMotivations.saved(saved);
+        return saved;
     }
 
     public void deleteMotivation(Long id) {
         motivationRepository.deleteById(id);
+        activeMotivations.removed(id);
     }
 
-    public Motivation toggleActive(Long id) {
-        Motivation motivation = motivationRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Motivation content not found"));
-        
-        motivation.setActive(!motivation.getActive());
-        return motivationRepository.save(motivation);
+    // One UPDATE; only a miss costs a second statement to tell a stale version from a missing row
+    public void toggleActive(Long id, Long expectedVersion) {
+        if (motivationRepository.toggleActive(id, expectedVersion) == 0) {
+            if (expectedVersion != null && motivationRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Motivation content was changed by someone else");
+            }
+            throw new RuntimeException("Motivation content not found");
+        }
+        activeMotivations.toggled(id);
     }
 }
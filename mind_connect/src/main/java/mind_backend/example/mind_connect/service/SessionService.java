@@ -1,48 +1,92 @@
 package mind_backend.example.mind_connect.service;
 
+import mind_backend.example.mind_connect.booking.SessionConflictException;
+import mind_backend.example.mind_connect.booking.SessionIntervalIndex;
+import mind_backend.example.mind_connect.booking.SessionOverlapGuard;
+import mind_backend.example.mind_connect.dto.BulkResult;
+import mind_backend.example.mind_connect.dto.BulkResult.ItemError;
+import mind_backend.example.mind_connect.dto.SessionSummary;
 import mind_backend.example.mind_connect.entity.Session;
 import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.reminder.ReminderScheduler;
 import mind_backend.example.mind_connect.repository.SessionRepository;
+import mind_backend.example.mind_connect.repository.SessionStateView;
 import mind_backend.example.mind_connect.repository.UserRepository;
 import mind_backend.example.mind_connect.repository.TherapistRepository;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.pagination.PageRequestResolver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.time.LocalDateTime;
 
+/**
+ * Session writes run in one transaction with the therapist_stats updates they cause. The
+ * interval index and the reminder wheel are only changed once that transaction commits;
+ * a slot reserved for a booking that rolls back is given back.
+ */
 @Service
 public class SessionService {
 
     @Autowired
     private SessionRepository sessionRepository;
 
+    @Autowired
+    private PageRequestResolver pageRequestResolver;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private TherapistRepository therapistRepository;
 
-    public List<Session> getAllSessions() {
-        return sessionRepository.findAll();
+    @Autowired
+    private SessionIntervalIndex intervalIndex;
+
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+
+    @Autowired
+    private BulkRequestValidator bulkRequestValidator;
+
+    @Autowired
+    private TherapistStatsService therapistStatsService;
+
+    public CursorPage<SessionSummary> getAllSessions(String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<SessionSummary> rows = sessionRepository.findPage(pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, session -> Cursor.ofId(session.id()));
     }
 
     public Optional<Session> getSessionById(Long id) {
         return sessionRepository.findById(id);
     }
 
-    public List<Session> getSessionsByUserId(Long userId) {
-        return sessionRepository.findByUserId(userId);
+    public CursorPage<SessionSummary> getSessionsByUserId(Long userId, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<SessionSummary> rows = sessionRepository.findPageByUserId(userId, pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, session -> Cursor.ofId(session.id()));
     }
 
-    public List<Session> getSessionsByTherapistId(Long therapistId) {
-        return sessionRepository.findByTherapistId(therapistId);
-    }
-
-    public List<Session> getSessionsByStatus(SessionStatus status) {
-        return sessionRepository.findByStatus(status);
+    public CursorPage<SessionSummary> getSessionsByTherapistId(Long therapistId, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<SessionSummary> rows = sessionRepository.findPageByTherapistId(therapistId,
+            pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, session -> Cursor.ofId(session.id()));
     }
 
+    @Transactional
     public Session createSession(Session session) {
         // Validate user and therapist exist
         userRepository.findById(session.getUser().getId())
@@ -51,12 +95,92 @@ public class SessionService {
         therapistRepository.findById(session.getTherapist().getId())
             .orElseThrow(() -> new RuntimeException("Therapist not found"));
 
-        return sessionRepository.save(session);
+        Session saved = persist(session);
+        therapistStatsService.sessionAdded(saved);
+        return saved;
     }
 
-    public Session updateSession(Long id, Session sessionDetails) {
+    /**
+     * Saves every session or none. Items are checked against the entity constraints, the
+     * known users and therapists (one query each) and the interval index, which also catches
+     * overlaps between items of the same request; the sessions are then inserted in JDBC
+     * batches in the same transaction as the stats update.
+     */
+    @Transactional
+    public BulkResult createSessions(List<Session> sessions) {
+        bulkRequestValidator.checkSize(sessions);
+
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> therapistIds = new HashSet<>();
+        for (Session session : sessions) {
+            if (session != null && session.getUser() != null && session.getUser().getId() != null) {
+                userIds.add(session.getUser().getId());
+            }
+            if (session != null && session.getTherapist() != null && session.getTherapist().getId() != null) {
+                therapistIds.add(session.getTherapist().getId());
+            }
+        }
+        Set<Long> knownUsers = new HashSet<>(userRepository.findExistingIds(userIds));
+        Set<Long> knownTherapists = new HashSet<>(therapistRepository.findExistingIds(therapistIds));
+
+        List<ItemError> errors = new ArrayList<>();
+        List<SessionIntervalIndex.Reservation> reservations = new ArrayList<>();
+        try {
+            for (int i = 0; i < sessions.size(); i++) {
+                Session session = sessions.get(i);
+                if (!bulkRequestValidator.validate(i, session, errors)) {
+                    continue;
+                }
+                if (!knownUsers.contains(session.getUser().getId())) {
+                    errors.add(new ItemError(i, "User not found"));
+                } else if (!knownTherapists.contains(session.getTherapist().getId())) {
+                    errors.add(new ItemError(i, "Therapist not found"));
+                } else if (session.getStatus() == SessionStatus.SCHEDULED) {
+                    try {
+                        reservations.add(intervalIndex.reserve(session.getTherapist().getId(), null,
+                            session.getSessionDate(), session.getDuration()));
+                    } catch (SessionConflictException e) {
+                        errors.add(new ItemError(i, e.getMessage()));
+                    }
+                }
+            }
+            if (!errors.isEmpty()) {
+                reservations.forEach(intervalIndex::cancel);
+                return BulkResult.rejected(errors);
+            }
+
+            for (Session session : sessions) {
+                session.setId(null);
+                session.setUser(userRepository.getReferenceById(session.getUser().getId()));
+                session.setTherapist(therapistRepository.getReferenceById(session.getTherapist().getId()));
+            }
+            sessions = sessionRepository.saveAll(sessions);
+            sessionRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            reservations.forEach(intervalIndex::cancel);
+            if (SessionOverlapGuard.isOverlapViolation(e)) {
+                therapistIds.forEach(intervalIndex::invalidate);
+                throw new SessionConflictException("A therapist already has a session at one of those times");
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            reservations.forEach(intervalIndex::cancel);
+            throw e;
+        }
+
+        confirmOnCommit(reservations, sessions);
+        therapistStatsService.sessionsAdded(sessions);
+        return BulkResult.created(sessions.stream().map(Session::getId).toList());
+    }
+
+    @Transactional
+    public Session updateSession(Long id, Session sessionDetails, Long expectedVersion) {
         Session session = sessionRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Session not found"));
+        checkVersion(session, expectedVersion);
+        SessionStatus oldStatus = session.getStatus();
+        Integer oldDuration = session.getDuration();
+        LocalDateTime oldStart = session.getSessionDate();
 
         session.setSessionDate(sessionDetails.getSessionDate());
         session.setStatus(sessionDetails.getStatus());
@@ -64,26 +188,170 @@ public class SessionService {
         session.setSessionType(sessionDetails.getSessionType());
         session.setDuration(sessionDetails.getDuration());
 
-        return sessionRepository.save(session);
+        Session saved = persist(session);
+        therapistStatsService.sessionChanged(saved.getTherapist().getId(), oldStatus, oldDuration, oldStart,
+            saved.getStatus(), saved.getDuration(), saved.getSessionDate());
+        return saved;
     }
 
-    public Session updateSessionStatus(Long id, SessionStatus status) {
-        Session session = sessionRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Session not found"));
-        
-        session.setStatus(status);
-        return sessionRepository.save(session);
+    /**
+     * Leaving the schedule is one UPDATE conditioned on the session still being SCHEDULED
+     * (and on the If-Match version, if given), followed by one relative UPDATE of the
+     * therapist's stats. Only when the session had already left the schedule is its state
+     * read, to move it between the other statuses. Going back to SCHEDULED loads the whole
+     * session, because its time slot has to be re-checked in the interval index.
+     */
+    @Transactional
+    public void updateSessionStatus(Long id, SessionStatus status, Long expectedVersion) {
+        if (status == SessionStatus.SCHEDULED) {
+            Session session = sessionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Session not found"));
+            checkVersion(session, expectedVersion);
+            SessionStatus oldStatus = session.getStatus();
+            session.setStatus(status);
+            Session saved = persist(session);
+            therapistStatsService.sessionChanged(saved.getTherapist().getId(), oldStatus, saved.getDuration(),
+                saved.getSessionDate(), status, saved.getDuration(), saved.getSessionDate());
+            return;
+        }
+
+        SessionStatus from = SessionStatus.SCHEDULED;
+        if (sessionRepository.updateStatus(id, from, status, expectedVersion) == 0) {
+            SessionStateView current = sessionRepository.findStateById(id)
+                .orElseThrow(() -> new RuntimeException("Session not found"));
+            if (current.getStatus() == SessionStatus.SCHEDULED
+                    || (expectedVersion != null && !expectedVersion.equals(current.getVersion()))) {
+                throw new OptimisticLockingFailureException("Session was changed by someone else");
+            }
+            from = current.getStatus();
+            if (sessionRepository.updateStatus(id, from, status, current.getVersion()) == 0) {
+                throw new OptimisticLockingFailureException("Session was changed by someone else");
+            }
+        }
+        therapistStatsService.statusChanged(id, from, status);
+        afterCommit(() -> {
+            intervalIndex.release(id);
+            reminderScheduler.cancel(id);
+        });
     }
 
+    @Transactional
     public void deleteSession(Long id) {
+        Optional<SessionStateView> removed = sessionRepository.findStateById(id);
         sessionRepository.deleteById(id);
+        afterCommit(() -> {
+            intervalIndex.release(id);
+            reminderScheduler.cancel(id);
+        });
+        removed.ifPresent(session -> therapistStatsService.sessionRemoved(session.getTherapistId(),
+            session.getUserId(), session.getStatus(), session.getDuration(), session.getSessionDate()));
+    }
+
+    public CursorPage<SessionSummary> getUpcomingSessions(Long userId, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        Cursor from = startAt(cursor);
+        List<SessionSummary> rows = sessionRepository.findUpcomingByUserId(userId, from.sortKeyAsDateTime(), from.id(),
+            Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, session -> Cursor.of(session.sessionDate(), session.id()));
+    }
+
+    public CursorPage<SessionSummary> getSessionHistory(Long userId, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        Cursor from = startAt(cursor);
+        List<SessionSummary> rows = sessionRepository.findHistoryByUserId(userId, from.sortKeyAsDateTime(), from.id(),
+            Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, session -> Cursor.of(session.sessionDate(), session.id()));
+    }
+
+    public CursorPage<SessionSummary> getUpcomingSessionsForTherapist(Long therapistId, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        Cursor from = startAt(cursor);
+        List<SessionSummary> rows = sessionRepository.findUpcomingByTherapistId(therapistId, from.sortKeyAsDateTime(),
+            from.id(), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, session -> Cursor.of(session.sessionDate(), session.id()));
+    }
+
+    public CursorPage<SessionSummary> getSessionHistoryForTherapist(Long therapistId, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        Cursor from = startAt(cursor);
+        List<SessionSummary> rows = sessionRepository.findHistoryByTherapistId(therapistId, from.sortKeyAsDateTime(),
+            from.id(), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, session -> Cursor.of(session.sessionDate(), session.id()));
+    }
+
+    private static void checkVersion(Session session, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(session.getVersion())) {
+            throw new OptimisticLockingFailureException("Session was changed by someone else");
+        }
+    }
+
+    // Date-ordered listings start at the current time unless a cursor says otherwise
+    private static Cursor startAt(String cursor) {
+        return cursor == null || cursor.isEmpty() ? Cursor.of(LocalDateTime.now(), 0L) : Cursor.decode(cursor);
+    }
+
+    // Scheduled sessions go through the interval index so overlapping bookings are rejected;
+    // reminders follow whatever was saved. Flushed here so the database's overlap check fails
+    // inside this method rather than at commit.
+    private Session persist(Session session) {
+        if (session.getStatus() != SessionStatus.SCHEDULED || session.getSessionDate() == null) {
+            Session saved = sessionRepository.saveAndFlush(session);
+            afterCommit(() -> {
+                intervalIndex.release(saved.getId());
+                reminderScheduler.track(saved);
+            });
+            return saved;
+        }
+
+        Long therapistId = session.getTherapist().getId();
+        SessionIntervalIndex.Reservation reservation = intervalIndex.reserve(therapistId, session.getId(),
+            session.getSessionDate(), session.getDuration());
+        try {
+            Session saved = sessionRepository.saveAndFlush(session);
+            confirmOnCommit(List.of(reservation), List.of(saved));
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            intervalIndex.cancel(reservation);
+            if (SessionOverlapGuard.isOverlapViolation(e)) {
+                intervalIndex.invalidate(therapistId);
+                throw new SessionConflictException("Therapist already has a session at that time");
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            intervalIndex.cancel(reservation);
+            throw e;
+        }
     }
 
-    public List<Session> getUpcomingSessions(Long userId) {
-        return sessionRepository.findByUserIdAndStatus(userId, SessionStatus.SCHEDULED);
+    /**
+     * Confirms the reservations of the saved sessions, in order of the scheduled ones, and
+     * tracks their reminders once the transaction commits; on rollback the slots are given back.
+     */
+    private void confirmOnCommit(List<SessionIntervalIndex.Reservation> reservations, List<Session> saved) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    reservations.forEach(intervalIndex::cancel);
+                    return;
+                }
+                int reserved = 0;
+                for (Session session : saved) {
+                    if (session.getStatus() == SessionStatus.SCHEDULED) {
+                        intervalIndex.confirm(reservations.get(reserved++), session.getId());
+                    }
+                    reminderScheduler.track(session);
+                }
+            }
+        });
     }
 
-    public List<Session> getSessionsInDateRange(LocalDateTime start, LocalDateTime end) {
-        return sessionRepository.findBySessionDateBetween(start, end);
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
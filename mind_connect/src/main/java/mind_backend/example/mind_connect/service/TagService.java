@@ -0,0 +1,336 @@
+package mind_backend.example.mind_connect.service;
+
+import mind_backend.example.mind_connect.dto.JournalSummary;
+import mind_backend.example.mind_connect.dto.TagCount;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Tag;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.pagination.PageRequestResolver;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.JournalTagView;
+import mind_backend.example.mind_connect.repository.TagRepository;
+import mind_backend.example.mind_connect.repository.UntaggedJournalView;
+import mind_backend.example.mind_connect.search.JournalTagIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Normalized journal tags. Each distinct tag name is stored once in the tags table and a
+ * journal's tags are rows of journal_tags; the comma-separated {@code tags} column stays
+ * on journals as the API sees it. JournalService reports every write here, which keeps
+ * the rows and the in-memory {@link JournalTagIndex} in step, so tag filters and counts
+ * are answered from bitmaps without scanning journals.
+ *
+ * <p>At startup the tag dictionary is cached, journals written before journal_tags existed
+ * get their rows, and the index is loaded from journal_tags in pages of
+ * {@code journals.tags.load-page-size}. Dictionary and index are reloaded every
+ * {@code journals.tags.refresh-ms} to pick up tags written through other nodes.
+ */
+@Service
+public class TagService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagService.class);
+
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private static final String INSERT = "insert into journal_tags (journal_id, tag_id) values (?, ?)";
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private JournalTagIndex index;
+
+    @Autowired
+    private PageRequestResolver pageRequestResolver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${journals.tags.load-page-size:10000}")
+    private int loadPageSize;
+
+    @Value("${journals.tags.refresh-ms:300000}")
+    private long refreshMs;
+
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+
+    private TransactionTemplate newTransaction;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void init() {
+        if (loadPageSize <= 0) {
+            throw new IllegalStateException("journals.tags.load-page-size must be positive");
+        }
+        // New tags commit on their own, so a caller's rollback never leaves a cached id behind
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        load();
+        if (refreshMs <= 0) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-tags-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                logger.warn("Journal tag index reload failed: {}", e.getMessage());
+            }
+        }, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /** Gives journals written before journal_tags existed their rows, then loads the index. */
+    public void load() {
+        long started = System.currentTimeMillis();
+        for (Tag tag : tagRepository.findAll()) {
+            cache(tag);
+        }
+
+        List<UntaggedJournalView> untagged = tagRepository.findJournalsWithoutTagRows();
+        List<Object[]> rows = new ArrayList<>();
+        for (UntaggedJournalView journal : untagged) {
+            for (Long tagId : tagIds(normalize(journal.getTags()))) {
+                rows.add(new Object[] {journal.getId(), tagId});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        int loaded = reload();
+        logger.info("Journal tag index holds {} tags on journals ({} backfilled), ready in {} ms", loaded,
+            untagged.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Reads the tag dictionary and journal_tags again. Users written to on this node while
+     * it reads keep their postings; the next reload catches them up.
+     */
+    public int reload() {
+        JournalTagIndex.Reload reload = index.reload();
+        for (Tag tag : tagRepository.findAll()) {
+            cache(tag);
+        }
+        long journalId = 0;
+        long tagId = 0;
+        int loaded = 0;
+        List<JournalTagView> page;
+        do {
+            page = tagRepository.findTaggedJournals(journalId, tagId, Limit.of(loadPageSize));
+            Long userId = null;
+            Long current = null;
+            List<Long> tags = new ArrayList<>();
+            for (JournalTagView row : page) {
+                if (!row.getJournalId().equals(current)) {
+                    if (current != null) {
+                        reload.add(userId, current, tags);
+                    }
+                    current = row.getJournalId();
+                    userId = row.getUserId();
+                    tags = new ArrayList<>();
+                }
+                tags.add(row.getTagId());
+                journalId = row.getJournalId();
+                tagId = row.getTagId();
+                loaded++;
+            }
+            if (current != null) {
+                // A journal's tags may continue on the next page, so add rather than replace
+                reload.add(userId, current, tags);
+            }
+        } while (page.size() == loadPageSize);
+        reload.finish();
+        return loaded;
+    }
+
+    /**
+     * Distinct tag names in a comma-separated list, trimmed, lower-cased and cut to the
+     * column length, in the order given.
+     */
+    public static Set<String> normalize(String tags) {
+        Set<String> names = new LinkedHashSet<>();
+        if (tags == null) {
+            return names;
+        }
+        for (String tag : tags.split(",")) {
+            String name = tag.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            if (!name.isEmpty()) {
+                names.add(name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name);
+            }
+        }
+        return names;
+    }
+
+    public void journalSaved(Journal journal, String oldTags) {
+        Set<Long> tagIds = new HashSet<>(tagIds(normalize(journal.getTags())));
+        Set<Long> oldTagIds = new HashSet<>(tagIds(normalize(oldTags)));
+        Set<Long> removed = new HashSet<>(oldTagIds);
+        removed.removeAll(tagIds);
+        List<Object[]> rows = new ArrayList<>();
+        for (Long tagId : tagIds) {
+            if (!oldTagIds.contains(tagId)) {
+                rows.add(new Object[] {journal.getId(), tagId});
+            }
+        }
+        if (!removed.isEmpty()) {
+            tagRepository.deleteJournalTags(journal.getId(), removed);
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+        if (tagIds.isEmpty()) {
+            index.remove(journal.getUser().getId(), journal.getId());
+        } else {
+            index.put(journal.getUser().getId(), journal.getId(), tagIds);
+        }
+    }
+
+    /**
+     * Writes the tag rows of newly saved journals in the caller's transaction, in one
+     * batch, and indexes them once it commits.
+     */
+    public void journalsSaved(List<Journal> journals) {
+        Map<Journal, List<Long>> tagged = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (Journal journal : journals) {
+            List<Long> tagIds = tagIds(normalize(journal.getTags()));
+            tagged.put(journal, tagIds);
+            for (Long tagId : tagIds) {
+                rows.add(new Object[] {journal.getId(), tagId});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tagged.forEach((journal, tagIds) -> index.put(journal.getUser().getId(), journal.getId(), tagIds));
+            }
+        });
+    }
+
+    // journal_tags rows go with the journal through the foreign key
+    public void journalRemoved(Long userId, Long journalId) {
+        index.remove(userId, journalId);
+    }
+
+    /** The user's tags with the number of journals carrying each, most used first. */
+    public List<TagCount> tagCounts(Long userId) {
+        List<TagCount> counts = new ArrayList<>();
+        index.counts(userId).forEach((tagId, count) -> counts.add(new TagCount(namesById.get(tagId), count)));
+        counts.sort(Comparator.comparingInt(TagCount::count).reversed().thenComparing(TagCount::tag));
+        return counts;
+    }
+
+    /**
+     * The user's journals, newest first, carrying all of {@code all} and at least one of
+     * {@code any} (both comma-separated; either may be left out, not both). The index
+     * picks the page of ids and one query reads those journals.
+     */
+    public CursorPage<JournalSummary> findTagged(Long userId, String all, String any, String cursor, Integer size) {
+        Set<String> allNames = normalize(all);
+        Set<String> anyNames = normalize(any);
+        if (allNames.isEmpty() && anyNames.isEmpty()) {
+            throw new RuntimeException("At least one tag is required");
+        }
+        int limit = pageRequestResolver.size(size);
+        List<Long> allIds = new ArrayList<>(allNames.size());
+        for (String name : allNames) {
+            Long tagId = idsByName.get(name);
+            if (tagId == null) {
+                return CursorPage.of(List.of(), limit, journal -> Cursor.ofId(journal.id()));
+            }
+            allIds.add(tagId);
+        }
+        List<Long> anyIds = anyNames.stream().map(idsByName::get).filter(id -> id != null).toList();
+        if (!anyNames.isEmpty() && anyIds.isEmpty()) {
+            return CursorPage.of(List.of(), limit, journal -> Cursor.ofId(journal.id()));
+        }
+
+        long before = cursor == null || cursor.isEmpty() ? Long.MAX_VALUE : Cursor.decode(cursor).id();
+        List<Long> page = index.match(userId, allIds, anyIds, before, limit + 1);
+        Map<Long, JournalSummary> journals = journalRepository.findSummariesByIds(page).stream()
+            .collect(Collectors.toMap(JournalSummary::id, Function.identity()));
+        List<JournalSummary> rows = page.stream().map(journals::get).filter(journal -> journal != null).toList();
+        return CursorPage.of(rows, limit, journal -> Cursor.ofId(journal.id()));
+    }
+
+    private List<Long> tagIds(Collection<String> names) {
+        List<Long> ids = new ArrayList<>(names.size());
+        for (String name : names) {
+            Long id = idsByName.get(name);
+            ids.add(id != null ? id : create(name));
+        }
+        return ids;
+    }
+
+    private Long create(String name) {
+        Tag tag;
+        try {
+            tag = newTransaction.execute(status -> tagRepository.save(new Tag(name)));
+        } catch (DataIntegrityViolationException e) {
+            // Created by a concurrent write
+            tag = tagRepository.findByName(name)
+                .orElseThrow(() -> new RuntimeException("Tag could not be created: " + name));
+        }
+        cache(tag);
+        return tag.getId();
+    }
+
+    private void cache(Tag tag) {
+        idsByName.put(tag.getName(), tag.getId());
+        namesById.put(tag.getId(), tag.getName());
+    }
+}
@@ -1,8 +1,19 @@
 package mind_backend.example.mind_connect.service;
 
+import mind_backend.example.mind_connect.dto.TherapistSummary;
+import mind_backend.example.mind_connect.entity.JournalAlert;
 import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.repository.JournalAlertRepository;
 import mind_backend.example.mind_connect.repository.TherapistRepository;
+import mind_backend.example.mind_connect.search.TherapistDirectory;
+import mind_backend.example.mind_connect.security.PrincipalKind;
+import mind_backend.example.mind_connect.security.TokenVersionRegistry;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.pagination.PageRequestResolver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -11,30 +22,77 @@ import java.util.Optional;
 @Service
 public class TherapistService {
 
+    private static final int MAX_SUGGESTIONS = 20;
+
     @Autowired
     private TherapistRepository therapistRepository;
 
+    @Autowired
+    private PageRequestResolver pageRequestResolver;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public List<Therapist> getAllTherapists() {
-        return therapistRepository.findAll();
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private JournalAlertRepository alertRepository;
+
+    @Autowired
+    private TherapistDirectory therapistDirectory;
+
+    public CursorPage<TherapistSummary> getAllTherapists(String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<TherapistSummary> rows = therapistRepository.findPage(pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, therapist -> Cursor.ofId(therapist.id()));
     }
 
     public Optional<Therapist> getTherapistById(Long id) {
         return therapistRepository.findById(id);
     }
 
+    /** Journal alerts of the therapist's clients, newest first. */
+    public CursorPage<JournalAlert> getAlerts(Long id, String cursor, Integer size) {
+        if (!therapistRepository.existsById(id)) {
+            throw new RuntimeException("Therapist not found");
+        }
+        int limit = pageRequestResolver.size(size);
+        long before = cursor == null || cursor.isEmpty() ? Long.MAX_VALUE : Cursor.decode(cursor).id();
+        List<JournalAlert> rows = alertRepository.findPageForTherapist(id, before, Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, alert -> Cursor.ofId(alert.getId()));
+    }
+
     public Optional<Therapist> getTherapistByEmail(String email) {
         return therapistRepository.findByEmail(email);
     }
 
-    public List<Therapist> getAvailableTherapists() {
-        return therapistRepository.findByAvailableTrue();
+    public CursorPage<TherapistSummary> getAvailableTherapists(String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<TherapistSummary> rows = therapistRepository.findAvailablePage(pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, therapist -> Cursor.ofId(therapist.id()));
     }
 
-    public List<Therapist> getTherapistsBySpecialization(String specialization) {
-        return therapistRepository.findBySpecialization(specialization);
+    public CursorPage<TherapistSummary> getTherapistsBySpecialization(String specialization, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<TherapistSummary> rows = therapistRepository.findPageBySpecialization(specialization,
+            pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, therapist -> Cursor.ofId(therapist.id()));
+    }
+
+    /** Directory search, served from {@link TherapistDirectory}; every criterion is optional. */
+    public CursorPage<TherapistSummary> searchTherapists(String text, String specialization, Double minRating,
+                                                        Integer minExperience, Boolean available,
+                                                        String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<TherapistSummary> rows = therapistDirectory.search(text, specialization, minRating, minExperience,
+            available, pageRequestResolver.afterId(cursor), limit);
+        return CursorPage.of(rows, limit, therapist -> Cursor.ofId(therapist.id()));
+    }
+
+    public List<String> suggestTerms(String prefix, Integer size) {
+        int limit = size == null || size <= 0 ? 10 : Math.min(size, MAX_SUGGESTIONS);
+        return therapistDirectory.suggest(prefix, limit);
     }
 
     public Therapist createTherapist(Therapist therapist) {
@@ -47,12 +105,17 @@ public class TherapistService {
         }
         
         therapist.setPassword(passwordEncoder.encode(therapist.getPassword()));
-        return therapistRepository.save(therapist);
+        Therapist saved = therapistRepository.save(therapist);
+        therapistDirectory.put(saved);
+        return saved;
     }
 
-    public Therapist updateTherapist(Long id, Therapist therapistDetails) {
+    public Therapist updateTherapist(Long id, Therapist therapistDetails, Long expectedVersion) {
         Therapist therapist = therapistRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Therapist not found"));
+        if (expectedVersion != null && !expectedVersion.equals(therapist.getVersion())) {
+            throw new OptimisticLockingFailureException("Therapist was changed by someone else");
+        }
 
         therapist.setFirstName(therapistDetails.getFirstName());
         therapist.setLastName(therapistDetails.getLastName());
@@ -63,22 +126,42 @@ public class TherapistService {
         therapist.setBio(therapistDetails.getBio());
         therapist.setAvailable(therapistDetails.getAvailable());
 
-        if (therapistDetails.getPassword() != null && !therapistDetails.getPassword().isEmpty()) {
+        boolean passwordChanged = therapistDetails.getPassword() != null && !therapistDetails.getPassword().isEmpty();
+        if (passwordChanged) {
             therapist.setPassword(passwordEncoder.encode(therapistDetails.getPassword()));
+            therapist.setTokenVersion((therapist.getTokenVersion() != null ? therapist.getTokenVersion() : 0) + 1);
+        }
+
+        Therapist saved = therapistRepository.save(therapist);
+        therapistDirectory.put(saved);
+        if (passwordChanged) {
+            tokenVersionRegistry.update(PrincipalKind.THERAPIST, saved.getId(), saved.getTokenVersion());
         }
+        return saved;
+    }
 
-        return therapistRepository.save(therapist);
+    /**
+     * Re-hashes a password at the current cost after a successful login; the token
+     * version is left alone because the password itself did not change.
+     */
+    public void rehashPassword(Long id, String rawPassword) {
+        therapistRepository.updatePassword(id, passwordEncoder.encode(rawPassword));
     }
 
     public void deleteTherapist(Long id) {
         therapistRepository.deleteById(id);
+        tokenVersionRegistry.revoke(PrincipalKind.THERAPIST, id);
+        therapistDirectory.remove(id);
     }
 
-    public Therapist updateAvailability(Long id, Boolean available) {
-        Therapist therapist = therapistRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Therapist not found"));
-        
-        therapist.setAvailable(available);
-        return therapistRepository.save(therapist);
+    // One UPDATE; only a miss costs a second statement to tell a stale version from a missing row
+    public void updateAvailability(Long id, Boolean available, Long expectedVersion) {
+        if (therapistRepository.updateAvailability(id, available, expectedVersion) == 0) {
+            if (expectedVersion != null && therapistRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Therapist was changed by someone else");
+            }
+            throw new RuntimeException("Therapist not found");
+        }
+        therapistDirectory.availabilityChanged(id, available);
     }
 }
@@ -0,0 +1,216 @@
+package mind_backend.example.mind_connect.service;
+
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.repository.ClientCountView;
+import mind_backend.example.mind_connect.repository.SessionCountView;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import mind_backend.example.mind_connect.repository.TherapistCountView;
+import mind_backend.example.mind_connect.repository.TherapistRepository;
+import mind_backend.example.mind_connect.repository.TherapistStatsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rebuilds therapist_stats and therapist_clients from the sessions table, correcting any
+ * drift in the counters {@link TherapistStatsService} maintains. Therapists are split into
+ * chunks of {@code stats.reconcile.chunk-size}; each chunk is rebuilt in its own
+ * transaction, and chunks run in parallel on {@code stats.reconcile.threads} threads.
+ *
+ * <p>A chunk first locks its therapist_stats and therapist_clients rows, then counts the
+ * sessions with three grouped queries and overwrites the rows in place. Counter updates for
+ * those therapists wait for the chunk to commit and are applied on top of the rebuilt
+ * figures. The one change that can still be counted twice is a session written before the
+ * count whose counter update was still on its way; the next run puts it right.
+ *
+ * <p>Runs every {@code stats.reconcile.interval-ms} (0 turns the schedule off).
+ */
+@Component
+public class TherapistStatsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TherapistStatsReconciler.class);
+
+    private static final String UPDATE_STATS = "update therapist_stats set scheduled_sessions = ?, " +
+        "completed_sessions = ?, cancelled_sessions = ?, no_show_sessions = ?, completed_minutes = ?, " +
+        "distinct_clients = ?, upcoming_sessions = ?, upcoming_as_of = ?, updated_at = ? where therapist_id = ?";
+
+    // A row a counter update created after the lock was taken already holds that update
+    private static final String INSERT_STATS = "insert into therapist_stats (scheduled_sessions, " +
+        "completed_sessions, cancelled_sessions, no_show_sessions, completed_minutes, distinct_clients, " +
+        "upcoming_sessions, upcoming_as_of, updated_at, therapist_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "on conflict do nothing";
+
+    private static final String UPDATE_CLIENT = "update therapist_clients set sessions = ? " +
+        "where therapist_id = ? and user_id = ?";
+
+    private static final String INSERT_CLIENT = "insert into therapist_clients (sessions, therapist_id, user_id) " +
+        "values (?, ?, ?) on conflict do nothing";
+
+    @Autowired
+    private TherapistRepository therapistRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TherapistStatsRepository statsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stats.reconcile.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${stats.reconcile.threads:4}")
+    private int threads;
+
+    @Value("${stats.reconcile.interval-ms:86400000}")
+    private long intervalMs;
+
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        if (chunkSize <= 0 || threads <= 0) {
+            throw new IllegalStateException("stats.reconcile.chunk-size and stats.reconcile.threads must be positive");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (intervalMs <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "therapist-stats-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                logger.warn("Therapist stats reconciliation failed: {}", e.getMessage());
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /** Rebuilds the counters of every therapist and returns how many were rebuilt. */
+    public int reconcile() {
+        List<Long> ids = therapistRepository.findAllIds();
+        long started = System.currentTimeMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "therapist-stats-chunk-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                chunks.add(pool.submit(() -> transactionTemplate.execute(status -> rebuild(chunk))));
+            }
+            int rebuilt = 0;
+            for (Future<Integer> chunk : chunks) {
+                rebuilt += chunk.get();
+            }
+            logger.info("Rebuilt therapist stats for {} therapists in {} ms", rebuilt,
+                System.currentTimeMillis() - started);
+            return rebuilt;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Therapist stats reconciliation was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Therapist stats reconciliation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Runs inside the chunk's transaction
+    private int rebuild(List<Long> therapistIds) {
+        Set<Long> existing = new HashSet<>(statsRepository.lockStats(therapistIds));
+        statsRepository.resetClients(therapistIds);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Session counts by SessionStatus ordinal, then completed minutes, distinct clients and upcoming
+        Map<Long, long[]> counts = new LinkedHashMap<>();
+        for (Long id : therapistIds) {
+            counts.put(id, new long[7]);
+        }
+        for (SessionCountView row : sessionRepository.countByTherapistAndStatus(therapistIds)) {
+            if (row.getStatus() == null) {
+                continue;
+            }
+            long[] stats = counts.get(row.getTherapistId());
+            stats[row.getStatus().ordinal()] = row.getSessions();
+            if (row.getStatus() == SessionStatus.COMPLETED) {
+                stats[4] = row.getMinutes();
+            }
+        }
+        for (TherapistCountView row : sessionRepository.countUpcomingByTherapist(therapistIds, now)) {
+            counts.get(row.getTherapistId())[6] = row.getSessions();
+        }
+        List<Object[]> clients = new ArrayList<>();
+        for (ClientCountView row : sessionRepository.countByTherapistAndUser(therapistIds)) {
+            counts.get(row.getTherapistId())[5]++;
+            clients.add(new Object[] {row.getSessions(), row.getTherapistId(), row.getUserId()});
+        }
+
+        Timestamp asOf = Timestamp.valueOf(now);
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        counts.forEach((id, stats) -> (existing.contains(id) ? updates : inserts).add(new Object[] {
+            stats[0], stats[1], stats[2], stats[3], stats[4], stats[5], stats[6], asOf, asOf, id}));
+        jdbcTemplate.batchUpdate(UPDATE_STATS, updates);
+        jdbcTemplate.batchUpdate(INSERT_STATS, inserts);
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_CLIENT, clients);
+        List<Object[]> newClients = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                newClients.add(clients.get(i));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_CLIENT, newClients);
+        statsRepository.deleteIdleClients(therapistIds);
+        return counts.size();
+    }
+}
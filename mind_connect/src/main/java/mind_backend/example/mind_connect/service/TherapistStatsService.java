@@ -0,0 +1,280 @@
+package mind_backend.example.mind_connect.service;
+
+import mind_backend.example.mind_connect.dto.TherapistDashboard;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.entity.TherapistStats;
+import mind_backend.example.mind_connect.repository.TherapistRepository;
+import mind_backend.example.mind_connect.repository.TherapistStatsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the therapist_stats counters in step with the sessions table. SessionService
+ * reports every create, status or duration change and delete here, and each report
+ * becomes one relative UPDATE of the therapist's row (plus one on therapist_clients when
+ * a session is added or removed), so the dashboard never has to count sessions.
+ *
+ * <p>upcoming_sessions counts the scheduled sessions starting after the row's
+ * upcoming_as_of. Every {@code stats.upcoming.tick-ms} the sessions that have started
+ * since are taken out of it and upcoming_as_of moves forward, so the dashboard's upcoming
+ * figure is at most one tick behind the clock.
+ *
+ * <p>The counters are written in the transaction of the session change that caused them,
+ * so a session write and its counters commit or roll back together.
+ */
+@Service
+public class TherapistStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TherapistStatsService.class);
+
+    @Autowired
+    private TherapistStatsRepository statsRepository;
+
+    @Autowired
+    private TherapistRepository therapistRepository;
+
+    @Value("${stats.upcoming.tick-ms:60000}")
+    private long upcomingTickMs;
+
+    private ScheduledExecutorService sweeper;
+    // Start of the window the next sweep looks at; only the sweeper thread touches it
+    private LocalDateTime sweptUntil;
+
+    @PostConstruct
+    void init() {
+        if (upcomingTickMs <= 0) {
+            throw new IllegalStateException("stats.upcoming.tick-ms must be positive");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "therapist-stats-upcoming");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                advanceUpcoming();
+            } catch (RuntimeException e) {
+                logger.warn("Advancing upcoming session counts failed: {}", e.getMessage());
+            }
+        }, upcomingTickMs, upcomingTickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /** Takes the sessions that have started since the last sweep out of the upcoming counts. */
+    public synchronized int advanceUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = sweptUntil != null ? sweptUntil : statsRepository.findOldestUpcomingAsOf();
+        int advanced = since != null ? statsRepository.advanceUpcoming(since, now) : 0;
+        sweptUntil = now;
+        return advanced;
+    }
+
+    public TherapistDashboard getDashboard(Long therapistId) {
+        TherapistStats stats = statsRepository.findById(therapistId).orElse(null);
+        if (stats == null) {
+            if (!therapistRepository.existsById(therapistId)) {
+                throw new RuntimeException("Therapist not found");
+            }
+            return new TherapistDashboard(therapistId, 0, 0, 0, 0, 0, 0, 0, 0, null);
+        }
+        long total = stats.getScheduledSessions() + stats.getCompletedSessions()
+            + stats.getCancelledSessions() + stats.getNoShowSessions();
+        return new TherapistDashboard(therapistId, total, stats.getScheduledSessions(),
+            stats.getUpcomingSessions(), stats.getCompletedSessions(),
+            stats.getCancelledSessions(), stats.getNoShowSessions(), stats.getCompletedMinutes(),
+            stats.getDistinctClients(), stats.getUpdatedAt());
+    }
+
+    public void sessionAdded(Session session) {
+        sessionsAdded(List.of(session));
+    }
+
+    /** Counts saved sessions in, with one update per therapist and per (therapist, user) pair. */
+    public void sessionsAdded(List<Session> sessions) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Delta> deltas = new LinkedHashMap<>();
+        Map<Long, Map<Long, Long>> clients = new HashMap<>();
+        // Scheduled sessions that have already started are counted as upcoming one by one,
+        // since only those after the row's upcoming_as_of belong in the count
+        List<Session> started = new ArrayList<>();
+        for (Session session : sessions) {
+            Long therapistId = session.getTherapist().getId();
+            boolean future = session.getSessionDate() != null && session.getSessionDate().isAfter(now);
+            deltas.computeIfAbsent(therapistId, id -> new Delta())
+                .add(session.getStatus(), session.getDuration(), future ? session.getSessionDate() : null, 1);
+            if (!future && session.getStatus() == SessionStatus.SCHEDULED) {
+                started.add(session);
+            }
+            clients.computeIfAbsent(therapistId, id -> new HashMap<>())
+                .merge(session.getUser().getId(), 1L, Long::sum);
+        }
+        deltas.forEach((therapistId, delta) -> {
+            clients.get(therapistId).forEach((userId, count) -> {
+                if (statsRepository.addClientSessions(therapistId, userId, count) == 0) {
+                    addClient(therapistId, userId, count, delta);
+                }
+            });
+            apply(therapistId, delta);
+        });
+        for (Session session : started) {
+            Delta delta = new Delta();
+            delta.arrive(session.getSessionDate(), 1);
+            apply(session.getTherapist().getId(), delta);
+        }
+    }
+
+    /**
+     * Moves a session between status buckets, adjusts the minutes of a completed one, or
+     * moves it in or out of the upcoming count when its start changes.
+     */
+    public void sessionChanged(Long therapistId, SessionStatus oldStatus, Integer oldDuration, LocalDateTime oldStart,
+                               SessionStatus newStatus, Integer newDuration, LocalDateTime newStart) {
+        Delta delta = new Delta();
+        delta.add(oldStatus, oldDuration, oldStart, -1);
+        delta.add(newStatus, newDuration, newStart, 1);
+        if (delta.arriving == 1 && delta.leaving == 1 && delta.arrivingFrom.equals(delta.leavingFrom)) {
+            // Still scheduled at the same time
+            delta.arriving = 0;
+            delta.leaving = 0;
+        }
+        if (!delta.isEmpty()) {
+            apply(therapistId, delta);
+        }
+    }
+
+    /**
+     * Status change of a session that has just been written; one UPDATE that reads the
+     * session's therapist, start and duration from its row.
+     */
+    public void statusChanged(Long sessionId, SessionStatus oldStatus, SessionStatus newStatus) {
+        Delta delta = new Delta();
+        delta.add(oldStatus, null, null, -1);
+        delta.add(newStatus, null, null, 1);
+        if (delta.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (applyStatusChange(sessionId, delta, now) == 0) {
+            // First counted session for this therapist
+            statsRepository.insertEmptyForSession(sessionId, now);
+            applyStatusChange(sessionId, delta, now);
+        }
+    }
+
+    public void sessionRemoved(Long therapistId, Long userId, SessionStatus status, Integer duration,
+                               LocalDateTime start) {
+        Delta delta = new Delta();
+        delta.add(status, duration, start, -1);
+        statsRepository.addClientSessions(therapistId, userId, -1);
+        if (statsRepository.deleteIdleClient(therapistId, userId) > 0) {
+            delta.clients--;
+        }
+        apply(therapistId, delta);
+    }
+
+    private void addClient(Long therapistId, Long userId, long sessions, Delta delta) {
+        if (statsRepository.insertClient(therapistId, userId, sessions) > 0) {
+            delta.clients++;
+        } else {
+            // Another request added the pair first
+            statsRepository.addClientSessions(therapistId, userId, sessions);
+        }
+    }
+
+    private void apply(Long therapistId, Delta delta) {
+        LocalDateTime now = LocalDateTime.now();
+        if (update(therapistId, delta, now) > 0) {
+            return;
+        }
+        // First session for this therapist, unless the row was created concurrently
+        statsRepository.insertEmpty(therapistId, now);
+        update(therapistId, delta, now);
+    }
+
+    private int update(Long therapistId, Delta delta, LocalDateTime now) {
+        return statsRepository.applyDelta(therapistId, delta.scheduled, delta.completed, delta.cancelled,
+            delta.noShow, delta.minutes, delta.clients, delta.arriving, delta.arrivingFrom, delta.leaving,
+            delta.leavingFrom, now);
+    }
+
+    private int applyStatusChange(Long sessionId, Delta delta, LocalDateTime now) {
+        return statsRepository.applyStatusChange(sessionId, delta.scheduled, delta.completed, delta.cancelled,
+            delta.noShow, now);
+    }
+
+    private static final class Delta {
+        private long scheduled;
+        private long completed;
+        private long cancelled;
+        private long noShow;
+        private long minutes;
+        private long clients;
+        // Scheduled sessions entering and leaving the upcoming count, with the earliest start of each
+        private long arriving;
+        private LocalDateTime arrivingFrom;
+        private long leaving;
+        private LocalDateTime leavingFrom;
+
+        void add(SessionStatus status, Integer duration, LocalDateTime start, int sign) {
+            if (status == null) {
+                return;
+            }
+            switch (status) {
+                case SCHEDULED -> {
+                    scheduled += sign;
+                    if (start != null) {
+                        arrive(start, sign);
+                    }
+                }
+                case COMPLETED -> {
+                    completed += sign;
+                    minutes += (long) sign * (duration != null ? duration : 0);
+                }
+                case CANCELLED -> cancelled += sign;
+                case NO_SHOW -> noShow += sign;
+            }
+        }
+
+        void arrive(LocalDateTime start, int sign) {
+            if (sign > 0) {
+                arriving++;
+                arrivingFrom = arrivingFrom == null || start.isBefore(arrivingFrom) ? start : arrivingFrom;
+            } else {
+                leaving++;
+                leavingFrom = leavingFrom == null || start.isBefore(leavingFrom) ? start : leavingFrom;
+            }
+        }
+
+        boolean isEmpty() {
+            return scheduled == 0 && completed == 0 && cancelled == 0 && noShow == 0 && minutes == 0 && clients == 0
+                && arriving == 0 && leaving == 0;
+        }
+    }
+}
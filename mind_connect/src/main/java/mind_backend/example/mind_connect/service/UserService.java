@@ -1,10 +1,17 @@
 package mind_backend.example.mind_connect.service;
 
+import mind_backend.example.mind_connect.dto.UserSummary;
 import mind_backend.example.mind_connect.entity.User;
 import mind_backend.example.mind_connect.entity.Role;
 import mind_backend.example.mind_connect.repository.UserRepository;
 import mind_backend.example.mind_connect.repository.RoleRepository;
+import mind_backend.example.mind_connect.security.PrincipalKind;
+import mind_backend.example.mind_connect.security.TokenVersionRegistry;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.pagination.PageRequestResolver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,6 +24,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PageRequestResolver pageRequestResolver;
+
     @Autowired
     private RoleRepository roleRepository;
 
@@ -24,8 +34,13 @@ public class UserService {
     @Lazy
     private PasswordEncoder passwordEncoder;
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    public CursorPage<UserSummary> getAllUsers(String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<UserSummary> rows = userRepository.findPage(pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, user -> Cursor.ofId(user.id()));
     }
 
     public Optional<User> getUserById(Long id) {
@@ -74,18 +89,35 @@ public class UserService {
         user.setAge(userDetails.getAge());
         user.setEmergencyContact(userDetails.getEmergencyContact());
 
-        if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
+        boolean passwordChanged = userDetails.getPassword() != null && !userDetails.getPassword().isEmpty();
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+            user.setTokenVersion((user.getTokenVersion() != null ? user.getTokenVersion() : 0) + 1);
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (passwordChanged) {
+            tokenVersionRegistry.update(PrincipalKind.USER, saved.getId(), saved.getTokenVersion());
+        }
+        return saved;
+    }
+
+    /**
+     * Re-hashes a password at the current cost after a successful login; the token
+     * version is left alone because the password itself did not change.
+     */
+    public void rehashPassword(Long id, String rawPassword) {
+        userRepository.updatePassword(id, passwordEncoder.encode(rawPassword));
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        tokenVersionRegistry.revoke(PrincipalKind.USER, id);
     }
 
-    public List<User> getUsersByRole(String roleName) {
-        return userRepository.findByRole_Name(roleName);
+    public CursorPage<UserSummary> getUsersByRole(String roleName, String cursor, Integer size) {
+        int limit = pageRequestResolver.size(size);
+        List<UserSummary> rows = userRepository.findPageByRoleName(roleName, pageRequestResolver.afterId(cursor), Limit.of(limit + 1));
+        return CursorPage.of(rows, limit, user -> Cursor.ofId(user.id()));
     }
 }
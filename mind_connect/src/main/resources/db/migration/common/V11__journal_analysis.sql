@@ -0,0 +1,20 @@
+-- Sentiment and keywords of each journal, filled in by JournalAnalysisPipeline after the
+-- journal is saved. analyzed_at is null until then, and is cleared again by every edit.
+alter table journals add column sentiment real;
+alter table journals add column keywords varchar(255);
+alter table journals add column analyzed_at timestamp(6);
+
+-- At most one alert per journal; therapists see the alerts of their clients
+create sequence if not exists journal_alerts_seq start with 1 increment by 50;
+
+create table if not exists journal_alerts (
+    id bigint not null,
+    journal_id bigint not null unique references journals on delete cascade,
+    user_id bigint not null references users on delete cascade,
+    sentiment real not null,
+    terms varchar(255),
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index if not exists idx_journal_alerts_user on journal_alerts (user_id, id);
@@ -0,0 +1,2 @@
+-- Relative weight of a motivation in random picks and recommendations
+alter table motivations add column weight integer default 1 not null;
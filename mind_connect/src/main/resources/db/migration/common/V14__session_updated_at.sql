@@ -0,0 +1,5 @@
+-- Time of the last write to each session, so the booking index can pick up sessions
+-- changed on other nodes without reloading every scheduled session
+alter table sessions add column updated_at timestamp;
+update sessions set updated_at = created_at;
+create index if not exists idx_sessions_updated_at on sessions (updated_at);
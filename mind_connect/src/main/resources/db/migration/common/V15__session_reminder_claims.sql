@@ -0,0 +1,5 @@
+-- The last reminder sent for each session: the start time it announced and how long before
+-- that start it was due. A node claims a reminder by advancing these columns before sending
+-- it, so a reminder is sent by exactly one node.
+alter table sessions add column reminded_for timestamp(6);
+alter table sessions add column reminded_lead_seconds bigint;
@@ -0,0 +1,11 @@
+-- Scheduled sessions of each therapist that start after upcoming_as_of. Session changes
+-- adjust the count relative to that watermark, and a sweep subtracts the sessions that
+-- have started since and moves the watermark forward.
+alter table therapist_stats add column upcoming_sessions bigint default 0 not null;
+alter table therapist_stats add column upcoming_as_of timestamp(6);
+
+update therapist_stats set upcoming_as_of = current_timestamp;
+update therapist_stats set upcoming_sessions = (
+    select count(*) from sessions s
+    where s.therapist_id = therapist_stats.therapist_id and s.status = 'SCHEDULED'
+      and s.session_date > therapist_stats.upcoming_as_of);
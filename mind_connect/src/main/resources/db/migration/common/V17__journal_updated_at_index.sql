@@ -0,0 +1,2 @@
+-- JournalSearchIndex catches up with journals saved through other nodes by updated_at
+create index if not exists idx_journals_updated_at on journals (updated_at);
@@ -0,0 +1,11 @@
+-- Journals accepted through the write-behind log that the database then rejected, most
+-- likely because their user was deleted in between. The logged record is kept as it was
+-- so it can be inspected and replayed; user_id has no foreign key for the same reason.
+create table if not exists journal_dead_letters (
+    journal_id bigint not null,
+    user_id bigint not null,
+    payload text not null,
+    error text,
+    failed_at timestamp(6) not null,
+    primary key (journal_id)
+);
@@ -0,0 +1,82 @@
+-- Schema as previously created by hibernate.ddl-auto=update. Every statement is
+-- idempotent so databases created that way can be baselined at version 0 and
+-- still run this script.
+
+create table if not exists roles (
+    id bigint generated by default as identity,
+    name varchar(255) not null unique,
+    description varchar(255),
+    primary key (id)
+);
+
+create table if not exists users (
+    id bigint generated by default as identity,
+    first_name varchar(50) not null,
+    last_name varchar(50) not null,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    phone varchar(255),
+    age integer,
+    emergency_contact varchar(255),
+    user_type varchar(255),
+    role_id bigint references roles,
+    token_version integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists therapists (
+    id bigint generated by default as identity,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    specialization varchar(255),
+    qualification varchar(255),
+    experience integer,
+    phone varchar(255),
+    bio varchar(255),
+    rating float(53),
+    available boolean,
+    token_version integer,
+    created_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists sessions (
+    id bigint generated by default as identity,
+    user_id bigint not null references users,
+    therapist_id bigint not null references therapists,
+    session_date timestamp(6) not null,
+    status varchar(255) check (status in ('SCHEDULED','COMPLETED','CANCELLED','NO_SHOW')),
+    notes varchar(255),
+    session_type varchar(255),
+    duration integer,
+    created_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists journals (
+    id bigint generated by default as identity,
+    user_id bigint not null references users,
+    title varchar(255) not null,
+    content text not null,
+    mood varchar(255) check (mood in ('VERY_HAPPY','HAPPY','NEUTRAL','SAD','VERY_SAD','ANXIOUS','STRESSED','CALM','EXCITED','ANGRY')),
+    tags varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists motivations (
+    id bigint generated by default as identity,
+    title varchar(255) not null,
+    content text not null,
+    type varchar(255) check (type in ('QUOTE','ARTICLE','TIP','EXERCISE','VIDEO','AUDIO')),
+    author varchar(255),
+    category varchar(255),
+    active boolean,
+    created_at timestamp(6),
+    primary key (id)
+);
@@ -0,0 +1,33 @@
+-- One index per query shape in the repositories. Keyset listings ordered by id carry
+-- id as the last column so the page is read in index order without a sort.
+
+-- SessionRepository: upcoming (status = SCHEDULED, session_date >= now) by user and
+-- by therapist, findByUserIdAndStatus, findByTherapistIdAndStatus, findScheduledIntervals
+create index if not exists idx_sessions_user_status_date on sessions (user_id, status, session_date, id);
+create index if not exists idx_sessions_therapist_status_date on sessions (therapist_id, status, session_date, id);
+
+-- SessionRepository: history (session_date < now, newest first), findByUserId, findByTherapistId
+create index if not exists idx_sessions_user_date on sessions (user_id, session_date, id);
+create index if not exists idx_sessions_therapist_date on sessions (therapist_id, session_date, id);
+
+-- SessionRepository: findPageByUserId, findPageByTherapistId
+create index if not exists idx_sessions_user_id on sessions (user_id, id);
+create index if not exists idx_sessions_therapist_id on sessions (therapist_id, id);
+
+-- SessionRepository: findByStatus, findAllScheduledIntervals, findBySessionDateBetween
+create index if not exists idx_sessions_status_date on sessions (status, session_date);
+create index if not exists idx_sessions_date on sessions (session_date);
+
+-- JournalRepository: findFirstPageByUserId, findPageByUserIdBefore, findByUserId*,
+-- findByUserIdAndCreatedAtBetween
+create index if not exists idx_journals_user_created on journals (user_id, created_at, id);
+
+-- JournalRepository: findPageByMood
+create index if not exists idx_journals_mood_id on journals (mood, id);
+
+-- UserRepository: findPageByRoleName
+create index if not exists idx_users_role_id on users (role_id, id);
+
+-- TherapistRepository: findAvailablePage, findAvailableBySpecialization, findPageBySpecialization
+create index if not exists idx_therapists_available_id on therapists (available, id);
+create index if not exists idx_therapists_specialization_id on therapists (specialization, id);
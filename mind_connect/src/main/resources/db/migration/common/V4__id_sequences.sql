@@ -0,0 +1,9 @@
+-- Ids come from pooled sequences (allocationSize = 50 on every entity) instead of identity
+-- columns, so Hibernate can batch inserts: one nextval hands out 50 ids. Each sequence
+-- must step by the same allocation size as its @SequenceGenerator.
+create sequence if not exists roles_seq start with 1 increment by 50;
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists therapists_seq start with 1 increment by 50;
+create sequence if not exists sessions_seq start with 1 increment by 50;
+create sequence if not exists journals_seq start with 1 increment by 50;
+create sequence if not exists motivations_seq start with 1 increment by 50;
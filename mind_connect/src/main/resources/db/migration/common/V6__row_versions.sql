@@ -0,0 +1,5 @@
+-- Optimistic locking columns for the entities with single-statement updates and
+-- If-Match support. Existing rows start at version 0.
+alter table sessions add column version bigint default 0 not null;
+alter table therapists add column version bigint default 0 not null;
+alter table motivations add column version bigint default 0 not null;
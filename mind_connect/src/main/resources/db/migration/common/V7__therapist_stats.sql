@@ -0,0 +1,37 @@
+-- Per-therapist caseload counters, kept up to date by SessionService on every session
+-- change and rebuilt from sessions by TherapistStatsReconciler. therapist_clients holds
+-- the session count per (therapist, user) pair so distinct clients can be maintained
+-- without scanning a therapist's history.
+create table if not exists therapist_stats (
+    therapist_id bigint not null primary key references therapists on delete cascade,
+    scheduled_sessions bigint default 0 not null,
+    completed_sessions bigint default 0 not null,
+    cancelled_sessions bigint default 0 not null,
+    no_show_sessions bigint default 0 not null,
+    completed_minutes bigint default 0 not null,
+    distinct_clients bigint default 0 not null,
+    updated_at timestamp(6)
+);
+
+create table if not exists therapist_clients (
+    therapist_id bigint not null references therapists on delete cascade,
+    user_id bigint not null references users on delete cascade,
+    sessions bigint default 0 not null,
+    primary key (therapist_id, user_id)
+);
+
+-- Backfill from the sessions already stored
+insert into therapist_clients (therapist_id, user_id, sessions)
+select therapist_id, user_id, count(*) from sessions group by therapist_id, user_id;
+
+insert into therapist_stats (therapist_id, scheduled_sessions, completed_sessions, cancelled_sessions,
+                             no_show_sessions, completed_minutes, distinct_clients, updated_at)
+select therapist_id,
+       sum(case when status = 'SCHEDULED' then 1 else 0 end),
+       sum(case when status = 'COMPLETED' then 1 else 0 end),
+       sum(case when status = 'CANCELLED' then 1 else 0 end),
+       sum(case when status = 'NO_SHOW' then 1 else 0 end),
+       sum(case when status = 'COMPLETED' then coalesce(duration, 0) else 0 end),
+       count(distinct user_id),
+       current_timestamp
+from sessions group by therapist_id;
@@ -0,0 +1,29 @@
+-- Per-user mood histograms by day, ISO week (starting Monday) and month, one row per
+-- mood that occurs in the period. Kept up to date by MoodRollupService on every journal
+-- change and rebuilt from journals by MoodRollupRebuilder.
+create table if not exists mood_rollups (
+    user_id bigint not null references users on delete cascade,
+    period varchar(8) not null check (period in ('DAY','WEEK','MONTH')),
+    period_start date not null,
+    mood varchar(255) not null,
+    entries bigint default 0 not null,
+    primary key (user_id, period, period_start, mood)
+);
+
+-- Backfill from the journals already stored
+insert into mood_rollups (user_id, period, period_start, mood, entries)
+select user_id, 'DAY', cast(created_at as date), mood, count(*)
+from journals where mood is not null and created_at is not null
+group by user_id, cast(created_at as date), mood;
+
+insert into mood_rollups (user_id, period, period_start, mood, entries)
+select user_id, 'WEEK', week_start, mood, count(*)
+from (select user_id, mood,
+             cast(created_at as date) - (cast(extract(isodow from created_at) as integer) - 1) as week_start
+      from journals where mood is not null and created_at is not null) weeks
+group by user_id, week_start, mood;
+
+insert into mood_rollups (user_id, period, period_start, mood, entries)
+select user_id, 'MONTH', cast(date_trunc('month', created_at) as date), mood, count(*)
+from journals where mood is not null and created_at is not null
+group by user_id, cast(date_trunc('month', created_at) as date), mood;
@@ -0,0 +1,19 @@
+-- Dictionary of normalized tag names (trimmed, lower case) and the tags of each journal by
+-- id. journals.tags keeps the text as the user wrote it; journal_tags is derived from it
+-- by TagService, which also fills it in at startup for journals that predate this table.
+create sequence if not exists tags_seq start with 1 increment by 50;
+
+create table if not exists tags (
+    id bigint not null,
+    name varchar(64) not null unique,
+    primary key (id)
+);
+
+create table if not exists journal_tags (
+    journal_id bigint not null references journals on delete cascade,
+    tag_id bigint not null references tags,
+    primary key (journal_id, tag_id)
+);
+
+-- The primary key serves per-journal reads and the startup load; this index serves lookups by tag
+create index if not exists idx_journal_tags_tag on journal_tags (tag_id, journal_id);
@@ -0,0 +1,7 @@
+-- H2 counterpart of postgresql/V10: its conversion from text to binary is UTF-8 already.
+alter table journals add column if not exists preview varchar(200);
+alter table journals add column if not exists content_length integer;
+
+update journals set preview = left(content, 200), content_length = char_length(content);
+
+alter table journals alter column content set data type bytea;
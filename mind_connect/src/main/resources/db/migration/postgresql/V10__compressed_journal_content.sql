@@ -0,0 +1,9 @@
+-- Journal content moves to bytea so it can be stored LZ4-compressed (see
+-- CompressedTextConverter). Existing rows become their UTF-8 bytes, which the converter
+-- still reads as plain text. Listings read the preview and length instead of the content.
+alter table journals add column if not exists preview varchar(200);
+alter table journals add column if not exists content_length integer;
+
+update journals set preview = left(content, 200), content_length = char_length(content);
+
+alter table journals alter column content type bytea using convert_to(content, 'UTF8');
@@ -0,0 +1,3 @@
+-- The analysis sweep reads journals still waiting for analysis in id order; only those
+-- rows are indexed, so the index stays small once the backlog is done.
+create index if not exists idx_journals_unanalyzed on journals (id) where analyzed_at is null;
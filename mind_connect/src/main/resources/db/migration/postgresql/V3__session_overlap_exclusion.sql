@@ -0,0 +1,11 @@
+-- Rejects two SCHEDULED sessions of the same therapist whose
+-- [session_date, session_date + duration) ranges overlap. SessionIntervalIndex checks
+-- the same rule in memory; this constraint keeps bookings from different nodes safe.
+-- btree_gist supplies the gist operator class for therapist_id; the migration role must
+-- be allowed to create it, and existing double bookings have to be resolved first.
+create extension if not exists btree_gist;
+
+alter table sessions add constraint sessions_no_overlap exclude using gist (
+    therapist_id with =,
+    tsrange(session_date, session_date + coalesce(duration, 60) * interval '1 minute') with &&
+) where (status = 'SCHEDULED');
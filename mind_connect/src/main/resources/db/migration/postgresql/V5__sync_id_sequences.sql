@@ -0,0 +1,16 @@
+-- Move each sequence past the ids already handed out by the identity columns. The pooled
+-- optimizer treats a nextval of n as the block (n - 49 .. n), so the next value must be
+-- max(id) + 50. The identity defaults are dropped so nothing else draws from them.
+select setval('roles_seq', coalesce((select max(id) from roles), 0) + 50, false);
+select setval('users_seq', coalesce((select max(id) from users), 0) + 50, false);
+select setval('therapists_seq', coalesce((select max(id) from therapists), 0) + 50, false);
+select setval('sessions_seq', coalesce((select max(id) from sessions), 0) + 50, false);
+select setval('journals_seq', coalesce((select max(id) from journals), 0) + 50, false);
+select setval('motivations_seq', coalesce((select max(id) from motivations), 0) + 50, false);
+
+alter table roles alter column id drop identity if exists;
+alter table users alter column id drop identity if exists;
+alter table therapists alter column id drop identity if exists;
+alter table sessions alter column id drop identity if exists;
+alter table journals alter column id drop identity if exists;
+alter table motivations alter column id drop identity if exists;
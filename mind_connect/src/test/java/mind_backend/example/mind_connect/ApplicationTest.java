@@ -0,0 +1,68 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.entity.Role;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.repository.RoleRepository;
+import mind_backend.example.mind_connect.repository.TherapistRepository;
+import mind_backend.example.mind_connect.repository.UserRepository;
+import mind_backend.example.mind_connect.security.JwtPrincipal;
+import mind_backend.example.mind_connect.security.PrincipalKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+
+/**
+ * Base of the tests that start the whole application, on the in-memory H2 database of the
+ * test profile. Saves the user and therapist accounts most of them start from.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+abstract class ApplicationTest {
+
+    @Autowired
+    protected RoleRepository roleRepository;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected TherapistRepository therapistRepository;
+
+    /** A new user with the USER role and an email no other test uses. */
+    protected User newUser(String firstName, String lastName) {
+        Role role = roleRepository.findByName("USER").orElseThrow();
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(slug(firstName + "-" + lastName) + "-" + System.nanoTime() + "@example.com");
+        user.setPassword("not-a-real-hash");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    /** A new available therapist, "Dr. name", with a specialization no other test uses. */
+    protected Therapist newTherapist(String name) {
+        Therapist therapist = new Therapist();
+        therapist.setFirstName("Dr. " + name);
+        therapist.setLastName("Therapist");
+        therapist.setEmail(slug(name) + "-therapist-" + System.nanoTime() + "@example.com");
+        therapist.setPassword("not-a-real-hash");
+        therapist.setSpecialization(name + " " + System.nanoTime());
+        return therapistRepository.save(therapist);
+    }
+
+    /** Authenticates a request as the user, as a token accepted by the JWT filter would. */
+    protected static RequestPostProcessor userLogin(User user) {
+        JwtPrincipal principal = new JwtPrincipal(user.getId(), user.getEmail(), PrincipalKind.USER, "USER", 0);
+        return authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static String slug(String name) {
+        return name.toLowerCase().replace(' ', '-');
+    }
+}
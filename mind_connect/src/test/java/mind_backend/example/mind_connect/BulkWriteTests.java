@@ -0,0 +1,122 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk creates go out as batched inserts in one transaction, or not at all when an item is
+ * rejected. Statement counts come from the same inspector as {@link StatementCountTests};
+ * a batch is prepared once however many rows it carries.
+ */
+@AutoConfigureMockMvc
+class BulkWriteTests extends ApplicationTest {
+
+    private static final int ROWS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    private User user;
+    private Therapist therapist;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Bulk", "Writer");
+        therapist = newTherapist("Bulk");
+    }
+
+    @Test
+    void journalsAreInsertedInBatches() throws Exception {
+        List<Map<String, Object>> journals = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            journals.add(Map.of("user", Map.of("id", user.getId()), "title", "Bulk " + i,
+                "content", "Written in bulk", "mood", "CALM"));
+        }
+
+        JsonNode result = postJson("/api/journals/bulk", journals, 200);
+
+        assertThat(result.get("created").asInt()).isEqualTo(ROWS);
+        assertThat(journalRepository.findByUserIdOrderByCreatedAtDesc(user.getId())).hasSize(ROWS);
+        // The user check, one nextval per 50 ids and the batched inserts
+        assertThat(StatementCounter.current()).isLessThan(ROWS / 10);
+    }
+
+    @Test
+    void sessionsAreInsertedInBatches() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(30).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        List<Map<String, Object>> sessions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            sessions.add(session(start.plusHours(i)));
+        }
+
+        JsonNode result = postJson("/api/sessions/bulk", sessions, 200);
+
+        assertThat(result.get("ids")).hasSize(ROWS);
+        assertThat(sessionRepository.findScheduledIntervals(therapist.getId())).hasSize(ROWS);
+        assertThat(StatementCounter.current()).isLessThan(ROWS / 10);
+    }
+
+    @Test
+    void invalidItemsAreReportedAndNothingIsSaved() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(60).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        List<Map<String, Object>> sessions = List.of(
+            session(start),
+            session(start.plusMinutes(30)),
+            Map.of("user", Map.of("id", -1), "therapist", Map.of("id", therapist.getId()),
+                "sessionDate", start.plusHours(3).toString()),
+            Map.of("user", Map.of("id", user.getId()), "therapist", Map.of("id", therapist.getId())));
+
+        JsonNode result = postJson("/api/sessions/bulk", sessions, 400);
+
+        assertThat(result.get("created").asInt()).isZero();
+        assertThat(result.get("errors")).extracting(error -> error.get("index").asInt()).containsExactly(1, 2, 3);
+        assertThat(result.get("errors").get(1).get("message").asText()).isEqualTo("User not found");
+        assertThat(result.get("errors").get(2).get("message").asText()).contains("sessionDate");
+        assertThat(sessionRepository.findScheduledIntervals(therapist.getId())).isEmpty();
+
+        // The rejected request left no reservations behind
+        postJson("/api/sessions/bulk", List.of(session(start)), 200);
+    }
+
+    private Map<String, Object> session(LocalDateTime date) {
+        return Map.of("user", Map.of("id", user.getId()), "therapist", Map.of("id", therapist.getId()),
+            "sessionDate", date.toString(), "duration", 60);
+    }
+
+    private JsonNode postJson(String url, Object body, int expectedStatus) throws Exception {
+        String response = mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().is(expectedStatus))
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,152 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.entity.Motivation;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.repository.MotivationRepository;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import mind_backend.example.mind_connect.service.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Status, availability and active toggles are one UPDATE each, guarded by the row version
+ * when the client sends If-Match. A status change also reads the session and updates the
+ * therapist's stats row.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class ConditionalUpdateTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private MotivationRepository motivationRepository;
+
+    @Autowired
+    private SessionService sessionService;
+
+    private Therapist therapist;
+    private Session session;
+    private Motivation motivation;
+
+    @BeforeEach
+    void seed() {
+        User user = newUser("Conditional", "Update");
+        therapist = newTherapist("Conditional");
+
+        session = new Session();
+        session.setUser(user);
+        session.setTherapist(therapist);
+        session.setSessionDate(LocalDateTime.now().minusDays(1));
+        session = sessionService.createSession(session);
+
+        motivation = new Motivation();
+        motivation.setTitle("Toggle me");
+        motivation.setContent("Switched on and off concurrently");
+        motivation = motivationRepository.save(motivation);
+    }
+
+    @Test
+    void mutationsAreOneStatementEach() throws Exception {
+        // The therapist stats take one more UPDATE, which reads the session's row itself
+        assertStatements(put("/api/sessions/" + session.getId() + "/status")
+            .contentType(MediaType.APPLICATION_JSON).content("\"COMPLETED\""), 2);
+        assertStatements(put("/api/therapists/" + therapist.getId() + "/availability")
+            .contentType(MediaType.APPLICATION_JSON).content("false"), 1);
+        assertStatements(put("/api/motivations/" + motivation.getId() + "/toggle"), 1);
+
+        assertThat(sessionRepository.findById(session.getId()).orElseThrow().getStatus())
+            .isEqualTo(SessionStatus.COMPLETED);
+        assertThat(therapistRepository.findById(therapist.getId()).orElseThrow().getAvailable()).isFalse();
+        assertThat(motivationRepository.findById(motivation.getId()).orElseThrow().getActive()).isFalse();
+    }
+
+    @Test
+    void ifMatchIsCheckedAgainstTheEtag() throws Exception {
+        String url = "/api/motivations/" + motivation.getId();
+        String etag = mockMvc.perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isEqualTo("\"0\"");
+
+        mockMvc.perform(put(url + "/toggle").header(HttpHeaders.IF_MATCH, etag))
+            .andExpect(status().isNoContent())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put(url + "/toggle").header(HttpHeaders.IF_MATCH, etag))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/sessions/" + session.getId() + "/status").header(HttpHeaders.IF_MATCH, "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON).content("\"CANCELLED\""))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get(url)).andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void concurrentTogglesAreNotLost() throws Exception {
+        int toggles = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(toggles);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> unconditional = new ArrayList<>();
+            for (int i = 0; i < toggles; i++) {
+                unconditional.add(pool.submit(() -> {
+                    start.await();
+                    return motivationRepository.toggleActive(motivation.getId(), null);
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : unconditional) {
+                assertThat(result.get()).isEqualTo(1);
+            }
+            Motivation toggled = motivationRepository.findById(motivation.getId()).orElseThrow();
+            assertThat(toggled.getActive()).isTrue();
+            assertThat(toggled.getVersion()).isEqualTo(toggles);
+
+            // Every caller claims the same version; only the first UPDATE can match it
+            List<Future<Integer>> conditional = new ArrayList<>();
+            for (int i = 0; i < toggles; i++) {
+                conditional.add(pool.submit(() -> motivationRepository.toggleActive(motivation.getId(),
+                    toggled.getVersion())));
+            }
+            int applied = 0;
+            for (Future<Integer> result : conditional) {
+                applied += result.get();
+            }
+            assertThat(applied).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void assertStatements(MockHttpServletRequestBuilder request, int expected) throws Exception {
+        mockMvc.perform(request).andExpect(status().isNoContent());
+        assertThat(StatementCounter.current()).as("statements for %s", request).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,186 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.service.JournalService;
+import mind_backend.example.mind_connect.service.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exports stream every journal and session of the user, oldest first, in the requested
+ * format.
+ */
+@AutoConfigureMockMvc
+class ExportTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    private User user;
+    private Therapist therapist;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Export", "Requester");
+        therapist = newTherapist("Export");
+    }
+
+    @Test
+    void journalsStreamAsNdjson() throws Exception {
+        // More rows than one fetch or one persistence-context clear
+        int entries = 1_234;
+        List<Journal> journals = new ArrayList<>();
+        for (int i = 0; i < entries; i++) {
+            journals.add(journal(LocalDateTime.of(2024, 1, 1, 8, 0).plusHours(i), "Entry " + i));
+        }
+        journals.add(journal(LocalDateTime.of(2023, 6, 1, 8, 0), "Line one\nLine \"two\", with a comma"));
+        journalService.createJournals(journals);
+        double rowsBefore = rowsExported("journals", "NDJSON");
+
+        String body = export("/journals", "application/x-ndjson", "journals-" + user.getId() + ".ndjson")
+            .getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(entries + 1);
+        JsonNode oldest = objectMapper.readTree(lines[0]);
+        assertThat(oldest.get("content").asText()).isEqualTo("Line one\nLine \"two\", with a comma");
+        assertThat(oldest.get("createdAt").asText()).isEqualTo("2023-06-01T08:00:00");
+        assertThat(objectMapper.readTree(lines[entries]).get("title").asText()).isEqualTo("Entry " + (entries - 1));
+        assertThat(rowsExported("journals", "NDJSON") - rowsBefore).isEqualTo(entries + 1);
+    }
+
+    @Test
+    void sessionsStreamAsCsv() throws Exception {
+        Session session = session(LocalDateTime.now().plusDays(3), "Bring the \"worry list\", please");
+        session(LocalDateTime.now().minusDays(3), null);
+        session(LocalDateTime.now().minusDays(4), "=HYPERLINK(\"http://example.com\")");
+
+        String body = export("/sessions?format=CSV", "text/csv;charset=UTF-8", "sessions-" + user.getId() + ".csv")
+            .getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\r\n");
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).isEqualTo("id,therapistId,sessionDate,sessionType,duration,status,notes,createdAt");
+        assertThat(lines[1]).contains(",\"'=HYPERLINK(\"\"http://example.com\"\")\",");
+        assertThat(lines[2]).contains(",,");
+        assertThat(lines[3]).startsWith(session.getId() + "," + therapist.getId() + ",")
+            .contains(",\"Bring the \"\"worry list\"\", please\",");
+    }
+
+    @Test
+    void everythingStreamsAsOneZip() throws Exception {
+        journalService.createJournals(List.of(journal(LocalDateTime.now(), "Zipped entry")));
+        session(LocalDateTime.now().plusDays(1), "Zipped session");
+
+        byte[] zip = export("?format=CSV", "application/zip", "export-" + user.getId() + ".zip")
+            .getResponse().getContentAsByteArray();
+
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertThat(entries).containsOnlyKeys("journals.csv", "sessions.csv");
+        assertThat(entries.get("journals.csv").split("\r\n")).hasSize(2);
+        assertThat(entries.get("sessions.csv")).contains("Zipped session");
+
+        mockMvc.perform(get("/api/users/" + Long.MAX_VALUE + "/export").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/" + user.getId() + "/export?format=XML").with(userLogin(user)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void onlyTheUserOrAnAdminMayExport() throws Exception {
+        User other = newUser("Other", "Requester");
+        for (String path : List.of("", "/journals", "/sessions")) {
+            mockMvc.perform(get("/api/users/" + user.getId() + "/export" + path).with(userLogin(other)))
+                .andExpect(status().isForbidden());
+            mockMvc.perform(get("/api/users/" + user.getId() + "/export" + path)).andExpect(status().isForbidden());
+        }
+        MvcResult started = mockMvc.perform(get("/api/users/" + user.getId() + "/export/journals")
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    private MvcResult export(String path, String contentType, String filename) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/users/" + user.getId() + "/export" + path).with(userLogin(user)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(1_800_000L);
+        return mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", contentType))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"" + filename + "\""))
+            .andReturn();
+    }
+
+    private double rowsExported(String kind, String format) {
+        return meterRegistry.find("exports.rows").tags("kind", kind, "format", format).counters().stream()
+            .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private Journal journal(LocalDateTime createdAt, String content) {
+        Journal journal = new Journal();
+        journal.setUser(user);
+        journal.setTitle(content.startsWith("Entry") ? content : "Exported");
+        journal.setContent(content);
+        journal.setMood(MoodLevel.NEUTRAL);
+        journal.setCreatedAt(createdAt);
+        return journal;
+    }
+
+    private Session session(LocalDateTime when, String notes) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setTherapist(therapist);
+        session.setSessionDate(when.withSecond(0).withNano(0));
+        session.setSessionType("online");
+        session.setDuration(50);
+        session.setNotes(notes);
+        return sessionService.createSession(session);
+    }
+}
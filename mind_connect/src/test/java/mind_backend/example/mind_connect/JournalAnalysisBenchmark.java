@@ -0,0 +1,104 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.analysis.JournalAnalyzer;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reports how many journal entries per second one core analyzes, measured on one thread
+ * and again with one thread per available core. Entries are built from typical journal
+ * sentences, around 1 KB each. Not part of the regular test run; start it with
+ * {@code mvn test -Dtest=JournalAnalysisBenchmark}.
+ */
+class JournalAnalysisBenchmark {
+
+    private static final int ENTRIES = 2_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 20;
+
+    private static final String[] SENTENCES = {
+        "Slept badly and woke up before the alarm, tired and a bit anxious about the day.",
+        "Went for a long walk by the river after lunch and felt lighter afterwards.",
+        "Work was stressful; the deadline moved up again and I skipped the break I had planned.",
+        "Called my sister, we talked about the holidays and about mum's appointment.",
+        "Tried the breathing exercise from Tuesday's session for ten minutes before bed.",
+        "Three things I am grateful for: the sun this morning, a kind message, a quiet evening.",
+        "Noticed the anxious thoughts starting again around four and wrote them down instead of scrolling.",
+        "I don't feel hopeless today, which is not nothing.",
+        "Everything feels pointless and I am so exhausted of pretending I'm fine.",
+        "Cooked dinner for the first time in a week and was really proud of it.",
+    };
+
+    private final JournalAnalyzer analyzer = JournalAnalyzer.fromClasspath();
+
+    @Test
+    void entriesPerSecondPerCore() throws Exception {
+        Random random = new Random(42);
+        List<String> entries = new ArrayList<>(ENTRIES);
+        long bytes = 0;
+        for (int i = 0; i < ENTRIES; i++) {
+            StringBuilder entry = new StringBuilder();
+            while (entry.length() < 1_000) {
+                entry.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+            }
+            entries.add(entry.toString());
+            bytes += entry.length();
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(entries);
+        }
+        long started = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            checksum += run(entries);
+        }
+        double single = (double) ENTRIES * ROUNDS / ((System.nanoTime() - started) / 1e9);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(cores);
+        double parallel;
+        try {
+            List<Future<Long>> runs = new ArrayList<>();
+            for (int i = 0; i < cores * WARMUP_ROUNDS; i++) {
+                runs.add(pool.submit(() -> run(entries)));
+            }
+            for (Future<Long> run : runs) {
+                run.get();
+            }
+            runs.clear();
+            started = System.nanoTime();
+            for (int i = 0; i < cores * ROUNDS; i++) {
+                runs.add(pool.submit(() -> run(entries)));
+            }
+            for (Future<Long> run : runs) {
+                checksum += run.get();
+            }
+            parallel = (double) ENTRIES * ROUNDS * cores / ((System.nanoTime() - started) / 1e9);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.printf("Journal analysis, %d entries of %d bytes on average%n", ENTRIES, bytes / ENTRIES);
+        System.out.printf("  1 thread:    %,.0f entries/s%n", single);
+        System.out.printf("  %d threads: %,.0f entries/s, %,.0f entries/s per core%n", cores, parallel,
+            parallel / cores);
+        assertThat(checksum).isNotZero();
+    }
+
+    // Number of keywords found, so the work cannot be optimized away
+    private long run(List<String> entries) {
+        long keywords = 0;
+        for (String entry : entries) {
+            keywords += analyzer.analyze("Today", entry, 5).keywords().size();
+        }
+        return keywords;
+    }
+}
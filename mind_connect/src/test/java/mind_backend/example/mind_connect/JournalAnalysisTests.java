@@ -0,0 +1,184 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.analysis.JournalAnalysisPipeline;
+import mind_backend.example.mind_connect.analysis.JournalAnalyzer;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.repository.JournalAlertRepository;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.security.JwtPrincipal;
+import mind_backend.example.mind_connect.security.PrincipalKind;
+import mind_backend.example.mind_connect.service.JournalService;
+import mind_backend.example.mind_connect.service.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Saved journals are scored in the background; concerning ones raise an alert that the
+ * therapists of the author can list.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+class JournalAnalysisTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private JournalAlertRepository alertRepository;
+
+    @Autowired
+    private JournalAnalysisPipeline analysisPipeline;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Analysis", "Subject");
+    }
+
+    @Test
+    void analyzerScoresNegationsIntensifiersAndRiskTerms() {
+        JournalAnalyzer analyzer = JournalAnalyzer.fromClasspath();
+
+        float happy = analyzer.analyze("Good day", "I was happy.", 5).sentiment();
+        assertThat(happy).isPositive();
+        assertThat(analyzer.analyze("", "I was very happy.", 5).sentiment())
+            .isGreaterThan(analyzer.analyze("", "I was happy.", 5).sentiment());
+        assertThat(analyzer.analyze("", "I was not happy at all.", 5).sentiment()).isNegative();
+        assertThat(analyzer.analyze("", "Nothing happened.", 5).sentiment()).isZero();
+
+        JournalAnalyzer.Analysis walk = analyzer.analyze("Walk",
+            "A walk by the river, then another walk with the dog. The dog loved the river.", 3);
+        assertThat(walk.keywords()).containsExactly("walk", "river", "dog");
+        assertThat(walk.riskTerms()).isEmpty();
+
+        JournalAnalyzer.Analysis risk = analyzer.analyze("", "Some days I think I’d be better off dead.", 5);
+        assertThat(risk.riskTerms()).containsExactly("better off dead");
+        assertThat(analyzer.analyze("", "The weekend it all went well", 5).riskTerms()).isEmpty();
+    }
+
+    @Test
+    void concerningJournalRaisesAnAlertForItsTherapist() throws Exception {
+        Therapist therapist = newTherapist("Alert");
+        Session session = new Session();
+        session.setUser(user);
+        session.setTherapist(therapist);
+        session.setSessionDate(LocalDateTime.now().plusDays(2).withSecond(0).withNano(0));
+        session.setSessionType("online");
+        session.setDuration(50);
+        sessionService.createSession(session);
+
+        Journal calm = journalService.createJournal(journal("Evening", "A calm, peaceful evening with a good book."));
+        Journal dark = journalService.createJournal(journal("Night",
+            "Everything feels pointless and hopeless. I want to die, I am so tired of it."));
+
+        assertThat(awaitAnalysis(calm.getId()).getSentiment()).isPositive();
+        Journal analyzed = awaitAnalysis(dark.getId());
+        assertThat(analyzed.getSentiment()).isLessThan(-0.6f);
+        assertThat(analyzed.getKeywords()).contains("pointless", "hopeless");
+
+        String alerts = "/api/therapists/" + therapist.getId() + "/alerts";
+        String body = mockMvc.perform(get(alerts).with(therapistLogin(therapist.getId())))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode items = objectMapper.readTree(body).get("items");
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0).get("journalId").asLong()).isEqualTo(dark.getId());
+        assertThat(items.get(0).get("terms").asText()).isEqualTo("want to die");
+
+        // Nobody else's: not the client, not another therapist; admins may look up any therapist
+        mockMvc.perform(get(alerts)).andExpect(status().isForbidden());
+        mockMvc.perform(get(alerts).with(therapistLogin(therapist.getId() + 1))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/therapists/" + Long.MAX_VALUE + "/alerts").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void anAlertIsRaisedOnceHoweverOftenTheJournalIsAnalyzed() throws Exception {
+        Journal dark = journalService.createJournal(journal("Late", "I feel hopeless and I want to die."));
+        awaitAnalysis(dark.getId());
+
+        // As another node's sweep would, after this one has already raised the alert
+        jdbcTemplate.update("update journals set analyzed_at = null where id = ?", dark.getId());
+        analysisPipeline.sweep();
+
+        awaitAnalysis(dark.getId());
+        assertThat(alertRepository.findAlertedJournalIds(List.of(dark.getId()))).containsExactly(dark.getId());
+    }
+
+    @Test
+    void editedJournalIsAnalyzedAgain() throws Exception {
+        Journal journal = journalService.createJournal(journal("Monday", "Awful, miserable start to the week."));
+        assertThat(awaitAnalysis(journal.getId()).getSentiment()).isNegative();
+
+        journalService.updateJournal(journal.getId(), journal("Monday", "Actually a wonderful, relaxed afternoon."));
+
+        Journal analyzed = awaitAnalysis(journal.getId());
+        assertThat(analyzed.getSentiment()).isPositive();
+        assertThat(analyzed.getKeywords()).startsWith("monday,actually,wonderful");
+        // Raised for the first version only
+        assertThat(alertRepository.findAlertedJournalIds(List.of(journal.getId()))).containsExactly(journal.getId());
+    }
+
+    private Journal awaitAnalysis(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        Journal journal = journalRepository.findById(id).orElseThrow();
+        while (journal.getAnalyzedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            journal = journalRepository.findById(id).orElseThrow();
+        }
+        assertThat(journal.getAnalyzedAt()).isNotNull();
+        return journal;
+    }
+
+    private static RequestPostProcessor therapistLogin(Long id) {
+        JwtPrincipal principal = new JwtPrincipal(id, "therapist-" + id + "@example.com", PrincipalKind.THERAPIST,
+            "THERAPIST", 0);
+        return authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private Journal journal(String title, String content) {
+        Journal journal = new Journal();
+        journal.setUser(user);
+        journal.setTitle(title);
+        journal.setContent(content);
+        journal.setMood(MoodLevel.NEUTRAL);
+        return journal;
+    }
+}
@@ -0,0 +1,105 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.entity.CompressedTextConverter;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.service.JournalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Journal content is stored compressed and only returned by the single-journal endpoint;
+ * listings carry a preview and the content length.
+ */
+@AutoConfigureMockMvc
+class JournalContentTests extends ApplicationTest {
+
+    private static final String LONG_ENTRY = "Woke up early and sat by the window for a while. ".repeat(60)
+        + "Ended the day calmer than it started — été 🌿.";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Content", "Writer");
+    }
+
+    @Test
+    void contentIsStoredCompressedAndReadBack() throws Exception {
+        Journal journal = journal(LONG_ENTRY);
+
+        byte[] stored = jdbcTemplate.queryForObject("select content from journals where id = ?", byte[].class,
+            journal.getId());
+        assertThat(stored.length).isLessThan(LONG_ENTRY.getBytes(StandardCharsets.UTF_8).length / 4);
+        assertThat(stored[0]).isZero();
+
+        JsonNode body = objectMapper.readTree(mockMvc.perform(get("/api/journals/" + journal.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        assertThat(body.get("content").asText()).isEqualTo(LONG_ENTRY);
+        assertThat(body.get("contentLength").asInt()).isEqualTo(LONG_ENTRY.codePointCount(0, LONG_ENTRY.length()));
+    }
+
+    @Test
+    void listingsCarryPreviewsInsteadOfContent() throws Exception {
+        journal(LONG_ENTRY);
+        journal("Short and sweet.");
+
+        JsonNode items = objectMapper.readTree(mockMvc.perform(get("/api/journals/user/" + user.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString()).get("items");
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).has("content")).isFalse();
+        assertThat(items.get(0).get("preview").asText()).isEqualTo("Short and sweet.");
+        assertThat(items.get(1).get("preview").asText()).hasSize(Journal.PREVIEW_LENGTH).isEqualTo(LONG_ENTRY.substring(0,
+            Journal.PREVIEW_LENGTH));
+        assertThat(items.get(1).get("contentLength").asInt()).isGreaterThan(Journal.PREVIEW_LENGTH);
+    }
+
+    @Test
+    void existingRowsAndEdgeCasesStayReadable() {
+        CompressedTextConverter converter = new CompressedTextConverter();
+        for (String text : new String[] {"", "plain", "\u0000starts with a zero byte", LONG_ENTRY}) {
+            assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(text))).isEqualTo(text);
+        }
+        // A row written before compression holds the UTF-8 bytes of its text
+        assertThat(converter.convertToEntityAttribute("Old entry é".getBytes(StandardCharsets.UTF_8)))
+            .isEqualTo("Old entry é");
+        // Short values are not worth compressing and stay plain
+        assertThat(converter.convertToDatabaseColumn("plain")).isEqualTo("plain".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Journal journal(String content) {
+        Journal journal = new Journal();
+        journal.setUser(user);
+        journal.setTitle("Entry");
+        journal.setContent(content);
+        journal.setMood(MoodLevel.CALM);
+        return journalService.createJournal(journal);
+    }
+}
@@ -0,0 +1,141 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.service.JournalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Journal search goes through the Lucene index, which follows every create, update and
+ * delete made through {@link JournalService}.
+ */
+@AutoConfigureMockMvc
+class JournalSearchTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalService journalService;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Searcher", "Journal");
+    }
+
+    @Test
+    void resultsAreRankedAndHighlighted() throws Exception {
+        Journal inTitle = journal("Walking by the river", "A quiet afternoon outside.", MoodLevel.CALM, "outdoors");
+        Journal inContent = journal("Tuesday", "Long day at work, then walked home along the river.", MoodLevel.STRESSED,
+            "work");
+        journal("Wednesday", "Stayed in and read a book.", MoodLevel.CALM, "reading");
+        Journal elsewhere = new Journal();
+        elsewhere.setUser(newUser("Other", "Journal"));
+        elsewhere.setTitle("River walk");
+        elsewhere.setContent("Someone else's river walk");
+        journalService.createJournal(elsewhere);
+
+        JsonNode page = search("q=river walks");
+
+        assertThat(page.get("items")).extracting(hit -> hit.get("id").asLong())
+            .containsExactly(inTitle.getId(), inContent.getId());
+        assertThat(page.get("items").get(0).get("title").asText()).isEqualTo("<mark>Walking</mark> by the <mark>river</mark>");
+        assertThat(page.get("items").get(1).get("highlights").get(0).asText())
+            .contains("<mark>walked</mark> home along the <mark>river</mark>");
+        assertThat(page.get("items").get(0).has("content")).isFalse();
+    }
+
+    @Test
+    void filtersNarrowTheResults() throws Exception {
+        journal("Morning", "Breathing exercise before work", MoodLevel.ANXIOUS, "Breathing, Work");
+        Journal calm = journal("Evening", "Breathing exercise before bed", MoodLevel.CALM, "breathing,sleep");
+
+        assertThat(search("q=breathing").get("items")).hasSize(2);
+        assertThat(search("q=breathing&mood=CALM").get("items")).extracting(hit -> hit.get("id").asLong())
+            .containsExactly(calm.getId());
+        assertThat(search("q=exercise&tags=breathing,work").get("items")).hasSize(1);
+        assertThat(search("tags=sleep").get("items")).hasSize(1);
+        String today = LocalDate.now().toString();
+        assertThat(search("q=breathing&from=" + today + "&to=" + today).get("items")).hasSize(2);
+        assertThat(search("q=breathing&to=" + LocalDate.now().minusDays(1)).get("items")).isEmpty();
+    }
+
+    @Test
+    void indexFollowsUpdatesAndDeletes() throws Exception {
+        Journal journal = journal("Gratitude", "Thankful for my sister", MoodLevel.HAPPY, null);
+        assertThat(search("q=sister").get("items")).hasSize(1);
+
+        journal.setContent("Thankful for my brother");
+        journalService.updateJournal(journal.getId(), journal);
+        assertThat(search("q=sister").get("items")).isEmpty();
+        assertThat(search("q=brother").get("items")).hasSize(1);
+
+        journalService.deleteJournal(journal.getId());
+        assertThat(search("q=brother").get("items")).isEmpty();
+    }
+
+    @Test
+    void onlyTheSignedInUsersJournalsAreSearched() throws Exception {
+        journal("Private", "Nobody else should find this", MoodLevel.NEUTRAL, null);
+        User other = newUser("Other", "Searcher");
+
+        String response = mockMvc.perform(get("/api/journals/search?q=nobody").with(userLogin(other)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(response).get("items")).isEmpty();
+        mockMvc.perform(get("/api/journals/search?q=nobody")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void pagesFollowTheCursor() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            journal("Entry " + i, "Practising mindfulness " + "again ".repeat(i), MoodLevel.NEUTRAL, null);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = search("q=mindfulness&size=10" + (cursor != null ? "&cursor=" + cursor : ""));
+            page.get("items").forEach(hit -> seen.add(hit.get("id").asLong()));
+            cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(25).doesNotHaveDuplicates();
+    }
+
+    private JsonNode search(String query) throws Exception {
+        String response = mockMvc.perform(get("/api/journals/search?" + query).with(userLogin(user)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private Journal journal(String title, String content, MoodLevel mood, String tags) {
+        Journal journal = new Journal();
+        journal.setUser(user);
+        journal.setTitle(title);
+        journal.setContent(content);
+        journal.setMood(mood);
+        journal.setTags(tags);
+        return journalService.createJournal(journal);
+    }
+}
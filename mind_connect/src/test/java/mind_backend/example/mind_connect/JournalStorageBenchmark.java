@@ -0,0 +1,102 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reports how many bytes journal content takes in the journals table compared with plain
+ * UTF-8, and the size of one listing page with full content (the previous response shape)
+ * against the same page of summaries. Not part of the regular test run; start it with
+ * {@code mvn test -Dtest=JournalStorageBenchmark}.
+ */
+class JournalStorageBenchmark extends ApplicationTest {
+
+    private static final int JOURNALS = 200;
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] SENTENCES = {
+        "Slept badly and woke up before the alarm.",
+        "Went for a long walk by the river after lunch and felt lighter afterwards.",
+        "Work was stressful; the deadline moved up again and I skipped the break I had planned.",
+        "Called my sister, we talked about the holidays and about mum's appointment.",
+        "Tried the breathing exercise from Tuesday's session for ten minutes before bed.",
+        "Three things I am grateful for: the sun this morning, a kind message, a quiet evening.",
+        "Noticed the anxious thoughts starting again around four and wrote them down instead of scrolling.",
+        "Cooked dinner for the first time in a week.",
+    };
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    private long plainBytes;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Storage", "Bench");
+
+        // Entries of 5 to 400 sentences
+        Random random = new Random(42);
+        List<Journal> journals = new ArrayList<>(JOURNALS);
+        for (int i = 0; i < JOURNALS; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int s = 5 + random.nextInt(396); s > 0; s--) {
+                content.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+            }
+            Journal journal = new Journal();
+            journal.setUser(user);
+            journal.setTitle("Day " + i);
+            journal.setContent(content.toString());
+            journal.setMood(MoodLevel.values()[i % MoodLevel.values().length]);
+            journal.setTags("daily");
+            journals.add(journal);
+            plainBytes += content.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        journalRepository.saveAll(journals);
+    }
+
+    @Test
+    void compareStorageAndListingSizes() throws Exception {
+        long storedBytes = jdbcTemplate.queryForObject("select sum(octet_length(content)) from journals where user_id = ?",
+            Long.class, user.getId());
+
+        List<Journal> entities = journalRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).subList(0, PAGE_SIZE);
+        int contentPage = objectMapper.writeValueAsBytes(CursorPage.of(entities, PAGE_SIZE,
+            journal -> Cursor.of(journal.getCreatedAt(), journal.getId()))).length;
+        int summaryPage = objectMapper.writeValueAsBytes(CursorPage.of(
+            journalRepository.findFirstPageByUserId(user.getId(), Limit.of(PAGE_SIZE)), PAGE_SIZE,
+            journal -> Cursor.of(journal.createdAt(), journal.id()))).length;
+
+        System.out.printf("%-22s %12s %12s %8s%n", "", "before B", "after B", "ratio");
+        System.out.printf("%-22s %12d %12d %8.2f%n", "content storage", plainBytes, storedBytes,
+            (double) plainBytes / storedBytes);
+        System.out.printf("%-22s %12d %12d %8.2f%n", "listing page (" + PAGE_SIZE + ")", contentPage, summaryPage,
+            (double) contentPage / summaryPage);
+
+        assertThat(storedBytes).isLessThan(plainBytes);
+        assertThat(summaryPage).isLessThan(contentPage);
+    }
+}
@@ -0,0 +1,191 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.service.JournalService;
+import mind_backend.example.mind_connect.service.TagService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tag filters and counts come from the in-memory tag index, which follows journal writes
+ * and agrees with the journal_tags rows it is loaded from at startup.
+ */
+@AutoConfigureMockMvc
+class JournalTagTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Tag", "Filter");
+    }
+
+    @Test
+    void allAndAnyCombineTags() throws Exception {
+        Journal both = journal("Sleep, Work");
+        Journal sleep = journal("sleep");
+        Journal work = journal(" work ,family");
+        journal("family");
+
+        assertThat(ids(tagged("all=sleep,work"))).containsExactly(both.getId());
+        assertThat(ids(tagged("any=sleep,work"))).containsExactly(work.getId(), sleep.getId(), both.getId());
+        assertThat(ids(tagged("all=work&any=family,sleep"))).containsExactly(work.getId(), both.getId());
+        assertThat(ids(tagged("all=work,unknown"))).isEmpty();
+        assertThat(tagged("all=sleep").get("items").get(0).get("tags").asText()).isEqualTo("sleep");
+
+        mockMvc.perform(get("/api/journals/tagged?all= , ").with(userLogin(user)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/journals/tagged?all=sleep")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/journals/tags")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void countsFollowUpdatesAndDeletes() throws Exception {
+        Journal journal = journal("Breathing,Anxiety");
+        journal("breathing");
+        Journal other = journal("gratitude");
+
+        assertThat(counts()).containsExactly("breathing=2", "anxiety=1", "gratitude=1");
+
+        journal.setTags("breathing, sleep");
+        journalService.updateJournal(journal.getId(), journal);
+        journalService.deleteJournal(other.getId());
+
+        assertThat(counts()).containsExactly("breathing=2", "sleep=1");
+        assertThat(jdbcTemplate.queryForList("select t.name from journal_tags jt join tags t on t.id = jt.tag_id " +
+            "where jt.journal_id = ? order by t.name", String.class, journal.getId()))
+            .containsExactly("breathing", "sleep");
+    }
+
+    @Test
+    void reloadMatchesTheMaintainedIndex() throws Exception {
+        List<Journal> journals = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Journal journal = new Journal();
+            journal.setUser(user);
+            journal.setTitle("Bulk " + i);
+            journal.setContent("Entry " + i);
+            journal.setMood(MoodLevel.NEUTRAL);
+            journal.setTags(i % 3 == 0 ? "walk,sun" : "walk");
+            journals.add(journal);
+        }
+        assertThat(journalService.createJournals(journals).isRejected()).isFalse();
+        // Written before journal_tags existed, picked up by the startup backfill
+        jdbcTemplate.update("insert into journals (id, user_id, title, content, mood, tags, created_at, updated_at) " +
+            "select max(id) + 1000000, ?, 'Legacy', ?, 'CALM', 'Sun', now(), now() from journals", user.getId(),
+            "Old entry".getBytes(StandardCharsets.UTF_8));
+        List<String> before = counts();
+
+        tagService.load();
+
+        assertThat(counts()).containsExactly("walk=30", "sun=11");
+        assertThat(before).containsExactly("walk=30", "sun=10");
+        assertThat(ids(tagged("all=walk,sun&size=100"))).hasSize(10);
+    }
+
+    @Test
+    void reloadPicksUpTagsWrittenElsewhere() throws Exception {
+        journal("harbour");
+        // Another node's journal and tag, from further along the id sequences
+        Long elsewhere = jdbcTemplate.queryForObject("select max(id) + 2000000 from journals", Long.class);
+        Long tagId = jdbcTemplate.queryForObject("select max(id) + 1000000 from tags", Long.class);
+        jdbcTemplate.update("insert into journals (id, user_id, title, content, mood, tags, created_at, updated_at) " +
+            "values (?, ?, 'Elsewhere', ?, 'CALM', 'harbour,lighthouse', now(), now())", elsewhere, user.getId(),
+            "Written on another node".getBytes(StandardCharsets.UTF_8));
+        jdbcTemplate.update("insert into tags (id, name) values (?, 'lighthouse')", tagId);
+        jdbcTemplate.update("insert into journal_tags (journal_id, tag_id) select ?, id from tags " +
+            "where name in ('harbour', 'lighthouse')", elsewhere);
+        assertThat(ids(tagged("all=lighthouse"))).isEmpty();
+
+        tagService.reload();
+        assertThat(counts()).containsExactly("harbour=2", "lighthouse=1");
+        assertThat(ids(tagged("all=lighthouse"))).containsExactly(elsewhere);
+
+        // A lower id than one already indexed still pages in id order
+        Journal later = journal("harbour");
+        JsonNode first = tagged("all=harbour&size=2");
+        assertThat(ids(first).get(0)).isEqualTo(elsewhere);
+        assertThat(ids(first).get(1)).isEqualTo(later.getId());
+        JsonNode second = tagged("all=harbour&size=2&cursor=" + first.get("nextCursor").asText());
+        assertThat(ids(second)).hasSize(1).first().matches(id -> id < later.getId());
+    }
+
+    @Test
+    void taggedPagesAreOneQuery() throws Exception {
+        for (int i = 0; i < 15; i++) {
+            journal(i % 2 == 0 ? "meditation,evening" : "meditation");
+        }
+
+        JsonNode first = tagged("all=meditation&size=10");
+        assertThat(StatementCounter.current()).isEqualTo(1);
+        JsonNode second = tagged("all=meditation&size=10&cursor=" + first.get("nextCursor").asText());
+
+        List<Long> seen = new ArrayList<>(ids(first));
+        seen.addAll(ids(second));
+        assertThat(seen).hasSize(15).doesNotHaveDuplicates().isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(second.get("hasNext").asBoolean()).isFalse();
+    }
+
+    private List<String> counts() throws Exception {
+        String response = mockMvc.perform(get("/api/journals/tags").with(userLogin(user)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<String> counts = new ArrayList<>();
+        objectMapper.readTree(response).forEach(tag -> counts.add(tag.get("tag").asText() + "=" + tag.get("count").asInt()));
+        return counts;
+    }
+
+    private JsonNode tagged(String query) throws Exception {
+        String response = mockMvc.perform(get("/api/journals/tagged?" + query).with(userLogin(user)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private List<Long> ids(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        page.get("items").forEach(journal -> ids.add(journal.get("id").asLong()));
+        return ids;
+    }
+
+    private Journal journal(String tags) {
+        Journal journal = new Journal();
+        journal.setUser(user);
+        journal.setTitle("Tagged");
+        journal.setContent("Tagged entry");
+        journal.setMood(MoodLevel.NEUTRAL);
+        journal.setTags(tags);
+        return journalService.createJournal(journal);
+    }
+}
@@ -0,0 +1,182 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.dto.JournalSummary;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.ingest.JournalLog;
+import mind_backend.example.mind_connect.ingest.JournalWriteBehind;
+import mind_backend.example.mind_connect.ingest.PendingJournal;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.service.JournalService;
+import mind_backend.example.mind_connect.service.TagService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With write-behind on, a new journal is acknowledged from the log, visible to its author
+ * straight away and written to the table shortly after; the log itself survives a torn
+ * last write.
+ */
+@TestPropertySource(properties = {
+    "journals.write-behind.enabled=true",
+    "journals.write-behind.dir=target/journal-log-${random.uuid}"
+})
+class JournalWriteBehindTests extends ApplicationTest {
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private JournalWriteBehind writeBehind;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Write", "Behind");
+    }
+
+    @Test
+    void acceptedJournalsAreReadableAndThenWritten() throws Exception {
+        Journal older = journalService.createJournal(journal("Older", LocalDateTime.now().minusDays(1)));
+        Journal newer = journalService.createJournal(journal("Newer", LocalDateTime.now()));
+        assertThat(newer.getId()).isNotNull().isNotEqualTo(older.getId());
+
+        // Read your writes: served from the overlay or the table, whichever has it
+        assertThat(journalService.getJournalById(newer.getId())).get()
+            .extracting(Journal::getTitle).isEqualTo("Newer");
+        List<JournalSummary> page = journalService.getJournalsByUserId(user.getId(), null, 1).items();
+        assertThat(page).extracting(JournalSummary::id).containsExactly(newer.getId());
+        String next = journalService.getJournalsByUserId(user.getId(), null, 1).nextCursor();
+        assertThat(journalService.getJournalsByUserId(user.getId(), next, 10).items())
+            .extracting(JournalSummary::id).containsExactly(older.getId());
+
+        awaitWritten(newer.getId());
+        awaitWritten(older.getId());
+        assertThat(journalRepository.findById(newer.getId()).orElseThrow().getContent()).isEqualTo("Newer entry");
+        assertThat(tagService.tagCounts(user.getId())).hasSize(1);
+        assertThat(journalService.getJournalsByUserId(user.getId(), null, 10).items()).hasSize(2);
+    }
+
+    @Test
+    void changesWaitForThePendingWrite() {
+        Journal accepted = journalService.createJournal(journal("Draft", LocalDateTime.now()));
+        Journal details = journal("Final", LocalDateTime.now());
+
+        // Applies to the written row, never to a journal the writer has yet to insert
+        Journal updated = journalService.updateJournal(accepted.getId(), details);
+        assertThat(updated.getTitle()).isEqualTo("Final");
+        assertThat(journalRepository.findById(accepted.getId()).orElseThrow().getTitle()).isEqualTo("Final");
+
+        journalService.deleteJournal(accepted.getId());
+        assertThat(journalService.getJournalById(accepted.getId())).isEmpty();
+    }
+
+    @Test
+    void rejectedJournalsAreDeadLetteredAndTheRestWritten() throws Exception {
+        // As if the user had been deleted between accepting the journal and writing it
+        PendingJournal orphan = new PendingJournal(Long.MAX_VALUE - 1, Long.MAX_VALUE, "Orphan", "Orphan entry",
+            MoodLevel.SAD, null, LocalDateTime.of(2024, 5, 1, 9, 30));
+        JournalLog log = (JournalLog) ReflectionTestUtils.getField(writeBehind, "log");
+        log.awaitDurable(log.append(objectMapper.writeValueAsBytes(orphan)));
+        Journal after = journalService.createJournal(journal("After", LocalDateTime.now()));
+
+        awaitWritten(after.getId());
+        Map<String, Object> deadLetter = jdbcTemplate.queryForMap(
+            "select user_id, payload from journal_dead_letters where journal_id = ?", orphan.id());
+        assertThat(deadLetter.get("user_id")).isEqualTo(Long.MAX_VALUE);
+        assertThat(objectMapper.readValue((String) deadLetter.get("payload"), PendingJournal.class)).isEqualTo(orphan);
+        assertThat(journalRepository.existsById(orphan.id())).isFalse();
+    }
+
+    @Test
+    void logRecoversFromATornWriteAndReleasesSegments(@TempDir Path dir) throws Exception {
+        long end;
+        try (JournalLog log = new JournalLog(dir, 64)) {
+            for (int i = 0; i < 5; i++) {
+                end = log.append(("record " + i + " with some padding").getBytes(StandardCharsets.UTF_8));
+                log.awaitDurable(end);
+            }
+        }
+        Path last;
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> segments = files.sorted().toList();
+            assertThat(segments).hasSize(5);
+            last = segments.get(segments.size() - 1);
+        }
+        // A crash in the middle of the next frame leaves a header with no payload
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(8).putInt(1_000).putInt(42).flip());
+        }
+
+        try (JournalLog log = new JournalLog(dir, 64)) {
+            List<JournalLog.Record> records = log.read(log.start(), 10, 0);
+            assertThat(records).extracting(record -> new String(record.payload(), StandardCharsets.UTF_8))
+                .containsExactly("record 0 with some padding", "record 1 with some padding",
+                    "record 2 with some padding", "record 3 with some padding", "record 4 with some padding");
+
+            end = log.append("after recovery".getBytes(StandardCharsets.UTF_8));
+            log.awaitDurable(end);
+            List<JournalLog.Record> tail = log.read(records.get(4).end(), 10, 0);
+            assertThat(tail).hasSize(1);
+            assertThat(new String(tail.get(0).payload(), StandardCharsets.UTF_8)).isEqualTo("after recovery");
+
+            // One record per segment: everything before the fourth one can go
+            log.release(records.get(2).end());
+            try (Stream<Path> files = Files.list(dir)) {
+                assertThat(files.count()).isEqualTo(2);
+            }
+            assertThat(log.start()).isEqualTo(records.get(2).end());
+        }
+    }
+
+    private void awaitWritten(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!journalRepository.existsById(id) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(journalRepository.existsById(id)).isTrue();
+    }
+
+    private Journal journal(String title, LocalDateTime createdAt) {
+        Journal journal = new Journal();
+        journal.setUser(user);
+        journal.setTitle(title);
+        journal.setContent(title + " entry");
+        journal.setMood(MoodLevel.CALM);
+        journal.setTags("write-behind");
+        journal.setCreatedAt(createdAt);
+        return journal;
+    }
+}
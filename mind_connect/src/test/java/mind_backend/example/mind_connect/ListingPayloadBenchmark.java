@@ -0,0 +1,143 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.dto.SessionSummary;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.Role;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.pagination.Cursor;
+import mind_backend.example.mind_connect.pagination.CursorPage;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.MotivationRepository;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the payload size and Jackson serialization time of one listing page built from
+ * entities (the previous response shape) against the same page built from the summary
+ * projections. Not part of the regular test run; start it with
+ * {@code mvn test -Dtest=ListingPayloadBenchmark}.
+ */
+class ListingPayloadBenchmark extends ApplicationTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MotivationRepository motivationRepository;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        Role role = roleRepository.findByName("USER").orElseThrow();
+        List<Therapist> therapists = therapistRepository.findAll();
+
+        user = new User();
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setEmail("bench-" + System.nanoTime() + "@example.com");
+        user.setPassword("not-a-real-hash");
+        user.setPhone("+1-555-0100");
+        user.setEmergencyContact("Someone, +1-555-0199");
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Session session = new Session();
+            session.setUser(user);
+            session.setTherapist(therapists.get(i % therapists.size()));
+            session.setSessionDate(LocalDateTime.now().plusDays(i + 1));
+            session.setSessionType("online");
+            session.setDuration(60);
+            session.setNotes("Follow-up on last week's exercises");
+            sessionRepository.save(session);
+
+            Journal journal = new Journal();
+            journal.setUser(user);
+            journal.setTitle("Day " + i);
+            journal.setContent("Slept well, went for a walk and wrote down three things I was grateful for.");
+            journal.setMood(MoodLevel.CALM);
+            journal.setTags("sleep,walk,gratitude");
+            journalRepository.save(journal);
+        }
+    }
+
+    @Test
+    void compareEntityAndSummaryPayloads() throws Exception {
+        Long userId = user.getId();
+        Limit page = Limit.of(PAGE_SIZE);
+
+        // The same sessions loaded as entities, with their participants
+        List<SessionSummary> sessions = sessionRepository.findPageByUserId(userId, 0, page);
+        List<Session> sessionEntities = sessions.stream()
+            .map(s -> sessionRepository.findById(s.id()).orElseThrow())
+            .toList();
+
+        System.out.printf("%-12s %10s %10s %12s %12s%n", "listing", "entity B", "dto B", "entity ns", "dto ns");
+        compare("sessions",
+            page(sessionEntities, s -> Cursor.ofId(s.getId())),
+            page(sessions, s -> Cursor.ofId(s.id())));
+        compare("journals",
+            page(journalRepository.findByUserIdOrderByCreatedAtDesc(userId), j -> Cursor.ofId(j.getId())),
+            page(journalRepository.findFirstPageByUserId(userId, page), j -> Cursor.ofId(j.id())));
+        compare("users",
+            page(userRepository.findByRole_Name("USER"), u -> Cursor.ofId(u.getId())),
+            page(userRepository.findPageByRoleName("USER", 0, page), u -> Cursor.ofId(u.id())));
+        compare("therapists",
+            page(therapistRepository.findAll(), t -> Cursor.ofId(t.getId())),
+            page(therapistRepository.findPage(0, page), t -> Cursor.ofId(t.id())));
+        compare("motivations",
+            page(motivationRepository.findAll(), m -> Cursor.ofId(m.getId())),
+            page(motivationRepository.findPage(0, page), m -> Cursor.ofId(m.id())));
+    }
+
+    private static <T> CursorPage<T> page(List<T> rows, Function<T, Cursor> cursorOf) {
+        return CursorPage.of(rows.size() > PAGE_SIZE ? rows.subList(0, PAGE_SIZE) : rows, PAGE_SIZE, cursorOf);
+    }
+
+    private void compare(String listing, CursorPage<?> entities, CursorPage<?> summaries) throws Exception {
+        assertThat(summaries.items()).hasSameSizeAs(entities.items());
+
+        int entityBytes = objectMapper.writeValueAsBytes(entities).length;
+        int summaryBytes = objectMapper.writeValueAsBytes(summaries).length;
+        long entityNanos = time(entities);
+        long summaryNanos = time(summaries);
+
+        System.out.printf("%-12s %10d %10d %12d %12d%n", listing, entityBytes, summaryBytes, entityNanos, summaryNanos);
+        assertThat(summaryBytes).as("%s payload bytes", listing).isLessThanOrEqualTo(entityBytes);
+    }
+
+    // Mean nanoseconds per serialization of the page
+    private long time(Object value) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            objectMapper.writeValueAsBytes(value);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            objectMapper.writeValueAsBytes(value);
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
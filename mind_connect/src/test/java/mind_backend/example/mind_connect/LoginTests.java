@@ -0,0 +1,70 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logins check the password against the current row and answer with the profile read
+ * by that same lookup.
+ */
+@AutoConfigureMockMvc
+class LoginTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Login", "Tests");
+        userRepository.updatePassword(user.getId(), passwordEncoder.encode("first-password"));
+    }
+
+    @Test
+    void aPasswordChangedInTheDatabaseIsCheckedOnTheNextLogin() throws Exception {
+        login("first-password").andExpect(status().isOk());
+
+        userRepository.updatePassword(user.getId(), passwordEncoder.encode("second-password"));
+
+        login("first-password").andExpect(status().isBadRequest());
+        login("second-password")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.user.id").value(user.getId()))
+            .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    @Test
+    void theProfileComesFromTheCredentialLookup() throws Exception {
+        // The first login also caches the token version
+        login("first-password").andExpect(status().isOk());
+
+        login("first-password")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.user.email").value(user.getEmail()))
+            .andExpect(jsonPath("$.user.role.name").value("USER"));
+        assertThat(StatementCounter.current()).isEqualTo(1);
+    }
+
+    private ResultActions login(String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"" + user.getEmail() + "\",\"password\":\"" + password + "\",\"userType\":\"user\"}"));
+    }
+}
@@ -1,10 +1,8 @@
 package mind_backend.example.mind_connect;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class MindConnectApplicationTests {
+class MindConnectApplicationTests extends ApplicationTest {
 
 	@Test
 	void contextLoads() {
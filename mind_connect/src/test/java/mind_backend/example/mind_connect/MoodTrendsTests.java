@@ -0,0 +1,166 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.dto.MoodTrends;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.MoodRollup.Period;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.repository.MoodRollupRepository;
+import mind_backend.example.mind_connect.service.JournalService;
+import mind_backend.example.mind_connect.service.MoodRollupRebuilder;
+import mind_backend.example.mind_connect.service.MoodRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mood histograms follow journal creates, mood changes and deletes, and a rebuild from the
+ * journals table arrives at the same counts.
+ */
+@AutoConfigureMockMvc
+class MoodTrendsTests extends ApplicationTest {
+
+    // A Wednesday; its week starts on Monday the 12th
+    private static final LocalDateTime MIDWEEK = LocalDateTime.of(2025, 3, 12, 9, 30);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private MoodRollupRebuilder rebuilder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MoodRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Mood", "Tracker");
+    }
+
+    @Test
+    void histogramsFollowJournalChanges() {
+        Journal monday = journal(MIDWEEK.minusDays(2), MoodLevel.CALM);
+        journal(MIDWEEK, MoodLevel.CALM);
+        Journal anxious = journal(MIDWEEK, MoodLevel.ANXIOUS);
+        journal(MIDWEEK.minusDays(3), MoodLevel.HAPPY);
+
+        MoodTrends days = moodRollupService.getTrends(user.getId(), Period.DAY, MIDWEEK.toLocalDate().minusDays(3),
+            MIDWEEK.toLocalDate());
+        assertThat(days.buckets()).hasSize(4);
+        assertThat(days.buckets().get(0).counts()[MoodLevel.HAPPY.ordinal()]).isEqualTo(1);
+        assertThat(days.buckets().get(1).counts()[MoodLevel.CALM.ordinal()]).isEqualTo(1);
+        assertThat(days.buckets().get(2).total()).isZero();
+        assertThat(days.buckets().get(3).total()).isEqualTo(2);
+
+        MoodTrends weeks = moodRollupService.getTrends(user.getId(), Period.WEEK, MIDWEEK.toLocalDate().minusWeeks(1),
+            MIDWEEK.toLocalDate());
+        assertThat(weeks.buckets()).extracting(MoodTrends.Bucket::start)
+            .containsExactly(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 10));
+        assertThat(weeks.buckets().get(0).counts()[MoodLevel.HAPPY.ordinal()]).isEqualTo(1);
+        assertThat(weeks.buckets().get(1).counts()[MoodLevel.CALM.ordinal()]).isEqualTo(2);
+
+        anxious.setMood(MoodLevel.CALM);
+        journalService.updateJournal(anxious.getId(), anxious);
+        journalService.deleteJournal(monday.getId());
+
+        long[] month = moodRollupService.getTrends(user.getId(), Period.MONTH, MIDWEEK.toLocalDate(),
+            MIDWEEK.toLocalDate()).buckets().get(0).counts();
+        assertThat(month[MoodLevel.CALM.ordinal()]).isEqualTo(2);
+        assertThat(month[MoodLevel.ANXIOUS.ordinal()]).isZero();
+        assertThat(month[MoodLevel.HAPPY.ordinal()]).isEqualTo(1);
+        // Rows that dropped to zero are removed rather than kept
+        assertThat(jdbcTemplate.queryForObject("select count(*) from mood_rollups where user_id = ? and entries <= 0",
+            Long.class, user.getId())).isZero();
+    }
+
+    @Test
+    void rollupCreatedConcurrentlyIsAddedToInTheSameTransaction() {
+        journal(MIDWEEK, MoodLevel.SAD);
+        // The insert that lost the race must not poison the transaction it runs in
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(rollupRepository.insertEntries(user.getId(), Period.DAY.name(), MIDWEEK.toLocalDate(),
+                MoodLevel.SAD.name(), 1)).isZero();
+            assertThat(rollupRepository.addEntries(user.getId(), Period.DAY, MIDWEEK.toLocalDate(), MoodLevel.SAD, 1))
+                .isEqualTo(1);
+        });
+        assertThat(moodRollupService.getTrends(user.getId(), Period.DAY, MIDWEEK.toLocalDate(), MIDWEEK.toLocalDate())
+            .buckets().get(0).counts()[MoodLevel.SAD.ordinal()]).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildMatchesTheMaintainedRollups() {
+        for (int i = 0; i < 40; i++) {
+            journal(MIDWEEK.minusDays(i * 3L), MoodLevel.values()[i % MoodLevel.values().length]);
+        }
+        LocalDate from = MIDWEEK.toLocalDate().minusMonths(5);
+        MoodTrends maintained = moodRollupService.getTrends(user.getId(), Period.WEEK, from, MIDWEEK.toLocalDate());
+
+        jdbcTemplate.update("update mood_rollups set entries = entries + 5 where user_id = ?", user.getId());
+        assertThat(rebuilder.rebuild()).isPositive();
+
+        MoodTrends rebuilt = moodRollupService.getTrends(user.getId(), Period.WEEK, from, MIDWEEK.toLocalDate());
+        assertThat(rebuilt).usingRecursiveComparison().isEqualTo(maintained);
+        assertThat(rebuilt.buckets().stream().mapToLong(MoodTrends.Bucket::total).sum()).isEqualTo(40);
+    }
+
+    @Test
+    void trendsAreOneQueryWithoutJournalReads() throws Exception {
+        journal(MIDWEEK, MoodLevel.EXCITED);
+
+        String response = mockMvc.perform(get("/api/journals/trends?period=MONTH&from=2025-01-01&to=2025-06-30")
+                .with(userLogin(user)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(StatementCounter.current()).isEqualTo(1);
+
+        JsonNode trends = objectMapper.readTree(response);
+        assertThat(trends.get("moods")).hasSize(MoodLevel.values().length);
+        assertThat(trends.get("buckets")).hasSize(6);
+        assertThat(trends.get("buckets").get(2).get("counts").get(MoodLevel.EXCITED.ordinal()).asInt()).isEqualTo(1);
+
+        mockMvc.perform(get("/api/journals/trends?period=DAY&from=2020-01-01").with(userLogin(user)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/journals/trends")).andExpect(status().isForbidden());
+    }
+
+    private Journal journal(LocalDateTime createdAt, MoodLevel mood) {
+        Journal journal = new Journal();
+        journal.setUser(user);
+        journal.setTitle("Mood " + mood);
+        journal.setContent("Feeling " + mood);
+        journal.setMood(mood);
+        journal.setCreatedAt(createdAt);
+        return journalService.createJournal(journal);
+    }
+}
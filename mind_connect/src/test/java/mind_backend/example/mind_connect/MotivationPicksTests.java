@@ -0,0 +1,146 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.Motivation;
+import mind_backend.example.mind_connect.entity.Motivation.ContentType;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.service.AliasTable;
+import mind_backend.example.mind_connect.service.JournalService;
+import mind_backend.example.mind_connect.service.MotivationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The pick of the day, random picks and mood recommendations come from the snapshot's
+ * alias tables, without SQL once the user's latest mood is known.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+class MotivationPicksTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MotivationService motivationService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void aliasTableFollowsTheWeights() {
+        AliasTable table = new AliasTable(new double[] {1, 2, 7});
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[3];
+        int draws = 200_000;
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample(random)]++;
+        }
+        assertThat(counts[0] / (double) draws).isCloseTo(0.1, within(0.01));
+        assertThat(counts[1] / (double) draws).isCloseTo(0.2, within(0.01));
+        assertThat(counts[2] / (double) draws).isCloseTo(0.7, within(0.01));
+    }
+
+    @Test
+    void dailyAndRandomPicksAreServedFromMemory() throws Exception {
+        Motivation audio = motivationService.createMotivation(motivation("Listen", ContentType.AUDIO, "picks"));
+
+        JsonNode daily = json("/api/motivations/daily/user/7");
+        assertThat(StatementCounter.current()).isZero();
+        for (int i = 0; i < 5; i++) {
+            assertThat(json("/api/motivations/daily/user/7").get("id")).isEqualTo(daily.get("id"));
+        }
+        assertThat(json("/api/motivations/daily/user/7?type=AUDIO").get("type").asText()).isEqualTo("AUDIO");
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(json("/api/motivations/random?type=AUDIO").get("type").asText()).isEqualTo("AUDIO");
+            assertThat(StatementCounter.current()).isZero();
+        }
+
+        motivationService.toggleActive(audio.getId(), null);
+        mockMvc.perform(get("/api/motivations/random?type=AUDIO")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/motivations/daily/user/7?type=AUDIO")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void recommendationsFollowTheLatestMood() throws Exception {
+        User user = newUser("Mood", "Tracker");
+        motivationService.createMotivation(motivation("Breathe slowly", ContentType.TIP, "Anxiety Relief"));
+        motivationService.createMotivation(motivation("Three good things", ContentType.EXERCISE, "Gratitude"));
+
+        String url = "/api/motivations/recommended/user/" + user.getId() + "?size=5";
+        assertThat(json(url).get("mood").isNull()).isTrue();
+
+        journalService.createJournal(journal(user, MoodLevel.ANXIOUS));
+        JsonNode anxious = json(url);
+        assertThat(StatementCounter.current()).isZero();
+        assertThat(anxious.get("mood").asText()).isEqualTo("ANXIOUS");
+        assertThat(anxious.get("items")).isNotEmpty();
+        anxious.get("items").forEach(item -> assertThat(item.get("category").asText()).isEqualTo("Anxiety Relief"));
+        assertThat(json(url).get("items")).isEqualTo(anxious.get("items"));
+
+        Journal happy = journalService.createJournal(journal(user, MoodLevel.HAPPY));
+        JsonNode recommended = json(url);
+        assertThat(StatementCounter.current()).isZero();
+        assertThat(recommended.get("mood").asText()).isEqualTo("HAPPY");
+        recommended.get("items").forEach(item ->
+            assertThat(item.get("category").asText()).isIn("Gratitude", "Inspiration"));
+
+        journalService.deleteJournal(happy.getId());
+        assertThat(json(url).get("mood").asText()).isEqualTo("ANXIOUS");
+
+        // Reported on save, but applied only once the save commits
+        User author = user;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            journalService.createJournal(journal(author, MoodLevel.VERY_SAD));
+            status.setRollbackOnly();
+        });
+        assertThat(json(url).get("mood").asText()).isEqualTo("ANXIOUS");
+    }
+
+    private JsonNode json(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static Journal journal(User user, MoodLevel mood) {
+        Journal journal = new Journal();
+        journal.setUser(user);
+        journal.setTitle("Today");
+        journal.setContent("Wrote a few lines.");
+        journal.setMood(mood);
+        return journal;
+    }
+
+    private static Motivation motivation(String title, ContentType type, String category) {
+        Motivation motivation = new Motivation();
+        motivation.setTitle(title);
+        motivation.setContent(title + " for a minute");
+        motivation.setType(type);
+        motivation.setCategory(category);
+        return motivation;
+    }
+}
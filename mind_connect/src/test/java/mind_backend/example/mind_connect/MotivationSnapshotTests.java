@@ -0,0 +1,119 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.entity.Motivation;
+import mind_backend.example.mind_connect.entity.Motivation.ContentType;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.service.MotivationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Active, by-type and by-category listings come from the in-memory snapshot: no SQL per
+ * request, a strong ETag that turns repeat requests into 304s, and every change made
+ * through the service visible on the next request.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+class MotivationSnapshotTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MotivationService motivationService;
+
+    @Test
+    void activeListingIsServedFromMemoryWithRevalidation() throws Exception {
+        motivationService.createMotivation(motivation("Breathe", ContentType.TIP, "snapshot-" + System.nanoTime()));
+
+        MvcResult first = mockMvc.perform(get("/api/motivations/active?size=100"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andReturn();
+        assertThat(StatementCounter.current()).isZero();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+
+        mockMvc.perform(get("/api/motivations/active?size=100").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        motivationService.createMotivation(motivation("Stretch", ContentType.EXERCISE, "snapshot-" + System.nanoTime()));
+        mockMvc.perform(get("/api/motivations/active?size=100").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void typeAndCategoryListingsFollowEveryChange() throws Exception {
+        String category = "snapshot-" + System.nanoTime();
+        Motivation quote = motivationService.createMotivation(motivation("Quote", ContentType.QUOTE, category));
+        Motivation tip = motivationService.createMotivation(motivation("Tip", ContentType.TIP, category));
+        Motivation hidden = motivation("Hidden", ContentType.TIP, category);
+        hidden.setActive(false);
+        hidden = motivationService.createMotivation(hidden);
+        assertThat(ids("/api/motivations/category/" + category)).containsExactly(quote.getId(), tip.getId());
+
+        mockMvc.perform(put("/api/motivations/" + hidden.getId() + "/toggle")).andExpect(status().isNoContent());
+        mockMvc.perform(put("/api/motivations/" + quote.getId() + "/toggle")).andExpect(status().isNoContent());
+        assertThat(ids("/api/motivations/category/" + category)).containsExactly(tip.getId(), hidden.getId());
+
+        Motivation renamed = motivation("Tip, renamed", ContentType.ARTICLE, category);
+        motivationService.updateMotivation(tip.getId(), renamed, null);
+        assertThat(ids("/api/motivations/type/ARTICLE")).contains(tip.getId());
+        assertThat(ids("/api/motivations/type/TIP")).doesNotContain(tip.getId()).contains(hidden.getId());
+
+        motivationService.deleteMotivation(hidden.getId());
+        assertThat(ids("/api/motivations/category/" + category)).containsExactly(tip.getId());
+
+        // Keyset pages over the snapshot
+        List<Motivation> more = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            more.add(motivationService.createMotivation(motivation("More " + i, ContentType.QUOTE, category)));
+        }
+        JsonNode page = page("/api/motivations/category/" + category + "?size=2");
+        assertThat(page.get("hasNext").asBoolean()).isTrue();
+        JsonNode next = page("/api/motivations/category/" + category + "?size=2&cursor=" + page.get("nextCursor").asText());
+        assertThat(next.get("items").get(0).get("id").asLong()).isEqualTo(more.get(1).getId());
+        assertThat(next.get("hasNext").asBoolean()).isFalse();
+    }
+
+    private List<Long> ids(String url) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        page(url + "?size=100").get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private JsonNode page(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static Motivation motivation(String title, ContentType type, String category) {
+        Motivation motivation = new Motivation();
+        motivation.setTitle(title);
+        motivation.setContent(title + " for a minute");
+        motivation.setType(type);
+        motivation.setCategory(category);
+        return motivation;
+    }
+}
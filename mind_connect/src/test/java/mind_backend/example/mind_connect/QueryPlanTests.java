@@ -0,0 +1,120 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hot listing queries must be answered from the composite indexes created by the
+ * migrations rather than a table scan. Each listing runs through its repository method
+ * against its own seeded database; the SQL Hibernate prepared for it is then explained
+ * by H2.
+ */
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:plans;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "mind_backend.example.mind_connect.RecordingStatementInspector"
+})
+class QueryPlanTests extends ApplicationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    private static boolean seeded;
+
+    // Plans over empty tables say little, so the tables get ten thousand rows and statistics
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("insert into users (id, first_name, last_name, email, password, role_id) " +
+            "select x, 'Plan', 'User', 'plan-user-' || x || '@example.com', 'x', " +
+            "(select id from roles where name = 'USER') from system_range(1000001, 1000200) r(x)");
+        jdbcTemplate.update("insert into therapists (id, first_name, last_name, email, password, available) " +
+            "select x, 'Plan', 'Therapist', 'plan-therapist-' || x || '@example.com', 'x', true " +
+            "from system_range(1000001, 1000050) r(x)");
+        jdbcTemplate.update("insert into sessions (id, user_id, therapist_id, session_date, status, duration) " +
+            "select x, 1000001 + mod(x, 200), 1000001 + mod(x, 50), " +
+            "timestamp '2026-01-01 09:00:00' + mod(x, 700) * interval '1' day, " +
+            "case mod(x, 3) when 0 then 'SCHEDULED' when 1 then 'COMPLETED' else 'CANCELLED' end, 60 " +
+            "from system_range(1000001, 1010000) r(x)");
+        jdbcTemplate.update("insert into journals (id, user_id, title, content, mood, created_at, analyzed_at) " +
+            "select x, 1000001 + mod(x, 200), 'Plan', X'00', " +
+            "case mod(x, 4) when 0 then 'CALM' when 1 then 'HAPPY' when 2 then 'SAD' else 'ANXIOUS' end, " +
+            "timestamp '2026-01-01 09:00:00' + mod(x, 700) * interval '1' hour, current_timestamp " +
+            "from system_range(1000001, 1010000) r(x)");
+        jdbcTemplate.execute("analyze");
+        seeded = true;
+    }
+
+    @Test
+    void upcomingAndMoodListingsUseCompositeIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        assertIndex(() -> sessionRepository.findUpcomingByUserId(1000001L, now, 0, Limit.of(21)),
+            "idx_sessions_user_status_date");
+        assertIndex(() -> sessionRepository.findUpcomingByTherapistId(1000001L, now, 0, Limit.of(21)),
+            "idx_sessions_therapist_status_date");
+        assertIndex(() -> journalRepository.findPageByMood(MoodLevel.CALM, 0, Limit.of(21)), "idx_journals_mood_id");
+    }
+
+    @Test
+    void ownerListingsNeverScanTheTable() {
+        // H2 indexes every foreign key itself and, ignoring ORDER BY when costing, ties that
+        // index with our (owner, date, id) ones; PostgreSQL only has ours
+        LocalDateTime now = LocalDateTime.now();
+        assertNoTableScan(() -> sessionRepository.findHistoryByUserId(1000001L, now, 0, Limit.of(21)));
+        assertNoTableScan(() -> sessionRepository.findHistoryByTherapistId(1000001L, now, 0, Limit.of(21)));
+        assertNoTableScan(() -> sessionRepository.findPageByUserId(1000001L, 0, Limit.of(21)));
+        assertNoTableScan(() -> userRepository.findPageByRoleName("USER", 0, Limit.of(21)));
+        assertNoTableScan(() -> journalRepository.findFirstPageByUserId(1000001L, Limit.of(21)));
+    }
+
+    private void assertIndex(Runnable listing, String index) {
+        String sql = sqlOf(listing);
+        assertThat(plan(sql)).as("plan for %s", sql).containsIgnoringCase(index);
+    }
+
+    private void assertNoTableScan(Runnable listing) {
+        String sql = sqlOf(listing);
+        assertThat(plan(sql)).as("plan for %s", sql).doesNotContainIgnoringCase("tableScan");
+    }
+
+    private static String sqlOf(Runnable listing) {
+        RecordingStatementInspector.drain();
+        listing.run();
+        List<String> statements = RecordingStatementInspector.drain();
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+
+    // H2 explains a statement whose parameters are still unbound
+    private String plan(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("explain " + sql);
+                 ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement counter that also keeps the SQL Hibernate prepares on the current thread, so
+ * tests can examine the statements the repositories really send.
+ */
+public class RecordingStatementInspector extends StatementCounter {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return super.inspect(sql);
+    }
+
+    static List<String> drain() {
+        List<String> statements = List.copyOf(STATEMENTS.get());
+        STATEMENTS.get().clear();
+        return statements;
+    }
+}
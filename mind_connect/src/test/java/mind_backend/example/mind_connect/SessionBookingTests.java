@@ -0,0 +1,160 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.booking.SessionConflictException;
+import mind_backend.example.mind_connect.booking.SessionIntervalIndex;
+import mind_backend.example.mind_connect.dto.FreeSlot;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import mind_backend.example.mind_connect.service.FreeSlotService;
+import mind_backend.example.mind_connect.service.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionBookingTests extends ApplicationTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private FreeSlotService freeSlotService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private SessionIntervalIndex intervalIndex;
+
+    private User user;
+    private Therapist therapist;
+    private LocalDateTime slot;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Booking", "Test");
+        therapist = newTherapist("Test");
+
+        slot = LocalDateTime.now().plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    void rejectsOverlapsAndAllowsAdjacentSessions() {
+        sessionService.createSession(session(slot, 60));
+
+        assertThatThrownBy(() -> sessionService.createSession(session(slot.plusMinutes(30), 60)))
+            .isInstanceOf(SessionConflictException.class);
+        assertThatThrownBy(() -> sessionService.createSession(session(slot.minusMinutes(30), 45)))
+            .isInstanceOf(SessionConflictException.class);
+        assertThatThrownBy(() -> sessionService.createSession(session(slot.plusMinutes(15), 15)))
+            .isInstanceOf(SessionConflictException.class);
+
+        sessionService.createSession(session(slot.plusMinutes(60), 60));
+        sessionService.createSession(session(slot.minusMinutes(60), 60));
+        assertThat(sessionRepository.findScheduledIntervals(therapist.getId())).hasSize(3);
+    }
+
+    @Test
+    void cancelledAndRescheduledSessionsFreeTheirSlot() {
+        Session first = sessionService.createSession(session(slot, 60));
+        sessionService.updateSessionStatus(first.getId(), SessionStatus.CANCELLED, first.getVersion());
+        Session second = sessionService.createSession(session(slot, 60));
+
+        Session moved = new Session();
+        moved.setSessionDate(slot.plusHours(2));
+        moved.setStatus(SessionStatus.SCHEDULED);
+        moved.setDuration(60);
+        sessionService.updateSession(second.getId(), moved, second.getVersion());
+        sessionService.createSession(session(slot, 60));
+
+        assertThatThrownBy(() -> sessionService.updateSessionStatus(first.getId(), SessionStatus.SCHEDULED,
+                first.getVersion() + 1))
+            .isInstanceOf(SessionConflictException.class);
+    }
+
+    @Test
+    void freeSlotSearchSkipsBookedSlots() {
+        sessionService.createSession(session(slot, 60));
+
+        List<LocalDateTime> starts = freeSlotService.findFreeSlots(slot.toLocalDate(), slot.toLocalDate(), 60,
+                therapist.getSpecialization(), 4).stream()
+            .map(FreeSlot::start)
+            .toList();
+
+        assertThat(starts).containsExactly(slot.minusHours(1), slot.plusHours(1), slot.plusMinutes(90),
+            slot.plusHours(2));
+    }
+
+    @Test
+    void sessionsChangedOnOtherNodesAreAppliedToTheIndex() {
+        Session booked = sessionService.createSession(session(slot, 60));
+        // Written behind the index's back, as another node would
+        sessionRepository.updateStatus(booked.getId(), SessionStatus.SCHEDULED, SessionStatus.CANCELLED, null);
+        assertThat(freeStarts()).doesNotContain(slot);
+
+        intervalIndex.applyChanges();
+
+        assertThat(freeStarts()).contains(slot);
+        sessionService.createSession(session(slot, 60));
+    }
+
+    private List<LocalDateTime> freeStarts() {
+        return freeSlotService.findFreeSlots(slot.toLocalDate(), slot.toLocalDate(), 60,
+                therapist.getSpecialization(), 16).stream()
+            .map(FreeSlot::start)
+            .toList();
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameSlotAdmitExactlyOne() throws Exception {
+        int attempts = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                int offset = i % 4 * 10;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        sessionService.createSession(session(slot.plusMinutes(offset), 60));
+                        return true;
+                    } catch (SessionConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int booked = 0;
+            for (Future<Boolean> result : results) {
+                booked += result.get() ? 1 : 0;
+            }
+            assertThat(booked).isEqualTo(1);
+            assertThat(sessionRepository.findScheduledIntervals(therapist.getId())).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Session session(LocalDateTime date, int duration) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setTherapist(therapist);
+        session.setSessionDate(date);
+        session.setDuration(duration);
+        return session;
+    }
+}
@@ -0,0 +1,140 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.reminder.ReminderNotifier;
+import mind_backend.example.mind_connect.reminder.ReminderScheduler;
+import mind_backend.example.mind_connect.reminder.TimingWheel;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import mind_backend.example.mind_connect.service.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+class SessionReminderTests extends ApplicationTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @MockitoSpyBean
+    private ReminderNotifier notifier;
+
+    private User user;
+    private Therapist therapist;
+
+    @BeforeEach
+    void seed() {
+        user = newUser("Reminder", "Test");
+        therapist = newTherapist("Reminder");
+    }
+
+    @Test
+    void wheelFiresEachEntryOnItsDeadlineAcrossLevels() {
+        TimingWheel wheel = new TimingWheel(10);
+        long[] deadlines = {11, 73, 74, 137, 4_106, 4_200, 262_154, 300_000, 16_777_300};
+        for (int i = 0; i < deadlines.length; i++) {
+            assertThat(wheel.schedule(i, deadlines[i], 0)).isTrue();
+        }
+        assertThat(wheel.schedule(99, 10, 0)).isFalse();
+        wheel.schedule(100, 5_000, 0);
+        wheel.schedule(100, 6_000, 1);
+        assertThat(wheel.cancel(100)).isEqualTo(2);
+
+        List<long[]> fired = new ArrayList<>();
+        for (long tick = 11; tick <= 16_777_300; tick += tick < 400_000 ? 1 : 997) {
+            long now = tick;
+            wheel.advance(now, entry -> fired.add(new long[] {entry.key(), entry.deadline(), now}));
+        }
+        wheel.advance(16_777_300, entry -> fired.add(new long[] {entry.key(), entry.deadline(), 16_777_300}));
+
+        assertThat(fired).hasSize(deadlines.length);
+        for (long[] event : fired) {
+            assertThat(event[1]).isEqualTo(deadlines[(int) event[0]]);
+            // Fired on the step that first reached the deadline
+            assertThat(event[2]).isGreaterThanOrEqualTo(event[1]).isLessThan(event[1] + 997);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void sessionChangesKeepRemindersInStep() {
+        Session session = sessionService.createSession(session(LocalDateTime.now().plusDays(3)));
+        assertThat(reminderScheduler.pending(session.getId())).isEqualTo(2);
+
+        sessionService.updateSessionStatus(session.getId(), SessionStatus.CANCELLED, session.getVersion());
+        assertThat(reminderScheduler.pending(session.getId())).isZero();
+
+        sessionService.updateSessionStatus(session.getId(), SessionStatus.SCHEDULED, session.getVersion() + 1);
+        assertThat(reminderScheduler.pending(session.getId())).isEqualTo(2);
+
+        sessionService.deleteSession(session.getId());
+        assertThat(reminderScheduler.pending(session.getId())).isZero();
+    }
+
+    @Test
+    void sessionBookedInsideLeadWindowIsRemindedRightAway() {
+        reminderScheduler.flush();
+        Session session = sessionService.createSession(session(LocalDateTime.now().plusHours(2)));
+
+        // The 24 hour reminder has passed and goes out now; the 15 minute one is still pending
+        assertThat(reminderScheduler.pending(session.getId())).isEqualTo(1);
+        assertThat(reminderScheduler.flush()).isEqualTo(1);
+    }
+
+    @Test
+    void reminderClaimedByAnotherNodeIsNotSentAgain() {
+        reminderScheduler.flush();
+        Session session = sessionService.createSession(session(LocalDateTime.now().plusHours(2)));
+
+        // Another node got to the 24 hour reminder first
+        assertThat(sessionRepository.claimReminder(session.getId(), session.getSessionDate(),
+            Duration.ofHours(24).toSeconds())).isEqualTo(1);
+        assertThat(reminderScheduler.flush()).isZero();
+        // The 15 minute reminder can still be claimed
+        assertThat(sessionRepository.claimReminder(session.getId(), session.getSessionDate(),
+            Duration.ofMinutes(15).toSeconds())).isEqualTo(1);
+    }
+
+    @Test
+    void claimedReminderIsDeliveredAgainAfterTheNotifierFails() {
+        reminderScheduler.flush();
+        Session session = sessionService.createSession(session(LocalDateTime.now().plusHours(2)));
+        doThrow(new IllegalStateException("gateway down")).when(notifier).deliver(anyList());
+
+        assertThat(reminderScheduler.flush()).isZero();
+        // The claim stays with this node, so no other node can send the reminder
+        assertThat(sessionRepository.claimReminder(session.getId(), session.getSessionDate(),
+            Duration.ofHours(24).toSeconds())).isZero();
+
+        doCallRealMethod().when(notifier).deliver(anyList());
+        assertThat(reminderScheduler.flush()).isEqualTo(1);
+        assertThat(reminderScheduler.flush()).isZero();
+    }
+
+    private Session session(LocalDateTime date) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setTherapist(therapist);
+        session.setSessionDate(date.withSecond(0).withNano(0));
+        session.setDuration(60);
+        return session;
+    }
+}
@@ -0,0 +1,131 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.entity.Journal;
+import mind_backend.example.mind_connect.entity.Journal.MoodLevel;
+import mind_backend.example.mind_connect.entity.Role;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.repository.JournalRepository;
+import mind_backend.example.mind_connect.repository.SessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listings must load in a constant number of statements no matter how many rows, users,
+ * roles or therapists a page touches. Runs against an in-memory H2 database.
+ */
+@AutoConfigureMockMvc
+class StatementCountTests extends ApplicationTest {
+
+    private static final int ROWS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    private User user;
+    private Therapist therapist;
+
+    @BeforeEach
+    void seed() {
+        List<Role> roles = roleRepository.findAll();
+        List<Therapist> therapists = therapistRepository.findAll();
+        long run = System.nanoTime();
+
+        for (int i = 0; i < ROWS; i++) {
+            User u = new User();
+            u.setFirstName("Test");
+            u.setLastName("User" + i);
+            u.setEmail("statements-" + run + "-" + i + "@example.com");
+            u.setPassword("not-a-real-hash");
+            u.setRole(roles.get(i % roles.size()));
+            u = userRepository.save(u);
+
+            Therapist t = therapists.get(i % therapists.size());
+            Session session = new Session();
+            session.setUser(u);
+            session.setTherapist(t);
+            session.setSessionDate(LocalDateTime.now().plusDays(i + 1));
+            sessionRepository.save(session);
+
+            Journal journal = new Journal();
+            journal.setUser(u);
+            journal.setTitle("Entry " + i);
+            journal.setContent("Content " + i);
+            journal.setMood(MoodLevel.values()[i % MoodLevel.values().length]);
+            journalRepository.save(journal);
+
+            if (i == 0) {
+                user = u;
+                therapist = t;
+            }
+        }
+
+        // A single user and therapist with several rows each
+        for (int i = 0; i < ROWS; i++) {
+            Session session = new Session();
+            session.setUser(user);
+            session.setTherapist(therapist);
+            session.setSessionDate(LocalDateTime.now().plusHours(i + 1));
+            sessionRepository.save(session);
+
+            Journal journal = new Journal();
+            journal.setUser(user);
+            journal.setTitle("More " + i);
+            journal.setContent("More content " + i);
+            journalRepository.save(journal);
+        }
+    }
+
+    @Test
+    void sessionListingsUseOneStatement() throws Exception {
+        assertStatements("/api/sessions", 1);
+        assertStatements("/api/sessions/user/" + user.getId(), 1);
+        assertStatements("/api/sessions/therapist/" + therapist.getId(), 1);
+        assertStatements("/api/sessions/user/" + user.getId() + "/upcoming", 1);
+    }
+
+    @Test
+    void journalListingsUseOneStatement() throws Exception {
+        assertStatements("/api/journals", 1);
+        assertStatements("/api/journals/user/" + user.getId(), 1);
+        assertStatements("/api/journals/mood/" + MoodLevel.CALM, 1);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void userListingsUseOneStatement() throws Exception {
+        assertStatements("/api/users", 1);
+        assertStatements("/api/users/role/USER", 1);
+    }
+
+    @Test
+    void singleSessionLoadsWithItsParticipants() throws Exception {
+        Long id = sessionRepository.findPageByUserId(user.getId(), 0, Limit.of(1))
+                .get(0).id();
+        assertStatements("/api/sessions/" + id, 1);
+    }
+
+    private void assertStatements(String url, int expected) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertThat(StatementCounter.current()).as("statements for GET %s", url).isEqualTo(expected);
+    }
+}
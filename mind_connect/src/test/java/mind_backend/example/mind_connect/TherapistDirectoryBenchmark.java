@@ -0,0 +1,84 @@
+package mind_backend.example.mind_connect;
+
+import mind_backend.example.mind_connect.dto.TherapistSummary;
+import mind_backend.example.mind_connect.search.TherapistDirectory;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reports the average time of typical directory searches and suggestions over 50,000
+ * therapists with generated names and bios. Not part of the regular test run; start it
+ * with {@code mvn test -Dtest=TherapistDirectoryBenchmark}.
+ */
+class TherapistDirectoryBenchmark {
+
+    private static final int THERAPISTS = 50_000;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int ROUNDS = 5_000;
+
+    private static final String[] FIRST_NAMES = {
+        "Amelia", "Ben", "Chloe", "Daniel", "Elena", "Farid", "Grace", "Hugo", "Ines", "Jamal", "Kate", "Liam",
+        "Maya", "Noah", "Olivia", "Pablo", "Quinn", "Rosa", "Samuel", "Tara", "Umar", "Vera", "Wen", "Yusuf",
+    };
+    private static final String[] SPECIALIZATIONS = {
+        "Anxiety", "Depression", "Trauma", "Couples", "Grief", "Addiction", "Eating Disorders", "OCD",
+        "Family", "Stress", "Sleep", "Child Psychology",
+    };
+    private static final String[] BIO_WORDS = {
+        "cognitive", "behavioral", "therapy", "mindfulness", "trauma", "informed", "care", "adults", "teens",
+        "couples", "families", "anxiety", "panic", "depression", "grief", "loss", "burnout", "stress", "sleep",
+        "compassion", "focused", "integrative", "psychodynamic", "solution", "brief", "online", "sessions",
+        "experience", "certified", "licensed", "clinical", "counselling", "relationships", "self", "esteem",
+    };
+
+    @Test
+    void searchesOverFiftyThousandTherapists() {
+        Random random = new Random(42);
+        TherapistDirectory directory = new TherapistDirectory();
+        long started = System.nanoTime();
+        for (long id = 1; id <= THERAPISTS; id++) {
+            StringBuilder bio = new StringBuilder();
+            for (int word = 0; word < 25; word++) {
+                bio.append(BIO_WORDS[random.nextInt(BIO_WORDS.length)]).append(' ');
+            }
+            // Surnames are unique-ish words, which is what makes the vocabulary large
+            String lastName = "name" + Long.toString(random.nextInt(20_000), 36);
+            directory.put(new TherapistSummary(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], lastName,
+                "t" + id + "@example.com", null, SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)],
+                "Licensed Clinical Psychologist", random.nextInt(30), bio.toString(),
+                Math.round(random.nextDouble() * 50) / 10.0, random.nextInt(4) != 0));
+        }
+        double loadMs = (System.nanoTime() - started) / 1e6;
+
+        Runnable[] queries = {
+            () -> directory.search(null, null, null, null, true, 0, 20),
+            () -> directory.search("anx", null, null, null, null, 0, 20),
+            () -> directory.search("cognitive therapy", "Anxiety", 4.0, 5, true, 0, 20),
+            () -> directory.search("grief lo", null, 4.5, null, true, 0, 20),
+            () -> directory.search("maya name1", null, null, 10, null, 25_000, 20),
+            () -> directory.search(null, "Sleep", 4.9, 29, null, 0, 20),
+        };
+        String[] names = {"available only", "one short prefix", "two words, every filter", "prefix and rating",
+            "name prefix after a cursor", "rare filter combination"};
+        System.out.printf("Therapist directory, %,d therapists, loaded in %.0f ms%n", THERAPISTS, loadMs);
+        for (int i = 0; i < queries.length; i++) {
+            System.out.printf("  %-28s %6.1f us%n", names[i], micros(queries[i]));
+        }
+        System.out.printf("  %-28s %6.1f us%n", "suggest \"co\"", micros(() -> directory.suggest("co", 10)));
+
+        assertThat(directory.search("anx", null, null, null, null, 0, 20)).hasSize(21);
+    }
+
+    private static double micros(Runnable query) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            query.run();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - started) / 1e3 / ROUNDS;
+    }
+}
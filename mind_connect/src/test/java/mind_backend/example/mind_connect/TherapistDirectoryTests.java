@@ -0,0 +1,121 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.service.TherapistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The public directory search combines text, specialization, rating, experience and
+ * availability from the in-memory index, and follows every write made through
+ * TherapistService.
+ */
+@AutoConfigureMockMvc
+class TherapistDirectoryTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TherapistService therapistService;
+
+    @Test
+    void searchCombinesEveryCriterion() throws Exception {
+        String marker = marker();
+        Therapist first = therapistService.createTherapist(
+            therapist("Amélie", "Durand", "Anxiety", 4.8, 12, "Works with " + marker + " and panic attacks."));
+        Therapist second = therapistService.createTherapist(
+            therapist("Samuel", "Okafor", "Depression", 4.1, 5, "Mindfulness for " + marker + " clients."));
+        Therapist third = therapistService.createTherapist(
+            therapist("Sam", "Lee", "anxiety", null, null, "Short " + marker + " sessions."));
+
+        assertThat(ids("q=" + marker)).containsExactly(first.getId(), second.getId(), third.getId());
+        assertThat(StatementCounter.current()).isZero();
+        assertThat(ids("q=" + marker + "&specialization=ANXIETY")).containsExactly(first.getId(), third.getId());
+        assertThat(ids("q=" + marker + "&minRating=4.5")).containsExactly(first.getId());
+        assertThat(ids("q=" + marker + "&minExperience=5")).containsExactly(first.getId(), second.getId());
+        // Accents are ignored and the last word matches as a prefix
+        assertThat(ids("q=amelie+" + marker.substring(0, 4))).containsExactly(first.getId());
+        assertThat(ids("q=" + marker + "+sam")).containsExactly(second.getId(), third.getId());
+        assertThat(ids("q=" + marker + "+nobody")).isEmpty();
+
+        therapistService.updateAvailability(second.getId(), false, null);
+        assertThat(ids("q=" + marker + "&available=true")).containsExactly(first.getId(), third.getId());
+        assertThat(ids("q=" + marker + "&available=false")).containsExactly(second.getId());
+
+        JsonNode page = page("q=" + marker + "&size=2");
+        assertThat(page.get("hasNext").asBoolean()).isTrue();
+        JsonNode next = page("q=" + marker + "&size=2&cursor=" + page.get("nextCursor").asText());
+        assertThat(next.get("items").get(0).get("id").asLong()).isEqualTo(third.getId());
+    }
+
+    @Test
+    void directoryFollowsUpdatesAndDeletes() throws Exception {
+        String marker = marker();
+        Therapist therapist = therapistService.createTherapist(
+            therapist("Nora", "Quist", "Trauma", 4.4, 8, "Specializes in " + marker + " recovery."));
+
+        String body = mockMvc.perform(get("/api/therapists/search/suggest?prefix=" + marker.substring(0, 5)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(body).get(0).asText()).isEqualTo(marker);
+
+        Therapist details = therapist("Nora", "Quist", "Grief", 4.4, 8, "Grief counselling.");
+        therapistService.updateTherapist(therapist.getId(), details, null);
+        assertThat(ids("q=" + marker)).isEmpty();
+        assertThat(ids("q=quist+counsel&specialization=grief")).containsExactly(therapist.getId());
+
+        therapistService.deleteTherapist(therapist.getId());
+        assertThat(ids("q=quist+counsel")).isEmpty();
+    }
+
+    private List<Long> ids(String query) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        page(query + "&size=100").get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private JsonNode page(String query) throws Exception {
+        String body = mockMvc.perform(get("/api/therapists/search?" + query))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    // A word no other therapist has
+    private static String marker() {
+        StringBuilder marker = new StringBuilder("zq");
+        for (long value = System.nanoTime(); value > 0; value /= 26) {
+            marker.append((char) ('a' + value % 26));
+        }
+        return marker.toString();
+    }
+
+    private static Therapist therapist(String firstName, String lastName, String specialization, Double rating,
+                                       Integer experience, String bio) {
+        Therapist therapist = new Therapist();
+        therapist.setFirstName(firstName);
+        therapist.setLastName(lastName);
+        therapist.setEmail(firstName.toLowerCase() + "-" + System.nanoTime() + "@example.com");
+        therapist.setPassword("directory-password");
+        therapist.setSpecialization(specialization);
+        therapist.setRating(rating);
+        therapist.setExperience(experience);
+        therapist.setBio(bio);
+        return therapist;
+    }
+}
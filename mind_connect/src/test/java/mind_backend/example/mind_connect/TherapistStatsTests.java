@@ -0,0 +1,185 @@
+package mind_backend.example.mind_connect;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mind_backend.example.mind_connect.dto.TherapistDashboard;
+import mind_backend.example.mind_connect.entity.Session;
+import mind_backend.example.mind_connect.entity.Session.SessionStatus;
+import mind_backend.example.mind_connect.entity.Therapist;
+import mind_backend.example.mind_connect.entity.User;
+import mind_backend.example.mind_connect.monitoring.StatementCounter;
+import mind_backend.example.mind_connect.service.SessionService;
+import mind_backend.example.mind_connect.service.TherapistStatsReconciler;
+import mind_backend.example.mind_connect.service.TherapistStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The therapist_stats counters follow every session change and agree with a rebuild from
+ * the sessions table; the dashboard reads them with a single query.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class TherapistStatsTests extends ApplicationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private TherapistStatsService therapistStatsService;
+
+    @Autowired
+    private TherapistStatsReconciler reconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User first;
+    private User second;
+    private Therapist therapist;
+
+    @BeforeEach
+    void seed() {
+        first = newUser("First", "Client");
+        second = newUser("Second", "Client");
+        therapist = newTherapist("Stats");
+    }
+
+    @Test
+    void countersFollowSessionChanges() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        Session past = sessionService.createSession(session(first, start.minusDays(10), 45));
+        Session soon = sessionService.createSession(session(first, start, 60));
+        Session later = sessionService.createSession(session(second, start.plusDays(1), 90));
+
+        TherapistDashboard dashboard = therapistStatsService.getDashboard(therapist.getId());
+        assertThat(dashboard.totalSessions()).isEqualTo(3);
+        assertThat(dashboard.scheduledSessions()).isEqualTo(3);
+        assertThat(dashboard.upcomingSessions()).isEqualTo(2);
+        assertThat(dashboard.distinctClients()).isEqualTo(2);
+
+        sessionService.updateSessionStatus(past.getId(), SessionStatus.COMPLETED, past.getVersion());
+        sessionService.updateSessionStatus(later.getId(), SessionStatus.CANCELLED, later.getVersion());
+        Session longer = sessionService.getSessionById(past.getId()).orElseThrow();
+        longer.setDuration(50);
+        sessionService.updateSession(past.getId(), longer, longer.getVersion());
+        sessionService.deleteSession(later.getId());
+
+        dashboard = therapistStatsService.getDashboard(therapist.getId());
+        assertThat(dashboard.totalSessions()).isEqualTo(2);
+        assertThat(dashboard.scheduledSessions()).isEqualTo(1);
+        assertThat(dashboard.upcomingSessions()).isEqualTo(1);
+        assertThat(dashboard.completedSessions()).isEqualTo(1);
+        assertThat(dashboard.cancelledSessions()).isZero();
+        assertThat(dashboard.completedMinutes()).isEqualTo(50);
+        assertThat(dashboard.distinctClients()).isEqualTo(1);
+
+        sessionService.updateSessionStatus(soon.getId(), SessionStatus.NO_SHOW, soon.getVersion());
+        assertThat(therapistStatsService.getDashboard(therapist.getId()).noShowSessions()).isEqualTo(1);
+    }
+
+    @Test
+    void aBookingThatRollsBackLeavesNeitherCountsNorItsSlot() {
+        LocalDateTime start = LocalDateTime.now().plusDays(20).withHour(11).withMinute(0).withSecond(0).withNano(0);
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            sessionService.createSession(session(first, start, 60));
+            throw new IllegalStateException("rolled back");
+        })).isInstanceOf(IllegalStateException.class);
+
+        TherapistDashboard dashboard = therapistStatsService.getDashboard(therapist.getId());
+        assertThat(dashboard.totalSessions()).isZero();
+        assertThat(dashboard.upcomingSessions()).isZero();
+        assertThat(dashboard.distinctClients()).isZero();
+
+        sessionService.createSession(session(second, start, 60));
+        assertThat(therapistStatsService.getDashboard(therapist.getId()).scheduledSessions()).isEqualTo(1);
+    }
+
+    @Test
+    void sessionsThatHaveStartedLeaveTheUpcomingCount() {
+        Session session = sessionService.createSession(session(first, LocalDateTime.now().plusDays(60).withNano(0), 30));
+        assertThat(therapistStatsService.getDashboard(therapist.getId()).upcomingSessions()).isEqualTo(1);
+
+        // Time passes: the session has started, but stays counted until the next sweep
+        jdbcTemplate.update("update therapist_stats set upcoming_as_of = ? where therapist_id = ?",
+            LocalDateTime.now().minusMinutes(5), therapist.getId());
+        jdbcTemplate.update("update sessions set session_date = ? where id = ?", LocalDateTime.now(), session.getId());
+        assertThat(therapistStatsService.getDashboard(therapist.getId()).upcomingSessions()).isEqualTo(1);
+
+        therapistStatsService.advanceUpcoming();
+        TherapistDashboard dashboard = therapistStatsService.getDashboard(therapist.getId());
+        assertThat(dashboard.upcomingSessions()).isZero();
+        assertThat(dashboard.scheduledSessions()).isEqualTo(1);
+        assertThat(therapistStatsService.advanceUpcoming()).isZero();
+    }
+
+    @Test
+    void reconcileRebuildsTheSameCounters() {
+        LocalDateTime start = LocalDateTime.now().plusDays(40).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        for (int i = 0; i < 6; i++) {
+            Session session = sessionService.createSession(session(i % 2 == 0 ? first : second, start.plusHours(i), 30));
+            if (i % 3 == 0) {
+                sessionService.updateSessionStatus(session.getId(), SessionStatus.COMPLETED, session.getVersion());
+            }
+        }
+        TherapistDashboard maintained = therapistStatsService.getDashboard(therapist.getId());
+
+        // Drift the counters, then let the rebuild put them back
+        jdbcTemplate.update("update therapist_stats set scheduled_sessions = 99, distinct_clients = 0 " +
+            "where therapist_id = ?", therapist.getId());
+        assertThat(reconciler.reconcile()).isEqualTo(therapistRepository.count());
+
+        TherapistDashboard rebuilt = therapistStatsService.getDashboard(therapist.getId());
+        assertThat(rebuilt.scheduledSessions()).isEqualTo(4);
+        assertThat(rebuilt.completedSessions()).isEqualTo(2);
+        assertThat(rebuilt.completedMinutes()).isEqualTo(60);
+        assertThat(rebuilt).usingRecursiveComparison().ignoringFields("updatedAt").isEqualTo(maintained);
+    }
+
+    @Test
+    void dashboardIsOneQuery() throws Exception {
+        sessionService.createSession(session(first, LocalDateTime.now().plusDays(80).withNano(0), 60));
+
+        String response = mockMvc.perform(get("/api/therapists/" + therapist.getId() + "/dashboard"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(StatementCounter.current()).isEqualTo(1);
+
+        JsonNode dashboard = objectMapper.readTree(response);
+        assertThat(dashboard.get("totalSessions").asInt()).isEqualTo(1);
+        assertThat(dashboard.get("upcomingSessions").asInt()).isEqualTo(1);
+
+        mockMvc.perform(get("/api/therapists/-1/dashboard")).andExpect(status().isBadRequest());
+    }
+
+
+    private Session session(User user, LocalDateTime date, int duration) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setTherapist(therapist);
+        session.setSessionDate(date);
+        session.setDuration(duration);
+        return session;
+    }
+}